@@ -0,0 +1,322 @@
+/*
+ * Copyright (c) 2016, Christoph Engelbert (aka noctarius) and
+ * contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.noctarius.borabora.benchmark;
+
+import com.noctarius.borabora.Output;
+import com.noctarius.borabora.ValueTypes;
+import com.noctarius.borabora.Writer;
+import com.noctarius.borabora.builder.encoder.DictionaryBuilder;
+import com.noctarius.borabora.builder.encoder.DictionaryEntryBuilder;
+import com.noctarius.borabora.builder.encoder.GraphBuilder;
+import com.noctarius.borabora.builder.encoder.SequenceBuilder;
+import com.noctarius.borabora.builder.encoder.ValueBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.time.Instant;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Creates the reproducible corpora used by the benchmarks. The same seed always creates the
+ * same bytes.
+ */
+public final class Corpus {
+
+    private Corpus() {
+    }
+
+    /**
+     * Creates a stream of randomly shaped data items (nested dictionaries and sequences and all
+     * value types) until <tt>items</tt> values have been written.
+     *
+     * @param seed  the seed of the random generator
+     * @param items the number of values to generate
+     * @return the encoded stream
+     */
+    public static byte[] randomGraphs(long seed, int items) {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        GraphBuilder graphBuilder = Writer.newWriter().newGraphBuilder(Output.toOutputStream(baos));
+        generateDeterministicContent(graphBuilder, new Random(seed), items);
+        graphBuilder.finishStream();
+        return baos.toByteArray();
+    }
+
+    /**
+     * Creates a single sequence of <tt>count</tt> flat records (dictionaries) with the keys
+     * <tt>id</tt>, <tt>name</tt>, <tt>email</tt>, <tt>age</tt>, <tt>active</tt> and <tt>score</tt>.
+     *
+     * @param seed  the seed of the random generator
+     * @param count the number of records
+     * @return the encoded stream
+     */
+    public static byte[] records(long seed, int count) {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        GraphBuilder graphBuilder = Writer.newWriter().newGraphBuilder(Output.toOutputStream(baos));
+        Record[] records = newRecords(seed, count);
+        SequenceBuilder<GraphBuilder> sequenceBuilder = graphBuilder.putSequence(count);
+        for (Record record : records) {
+            record.write(sequenceBuilder);
+        }
+        sequenceBuilder.endSequence().finishStream();
+        return baos.toByteArray();
+    }
+
+    /**
+     * Creates a stream of top-level data items of the given <tt>workload</tt> class with a size of
+     * about <tt>bytes</tt> bytes.
+     *
+     * @param workload   the workload class to generate
+     * @param seed       the seed of the random generator
+     * @param bytes      the approximate size of the stream
+     * @param indefinite true to use indefinite-length containers and strings
+     * @return the encoded stream
+     * @see CorpusGenerator
+     */
+    public static byte[] workload(Workload workload, long seed, int bytes, boolean indefinite) {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream(bytes);
+        new CorpusGenerator(workload, seed, indefinite).generate(baos, Long.MAX_VALUE, bytes);
+        return baos.toByteArray();
+    }
+
+    /**
+     * Creates <tt>count</tt> records to be written by the writer benchmarks.
+     *
+     * @param seed  the seed of the random generator
+     * @param count the number of records
+     * @return the records
+     */
+    public static Record[] newRecords(long seed, int count) {
+        Random random = new Random(seed);
+        Record[] records = new Record[count];
+        for (int i = 0; i < count; i++) {
+            String name = generateByteString(random);
+            records[i] = new Record(i, name, name + "@example.com", random.nextInt(100), random.nextBoolean(),
+                    random.nextDouble());
+        }
+        return records;
+    }
+
+    private static void generateDeterministicContent(ValueBuilder valueBuilder, Random random, int remaining) {
+        do {
+            remaining = generateContent(valueBuilder, random, remaining, 0);
+        } while (remaining > 0);
+    }
+
+    static int generateContent(ValueBuilder valueBuilder, Random random, int remaining, int level) {
+        ValueTypes valueType;
+        do {
+            ValueTypes[] valueTypes = ValueTypes.values();
+            int itemType = random.nextInt(valueTypes.length);
+            valueType = valueTypes[itemType];
+        } while (level >= 10 && (valueType == ValueTypes.Dictionary || valueType == ValueTypes.Sequence));
+
+        switch (valueType) {
+            case Dictionary:
+                return generateDictionary(valueBuilder, random, --remaining, ++level);
+
+            case Sequence:
+                return generateSequence(valueBuilder, random, --remaining, ++level);
+
+            case Bool:
+                valueBuilder.putBoolean(random.nextBoolean());
+                break;
+
+            case ByteString:
+                valueBuilder.putAsciiString(generateByteString(random));
+                break;
+
+            case DateTime:
+                valueBuilder.putDateTime(Instant.ofEpochSecond(Math.abs(random.nextInt())));
+                break;
+
+            case Float:
+                valueBuilder.putNumber(random.nextDouble());
+                break;
+
+            case Fraction:
+                valueBuilder.putFraction(BigDecimal.valueOf(random.nextDouble()));
+                break;
+
+            case NBigNum:
+                BigInteger negBigInteger = BigInteger.valueOf(random.nextLong());
+                if (negBigInteger.compareTo(BigInteger.ZERO) >= 0) {
+                    negBigInteger = negBigInteger.multiply(BigInteger.valueOf(-1));
+                }
+                valueBuilder.putBigInteger(negBigInteger);
+                break;
+
+            case NInt:
+                long negLong = random.nextLong();
+                if (negLong > 0) {
+                    negLong = negLong * -1;
+                }
+                valueBuilder.putNumber(negLong);
+                break;
+
+            case Number:
+            case Int:
+                valueBuilder.putNumber(random.nextLong());
+                break;
+
+            case String:
+                if (random.nextBoolean()) {
+                    valueBuilder.putAsciiString(generateByteString(random));
+                } else {
+                    valueBuilder.putTextString(generateTextString(random));
+                }
+                break;
+
+            case TextString:
+                valueBuilder.putTextString(generateTextString(random));
+                break;
+
+            case Timestamp:
+                valueBuilder.putTimestamp(Math.abs(random.nextInt()));
+                break;
+
+            case UBigNum:
+                valueBuilder.putBigInteger(BigInteger.valueOf(Math.abs(random.nextLong())));
+                break;
+
+            case UInt:
+                valueBuilder.putNumber(Math.abs(random.nextLong()));
+                break;
+
+            case URI:
+                valueBuilder.putURI(generateUri(random));
+                break;
+
+            default:
+                valueBuilder.putString(null);
+                break;
+        }
+        return --remaining;
+    }
+
+    private static int generateSequence(ValueBuilder valueBuilder, Random random, int remaining, int level) {
+        boolean indefinite = random.nextBoolean();
+        int min = Math.max(1, remaining);
+        int size = random.nextInt(Math.min(min, 100)) + 1;
+
+        SequenceBuilder sequenceBuilder = indefinite ? valueBuilder.putSequence() : valueBuilder.putSequence(size);
+        for (int i = 0; i < size; i++) {
+            remaining = generateContent(sequenceBuilder, random, remaining, level);
+        }
+        sequenceBuilder.endSequence();
+        return remaining;
+    }
+
+    private static int generateDictionary(ValueBuilder valueBuilder, Random random, int remaining, int level) {
+        boolean indefinite = random.nextBoolean();
+        int min = Math.max(1, remaining);
+        int size = random.nextInt(Math.min(min, 100)) + 1;
+
+        DictionaryBuilder dictionaryBuilder = indefinite ? valueBuilder.putDictionary() : valueBuilder.putDictionary(size);
+        for (int i = 0; i < size; i++) {
+            DictionaryEntryBuilder dictionaryEntryBuilder = dictionaryBuilder.putEntry();
+            dictionaryEntryBuilder.putString(generateByteString(random));
+            remaining = generateContent(dictionaryEntryBuilder, random, remaining, level); // value
+            dictionaryEntryBuilder.endEntry();
+        }
+        dictionaryBuilder.endDictionary();
+        return remaining;
+    }
+
+    static String generateByteString(Random random) {
+        byte[] bytes = new byte[16];
+        random.nextBytes(bytes);
+        return UUID.nameUUIDFromBytes(bytes).toString();
+    }
+
+    static String generateTextString(Random random) {
+        return generateTextString(random, random.nextInt(100));
+    }
+
+    static String generateTextString(Random random, int size) {
+        StringBuilder sb = new StringBuilder();
+        do {
+            char c = (char) random.nextInt();
+            if (Character.isDefined(c)) {
+                sb.append(c);
+            }
+        } while (sb.length() < size);
+        return sb.toString();
+    }
+
+    private static URI generateUri(Random random) {
+        String legalChars = "abcdefghijklmnopqrstuvwxyz";
+        String[] tlds = {"de", "com", "net", "org", "io", "bs", "br", "op"};
+
+        int size = random.nextInt(30);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < size; i++) {
+            sb.append(legalChars.charAt(random.nextInt(legalChars.length())));
+        }
+        sb.append('.');
+        sb.append(tlds[random.nextInt(tlds.length)]);
+        try {
+            return new URI(sb.toString());
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * A flat record as written by {@link Corpus#records(long, int)}.
+     */
+    public static final class Record {
+
+        private final long id;
+        private final String name;
+        private final String email;
+        private final int age;
+        private final boolean active;
+        private final double score;
+
+        private Record(long id, String name, String email, int age, boolean active, double score) {
+            this.id = id;
+            this.name = name;
+            this.email = email;
+            this.age = age;
+            this.active = active;
+            this.score = score;
+        }
+
+        /**
+         * Writes the record as a dictionary into the given builder.
+         *
+         * @param valueBuilder the builder to write to
+         * @param <B>          the type of the builder
+         * @return the builder
+         */
+        public <B> B write(ValueBuilder<B> valueBuilder) {
+            return valueBuilder.putDictionary(6) //
+                               .putEntry().putString("id").putNumber(id).endEntry() //
+                               .putEntry().putString("name").putString(name).endEntry() //
+                               .putEntry().putString("email").putString(email).endEntry() //
+                               .putEntry().putString("age").putNumber(age).endEntry() //
+                               .putEntry().putString("active").putBoolean(active).endEntry() //
+                               .putEntry().putString("score").putNumber(score).endEntry() //
+                               .endDictionary();
+        }
+    }
+
+}
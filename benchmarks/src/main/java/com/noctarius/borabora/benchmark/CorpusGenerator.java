@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2016, Christoph Engelbert (aka noctarius) and
+ * contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.noctarius.borabora.benchmark;
+
+import com.noctarius.borabora.Output;
+import com.noctarius.borabora.Writer;
+import com.noctarius.borabora.builder.encoder.GraphBuilder;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Random;
+
+/**
+ * The <tt>CorpusGenerator</tt> writes a CBOR sequence of top-level data items of a single
+ * {@link Workload} class. The content is derived from the given seed only, so the same
+ * configuration always creates the same bytes. Data is streamed to the target, which makes it
+ * possible to create corpora of multiple gigabytes from the command line:
+ * <pre>
+ *     java -cp benchmarks.jar com.noctarius.borabora.benchmark.CorpusGenerator \
+ *          StringLogs target/logs.cbor 4g --indefinite --seed=42
+ * </pre>
+ */
+public final class CorpusGenerator {
+
+    private final Workload workload;
+    private final long seed;
+    private final boolean indefinite;
+
+    public CorpusGenerator(Workload workload, long seed, boolean indefinite) {
+        Objects.requireNonNull(workload, "workload must not be null");
+        this.workload = workload;
+        this.seed = seed;
+        this.indefinite = indefinite;
+    }
+
+    /**
+     * Generates a corpus of the given number of <tt>items</tt> in memory.
+     *
+     * @param items the number of top-level data items
+     * @return the encoded corpus
+     */
+    public byte[] generate(long items) {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        generate(baos, items, Long.MAX_VALUE);
+        return baos.toByteArray();
+    }
+
+    /**
+     * Streams top-level data items into the given <tt>out</tt> until either <tt>items</tt> items
+     * are written or at least <tt>maxBytes</tt> bytes are written. The last item is always
+     * written completely.
+     *
+     * @param out      the stream to write to
+     * @param items    the maximum number of top-level data items
+     * @param maxBytes the number of bytes after which no further items are started
+     * @return the number of items written
+     */
+    public long generate(OutputStream out, long items, long maxBytes) {
+        Objects.requireNonNull(out, "out must not be null");
+        CountingOutputStream countingOutputStream = new CountingOutputStream(out);
+        GraphBuilder graphBuilder = Writer.newWriter().newGraphBuilder(Output.toOutputStream(countingOutputStream));
+
+        Random random = new Random(seed);
+        long written = 0;
+        while (written < items && countingOutputStream.count < maxBytes) {
+            workload.writeItem(graphBuilder, random, indefinite);
+            written++;
+        }
+        graphBuilder.finishStream();
+        return written;
+    }
+
+    public static void main(String[] args)
+            throws IOException {
+
+        if (args.length < 3) {
+            System.err.println("Usage: CorpusGenerator <workload> <file> <size>[k|m|g] [--indefinite] [--seed=<seed>]");
+            System.err.println("Workloads: " + Arrays.toString(Workload.values()));
+            System.exit(1);
+        }
+
+        Workload workload = Workload.valueOf(args[0]);
+        long size = parseSize(args[2]);
+        boolean indefinite = false;
+        long seed = 1;
+        for (int i = 3; i < args.length; i++) {
+            if ("--indefinite".equals(args[i])) {
+                indefinite = true;
+            } else if (args[i].startsWith("--seed=")) {
+                seed = Long.parseLong(args[i].substring("--seed=".length()));
+            } else {
+                throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        CorpusGenerator generator = new CorpusGenerator(workload, seed, indefinite);
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(args[1]), 1 << 16)) {
+            long items = generator.generate(out, Long.MAX_VALUE, size);
+            System.out.println("Written " + items + " " + workload + " items to " + args[1]);
+        }
+    }
+
+    private static long parseSize(String size) {
+        String value = size.toLowerCase(Locale.ENGLISH);
+        long multiplier = 1;
+        switch (value.charAt(value.length() - 1)) {
+            case 'g':
+                multiplier *= 1024;
+            case 'm':
+                multiplier *= 1024;
+            case 'k':
+                multiplier *= 1024;
+                value = value.substring(0, value.length() - 1);
+                break;
+            default:
+        }
+        return Long.parseLong(value) * multiplier;
+    }
+
+    private static final class CountingOutputStream
+            extends FilterOutputStream {
+
+        private long count;
+
+        private CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b)
+                throws IOException {
+
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len)
+                throws IOException {
+
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+
+}
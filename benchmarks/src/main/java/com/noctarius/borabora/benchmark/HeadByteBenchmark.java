@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2016, Christoph Engelbert (aka noctarius) and
+ * contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.noctarius.borabora.benchmark;
+
+import com.noctarius.borabora.Input;
+import com.noctarius.borabora.MajorType;
+import com.noctarius.borabora.ValueTypes;
+import com.noctarius.borabora.spi.io.ByteSizes;
+import com.noctarius.borabora.spi.io.Constants;
+import com.noctarius.borabora.spi.io.Decoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the head-byte lookup tables of {@link MajorType}, {@link ValueTypes} and {@link ByteSizes}
+ * against the branching implementation they replaced. The <tt>branching*</tt> benchmarks contain a
+ * copy of the former switch-based decoding and act as the baseline. Both variants return the same
+ * checksum, to compare them run:
+ * <pre>
+ *     java -jar benchmarks/target/benchmarks.jar HeadByteBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+public class HeadByteBenchmark {
+
+    private static final long SEED = 1;
+    private static final int ITEMS = 10000;
+
+    private Input heads;
+    private long headCount;
+    private Input randomGraphs;
+
+    @Setup
+    public void setup() {
+        byte[] corpus = Corpus.randomGraphs(SEED, ITEMS);
+
+        // Unassigned additional infos would fail the head byte size decoding
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        for (byte head : corpus) {
+            int addInfo = head & Constants.ADDITIONAL_INFORMATION_MASK;
+            if (addInfo < Constants.ADD_INFO_RESERVED_1 || addInfo > Constants.ADD_INFO_RESERVED_3) {
+                baos.write(head);
+            }
+        }
+        byte[] data = baos.toByteArray();
+        heads = Input.fromByteArray(data);
+        headCount = data.length;
+        randomGraphs = Input.fromByteArray(corpus);
+    }
+
+    @Benchmark
+    public long lookupTables() {
+        long result = 0;
+        for (long offset = 0; offset < headCount; offset++) {
+            short head = Decoder.readUInt8(heads, offset);
+            result += MajorType.findMajorType(head).ordinal();
+            result += ValueTypes.valueType(heads, offset).ordinal();
+            result += ByteSizes.headByteSize(head);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public long branching() {
+        long result = 0;
+        for (long offset = 0; offset < headCount; offset++) {
+            short head = Decoder.readUInt8(heads, offset);
+            result += branchingMajorType(head).ordinal();
+            result += branchingValueType(heads, offset).ordinal();
+            result += branchingHeadByteSize(heads, offset);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public long skipStream() {
+        long offset = 0;
+        while (randomGraphs.offsetValid(offset)) {
+            offset = Decoder.skip(randomGraphs, offset);
+        }
+        return offset;
+    }
+
+    private static MajorType branchingMajorType(short head) {
+        switch ((head & 0xff) >>> 5) {
+            case Constants.MT_UNSINGED_INT:
+                return MajorType.UnsignedInteger;
+            case Constants.MT_NEGATIVE_INT:
+                return MajorType.NegativeInteger;
+            case Constants.MT_BYTESTRING:
+                return MajorType.ByteString;
+            case Constants.MT_TEXTSTRING:
+                return MajorType.TextString;
+            case Constants.MT_SEQUENCE:
+                return MajorType.Sequence;
+            case Constants.MT_DICTIONARY:
+                return MajorType.Dictionary;
+            case Constants.MT_SEMANTIC_TAG:
+                return MajorType.SemanticTag;
+            default:
+                return MajorType.FloatingPointOrSimple;
+        }
+    }
+
+    private static ValueTypes branchingValueType(Input input, long offset) {
+        short head = Decoder.readUInt8(input, offset);
+        switch (branchingMajorType(head)) {
+            case UnsignedInteger:
+                return ValueTypes.UInt;
+            case NegativeInteger:
+                return ValueTypes.NInt;
+            case ByteString:
+                return ValueTypes.ByteString;
+            case TextString:
+                return ValueTypes.TextString;
+            case Sequence:
+                return ValueTypes.Sequence;
+            case Dictionary:
+                return ValueTypes.Dictionary;
+            case FloatingPointOrSimple:
+                switch (head & Constants.ADDITIONAL_INFORMATION_MASK) {
+                    case Constants.FP_VALUE_NULL:
+                        return ValueTypes.Null;
+                    case Constants.FP_VALUE_TRUE:
+                    case Constants.FP_VALUE_FALSE:
+                        return ValueTypes.Bool;
+                    case Constants.FP_VALUE_UNDEF:
+                        return ValueTypes.Undefined;
+                    default:
+                        return ValueTypes.Float;
+                }
+            default:
+                return ValueTypes.Unknown;
+        }
+    }
+
+    private static int branchingHeadByteSize(Input input, long offset) {
+        switch (Decoder.additionalInfo(input, offset)) {
+            case Constants.ADD_INFO_ONE_BYTE:
+                return 2;
+            case Constants.ADD_INFO_TWO_BYTES:
+                return 3;
+            case Constants.ADD_INFO_FOUR_BYTES:
+                return 5;
+            case Constants.ADD_INFO_EIGHT_BYTES:
+                return 9;
+            default:
+                return 1;
+        }
+    }
+
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2016, Christoph Engelbert (aka noctarius) and
+ * contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.noctarius.borabora.benchmark;
+
+import com.noctarius.borabora.Input;
+import com.noctarius.borabora.Parser;
+import com.noctarius.borabora.Query;
+import com.noctarius.borabora.Value;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+public class ParserBenchmark {
+
+    private static final long SEED = 1;
+    private static final int RECORDS = 1000;
+    private static final String RECORD_QUERY = "#(" + (RECORDS / 2) + ")";
+
+    private Input randomGraphs;
+    private Input records;
+
+    private Parser parser;
+    private Parser objectProjectionParser;
+    private Parser binaryProjectionParser;
+
+    private Query multiStream;
+    private Query keyLookup;
+    private Query sequenceIndex;
+    private Query objectProjection;
+    private Query binaryProjection;
+
+    @Setup
+    public void setup() {
+        randomGraphs = Input.fromByteArray(Corpus.randomGraphs(SEED, 10000));
+        records = Input.fromByteArray(Corpus.records(SEED, RECORDS));
+
+        parser = Parser.newParser();
+        objectProjectionParser = Parser.newBuilder().asObjectProjectionStrategy().build();
+        binaryProjectionParser = Parser.newBuilder().asBinaryProjectionStrategy().build();
+
+        String projection = "(name: " + RECORD_QUERY + "{'name'}, age: " + RECORD_QUERY + "{'age'}, score: " //
+                + RECORD_QUERY + "{'score'})";
+
+        multiStream = parser.newQueryBuilder().multiStream().build();
+        keyLookup = parser.prepareQuery(RECORD_QUERY + "{'email'}");
+        sequenceIndex = parser.prepareQuery(RECORD_QUERY);
+        objectProjection = objectProjectionParser.prepareQuery(projection);
+        binaryProjection = binaryProjectionParser.prepareQuery(projection);
+    }
+
+    @Benchmark
+    public void multiStreamScan(Blackhole blackhole) {
+        parser.read(randomGraphs, multiStream, blackhole::consume);
+    }
+
+    @Benchmark
+    public String keyLookup() {
+        return parser.read(records, keyLookup).string();
+    }
+
+    @Benchmark
+    public byte[] keyLookupExtract() {
+        return parser.extract(records, keyLookup);
+    }
+
+    @Benchmark
+    public Value sequenceIndex() {
+        return parser.read(records, sequenceIndex);
+    }
+
+    @Benchmark
+    public Value objectProjection() {
+        return objectProjectionParser.read(records, objectProjection);
+    }
+
+    @Benchmark
+    public Value binaryProjection() {
+        return binaryProjectionParser.read(records, binaryProjection);
+    }
+
+}
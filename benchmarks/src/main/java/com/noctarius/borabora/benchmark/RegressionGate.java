@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2016, Christoph Engelbert (aka noctarius) and
+ * contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.noctarius.borabora.benchmark;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The <tt>RegressionGate</tt> compares a JMH JSON result file against a baseline result file and
+ * exits with a non-zero status if the throughput of a benchmark dropped, or its allocation per
+ * operation (<tt>gc.alloc.rate.norm</tt> of <tt>-prof gc</tt>) grew, by more than the configured
+ * thresholds. Benchmarks are matched by name and parameters; benchmarks without a baseline fail the
+ * gate, baseline benchmarks that were not run are only reported.
+ * <pre>
+ *     java -cp benchmarks.jar com.noctarius.borabora.benchmark.RegressionGate \
+ *          baseline.json target/jmh-result.json --throughput=0.10 --allocation=0.10
+ * </pre>
+ */
+public final class RegressionGate {
+
+    // Allocation differences below this number of bytes per operation are considered noise
+    private static final double ALLOCATION_NOISE_BYTES = 16;
+
+    private final double throughputThreshold;
+    private final double allocationThreshold;
+
+    public RegressionGate(double throughputThreshold, double allocationThreshold) {
+        this.throughputThreshold = throughputThreshold;
+        this.allocationThreshold = allocationThreshold;
+    }
+
+    /**
+     * Compares the given results and returns the list of regressions, an empty list means the gate
+     * passed. A textual report of all compared benchmarks is appended to <tt>report</tt>.
+     *
+     * @param baseline the JMH JSON results of the baseline
+     * @param current  the JMH JSON results of the current run
+     * @param report   the report to append the comparison to
+     * @return the list of regressions
+     */
+    public List<String> compare(String baseline, String current, StringBuilder report) {
+        Map<String, Result> baselineResults = readResults(baseline);
+        Map<String, Result> currentResults = readResults(current);
+
+        List<String> regressions = new ArrayList<>();
+        for (Map.Entry<String, Result> entry : currentResults.entrySet()) {
+            String name = entry.getKey();
+            Result result = entry.getValue();
+            Result expected = baselineResults.get(name);
+            if (expected == null) {
+                report.append(String.format("%-80s no baseline%n", name));
+                regressions.add(String.format("%s: no baseline, record it using the perf-baseline profile", name));
+                continue;
+            }
+
+            double throughputChange = change(expected.throughput, result.throughput);
+            double allocationChange = change(expected.allocation, result.allocation);
+            report.append(String.format("%-80s %14.2f ops/s (%+.1f%%) %12.1f B/op (%+.1f%%)%n", name, result.throughput,
+                    throughputChange * 100, result.allocation, allocationChange * 100));
+
+            if (-throughputChange > throughputThreshold) {
+                regressions.add(String.format("%s: throughput %.2f ops/s, baseline %.2f ops/s", //
+                        name, result.throughput, expected.throughput));
+            }
+            if (allocationChange > allocationThreshold && result.allocation - expected.allocation > ALLOCATION_NOISE_BYTES) {
+                regressions.add(String.format("%s: allocation %.1f B/op, baseline %.1f B/op", //
+                        name, result.allocation, expected.allocation));
+            }
+        }
+        for (String name : baselineResults.keySet()) {
+            if (!currentResults.containsKey(name)) {
+                report.append(String.format("%-80s not run%n", name));
+            }
+        }
+        return regressions;
+    }
+
+    public static void main(String[] args)
+            throws IOException {
+
+        if (args.length < 2) {
+            System.err.println("Usage: RegressionGate <baseline.json> <result.json> [--throughput=<ratio>] [--allocation=<ratio>]");
+            System.exit(2);
+        }
+
+        double throughputThreshold = 0.1;
+        double allocationThreshold = 0.1;
+        for (int i = 2; i < args.length; i++) {
+            if (args[i].startsWith("--throughput=")) {
+                throughputThreshold = Double.parseDouble(args[i].substring("--throughput=".length()));
+            } else if (args[i].startsWith("--allocation=")) {
+                allocationThreshold = Double.parseDouble(args[i].substring("--allocation=".length()));
+            } else {
+                throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        Path baselinePath = Paths.get(args[0]);
+        if (!Files.exists(baselinePath)) {
+            System.err.println("Baseline " + baselinePath + " does not exist, record it using the perf-baseline profile");
+            System.exit(2);
+        }
+
+        String baseline = new String(Files.readAllBytes(baselinePath), StandardCharsets.UTF_8);
+        String current = new String(Files.readAllBytes(Paths.get(args[1])), StandardCharsets.UTF_8);
+        if (readResults(current).isEmpty()) {
+            System.err.println("No benchmark results in " + args[1]);
+            System.exit(2);
+        }
+
+        StringBuilder report = new StringBuilder();
+        List<String> regressions = new RegressionGate(throughputThreshold, allocationThreshold).compare(baseline, current, report);
+        System.out.print(report);
+
+        if (!regressions.isEmpty()) {
+            System.err.println("Performance regressions against " + baselinePath + ":");
+            regressions.forEach(regression -> System.err.println("  " + regression));
+            System.exit(1);
+        }
+    }
+
+    private static double change(double baseline, double current) {
+        if (baseline == 0 || Double.isNaN(baseline) || Double.isNaN(current)) {
+            return 0;
+        }
+        return (current - baseline) / baseline;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Result> readResults(String json) {
+        Map<String, Result> results = new LinkedHashMap<>();
+        for (Object element : (List<Object>) Json.parse(json)) {
+            Map<String, Object> benchmark = (Map<String, Object>) element;
+            String name = (String) benchmark.get("benchmark");
+
+            // Parameterized benchmarks are compared per parameter combination
+            Map<String, Object> params = (Map<String, Object>) benchmark.get("params");
+            if (params != null && !params.isEmpty()) {
+                name += new TreeMap<>(params).toString();
+            }
+
+            Map<String, Object> primaryMetric = (Map<String, Object>) benchmark.get("primaryMetric");
+            double throughput = (Double) primaryMetric.get("score");
+
+            double allocation = Double.NaN;
+            Map<String, Object> secondaryMetrics = (Map<String, Object>) benchmark.get("secondaryMetrics");
+            if (secondaryMetrics != null) {
+                for (Map.Entry<String, Object> metric : secondaryMetrics.entrySet()) {
+                    // Older JMH versions prefix profiler metrics with a middle dot
+                    if (metric.getKey().replace("\u00b7", "").equals("gc.alloc.rate.norm")) {
+                        allocation = (Double) ((Map<String, Object>) metric.getValue()).get("score");
+                    }
+                }
+            }
+            results.put(name, new Result(throughput, allocation));
+        }
+        return results;
+    }
+
+    private static final class Result {
+
+        private final double throughput;
+        private final double allocation;
+
+        private Result(double throughput, double allocation) {
+            this.throughput = throughput;
+            this.allocation = allocation;
+        }
+    }
+
+}
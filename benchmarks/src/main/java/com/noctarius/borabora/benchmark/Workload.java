@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2016, Christoph Engelbert (aka noctarius) and
+ * contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.noctarius.borabora.benchmark;
+
+import com.noctarius.borabora.builder.encoder.DictionaryBuilder;
+import com.noctarius.borabora.builder.encoder.DictionaryEntryBuilder;
+import com.noctarius.borabora.builder.encoder.GraphBuilder;
+import com.noctarius.borabora.builder.encoder.IndefiniteStringBuilder;
+import com.noctarius.borabora.builder.encoder.SequenceBuilder;
+import com.noctarius.borabora.builder.encoder.ValueBuilder;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URI;
+import java.time.Instant;
+import java.util.Random;
+
+/**
+ * The workload classes the {@link CorpusGenerator} is able to create. Every workload writes one
+ * top-level data item per call, either using definite-length or indefinite-length containers
+ * and strings.
+ */
+public enum Workload {
+
+    /**
+     * Flat dictionaries with 64 entries of mixed numbers, booleans and strings.
+     */
+    WideRecords((graphBuilder, random, indefinite) -> {
+        DictionaryBuilder<GraphBuilder> dictionaryBuilder = putDictionary(graphBuilder, 64, indefinite);
+        for (int i = 0; i < 64; i++) {
+            String key = "field" + (i < 10 ? "0" + i : i);
+            switch (i % 4) {
+                case 0:
+                    dictionaryBuilder.putEntry().putString(key).putNumber(random.nextLong()).endEntry();
+                    break;
+                case 1:
+                    dictionaryBuilder.putEntry().putString(key).putNumber(random.nextDouble()).endEntry();
+                    break;
+                case 2:
+                    dictionaryBuilder.putEntry().putString(key).putBoolean(random.nextBoolean()).endEntry();
+                    break;
+                default:
+                    dictionaryBuilder.putEntry().putString(key).putString(Corpus.generateByteString(random)).endEntry();
+            }
+        }
+        dictionaryBuilder.endDictionary();
+    }),
+
+    /**
+     * Trees of dictionaries with two children per node and a depth of 4 to 8 levels.
+     */
+    NestedTrees((graphBuilder, random, indefinite) -> {
+        writeNode(graphBuilder, random, indefinite, 4 + random.nextInt(5));
+    }),
+
+    /**
+     * Sequences of 256 integers or floating point numbers, the definite-length variant also writes
+     * RFC 8746 typed arrays.
+     */
+    NumericArrays((graphBuilder, random, indefinite) -> {
+        int kind = random.nextInt(indefinite ? 2 : 3);
+        if (kind == 0) {
+            long[] values = random.longs(256).toArray();
+            if (indefinite) {
+                SequenceBuilder<GraphBuilder> sequenceBuilder = graphBuilder.putSequence();
+                for (long value : values) {
+                    sequenceBuilder.putNumber(value);
+                }
+                sequenceBuilder.endSequence();
+            } else {
+                graphBuilder.putSequence(values);
+            }
+        } else {
+            double[] values = random.doubles(256).toArray();
+            if (indefinite) {
+                SequenceBuilder<GraphBuilder> sequenceBuilder = graphBuilder.putSequence();
+                for (double value : values) {
+                    sequenceBuilder.putNumber(value);
+                }
+                sequenceBuilder.endSequence();
+            } else if (kind == 1) {
+                graphBuilder.putSequence(values);
+            } else {
+                graphBuilder.putTypedArray(values);
+            }
+        }
+    }),
+
+    /**
+     * Log events, dominated by a long text message. The indefinite-length variant writes the
+     * message as chunked text string.
+     */
+    StringLogs((graphBuilder, random, indefinite) -> {
+        String[] levels = {"TRACE", "DEBUG", "INFO", "WARN", "ERROR"};
+        DictionaryBuilder<GraphBuilder> dictionaryBuilder = putDictionary(graphBuilder, 5, indefinite);
+        dictionaryBuilder.putEntry().putString("timestamp").putTimestamp(Math.abs(random.nextInt())).endEntry();
+        dictionaryBuilder.putEntry().putString("level").putString(levels[random.nextInt(levels.length)]).endEntry();
+        dictionaryBuilder.putEntry().putString("logger").putString("com.example.Service" + random.nextInt(32)).endEntry();
+        dictionaryBuilder.putEntry().putString("thread").putString("worker-" + random.nextInt(16)).endEntry();
+
+        String message = Corpus.generateTextString(random, 200 + random.nextInt(800));
+        if (indefinite) {
+            IndefiniteStringBuilder<DictionaryEntryBuilder<GraphBuilder>> stringBuilder = //
+                    dictionaryBuilder.putEntry().putString("message").putIndefiniteTextString();
+            for (int i = 0; i < message.length(); i += 64) {
+                stringBuilder.putString(message.substring(i, Math.min(message.length(), i + 64)));
+            }
+            stringBuilder.endIndefiniteString().endEntry();
+        } else {
+            dictionaryBuilder.putEntry().putString("message").putTextString(message).endEntry();
+        }
+        dictionaryBuilder.endDictionary();
+    }),
+
+    /**
+     * Records dominated by semantic tags (date times, timestamps, fractions, big numbers and URIs).
+     */
+    TaggedRecords((graphBuilder, random, indefinite) -> {
+        DictionaryBuilder<GraphBuilder> dictionaryBuilder = putDictionary(graphBuilder, 6, indefinite);
+        dictionaryBuilder.putEntry().putString("created").putDateTime(Instant.ofEpochSecond(Math.abs(random.nextInt())))
+                         .endEntry();
+        dictionaryBuilder.putEntry().putString("updated").putTimestamp(Math.abs(random.nextInt())).endEntry();
+        dictionaryBuilder.putEntry().putString("amount").putFraction(BigDecimal.valueOf(random.nextLong(), 4)).endEntry();
+        dictionaryBuilder.putEntry().putString("balance").putBigInteger(new BigInteger(96, random)).endEntry();
+        dictionaryBuilder.putEntry().putString("debt").putBigInteger(new BigInteger(96, random).negate()).endEntry();
+        dictionaryBuilder.putEntry().putString("link").putURI(URI.create("https://example.com/" + random.nextInt()))
+                         .endEntry();
+        dictionaryBuilder.endDictionary();
+    }),
+
+    /**
+     * Randomly shaped graphs of all value types, mixing definite and indefinite-length containers.
+     */
+    RandomGraphs((graphBuilder, random, indefinite) -> {
+        Corpus.generateContent(graphBuilder, random, 1000, 0);
+    });
+
+    private final ItemWriter itemWriter;
+
+    Workload(ItemWriter itemWriter) {
+        this.itemWriter = itemWriter;
+    }
+
+    /**
+     * Writes a single top-level data item of this workload.
+     *
+     * @param graphBuilder the builder to write to
+     * @param random       the random generator to derive the content from
+     * @param indefinite   true to use indefinite-length containers and strings
+     */
+    public void writeItem(GraphBuilder graphBuilder, Random random, boolean indefinite) {
+        itemWriter.write(graphBuilder, random, indefinite);
+    }
+
+    private static <B> DictionaryBuilder<B> putDictionary(ValueBuilder<B> valueBuilder, int entries, boolean indefinite) {
+        return indefinite ? valueBuilder.putDictionary() : valueBuilder.putDictionary(entries);
+    }
+
+    private static <B> B writeNode(ValueBuilder<B> valueBuilder, Random random, boolean indefinite, int depth) {
+        DictionaryBuilder<B> dictionaryBuilder = putDictionary(valueBuilder, depth > 0 ? 3 : 2, indefinite);
+        dictionaryBuilder.putEntry().putString("id").putNumber(random.nextInt()).endEntry();
+        dictionaryBuilder.putEntry().putString("name").putString(Corpus.generateByteString(random)).endEntry();
+        if (depth > 0) {
+            DictionaryEntryBuilder<B> entryBuilder = dictionaryBuilder.putEntry().putString("children");
+            SequenceBuilder<DictionaryEntryBuilder<B>> children = //
+                    indefinite ? entryBuilder.putSequence() : entryBuilder.putSequence(2);
+            writeNode(children, random, indefinite, depth - 1);
+            writeNode(children, random, indefinite, depth - 1);
+            children.endSequence().endEntry();
+        }
+        return dictionaryBuilder.endDictionary();
+    }
+
+    private interface ItemWriter {
+        void write(GraphBuilder graphBuilder, Random random, boolean indefinite);
+    }
+
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2016, Christoph Engelbert (aka noctarius) and
+ * contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.noctarius.borabora.benchmark;
+
+import com.noctarius.borabora.Input;
+import com.noctarius.borabora.Parser;
+import com.noctarius.borabora.Query;
+import com.noctarius.borabora.spi.io.Decoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+public class WorkloadBenchmark {
+
+    private static final long SEED = 1;
+    private static final int CORPUS_SIZE = 1024 * 1024;
+
+    @Param
+    private Workload workload;
+
+    @Param({"false", "true"})
+    private boolean indefinite;
+
+    private Input input;
+    private long length;
+
+    private Parser parser;
+    private Query multiStream;
+
+    @Setup
+    public void setup() {
+        byte[] corpus = Corpus.workload(workload, SEED, CORPUS_SIZE, indefinite);
+        input = Input.fromByteArray(corpus);
+        length = corpus.length;
+
+        parser = Parser.newParser();
+        multiStream = parser.newQueryBuilder().multiStream().build();
+    }
+
+    @Benchmark
+    public void multiStreamScan(Blackhole blackhole) {
+        parser.read(input, multiStream, blackhole::consume);
+    }
+
+    @Benchmark
+    public long skipScan() {
+        long offset = 0;
+        long items = 0;
+        while (offset < length) {
+            offset = Decoder.skip(input, offset);
+            items++;
+        }
+        return items;
+    }
+
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2016, Christoph Engelbert (aka noctarius) and
+ * contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.noctarius.borabora.benchmark;
+
+import com.noctarius.borabora.Output;
+import com.noctarius.borabora.Writer;
+import com.noctarius.borabora.builder.encoder.GraphBuilder;
+import com.noctarius.borabora.builder.encoder.SequenceBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+public class WriterBenchmark {
+
+    private static final long SEED = 1;
+    private static final int RECORDS = 1000;
+
+    private Corpus.Record[] records;
+    private byte[] buffer;
+
+    private Writer writer;
+    private Writer definiteLengthWriter;
+
+    @Setup
+    public void setup() {
+        records = Corpus.newRecords(SEED, RECORDS);
+        buffer = new byte[Corpus.records(SEED, RECORDS).length * 2];
+
+        writer = Writer.newWriter();
+        definiteLengthWriter = Writer.newBuilder().withDefiniteLengthContainers().build();
+    }
+
+    @Benchmark
+    public byte[] writeRecords() {
+        return write(writer);
+    }
+
+    @Benchmark
+    public byte[] writeRecordsIndefiniteToDefinite() {
+        return write(definiteLengthWriter);
+    }
+
+    private byte[] write(Writer writer) {
+        GraphBuilder graphBuilder = writer.newGraphBuilder(Output.toByteArray(buffer));
+        SequenceBuilder<GraphBuilder> sequenceBuilder = graphBuilder.putSequence();
+        for (Corpus.Record record : records) {
+            record.write(sequenceBuilder);
+        }
+        sequenceBuilder.endSequence().finishStream();
+        return buffer;
+    }
+
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2016, Christoph Engelbert (aka noctarius) and
+ * contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+/**
+ * This package contains the JMH benchmarks of the parser and writer. All benchmarks run against
+ * corpora created by {@link com.noctarius.borabora.benchmark.Corpus} from fixed seeds, so results
+ * of different runs and machines are comparable. The benchmarks are packaged as an executable jar:
+ * <pre>
+ *     mvn install -DskipTests
+ *     mvn -f benchmarks/pom.xml package
+ *     java -jar benchmarks/target/benchmarks.jar -prof gc
+ * </pre>
+ * The <tt>-prof gc</tt> profiler adds the allocation rate (<tt>gc.alloc.rate.norm</tt>, bytes per
+ * operation) next to the throughput of each benchmark.
+ * <p>The key benchmarks are guarded against regressions by the <tt>perf-gate</tt> profile, which
+ * runs them and compares the results to <tt>benchmarks/baseline.json</tt> using the
+ * {@link com.noctarius.borabora.benchmark.RegressionGate}. The gate fails if the baseline is
+ * missing or lacks any of the gated benchmarks. The baseline is recorded on the reference machine
+ * using the <tt>perf-baseline</tt> profile:</p>
+ * <pre>
+ *     mvn -f benchmarks/pom.xml -Pperf-baseline verify
+ *     mvn -f benchmarks/pom.xml -Pperf-gate verify -Dperf.throughput.threshold=0.05
+ * </pre>
+ */
+package com.noctarius.borabora.benchmark;
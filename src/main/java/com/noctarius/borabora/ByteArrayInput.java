@@ -16,6 +16,7 @@
  */
 package com.noctarius.borabora;
 
+import java.nio.ByteBuffer;
 import java.util.Objects;
 
 final class ByteArrayInput
@@ -62,9 +63,26 @@ final class ByteArrayInput
         return l;
     }
 
+    byte[] array(long offset, long length) {
+        if (offset < 0 || length < 0 || offset + length > bytes.length) {
+            throw new NoSuchByteException(offset, "Offset " + offset + " outside of available data");
+        }
+        return bytes;
+    }
+
     @Override
     public boolean offsetValid(long offset) {
         return offset < bytes.length;
     }
 
+    @Override
+    public ByteBuffer byteBuffer(long offset, int length)
+            throws NoSuchByteException {
+
+        if (offset < 0 || length < 0 || offset > this.bytes.length || offset + length > this.bytes.length) {
+            throw new NoSuchByteException(offset, "Offset " + offset + " outside of available data");
+        }
+        return ByteBuffer.wrap(bytes, (int) offset, length).slice().asReadOnlyBuffer();
+    }
+
 }
@@ -16,10 +16,13 @@
  */
 package com.noctarius.borabora;
 
+import com.noctarius.borabora.spi.io.SeekableOutput;
+import sun.misc.Unsafe;
+
 import java.util.Objects;
 
 final class ByteArrayOutput
-        implements Output {
+        implements SeekableOutput {
 
     private final byte[] bytes;
 
@@ -51,8 +54,41 @@ final class ByteArrayOutput
         }
 
         long l = Math.min(length, this.bytes.length - offset);
-        System.arraycopy(array, (int) offset, this.bytes, 0, (int) l);
+        System.arraycopy(array, 0, this.bytes, (int) offset, (int) l);
         return l;
     }
 
+    @Override
+    public long write(Input input, long inputOffset, long offset, long length) {
+        Objects.requireNonNull(input, "input must not be null");
+        if (offset > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("ByteArrayOutput can only handle offsets up to Integer.MAX_VALUE");
+        }
+        if (offset < 0 || length < 0 || offset + length > bytes.length) {
+            throw new NoSuchByteException(offset, "Offset " + offset + " outside of writable data");
+        }
+
+        Input source = StructurallyIndexedInput.unwrap(input);
+        if (source instanceof ByteArrayInput) {
+            byte[] array = ((ByteArrayInput) source).array(inputOffset, length);
+            System.arraycopy(array, (int) inputOffset, bytes, (int) offset, (int) length);
+            return length;
+        }
+        if (source instanceof UnsafeByteInput) {
+            long address = ((UnsafeByteInput) source).address(inputOffset, length);
+            UnsafeUtils.getUnsafe().copyMemory(null, address, bytes, Unsafe.ARRAY_BYTE_BASE_OFFSET + offset, length);
+            return length;
+        }
+        return SeekableOutput.super.write(input, inputOffset, offset, length);
+    }
+
+    @Override
+    public void move(long sourceOffset, long targetOffset, long length) {
+        if (sourceOffset < 0 || targetOffset < 0 || length < 0 //
+                || sourceOffset + length > bytes.length || targetOffset + length > bytes.length) {
+            throw new NoSuchByteException(sourceOffset, "Offset " + sourceOffset + " outside of writable data");
+        }
+        System.arraycopy(bytes, (int) sourceOffset, bytes, (int) targetOffset, (int) length);
+    }
+
 }
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2016, Christoph Engelbert (aka noctarius) and
+ * contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.noctarius.borabora;
+
+/**
+ * The <tt>ColumnType</tt> enum defines the storage type of a {@link ColumnVector}
+ * extracted by {@link Parser#extractColumns(Input, Query...)}. The type is derived
+ * from the values found in the column.
+ */
+public enum ColumnType {
+
+    /**
+     * Integral values, stored as <tt>long[]</tt>
+     */
+    Int,
+
+    /**
+     * Floating point values, or a mix of floating point and integral values, stored
+     * as <tt>double[]</tt>
+     */
+    Float,
+
+    /**
+     * String values, stored dictionary-encoded as <tt>int[]</tt> codes referencing
+     * the distinct strings
+     */
+    String,
+
+    /**
+     * Columns without any non-null value
+     */
+    Null
+
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2016, Christoph Engelbert (aka noctarius) and
+ * contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.noctarius.borabora;
+
+/**
+ * <p>A <tt>ColumnVector</tt> represents a single column extracted by
+ * {@link Parser#extractColumns(Input, Query...)}, holding one row per stream element.
+ * Values are stored in primitive arrays of exactly {@link #size()} elements, which
+ * can be directly handed over to vectorized processing.</p>
+ * <p>Rows without a value, or with a <tt>null</tt> value, are marked in the null bitmap
+ * and hold <tt>0</tt> in the value arrays.</p>
+ * <p>Accessing the values using a getter not matching the {@link ColumnType} results
+ * in a {@link WrongTypeException} to be thrown.</p>
+ */
+public interface ColumnVector {
+
+    /**
+     * Returns the storage type of the column.
+     *
+     * @return the column type
+     */
+    ColumnType columnType();
+
+    /**
+     * Returns the number of rows.
+     *
+     * @return the number of rows
+     */
+    int size();
+
+    /**
+     * Returns true if the given row has no value.
+     *
+     * @param row the row index
+     * @return true if the row has no value, otherwise false
+     */
+    boolean isNull(int row);
+
+    /**
+     * Returns the null bitmap, the bit <tt>row % 64</tt> of the element <tt>row / 64</tt>
+     * is set if the row has no value.
+     *
+     * @return the null bitmap
+     */
+    long[] nullBitmap();
+
+    /**
+     * Returns the values of an {@link ColumnType#Int} column.
+     *
+     * @return the values
+     * @throws WrongTypeException if the column is not of type Int
+     */
+    long[] longs();
+
+    /**
+     * Returns the values of a {@link ColumnType#Float} column.
+     *
+     * @return the values
+     * @throws WrongTypeException if the column is not of type Float
+     */
+    double[] doubles();
+
+    /**
+     * Returns the dictionary codes of a {@link ColumnType#String} column, each code
+     * being an index into {@link #dictionary()}.
+     *
+     * @return the dictionary codes
+     * @throws WrongTypeException if the column is not of type String
+     */
+    int[] codes();
+
+    /**
+     * Returns the distinct strings of a {@link ColumnType#String} column in order
+     * of their first appearance.
+     *
+     * @return the distinct strings
+     * @throws WrongTypeException if the column is not of type String
+     */
+    String[] dictionary();
+
+}
@@ -17,6 +17,9 @@
 package com.noctarius.borabora;
 
 import com.noctarius.borabora.spi.io.CompositeBuffer;
+import com.noctarius.borabora.spi.io.StructuralIndex;
+
+import java.nio.ByteBuffer;
 
 /**
  * An <tt>Input</tt> instance represents a source for readable data. Input implementations are
@@ -73,6 +76,40 @@ public interface Input {
      */
     boolean offsetValid(long offset);
 
+    /**
+     * Returns a read-only {@link ByteBuffer} of <tt>length</tt> bytes starting at the given
+     * <tt>offset</tt>. Implementations backed by a heap byte-array return a view without copying
+     * the data, the default implementation copies the requested bytes into a new buffer. If
+     * <tt>offset</tt> or <tt>offset</tt> plus <tt>length</tt> are outside the readable area, a
+     * {@link NoSuchByteException} is thrown.
+     *
+     * @param offset the offset to start at
+     * @param length the number of bytes
+     * @return the read-only buffer of the requested bytes
+     * @throws NoSuchByteException if offset or offset plus length are outside the readable area
+     */
+    default ByteBuffer byteBuffer(long offset, int length)
+            throws NoSuchByteException {
+
+        byte[] bytes = new byte[length];
+        if (length > 0) {
+            read(bytes, offset, length);
+        }
+        return ByteBuffer.wrap(bytes).asReadOnlyBuffer();
+    }
+
+    /**
+     * Returns the {@link StructuralIndex} of this input, if one was built, otherwise <tt>null</tt>.
+     * Sizes and element counts of indexed data items are looked up from the index instead of
+     * being recalculated by recursively skipping over their elements.
+     *
+     * @return the structural index of this input, or null if not available
+     * @see #withStructuralIndex(Input)
+     */
+    default StructuralIndex structuralIndex() {
+        return null;
+    }
+
     /**
      * Returns an <tt>Input</tt> instance backed by the provided <tt>bytes</tt> byte-array. The instance
      * returned <b>does not</b> handle offsets larger than {@link Integer#MAX_VALUE} due to the limitation
@@ -116,4 +153,20 @@ public interface Input {
         return new CompositeBufferInput(compositeBuffer);
     }
 
+    /**
+     * Returns an <tt>Input</tt> instance reading from the given <tt>input</tt>, which is extended by a
+     * {@link StructuralIndex}. The index is built eagerly, in a single pass over all data items of the
+     * given input, and records the start and end offsets and element counts of all nested data items.
+     * Skipping over indexed data items, e.g. while navigating queries or building the element indexes of
+     * {@link Sequence}s and {@link Dictionary}s, becomes a constant time lookup. Building the index is
+     * as expensive as reading the whole input once, it is only worth it when the same input is queried
+     * repeatedly. The data of the given input must not change afterwards.
+     *
+     * @param input the input to build the structural index for
+     * @return the new input instance backed by the given input and its structural index
+     */
+    static Input withStructuralIndex(Input input) {
+        return new StructurallyIndexedInput(input);
+    }
+
 }
@@ -112,6 +112,8 @@ public enum MajorType {
 
     private static final short HIGH_BITS_MASK = 0b1110_0000;
 
+    private static final MajorType[] MAJOR_TYPES_BY_HEAD = buildMajorTypesByHead();
+
     private final short typeId;
     private final int mask;
     private final boolean indefinite;
@@ -159,7 +161,19 @@ public enum MajorType {
      * @return the MajorType matching the given header byte
      */
     public static MajorType findMajorType(short head) {
-        switch ((head & 0xff) >>> 5) {
+        return MAJOR_TYPES_BY_HEAD[head & 0xff];
+    }
+
+    private static MajorType[] buildMajorTypesByHead() {
+        MajorType[] majorTypes = new MajorType[256];
+        for (int head = 0; head < 256; head++) {
+            majorTypes[head] = majorTypeByHighBits(head >>> 5);
+        }
+        return majorTypes;
+    }
+
+    private static MajorType majorTypeByHighBits(int highBits) {
+        switch (highBits) {
             case MT_UNSINGED_INT:
                 return UnsignedInteger;
             case MT_NEGATIVE_INT:
@@ -20,6 +20,7 @@ import com.noctarius.borabora.builder.encoder.GraphBuilder;
 import com.noctarius.borabora.spi.io.CompositeBuffer;
 
 import java.io.OutputStream;
+import java.util.Objects;
 
 /**
  * An <tt>Output</tt> instance represents a target sink for writeable data. Output implementations
@@ -27,7 +28,9 @@ import java.io.OutputStream;
  * a non side-effect free situation. Whereas most implementations don't necessarily need to
  * use the provided <tt>offset</tt> which is passed to <tt>write</tt> methods, it can be used
  * to prevent storing internal offsets. As all writes coming from the generators are in order
- * and immediate, the offset is constantly increasing only and does not need random pokes.
+ * and immediate, the offset is constantly increasing only and does not need random pokes. The only
+ * exception are {@link com.noctarius.borabora.spi.io.SeekableOutput}s which are used to back-patch
+ * definite-length headers when configured on the {@link Writer}.
  * <p>A common basic example for the usage of <tt>Output</tt> looks like:</p>
  * <pre>
  *     Output output = Output.toCompositeBuffer( ... );
@@ -67,6 +70,41 @@ public interface Output {
      */
     long write(byte[] array, long offset, int length);
 
+    /**
+     * Transfers <tt>length</tt> bytes from the given <tt>input</tt>, starting at <tt>inputOffset</tt>,
+     * to this output, starting at <tt>offset</tt>. This is used to re-embed already encoded items,
+     * like a {@link com.noctarius.borabora.spi.StreamValue}, without decoding them. The default
+     * implementation copies the data through a bounded intermediate byte-array, implementations may
+     * override it to copy directly between the backing storages when the type of <tt>input</tt> is
+     * known. If the range is outside the readable or writable area a {@link NoSuchByteException}
+     * is thrown.
+     *
+     * @param input       the input to read from
+     * @param inputOffset the offset to start reading from
+     * @param offset      the offset to write to
+     * @param length      the number of bytes to transfer
+     * @return the number of bytes transferred
+     */
+    default long write(Input input, long inputOffset, long offset, long length) {
+        Objects.requireNonNull(input, "input must not be null");
+        if (length < 0) {
+            throw new NoSuchByteException(offset, "Length " + length + " must not be negative");
+        }
+
+        // Bounded to not allocate a second copy of large items
+        byte[] chunk = new byte[(int) Math.min(length, 8192)];
+        long remaining = length;
+        while (remaining > 0) {
+            int chunkLength = (int) Math.min(chunk.length, remaining);
+            input.read(chunk, inputOffset, chunkLength);
+            write(chunk, offset, chunkLength);
+            inputOffset += chunkLength;
+            offset += chunkLength;
+            remaining -= chunkLength;
+        }
+        return length;
+    }
+
     /**
      * Returns an <tt>Output</tt> instance backed by the provided <tt>compositeBuffer</tt>. The
      * {@link CompositeBuffer} is implemented as a linked list of byte-array's called chunks. The buffer
@@ -54,4 +54,21 @@ final class OutputStreamOutput
         }
     }
 
+    @Override
+    public long write(Input input, long inputOffset, long offset, long length) {
+        Objects.requireNonNull(input, "input must not be null");
+        Input source = StructurallyIndexedInput.unwrap(input);
+        if (!(source instanceof ByteArrayInput)) {
+            return Output.super.write(input, inputOffset, offset, length);
+        }
+
+        byte[] array = ((ByteArrayInput) source).array(inputOffset, length);
+        try {
+            out.write(array, (int) inputOffset, (int) length);
+            return length;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
 }
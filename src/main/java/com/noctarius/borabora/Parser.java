@@ -21,7 +21,9 @@ import com.noctarius.borabora.builder.query.QueryBuilder;
 import com.noctarius.borabora.builder.query.StreamQueryBuilder;
 import com.noctarius.borabora.impl.ParserBuilderImpl;
 
+import java.util.Iterator;
 import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * <p>The <tt>Parser</tt> class is the entry point for all parsing related activities. This includes element
@@ -137,6 +139,43 @@ public interface Parser {
      */
     void read(Input input, String query, Consumer<Value> consumer);
 
+    /**
+     * <p>Returns a pull-style {@link Iterator} over the {@link Value}s matched by the given multi stream
+     * {@link Query} instance, e.g. <tt>${'a'}</tt> matches the value of key <tt>a</tt> in every stream
+     * element. The iterator returns the same values as {@link #read(Input, Query, Consumer)} would.</p>
+     * <p>The query is advanced by one stream element of the given {@link Input} instance at a time and
+     * the next stream element is only read when the results of the previous element are consumed,
+     * therefore a slow consumer paces the scan and matches are never buffered beyond a single stream
+     * element. Queries that need all stream elements at once, like single stream element queries
+     * (<tt>#</tt>), stream ranges, ordering or grouping, cannot be iterated this way and are rejected,
+     * use the {@link Stream} returned by {@link #stream(Input, Query)} to apply them on all results
+     * instead.</p>
+     * <p>The returned iterator is not thread-safe, however the parser can still be used concurrently
+     * from multiple threads.</p>
+     *
+     * @param input the input stream instance to parse
+     * @param query the multi stream query instance to execute
+     * @return the iterator to pull matching values from
+     * @throws IllegalArgumentException is thrown if the query cannot be evaluated per stream element
+     * @throws IllegalStateException    is thrown whenever an illegal state has occurred while parsing
+     * @throws WrongTypeException       is thrown whenever an unexpected type was found while parsing
+     */
+    Iterator<Value> iterator(Input input, Query query);
+
+    /**
+     * <p>Returns a lazy, sequential {@link Stream} over the {@link Value}s matched by the given {@link Query}
+     * instance. The stream is backed by {@link #iterator(Input, Query)} and reads the input only as far
+     * as results are requested, e.g. by a short-circuiting operation like {@link Stream#limit(long)}.</p>
+     *
+     * @param input the input stream instance to parse
+     * @param query the multi stream query instance to execute
+     * @return the stream of matching values
+     * @throws IllegalArgumentException is thrown if the query cannot be evaluated per stream element
+     * @throws IllegalStateException    is thrown whenever an illegal state has occurred while parsing
+     * @throws WrongTypeException       is thrown whenever an unexpected type was found while parsing
+     */
+    Stream<Value> stream(Input input, Query query);
+
     /**
      * <p>Searches and extracts a {@link Value} from the given {@link Input} instance, representing the
      * the CBOR encoded input stream, and tries to search and match a single element against the given
@@ -191,6 +230,26 @@ public interface Parser {
      */
     byte[] extract(Input input, long offset);
 
+    /**
+     * <p>Extracts the given columns from all elements of the given {@link Input} instance,
+     * representing the CBOR encoded input stream, in a single pass. Each column query is evaluated
+     * relative to every stream element, e.g. <tt>#{'latency'}</tt>, and the first selected value
+     * is stored into the column without creating intermediate {@link Value} instances.</p>
+     * <p>Every returned {@link ColumnVector} contains one row per stream element. Integral numbers
+     * are stored as <tt>long[]</tt>, floating point numbers as <tt>double[]</tt> and strings are
+     * dictionary-encoded, rows without a value are marked in the null bitmap. Column queries must
+     * not use projections.</p>
+     * <p>The method is completely thread-safe and the same parser instance can be used concurrently
+     * from multiple threads.</p>
+     *
+     * @param input   the input stream instance to parse
+     * @param columns the column queries to evaluate against every stream element
+     * @return the extracted columns in order of the given column queries
+     * @throws IllegalStateException is thrown whenever an illegal state has occurred while parsing
+     * @throws WrongTypeException    is thrown whenever a value cannot be stored in its column
+     */
+    ColumnVector[] extractColumns(Input input, Query... columns);
+
     /**
      * Parses and prepares a given query string into a {@link Query} instance. The returned query
      * instance is fully thread-safe and stateless and can be stored and shared by multiple threads.
@@ -19,6 +19,7 @@ package com.noctarius.borabora;
 import com.noctarius.borabora.builder.query.QueryTokenBuilder;
 import com.noctarius.borabora.spi.io.Decoder;
 import com.noctarius.borabora.spi.io.Encoder;
+import com.noctarius.borabora.spi.query.EncodedKeyPredicate;
 import com.noctarius.borabora.spi.query.QueryContext;
 import com.noctarius.borabora.spi.query.QueryContextAware;
 
@@ -104,12 +105,12 @@ public final class Predicates {
         }
 
         // Predefine both possible matchers
-        Predicate<Value> byteStringMatcher;
-        Predicate<Value> asciiStringMatcher;
-        Predicate<Value> textStringMatcher;
+        StringMatcher byteStringMatcher;
+        StringMatcher textStringMatcher;
 
         // Pre-encode matching value
         byte[] expected = buildStringMatcherByteArray(value, Encoder::putAsciiString);
+        byte[][] encodedKeys;
 
         MajorType currentMajorType = MajorType.findMajorType((short) (expected[0] & 0xFF));
         switch (currentMajorType) {
@@ -117,18 +118,22 @@ public final class Predicates {
                 byteStringMatcher = buildStringMatcher(expected);
 
                 // Encode specifically as TextString
-                expected = buildStringMatcherByteArray(value, Encoder::putTextString);
-                textStringMatcher = buildStringMatcher(expected);
+                byte[] expectedTextString = buildStringMatcherByteArray(value, Encoder::putTextString);
+                textStringMatcher = buildStringMatcher(expectedTextString);
+
+                // TextStrings are always sorted before semantic tags
+                encodedKeys = new byte[][]{expectedTextString, expected};
                 break;
 
             default: // Always TextString
                 // If the matcher string must be a TextString the matched string
                 // can never match if a ByteString (only ASCII)
-                byteStringMatcher = (v) -> false;
+                byteStringMatcher = (input, offset) -> false;
                 textStringMatcher = buildStringMatcher(expected);
+                encodedKeys = new byte[][]{expected};
         }
 
-        return (v) -> {
+        return new EncodedKeyMatcher(encodedKeys, (v) -> {
             if (!v.valueType().matches(ValueTypes.String)
                     && !v.valueType().matches(ValueTypes.ByteString)) {
                 return false;
@@ -136,19 +141,22 @@ public final class Predicates {
 
             // Stream values can be tried to match them on an array level
             if (v instanceof QueryContextAware) {
-                MajorType majorType = v.majorType();
+                QueryContext queryContext = ((QueryContextAware) v).queryContext();
+                Input input = queryContext.input();
 
-                switch (majorType) {
+                // String references are matched against the referenced string
+                long offset = queryContext.resolveStringReference(v.offset());
+                switch (Decoder.getMajorType(offset, input)) {
                     case ByteString:
-                        return byteStringMatcher.test(v);
+                        return byteStringMatcher.matches(input, offset);
                     case TextString:
-                        return textStringMatcher.test(v);
+                        return textStringMatcher.matches(input, offset);
                 }
             }
 
             // Match ObjectValue instances
             return slowPathPredicate.test(v);
-        };
+        });
     }
 
     /**
@@ -181,7 +189,9 @@ public final class Predicates {
      * @return true is the value in the CBOR stream matches the given value, otherwise false
      */
     public static Predicate<Value> matchInt(long value) {
-        return (v) -> {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream(9);
+        Encoder.putNumber(value, 0, Output.toOutputStream(baos));
+        return new EncodedKeyMatcher(new byte[][]{baos.toByteArray()}, (v) -> {
             if (!v.valueType().matches(ValueTypes.Int)) {
                 return false;
             }
@@ -190,7 +200,7 @@ public final class Predicates {
                 return n.equals(BigInteger.valueOf(value));
             }
             return value == n.longValue();
-        };
+        });
     }
 
     private static byte[] buildStringMatcherByteArray(String value, StringPreencoder preencoder) {
@@ -199,15 +209,10 @@ public final class Predicates {
         return baos.toByteArray();
     }
 
-    private static Predicate<Value> buildStringMatcher(byte[] expected) {
+    private static StringMatcher buildStringMatcher(byte[] expected) {
         int expectedLength = expected.length;
-        return (v) -> {
-            QueryContext queryContext = ((QueryContextAware) v).queryContext();
-
-            MajorType majorType = v.majorType();
-            long offset = v.offset();
-
-            Input input = queryContext.input();
+        return (input, offset) -> {
+            MajorType majorType = Decoder.getMajorType(offset, input);
             long length = Decoder.length(input, majorType, offset);
             if (length != expectedLength) {
                 return false;
@@ -229,8 +234,52 @@ public final class Predicates {
         };
     }
 
+    private static final class EncodedKeyMatcher
+            implements EncodedKeyPredicate {
+
+        private final byte[][] encodedKeys;
+        private final Predicate<Value> predicate;
+
+        private EncodedKeyMatcher(byte[][] encodedKeys, Predicate<Value> predicate) {
+            this.encodedKeys = encodedKeys;
+            this.predicate = predicate;
+        }
+
+        @Override
+        public byte[][] encodedKeys() {
+            return encodedKeys;
+        }
+
+        @Override
+        public boolean test(Value value) {
+            return predicate.test(value);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof EncodedKeyMatcher)) {
+                return false;
+            }
+
+            EncodedKeyMatcher that = (EncodedKeyMatcher) o;
+            return Arrays.deepEquals(encodedKeys, that.encodedKeys);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.deepHashCode(encodedKeys);
+        }
+    }
+
     private interface StringPreencoder {
         void apply(String value, int offset, Output output);
     }
 
+    private interface StringMatcher {
+        boolean matches(Input input, long offset);
+    }
+
 }
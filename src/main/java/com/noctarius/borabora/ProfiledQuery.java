@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2016, Christoph Engelbert (aka noctarius) and
+ * contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.noctarius.borabora;
+
+/**
+ * The <tt>ProfiledQuery</tt> interface represents a {@link Query} that records runtime statistics
+ * for each stage of its execution plan. Instances are created using {@link Query#profile()} and
+ * are executed like any other query, using the {@link Parser} data querying or extraction methods.
+ * Statistics are accumulated over all executions, including concurrent ones, until
+ * {@link #resetProfile()} is called.
+ * <p>Recorded statistics per stage include the number of invocations, the time spent (including
+ * and excluding the stage's children), the number of data items skipped, the number of bytes read
+ * and the distribution of the returned {@link com.noctarius.borabora.spi.query.pipeline.VisitResult}s.
+ * Profiling adds overhead to every stage execution and is meant to analyze queries, not to run them
+ * permanently.</p>
+ * <pre>
+ *     ProfiledQuery query = parser.prepareQuery( "#{'name'}" ).profile();
+ *     parser.read( input, query );
+ *     System.out.println( query.explainAnalyze() );
+ * </pre>
+ */
+public interface ProfiledQuery
+        extends Query {
+
+    /**
+     * Returns the query graph (execution plan) of this query instance, where every stage is
+     * annotated with the statistics recorded during all executions since the last reset.
+     *
+     * @return the execution plan annotated with the recorded statistics
+     */
+    String explainAnalyze();
+
+    /**
+     * Resets the recorded statistics of all stages.
+     */
+    void resetProfile();
+
+}
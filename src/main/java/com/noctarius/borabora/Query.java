@@ -17,6 +17,7 @@
 package com.noctarius.borabora;
 
 import com.noctarius.borabora.builder.query.QueryBuilder;
+import com.noctarius.borabora.impl.query.QueryImpl;
 import com.noctarius.borabora.spi.query.pipeline.QueryPipeline;
 
 /**
@@ -60,4 +61,17 @@ public interface Query {
      */
     void printQueryGraph();
 
+    /**
+     * Returns a new {@link ProfiledQuery} instance executing the same execution plan as
+     * this query instance, while recording runtime statistics for every stage of it. The
+     * statistics are retrieved using {@link ProfiledQuery#explainAnalyze()}.
+     * <p>Custom {@link QueryPipeline} or {@link com.noctarius.borabora.spi.query.pipeline.PipelineStage}
+     * implementations are profiled as a whole, including all stages they visit.</p>
+     *
+     * @return a profiling instance of this query
+     */
+    default ProfiledQuery profile() {
+        return QueryImpl.newProfiledQuery(newQueryPipeline());
+    }
+
 }
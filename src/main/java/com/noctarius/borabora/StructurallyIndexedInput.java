@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2016, Christoph Engelbert (aka noctarius) and
+ * contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.noctarius.borabora;
+
+import com.noctarius.borabora.spi.io.StructuralIndex;
+
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+final class StructurallyIndexedInput
+        implements Input {
+
+    private final Input input;
+    private final StructuralIndex structuralIndex;
+
+    StructurallyIndexedInput(Input input) {
+        Objects.requireNonNull(input, "input must not be null");
+        this.input = input;
+        this.structuralIndex = StructuralIndex.build(input);
+    }
+
+    @Override
+    public byte read(long offset)
+            throws NoSuchByteException {
+
+        return input.read(offset);
+    }
+
+    @Override
+    public long read(byte[] bytes, long offset, int length)
+            throws NoSuchByteException {
+
+        return input.read(bytes, offset, length);
+    }
+
+    @Override
+    public boolean offsetValid(long offset) {
+        return input.offsetValid(offset);
+    }
+
+    @Override
+    public ByteBuffer byteBuffer(long offset, int length)
+            throws NoSuchByteException {
+
+        return input.byteBuffer(offset, length);
+    }
+
+    @Override
+    public StructuralIndex structuralIndex() {
+        return structuralIndex;
+    }
+
+    // Exposes the indexed input to the type specific bulk copy paths of the outputs
+    static Input unwrap(Input input) {
+        return input instanceof StructurallyIndexedInput ? ((StructurallyIndexedInput) input).input : input;
+    }
+
+}
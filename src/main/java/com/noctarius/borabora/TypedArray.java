@@ -0,0 +1,248 @@
+/*
+ * Copyright (c) 2016, Christoph Engelbert (aka noctarius) and
+ * contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.noctarius.borabora;
+
+import com.noctarius.borabora.spi.io.Decoder;
+
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.ShortBuffer;
+import java.util.Objects;
+
+/**
+ * A <tt>TypedArray</tt> represents a homogeneous numeric array as specified by
+ * <a href="https://tools.ietf.org/html/rfc8746">RFC 8746</a>. It is the value returned by
+ * {@link Value#tag()} for typed array semantic tags.
+ * <p>The elements are kept in their encoded form. The <tt>as*Buffer</tt> methods return
+ * read-only views in the array's byte order, which do not copy the data if the underlying
+ * {@link Input} supports it (see {@link Input#byteBuffer(long, int)}). The {@link #longs()}
+ * and {@link #doubles()} methods decode the elements into newly allocated primitive arrays.</p>
+ * <p>Requesting a view or array which does not fit the {@link TypedArrayType} results in a
+ * {@link WrongTypeException} to be thrown.</p>
+ */
+public final class TypedArray {
+
+    private final TypedArrayType typedArrayType;
+    private final ByteBuffer data;
+
+    /**
+     * Creates a new <tt>TypedArray</tt> of the given <tt>typedArrayType</tt> backed by the
+     * remaining bytes of the given <tt>data</tt> buffer.
+     *
+     * @param typedArrayType the element type
+     * @param data           the encoded elements
+     * @throws NullPointerException     if typedArrayType or data is null
+     * @throws IllegalArgumentException if the data length is not a multiple of the element size
+     */
+    public TypedArray(TypedArrayType typedArrayType, ByteBuffer data) {
+        Objects.requireNonNull(typedArrayType, "typedArrayType must not be null");
+        Objects.requireNonNull(data, "data must not be null");
+        if (data.remaining() % typedArrayType.elementSize() != 0) {
+            throw new IllegalArgumentException("data length must be a multiple of the element size");
+        }
+        this.typedArrayType = typedArrayType;
+        this.data = data.slice().asReadOnlyBuffer().order(typedArrayType.byteOrder());
+    }
+
+    /**
+     * Returns the element type of this array.
+     *
+     * @return the element type
+     */
+    public TypedArrayType typedArrayType() {
+        return typedArrayType;
+    }
+
+    /**
+     * Returns the number of elements.
+     *
+     * @return the number of elements
+     */
+    public int size() {
+        return data.remaining() / typedArrayType.elementSize();
+    }
+
+    /**
+     * Returns a read-only view of the encoded elements in the array's byte order.
+     *
+     * @return the encoded elements
+     */
+    public ByteBuffer byteBuffer() {
+        return data.duplicate().order(typedArrayType.byteOrder());
+    }
+
+    /**
+     * Returns a read-only view of a 16 bit integer array.
+     *
+     * @return the elements view
+     * @throws WrongTypeException if the elements are not 16 bit integers
+     */
+    public ShortBuffer asShortBuffer() {
+        matchIntegerType(2);
+        return byteBuffer().asShortBuffer();
+    }
+
+    /**
+     * Returns a read-only view of a 32 bit integer array.
+     *
+     * @return the elements view
+     * @throws WrongTypeException if the elements are not 32 bit integers
+     */
+    public IntBuffer asIntBuffer() {
+        matchIntegerType(4);
+        return byteBuffer().asIntBuffer();
+    }
+
+    /**
+     * Returns a read-only view of a 64 bit integer array.
+     *
+     * @return the elements view
+     * @throws WrongTypeException if the elements are not 64 bit integers
+     */
+    public LongBuffer asLongBuffer() {
+        matchIntegerType(8);
+        return byteBuffer().asLongBuffer();
+    }
+
+    /**
+     * Returns a read-only view of a single precision floating point array.
+     *
+     * @return the elements view
+     * @throws WrongTypeException if the elements are not single precision floats
+     */
+    public FloatBuffer asFloatBuffer() {
+        matchFloatingPointType(4);
+        return byteBuffer().asFloatBuffer();
+    }
+
+    /**
+     * Returns a read-only view of a double precision floating point array.
+     *
+     * @return the elements view
+     * @throws WrongTypeException if the elements are not double precision floats
+     */
+    public DoubleBuffer asDoubleBuffer() {
+        matchFloatingPointType(8);
+        return byteBuffer().asDoubleBuffer();
+    }
+
+    /**
+     * Decodes the elements of an integer array into a new <tt>long[]</tt>. Unsigned elements
+     * are widened, unsigned 64 bit elements larger than {@link Long#MAX_VALUE} wrap around.
+     *
+     * @return the decoded elements
+     * @throws WrongTypeException if the elements are floating point values
+     */
+    public long[] longs() {
+        if (typedArrayType.floatingPoint()) {
+            throw new WrongTypeException("TypedArray of type " + typedArrayType + " is not an integer array");
+        }
+        boolean signed = typedArrayType.signed();
+        long[] values = new long[size()];
+        for (int i = 0; i < values.length; i++) {
+            switch (typedArrayType.elementSize()) {
+                case 1:
+                    byte b = data.get(i);
+                    values[i] = signed ? b : b & 0xffL;
+                    break;
+                case 2:
+                    short s = data.getShort(i * 2);
+                    values[i] = signed ? s : s & 0xffffL;
+                    break;
+                case 4:
+                    int v = data.getInt(i * 4);
+                    values[i] = signed ? v : v & 0xffffffffL;
+                    break;
+                default:
+                    values[i] = data.getLong(i * 8);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Decodes the elements of a floating point array into a new <tt>double[]</tt>.
+     *
+     * @return the decoded elements
+     * @throws WrongTypeException if the elements are integer values
+     */
+    public double[] doubles() {
+        if (!typedArrayType.floatingPoint()) {
+            throw new WrongTypeException("TypedArray of type " + typedArrayType + " is not a floating point array");
+        }
+        double[] values = new double[size()];
+        for (int i = 0; i < values.length; i++) {
+            switch (typedArrayType.elementSize()) {
+                case 2:
+                    values[i] = Decoder.halfPrecisionToFloat(data.getShort(i * 2) & 0xffff);
+                    break;
+                case 4:
+                    values[i] = data.getFloat(i * 4);
+                    break;
+                default:
+                    values[i] = data.getDouble(i * 8);
+            }
+        }
+        return values;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TypedArray)) {
+            return false;
+        }
+
+        TypedArray that = (TypedArray) o;
+        if (typedArrayType != that.typedArrayType) {
+            return false;
+        }
+        return data.equals(that.data);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = typedArrayType.hashCode();
+        result = 31 * result + data.hashCode();
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "TypedArray{" + "typedArrayType=" + typedArrayType + ", size=" + size() + '}';
+    }
+
+    private void matchIntegerType(int elementSize) {
+        if (typedArrayType.floatingPoint() || typedArrayType.elementSize() != elementSize) {
+            throw new WrongTypeException("TypedArray of type " + typedArrayType + " is not a " //
+                    + (elementSize * 8) + " bit integer array");
+        }
+    }
+
+    private void matchFloatingPointType(int elementSize) {
+        if (!typedArrayType.floatingPoint() || typedArrayType.elementSize() != elementSize) {
+            throw new WrongTypeException("TypedArray of type " + typedArrayType + " is not a " //
+                    + (elementSize * 8) + " bit floating point array");
+        }
+    }
+
+}
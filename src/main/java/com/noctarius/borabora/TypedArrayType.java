@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2016, Christoph Engelbert (aka noctarius) and
+ * contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.noctarius.borabora;
+
+import java.nio.ByteOrder;
+
+import static com.noctarius.borabora.spi.io.Constants.TAG_TYPED_ARRAY_FIRST;
+import static com.noctarius.borabora.spi.io.Constants.TAG_TYPED_ARRAY_LAST;
+
+/**
+ * The <tt>TypedArrayType</tt> enum defines the element types of homogeneous numeric arrays as
+ * specified by <a href="https://tools.ietf.org/html/rfc8746">RFC 8746</a> (semantic tags
+ * <tt>64</tt> to <tt>87</tt>). Typed arrays store their elements packed into a single byte string
+ * in either big or little endian byte order, which makes them readable and writable by a single
+ * memory copy.
+ * <p>128 bit floating point arrays (tags <tt>83</tt> and <tt>87</tt>) have no Java representation
+ * and are not supported, the same is true for the reserved tag <tt>76</tt>.</p>
+ *
+ * @see TypedArray
+ */
+public enum TypedArrayType {
+
+    UInt8(64, 1, false, false, ByteOrder.BIG_ENDIAN), //
+    UInt16BE(65, 2, false, false, ByteOrder.BIG_ENDIAN), //
+    UInt32BE(66, 4, false, false, ByteOrder.BIG_ENDIAN), //
+    UInt64BE(67, 8, false, false, ByteOrder.BIG_ENDIAN), //
+    UInt8Clamped(68, 1, false, false, ByteOrder.LITTLE_ENDIAN), //
+    UInt16LE(69, 2, false, false, ByteOrder.LITTLE_ENDIAN), //
+    UInt32LE(70, 4, false, false, ByteOrder.LITTLE_ENDIAN), //
+    UInt64LE(71, 8, false, false, ByteOrder.LITTLE_ENDIAN), //
+    SInt8(72, 1, true, false, ByteOrder.BIG_ENDIAN), //
+    SInt16BE(73, 2, true, false, ByteOrder.BIG_ENDIAN), //
+    SInt32BE(74, 4, true, false, ByteOrder.BIG_ENDIAN), //
+    SInt64BE(75, 8, true, false, ByteOrder.BIG_ENDIAN), //
+    SInt16LE(77, 2, true, false, ByteOrder.LITTLE_ENDIAN), //
+    SInt32LE(78, 4, true, false, ByteOrder.LITTLE_ENDIAN), //
+    SInt64LE(79, 8, true, false, ByteOrder.LITTLE_ENDIAN), //
+    Float16BE(80, 2, true, true, ByteOrder.BIG_ENDIAN), //
+    Float32BE(81, 4, true, true, ByteOrder.BIG_ENDIAN), //
+    Float64BE(82, 8, true, true, ByteOrder.BIG_ENDIAN), //
+    Float16LE(84, 2, true, true, ByteOrder.LITTLE_ENDIAN), //
+    Float32LE(85, 4, true, true, ByteOrder.LITTLE_ENDIAN), //
+    Float64LE(86, 8, true, true, ByteOrder.LITTLE_ENDIAN);
+
+    private static final TypedArrayType[] TYPES_BY_TAG_ID = new TypedArrayType[TAG_TYPED_ARRAY_LAST - TAG_TYPED_ARRAY_FIRST + 1];
+
+    static {
+        for (TypedArrayType typedArrayType : values()) {
+            TYPES_BY_TAG_ID[typedArrayType.tagId - TAG_TYPED_ARRAY_FIRST] = typedArrayType;
+        }
+    }
+
+    private final int tagId;
+    private final int elementSize;
+    private final boolean signed;
+    private final boolean floatingPoint;
+    private final ByteOrder byteOrder;
+
+    TypedArrayType(int tagId, int elementSize, boolean signed, boolean floatingPoint, ByteOrder byteOrder) {
+        this.tagId = tagId;
+        this.elementSize = elementSize;
+        this.signed = signed;
+        this.floatingPoint = floatingPoint;
+        this.byteOrder = byteOrder;
+    }
+
+    /**
+     * Returns the semantic tag id of this typed array type.
+     *
+     * @return the semantic tag id
+     */
+    public int tagId() {
+        return tagId;
+    }
+
+    /**
+     * Returns the number of bytes of a single element.
+     *
+     * @return the element size in bytes
+     */
+    public int elementSize() {
+        return elementSize;
+    }
+
+    /**
+     * Returns <tt>true</tt> if the elements are signed integers or floating point values.
+     *
+     * @return true if the elements are signed, otherwise false
+     */
+    public boolean signed() {
+        return signed;
+    }
+
+    /**
+     * Returns <tt>true</tt> if the elements are floating point values.
+     *
+     * @return true if the elements are floating point values, otherwise false
+     */
+    public boolean floatingPoint() {
+        return floatingPoint;
+    }
+
+    /**
+     * Returns the byte order of the elements.
+     *
+     * @return the byte order of the elements
+     */
+    public ByteOrder byteOrder() {
+        return byteOrder;
+    }
+
+    /**
+     * Returns the <tt>TypedArrayType</tt> for the given semantic <tt>tagId</tt> or <tt>null</tt>
+     * if the tag id is not a supported typed array tag.
+     *
+     * @param tagId the semantic tag id
+     * @return the matching TypedArrayType or null if not supported
+     */
+    public static TypedArrayType byTagId(long tagId) {
+        if (tagId < TAG_TYPED_ARRAY_FIRST || tagId > TAG_TYPED_ARRAY_LAST) {
+            return null;
+        }
+        return TYPES_BY_TAG_ID[(int) tagId - TAG_TYPED_ARRAY_FIRST];
+    }
+
+}
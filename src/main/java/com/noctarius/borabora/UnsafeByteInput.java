@@ -58,6 +58,13 @@ final class UnsafeByteInput
         return l;
     }
 
+    long address(long offset, long length) {
+        if (offset < 0 || length < 0 || offset + length > size) {
+            throw new NoSuchByteException(offset, "Offset " + offset + " outside of available data");
+        }
+        return address + offset;
+    }
+
     @Override
     public boolean offsetValid(long offset) {
         return offset < size;
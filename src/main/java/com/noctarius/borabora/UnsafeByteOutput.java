@@ -16,12 +16,13 @@
  */
 package com.noctarius.borabora;
 
+import com.noctarius.borabora.spi.io.SeekableOutput;
 import sun.misc.Unsafe;
 
 import java.util.Objects;
 
 final class UnsafeByteOutput
-        implements Output {
+        implements SeekableOutput {
 
     private static final Unsafe UNSAFE = UnsafeUtils.getUnsafe();
 
@@ -54,4 +55,34 @@ final class UnsafeByteOutput
         return l;
     }
 
+    @Override
+    public long write(Input input, long inputOffset, long offset, long length) {
+        Objects.requireNonNull(input, "input must not be null");
+        if (offset < 0 || length < 0 || offset + length > size) {
+            throw new NoSuchByteException(offset, "Offset " + offset + " outside of writable data");
+        }
+
+        Input source = StructurallyIndexedInput.unwrap(input);
+        if (source instanceof UnsafeByteInput) {
+            UNSAFE.copyMemory(((UnsafeByteInput) source).address(inputOffset, length), address + offset, length);
+            return length;
+        }
+        if (source instanceof ByteArrayInput) {
+            byte[] array = ((ByteArrayInput) source).array(inputOffset, length);
+            UNSAFE.copyMemory(array, Unsafe.ARRAY_BYTE_BASE_OFFSET + inputOffset, null, address + offset, length);
+            return length;
+        }
+        return SeekableOutput.super.write(input, inputOffset, offset, length);
+    }
+
+    @Override
+    public void move(long sourceOffset, long targetOffset, long length) {
+        if (sourceOffset < 0 || targetOffset < 0 || length < 0 //
+                || sourceOffset + length > size || targetOffset + length > size) {
+            throw new NoSuchByteException(sourceOffset, "Offset " + sourceOffset + " outside of writable data");
+        }
+        // Unsafe::copyMemory has memmove semantics and handles overlapping regions
+        UNSAFE.copyMemory(address + sourceOffset, address + targetOffset, length);
+    }
+
 }
@@ -174,6 +174,13 @@ public enum ValueTypes
      */
     ASCII(Value::tag, String),
 
+    /**
+     * <tt>TypedArray</tt> represents a value type of a homogeneous numeric array as defined
+     * by <a href="https://tools.ietf.org/html/rfc8746">RFC 8746</a>. The value is represented
+     * in Java as a {@link com.noctarius.borabora.TypedArray}.
+     */
+    TypedArray(Value::tag),
+
     /**
      * <tt>Unknown</tt> represents a value of an unknown type. The value can still be
      * extracted using {@link Parser#extract(Input, long)}. Unknown type can happen
@@ -182,6 +189,8 @@ public enum ValueTypes
      */
     Unknown(Value::raw);
 
+    private static final ValueTypes[] VALUE_TYPES_BY_HEAD = buildValueTypesByHead();
+
     private final Function<Value, Object> byValueType;
     private final BiConsumer<Value, Object> validator;
     private final ValueType identity;
@@ -221,31 +230,7 @@ public enum ValueTypes
 
     public static ValueTypes valueType(Input input, long offset) {
         short head = Decoder.readUInt8(input, offset);
-
-        // Read major type first
-        MajorType majorType = MajorType.findMajorType(head);
-
-        // Simple major types are assigned directly
-        switch (majorType) {
-            case UnsignedInteger:
-                return UInt;
-            case NegativeInteger:
-                return NInt;
-            case ByteString:
-                return ByteString;
-            case TextString:
-                return TextString;
-            case Sequence:
-                return Sequence;
-            case Dictionary:
-                return Dictionary;
-            case FloatingPointOrSimple:
-                return floatNullOrBool(head);
-            case SemanticTag:
-
-            default: // Always a semantic tag
-                return Unknown;
-        }
+        return VALUE_TYPES_BY_HEAD[head];
     }
 
     public static ValueType valueType(Object value) {
@@ -280,6 +265,41 @@ public enum ValueTypes
         return TagStrategies.valueType(value);
     }
 
+    private static ValueTypes[] buildValueTypesByHead() {
+        ValueTypes[] valueTypes = new ValueTypes[256];
+        for (short head = 0; head < 256; head++) {
+            valueTypes[head] = baseValueType(head);
+        }
+        return valueTypes;
+    }
+
+    private static ValueTypes baseValueType(short head) {
+        // Read major type first
+        MajorType majorType = MajorType.findMajorType(head);
+
+        // Simple major types are assigned directly
+        switch (majorType) {
+            case UnsignedInteger:
+                return UInt;
+            case NegativeInteger:
+                return NInt;
+            case ByteString:
+                return ByteString;
+            case TextString:
+                return TextString;
+            case Sequence:
+                return Sequence;
+            case Dictionary:
+                return Dictionary;
+            case FloatingPointOrSimple:
+                return floatNullOrBool(head);
+            case SemanticTag:
+
+            default: // Always a semantic tag
+                return Unknown;
+        }
+    }
+
     private static ValueTypes floatNullOrBool(short head) {
         int addInfo = head & Constants.ADDITIONAL_INFORMATION_MASK;
         switch (addInfo) {
@@ -18,6 +18,7 @@ package com.noctarius.borabora.builder;
 
 import com.noctarius.borabora.Parser;
 import com.noctarius.borabora.spi.codec.TagStrategy;
+import com.noctarius.borabora.spi.metrics.MetricsCollector;
 import com.noctarius.borabora.spi.query.ProjectionStrategy;
 import com.noctarius.borabora.spi.query.QueryContextFactory;
 import com.noctarius.borabora.spi.query.optimizer.QueryOptimizer;
@@ -172,6 +173,35 @@ public interface ParserBuilder {
      */
     ParserBuilder withQueryOptimizerStrategyFactory(QueryOptimizerStrategyFactory queryOptimizerStrategyFactory);
 
+    /**
+     * Configures the {@link Parser} configuration to assume that the keys of all dictionaries are
+     * sorted by the bytewise lexicographic order of their encodings, as required by the deterministic
+     * encoding of RFC 8949, section 4.2. Keys matched by predicates, which know the encoding of the
+     * matched key, like {@link com.noctarius.borabora.Predicates#matchString(String)} or
+     * {@link com.noctarius.borabora.Predicates#matchInt(long)}, are looked up using a binary search
+     * over the elements of {@link com.noctarius.borabora.Dictionary} instances, whereas queries stop
+     * scanning a dictionary once a larger key is found. Lookups in unsorted dictionaries might miss
+     * keys. This option is only applied to the default
+     * {@link com.noctarius.borabora.spi.query.QueryContext} implementation, custom implementations
+     * configure it using {@link com.noctarius.borabora.spi.query.QueryContext#sortedDictionaryKeys()}.
+     *
+     * @return this builder instance
+     */
+    ParserBuilder withSortedDictionaryKeys();
+
+    /**
+     * Configures the {@link Parser} configuration to report the metrics of all executed queries,
+     * like the number of bytes read, skipped data items or created values, to the given
+     * {@link MetricsCollector}. {@link com.noctarius.borabora.spi.metrics.ParserMetrics} is the
+     * default implementation aggregating the metrics per parser. Without a collector configured,
+     * no metrics are collected.
+     *
+     * @param metricsCollector the MetricsCollector to report query metrics to
+     * @return this builder instance
+     * @throws NullPointerException if metricsCollector is null
+     */
+    ParserBuilder withMetricsCollector(MetricsCollector metricsCollector);
+
     /**
      * Returns a new {@link Parser} instance based on the internal configuration. The returned parser
      * is fully thread-safe and stateless and can be stored and shared by multiple threads.
@@ -65,6 +65,49 @@ public interface WriterBuilder {
      */
     WriterBuilder addTagStrategies(Iterable<TagStrategy> tagStrategies);
 
+    /**
+     * Configures the new {@link Writer} to write sequences and dictionaries without a given
+     * number of elements as definite-length containers. The header is reserved when the
+     * container is started and back-patched with the minimal-width length when it is finished,
+     * which lets readers retrieve the container's size without scanning it. The written data
+     * never exceeds the size of the final encoding, therefore outputs sized exactly to the
+     * resulting stream are sufficient. Back-patching requires a
+     * {@link com.noctarius.borabora.spi.io.SeekableOutput}, other outputs still receive
+     * indefinite containers.
+     *
+     * @return this builder instance
+     */
+    WriterBuilder withDefiniteLengthContainers();
+
+    /**
+     * Configures the new {@link Writer} to deduplicate repeated strings using string references.
+     * Every top-level item is wrapped into its own string reference namespace (semantic tag 256)
+     * and each repeated byte or text string, which is long enough, is written as a reference
+     * (semantic tag 25) to its first occurrence inside the namespace. Since references are only
+     * created for equally typed strings, ASCII-only strings written using
+     * {@link com.noctarius.borabora.builder.encoder.ValueBuilder#putString(String)} are encoded
+     * as text strings instead of tagged byte strings. The {@link com.noctarius.borabora.Parser}
+     * resolves string references transparently.
+     *
+     * @return this builder instance
+     */
+    WriterBuilder withStringReferences();
+
+    /**
+     * Configures the new {@link Writer} to apply the deterministic encoding rules of RFC 8949,
+     * section 4.2. Integers are written in their shortest form and bignums are only used for
+     * values not fitting into 64 bits. Floating point values are written as the shortest of half,
+     * single or double precision which preserves the value. Sequences, dictionaries and strings
+     * are written with definite lengths, for which the outermost container is buffered until it
+     * is finished, and dictionary entries are sorted by the bytewise lexicographic order of their
+     * encoded keys. Values re-embedded from parsed streams are written as-is.
+     * <p>Deterministic encoding cannot be combined with {@link #withStringReferences()}, since
+     * sorting dictionary entries would change the order of the referenced strings.</p>
+     *
+     * @return this builder instance
+     */
+    WriterBuilder withDeterministicEncoding();
+
     /**
      * Returns a new {@link Writer} instance based on the internal configuration. The returned writer
      * is fully thread-safe and stateless and can be stored and shared by multiple threads, however
@@ -22,6 +22,7 @@ import com.noctarius.borabora.spi.builder.TagBuilderConsumer;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.net.URI;
+import java.nio.ByteBuffer;
 import java.time.Instant;
 import java.util.Date;
 
@@ -180,6 +181,16 @@ public interface ValueBuilder<B> {
      */
     B putByteString(byte[] value);
 
+    /**
+     * Encodes the remaining bytes of a {@link ByteBuffer} at the current position into the CBOR
+     * stream. The buffer's position is not changed. If <tt>value</tt> is <tt>null</tt>, a null-type
+     * will be written.
+     *
+     * @param value the value to encode
+     * @return the current builder
+     */
+    B putByteString(ByteBuffer value);
+
     /**
      * Encodes a {@link String} at the current position into the CBOR stream. If <tt>value</tt>
      * is <tt>null</tt>, a null-type will be written.
@@ -379,6 +390,101 @@ public interface ValueBuilder<B> {
     @BuilderStackPush
     SequenceBuilder<B> putSequence(long elements);
 
+    /**
+     * Encodes a <tt>long[]</tt> as a fixed sized sequence (array) of integers at the current position
+     * into the CBOR stream. Every element uses its minimal encoding and the elements are written in
+     * blocks instead of one by one. If <tt>values</tt> is <tt>null</tt>, a null-type will be written.
+     *
+     * @param values the values to encode
+     * @return the current builder
+     */
+    B putSequence(long[] values);
+
+    /**
+     * Encodes an <tt>int[]</tt> as a fixed sized sequence (array) of integers at the current position
+     * into the CBOR stream. Every element uses its minimal encoding and the elements are written in
+     * blocks instead of one by one. If <tt>values</tt> is <tt>null</tt>, a null-type will be written.
+     *
+     * @param values the values to encode
+     * @return the current builder
+     */
+    B putSequence(int[] values);
+
+    /**
+     * Encodes a <tt>double[]</tt> as a fixed sized sequence (array) of double precision floats at the
+     * current position into the CBOR stream. The elements are written in blocks instead of one by one.
+     * If <tt>values</tt> is <tt>null</tt>, a null-type will be written.
+     *
+     * @param values the values to encode
+     * @return the current builder
+     */
+    B putSequence(double[] values);
+
+    /**
+     * Encodes a <tt>float[]</tt> as a fixed sized sequence (array) of single precision floats at the
+     * current position into the CBOR stream. The elements are written in blocks instead of one by one.
+     * If <tt>values</tt> is <tt>null</tt>, a null-type will be written.
+     *
+     * @param values the values to encode
+     * @return the current builder
+     */
+    B putSequence(float[] values);
+
+    /**
+     * Encodes a <tt>short[]</tt> as a signed 16 bit little endian typed array (RFC 8746) at the current
+     * position into the CBOR stream. The elements are packed into a single byte string which can
+     * be read back by a single memory copy. If <tt>values</tt> is <tt>null</tt>, a null-type will
+     * be written.
+     *
+     * @param values the values to encode
+     * @return the current builder
+     */
+    B putTypedArray(short[] values);
+
+    /**
+     * Encodes a <tt>int[]</tt> as a signed 32 bit little endian typed array (RFC 8746) at the current
+     * position into the CBOR stream. The elements are packed into a single byte string which can
+     * be read back by a single memory copy. If <tt>values</tt> is <tt>null</tt>, a null-type will
+     * be written.
+     *
+     * @param values the values to encode
+     * @return the current builder
+     */
+    B putTypedArray(int[] values);
+
+    /**
+     * Encodes a <tt>long[]</tt> as a signed 64 bit little endian typed array (RFC 8746) at the current
+     * position into the CBOR stream. The elements are packed into a single byte string which can
+     * be read back by a single memory copy. If <tt>values</tt> is <tt>null</tt>, a null-type will
+     * be written.
+     *
+     * @param values the values to encode
+     * @return the current builder
+     */
+    B putTypedArray(long[] values);
+
+    /**
+     * Encodes a <tt>float[]</tt> as a single precision little endian typed array (RFC 8746) at the current
+     * position into the CBOR stream. The elements are packed into a single byte string which can
+     * be read back by a single memory copy. If <tt>values</tt> is <tt>null</tt>, a null-type will
+     * be written.
+     *
+     * @param values the values to encode
+     * @return the current builder
+     */
+    B putTypedArray(float[] values);
+
+    /**
+     * Encodes a <tt>double[]</tt> as a double precision little endian typed array (RFC 8746) at the current
+     * position into the CBOR stream. The elements are packed into a single byte string which can
+     * be read back by a single memory copy. If <tt>values</tt> is <tt>null</tt>, a null-type will
+     * be written.
+     *
+     * @param values the values to encode
+     * @return the current builder
+     */
+    B putTypedArray(double[] values);
+
     /**
      * Encodes an indefinite sized dictionary (map) at the current position into the CBOR stream. The returned
      * {@link DictionaryBuilder} can be used to put an arbitrary number of key-value pairs into the dictionary.
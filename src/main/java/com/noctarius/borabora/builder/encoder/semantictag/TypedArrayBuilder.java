@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2016, Christoph Engelbert (aka noctarius) and
+ * contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.noctarius.borabora.builder.encoder.semantictag;
+
+import com.noctarius.borabora.TypedArray;
+import com.noctarius.borabora.spi.builder.BuilderStackPush;
+import com.noctarius.borabora.spi.builder.TagBuilder;
+
+/**
+ * The <tt>TypedArrayBuilder</tt> interface is designed to be used with the
+ * {@link com.noctarius.borabora.spi.builder.TagSupport} API.
+ * <p>To use the builder, a {@link com.noctarius.borabora.builder.encoder.GraphBuilder} instance
+ * is required. The following example shows how to retrieve and use the builder's instance:</p>
+ * <pre>
+ *     GraphBuilder graphBuilder = writer.newGraphBuilder( output );
+ *     graphBuilder.putTag(
+ *         TagSupport.semanticTag( TypedArrayBuilder.class ).putTypedArray( samples )
+ *             .endSemanticTag() ).finishStream();
+ * </pre>
+ * <p>Primitive arrays are written as little endian typed arrays, which matches the memory
+ * layout of most common hardware.</p>
+ */
+public interface TypedArrayBuilder {
+
+    /**
+     * Writes the given <tt>values</tt> as a signed 16 bit little endian typed array. The returned
+     * {@link TagBuilder} instance must be used to finalize the building by calling
+     * {@link TagBuilder#endSemanticTag()}.
+     *
+     * @param values the values to write
+     * @return the semantic tag finalizing TagBuilder
+     */
+    @BuilderStackPush
+    TagBuilder putTypedArray(short[] values);
+
+    /**
+     * Writes the given <tt>values</tt> as a signed 32 bit little endian typed array. The returned
+     * {@link TagBuilder} instance must be used to finalize the building by calling
+     * {@link TagBuilder#endSemanticTag()}.
+     *
+     * @param values the values to write
+     * @return the semantic tag finalizing TagBuilder
+     */
+    @BuilderStackPush
+    TagBuilder putTypedArray(int[] values);
+
+    /**
+     * Writes the given <tt>values</tt> as a signed 64 bit little endian typed array. The returned
+     * {@link TagBuilder} instance must be used to finalize the building by calling
+     * {@link TagBuilder#endSemanticTag()}.
+     *
+     * @param values the values to write
+     * @return the semantic tag finalizing TagBuilder
+     */
+    @BuilderStackPush
+    TagBuilder putTypedArray(long[] values);
+
+    /**
+     * Writes the given <tt>values</tt> as a single precision little endian typed array. The returned
+     * {@link TagBuilder} instance must be used to finalize the building by calling
+     * {@link TagBuilder#endSemanticTag()}.
+     *
+     * @param values the values to write
+     * @return the semantic tag finalizing TagBuilder
+     */
+    @BuilderStackPush
+    TagBuilder putTypedArray(float[] values);
+
+    /**
+     * Writes the given <tt>values</tt> as a double precision little endian typed array. The returned
+     * {@link TagBuilder} instance must be used to finalize the building by calling
+     * {@link TagBuilder#endSemanticTag()}.
+     *
+     * @param values the values to write
+     * @return the semantic tag finalizing TagBuilder
+     */
+    @BuilderStackPush
+    TagBuilder putTypedArray(double[] values);
+
+    /**
+     * Writes the given {@link TypedArray} unchanged, keeping its element type and byte order. The
+     * returned {@link TagBuilder} instance must be used to finalize the building by calling
+     * {@link TagBuilder#endSemanticTag()}.
+     *
+     * @param value the typed array to write
+     * @return the semantic tag finalizing TagBuilder
+     */
+    @BuilderStackPush
+    TagBuilder putTypedArray(TypedArray value);
+
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2016, Christoph Engelbert (aka noctarius) and
+ * contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.noctarius.borabora.builder.query;
+
+/**
+ * The <tt>AggregateFunction</tt> enum defines the functions available to aggregate
+ * values per group when using {@link StreamQueryBuilder#groupBy(com.noctarius.borabora.Query, Aggregation...)}.
+ * Aggregated values must be numbers, <tt>null</tt> or missing values are ignored.
+ */
+public enum AggregateFunction {
+
+    /**
+     * Counts the values, or the results when no value query is given
+     */
+    Count,
+
+    /**
+     * Sums up the values, integral values are summed up as long as they don't overflow
+     */
+    Sum,
+
+    /**
+     * Selects the smallest value
+     */
+    Min,
+
+    /**
+     * Selects the largest value
+     */
+    Max,
+
+    /**
+     * Calculates the arithmetic mean of the values as a floating point value
+     */
+    Average
+
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2016, Christoph Engelbert (aka noctarius) and
+ * contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.noctarius.borabora.builder.query;
+
+import com.noctarius.borabora.Query;
+
+import java.util.Objects;
+
+/**
+ * An <tt>Aggregation</tt> describes a single aggregated entry of the group dictionaries
+ * emitted by {@link StreamQueryBuilder#groupBy(Query, Aggregation...)}. The value query
+ * is evaluated relative to each result of the group, e.g. <tt>#{'latency'}</tt>, and
+ * is expected to select a single number.
+ */
+public final class Aggregation {
+
+    private final String name;
+    private final AggregateFunction aggregateFunction;
+    private final Query valueQuery;
+
+    private Aggregation(String name, AggregateFunction aggregateFunction, Query valueQuery) {
+        Objects.requireNonNull(name, "name must not be null");
+        Objects.requireNonNull(aggregateFunction, "aggregateFunction must not be null");
+        if (aggregateFunction != AggregateFunction.Count) {
+            Objects.requireNonNull(valueQuery, "valueQuery must not be null");
+        }
+        this.name = name;
+        this.aggregateFunction = aggregateFunction;
+        this.valueQuery = valueQuery;
+    }
+
+    /**
+     * Returns the dictionary key the aggregated value is stored under.
+     *
+     * @return the dictionary key
+     */
+    public String name() {
+        return name;
+    }
+
+    /**
+     * Returns the aggregate function to apply.
+     *
+     * @return the aggregate function
+     */
+    public AggregateFunction aggregateFunction() {
+        return aggregateFunction;
+    }
+
+    /**
+     * Returns the value query, or <tt>null</tt> if the results themselves are counted.
+     *
+     * @return the value query or null
+     */
+    public Query valueQuery() {
+        return valueQuery;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Aggregation)) {
+            return false;
+        }
+
+        Aggregation that = (Aggregation) o;
+
+        if (!name.equals(that.name)) {
+            return false;
+        }
+        if (aggregateFunction != that.aggregateFunction) {
+            return false;
+        }
+        return valueQuery != null ? valueQuery.equals(that.valueQuery) : that.valueQuery == null;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = name.hashCode();
+        result = 31 * result + aggregateFunction.hashCode();
+        result = 31 * result + (valueQuery != null ? valueQuery.hashCode() : 0);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return aggregateFunction + "[ name=" + name + " ]";
+    }
+
+    /**
+     * Counts the results of each group.
+     *
+     * @param name the dictionary key of the aggregated value
+     * @return the aggregation instance
+     */
+    public static Aggregation count(String name) {
+        return new Aggregation(name, AggregateFunction.Count, null);
+    }
+
+    /**
+     * Counts the non-null values selected by the given <tt>valueQuery</tt> per group.
+     *
+     * @param name       the dictionary key of the aggregated value
+     * @param valueQuery the query to select the value to count
+     * @return the aggregation instance
+     */
+    public static Aggregation count(String name, Query valueQuery) {
+        Objects.requireNonNull(valueQuery, "valueQuery must not be null");
+        return new Aggregation(name, AggregateFunction.Count, valueQuery);
+    }
+
+    /**
+     * Sums up the values selected by the given <tt>valueQuery</tt> per group.
+     *
+     * @param name       the dictionary key of the aggregated value
+     * @param valueQuery the query to select the value to sum up
+     * @return the aggregation instance
+     */
+    public static Aggregation sum(String name, Query valueQuery) {
+        return new Aggregation(name, AggregateFunction.Sum, valueQuery);
+    }
+
+    /**
+     * Selects the smallest value selected by the given <tt>valueQuery</tt> per group.
+     *
+     * @param name       the dictionary key of the aggregated value
+     * @param valueQuery the query to select the value to compare
+     * @return the aggregation instance
+     */
+    public static Aggregation min(String name, Query valueQuery) {
+        return new Aggregation(name, AggregateFunction.Min, valueQuery);
+    }
+
+    /**
+     * Selects the largest value selected by the given <tt>valueQuery</tt> per group.
+     *
+     * @param name       the dictionary key of the aggregated value
+     * @param valueQuery the query to select the value to compare
+     * @return the aggregation instance
+     */
+    public static Aggregation max(String name, Query valueQuery) {
+        return new Aggregation(name, AggregateFunction.Max, valueQuery);
+    }
+
+    /**
+     * Calculates the arithmetic mean of the values selected by the given <tt>valueQuery</tt>
+     * per group.
+     *
+     * @param name       the dictionary key of the aggregated value
+     * @param valueQuery the query to select the value to average
+     * @return the aggregation instance
+     */
+    public static Aggregation average(String name, Query valueQuery) {
+        return new Aggregation(name, AggregateFunction.Average, valueQuery);
+    }
+
+}
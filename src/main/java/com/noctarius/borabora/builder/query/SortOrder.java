@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2016, Christoph Engelbert (aka noctarius) and
+ * contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.noctarius.borabora.builder.query;
+
+/**
+ * The <tt>SortOrder</tt> enum defines the ordering direction of query results
+ * when using {@link StreamQueryBuilder#orderBy(com.noctarius.borabora.Query, SortOrder)}.
+ * Independent from the direction, results without a sort key are always ordered last.
+ */
+public enum SortOrder {
+
+    /**
+     * Orders results from the smallest to the largest sort key
+     */
+    Ascending,
+
+    /**
+     * Orders results from the largest to the smallest sort key
+     */
+    Descending
+
+}
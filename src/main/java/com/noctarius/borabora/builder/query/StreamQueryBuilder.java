@@ -16,9 +16,65 @@
  */
 package com.noctarius.borabora.builder.query;
 
+import com.noctarius.borabora.Query;
+
 public interface StreamQueryBuilder
         extends QueryBuilder, StreamElementQueryBuilder<QueryBuilder>, ProjectionQueryBuilder<QueryBuilder> {
 
     QueryBuilder multiStream();
 
+    /**
+     * Skips the given number of results before any further result is passed to the
+     * consumer. Skipped results are not materialized.
+     *
+     * @param count the number of results to skip
+     * @return this builder instance
+     * @throws IllegalArgumentException if count is negative
+     */
+    StreamQueryBuilder skip(long count);
+
+    /**
+     * Limits the number of results passed to the consumer. As soon as the given number
+     * of results is reached, the query execution is stopped and the remaining stream
+     * is not read anymore.
+     *
+     * @param count the maximum number of results
+     * @return this builder instance
+     * @throws IllegalArgumentException if count is negative
+     */
+    StreamQueryBuilder limit(long count);
+
+    /**
+     * Orders the results by the sort key selected by the given <tt>sortKeyQuery</tt>,
+     * which is evaluated relative to each result, e.g. <tt>#{'latency'}</tt>. Sort keys
+     * must be numbers or mutually comparable types, results without a sort key are
+     * ordered last.
+     * <p>Ordering requires the full input to be scanned, however in combination with
+     * {@link #limit(long)} only the best <tt>skip + limit</tt> sort key and offset pairs
+     * are retained and only the final results are materialized.</p>
+     *
+     * @param sortKeyQuery the query to select the sort key of each result
+     * @param sortOrder    the ordering direction
+     * @return this builder instance
+     */
+    StreamQueryBuilder orderBy(Query sortKeyQuery, SortOrder sortOrder);
+
+    /**
+     * Groups the results by the group key selected by the given <tt>keyQuery</tt>,
+     * which is evaluated relative to each result, e.g. <tt>#{'region'}</tt>. Group keys
+     * are compared by their encoded bytes, results without a group key are collected
+     * in a <tt>null</tt> group.
+     * <p>For every group a dictionary is emitted using the configured projection strategy,
+     * once the full input is scanned. The dictionary contains the group key under the
+     * <tt>key</tt> entry and the aggregated values under the names of the given
+     * aggregations. Groups are emitted in order of their first appearance. Ordering,
+     * skip and limit are applied to the emitted group dictionaries.</p>
+     *
+     * @param keyQuery     the query to select the group key of each result
+     * @param aggregations the aggregations to calculate per group
+     * @return this builder instance
+     * @throws IllegalArgumentException if an aggregation name is used more than once or is <tt>key</tt>
+     */
+    StreamQueryBuilder groupBy(Query keyQuery, Aggregation... aggregations);
+
 }
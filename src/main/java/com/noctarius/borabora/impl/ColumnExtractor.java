@@ -0,0 +1,306 @@
+/*
+ * Copyright (c) 2016, Christoph Engelbert (aka noctarius) and
+ * contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.noctarius.borabora.impl;
+
+import com.noctarius.borabora.ColumnType;
+import com.noctarius.borabora.ColumnVector;
+import com.noctarius.borabora.Input;
+import com.noctarius.borabora.MajorType;
+import com.noctarius.borabora.Query;
+import com.noctarius.borabora.Value;
+import com.noctarius.borabora.ValueType;
+import com.noctarius.borabora.ValueTypes;
+import com.noctarius.borabora.WrongTypeException;
+import com.noctarius.borabora.spi.io.ByteSizes;
+import com.noctarius.borabora.spi.io.Bytes;
+import com.noctarius.borabora.spi.io.Decoder;
+import com.noctarius.borabora.spi.io.RawKeyIndex;
+import com.noctarius.borabora.spi.query.QueryConsumer;
+import com.noctarius.borabora.spi.query.QueryContext;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+import static com.noctarius.borabora.spi.io.Constants.ADDITIONAL_INFORMATION_MASK;
+import static com.noctarius.borabora.spi.io.Constants.FP_VALUE_DOUBLE_PRECISION;
+import static com.noctarius.borabora.spi.io.Constants.FP_VALUE_SINGLE_PRECISION;
+import static com.noctarius.borabora.spi.io.Constants.OFFSET_CODE_NULL;
+
+/**
+ * Extracts columns from all stream elements in a single pass. Every column query is
+ * evaluated relative to each stream element and the selected value is read straight
+ * into the column's primitive arrays without creating intermediate {@link Value}s.
+ */
+final class ColumnExtractor
+        implements QueryConsumer {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final Query[] columns;
+    private final ColumnBuilder[] columnBuilders;
+
+    private long offset = OFFSET_CODE_NULL;
+    private boolean captured;
+
+    ColumnExtractor(Query[] columns) {
+        this.columns = columns;
+        this.columnBuilders = new ColumnBuilder[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            columnBuilders[i] = new ColumnBuilder();
+        }
+    }
+
+    ColumnVector[] extract(QueryContext queryContext) {
+        Input input = queryContext.input();
+        long elementOffset = 0;
+        while (input.offsetValid(elementOffset)) {
+            for (int i = 0; i < columns.length; i++) {
+                long valueOffset = evaluate(columns[i], elementOffset, queryContext);
+                columnBuilders[i].append(valueOffset, queryContext);
+            }
+            elementOffset = Decoder.skip(queryContext, elementOffset);
+        }
+
+        ColumnVector[] columnVectors = new ColumnVector[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            columnVectors[i] = columnBuilders[i].build();
+        }
+        return columnVectors;
+    }
+
+    @Override
+    public boolean accept(long offset, QueryContext queryContext) {
+        // Only the offset is of interest, no value is materialized
+        if (!captured) {
+            this.offset = offset;
+            this.captured = true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean consume(Value value) {
+        throw new WrongTypeException("Column queries must not use projections");
+    }
+
+    private long evaluate(Query column, long elementOffset, QueryContext queryContext) {
+        offset = OFFSET_CODE_NULL;
+        captured = false;
+        queryContext.offset(elementOffset);
+        column.newQueryPipeline().evaluate(queryContext);
+        return offset;
+    }
+
+    private static final class ColumnBuilder {
+
+        private ColumnType columnType = ColumnType.Null;
+        private int size;
+
+        private long[] nullBitmap = new long[1];
+        private long[] longs;
+        private double[] doubles;
+        private int[] codes;
+
+        private RawKeyIndex stringIndex;
+        private String[] dictionary;
+
+        private void append(long offset, QueryContext queryContext) {
+            ensureCapacity();
+
+            if (offset == OFFSET_CODE_NULL) {
+                appendNull();
+                size++;
+                return;
+            }
+
+            Input input = queryContext.input();
+            ValueType valueType = queryContext.valueType(offset);
+            if (valueType == ValueTypes.UInt || valueType == ValueTypes.NInt) {
+                appendInt(input, offset);
+
+            } else if (valueType == ValueTypes.Float) {
+                appendFloat(input, offset);
+
+            } else if (valueType == ValueTypes.Null || valueType == ValueTypes.Undefined) {
+                appendNull();
+
+            } else if (valueType.matches(ValueTypes.String)) {
+                appendString(offset, queryContext);
+
+            } else if (valueType.matches(ValueTypes.Number)) {
+                Number number = Decoder.readValue(offset, queryContext).byValueType();
+                if (number instanceof BigDecimal || number.doubleValue() != number.longValue()) {
+                    appendDouble(number.doubleValue(), offset);
+                } else {
+                    appendLong(number.longValue(), offset);
+                }
+
+            } else {
+                throw new WrongTypeException(offset, "Value of type " + valueType + " cannot be stored in a column");
+            }
+            size++;
+        }
+
+        private void appendInt(Input input, long offset) {
+            short head = Decoder.readUInt8(input, offset);
+            int byteSize = ByteSizes.intByteSize(input, offset);
+
+            long value;
+            switch (byteSize) {
+                case 2:
+                    value = Bytes.readUInt8(input, offset + 1);
+                    break;
+                case 3:
+                    value = Bytes.readUInt16(input, offset + 1);
+                    break;
+                case 5:
+                    value = Bytes.readUInt32(input, offset + 1);
+                    break;
+                case 9:
+                    value = Bytes.readUInt64Long(input, offset + 1);
+                    if (value < 0) {
+                        // Exceeds the long range, fall back to floating point
+                        appendDouble(Decoder.readInt(input, offset).doubleValue(), offset);
+                        return;
+                    }
+                    break;
+                default:
+                    value = head & ADDITIONAL_INFORMATION_MASK;
+            }
+
+            // Negative integers are stored as -1 - n
+            long mask = -((head & 0xff) >>> 5);
+            appendLong(mask ^ value, offset);
+        }
+
+        private void appendFloat(Input input, long offset) {
+            int addInfo = Decoder.additionalInfo(input, offset);
+            double value;
+            switch (addInfo) {
+                case FP_VALUE_SINGLE_PRECISION:
+                    value = Decoder.readSinglePrecisionFloat(input, offset + 1);
+                    break;
+                case FP_VALUE_DOUBLE_PRECISION:
+                    value = Decoder.readDoublePrecisionFloat(input, offset + 1);
+                    break;
+                default:
+                    value = Decoder.readFloat(input, offset).doubleValue();
+            }
+            appendDouble(value, offset);
+        }
+
+        private void appendLong(long value, long offset) {
+            switch (columnType) {
+                case Null:
+                    columnType = ColumnType.Int;
+                    longs = new long[nullBitmap.length << 6];
+                    longs[size] = value;
+                    break;
+                case Int:
+                    longs[size] = value;
+                    break;
+                case Float:
+                    doubles[size] = value;
+                    break;
+                default:
+                    throw new WrongTypeException(offset, "Integral value cannot be stored in a String column");
+            }
+        }
+
+        private void appendDouble(double value, long offset) {
+            switch (columnType) {
+                case Null:
+                    columnType = ColumnType.Float;
+                    doubles = new double[nullBitmap.length << 6];
+                    break;
+                case Int:
+                    // Promote all previous integral values
+                    columnType = ColumnType.Float;
+                    doubles = new double[longs.length];
+                    for (int i = 0; i < size; i++) {
+                        doubles[i] = longs[i];
+                    }
+                    longs = null;
+                    break;
+                case String:
+                    throw new WrongTypeException(offset, "Floating point value cannot be stored in a String column");
+            }
+            doubles[size] = value;
+        }
+
+        private void appendString(long offset, QueryContext queryContext) {
+            switch (columnType) {
+                case Null:
+                    columnType = ColumnType.String;
+                    codes = new int[nullBitmap.length << 6];
+                    stringIndex = new RawKeyIndex();
+                    dictionary = new String[16];
+                    break;
+                case Int:
+                case Float:
+                    throw new WrongTypeException(offset, "String value cannot be stored in a numeric column");
+            }
+
+            // Strings are only decoded on their first appearance, references are keyed by the referenced string
+            offset = queryContext.resolveStringReference(offset);
+            Input input = queryContext.input();
+            MajorType majorType = Decoder.getMajorType(offset, input);
+            int length = (int) Decoder.length(input, majorType, offset);
+
+            int distinct = stringIndex.size();
+            int code = stringIndex.findOrInsert(input, offset, length);
+            if (code == distinct) {
+                if (code == dictionary.length) {
+                    dictionary = Arrays.copyOf(dictionary, code * 2);
+                }
+                dictionary[code] = Decoder.readValue(offset, queryContext).string();
+            }
+            codes[size] = code;
+        }
+
+        private void appendNull() {
+            nullBitmap[size >>> 6] |= 1L << size;
+        }
+
+        private void ensureCapacity() {
+            if (size < nullBitmap.length << 6) {
+                return;
+            }
+            int capacity = Math.max(INITIAL_CAPACITY, size << 1);
+            nullBitmap = Arrays.copyOf(nullBitmap, (capacity + 63) >>> 6);
+            if (longs != null) {
+                longs = Arrays.copyOf(longs, capacity);
+            }
+            if (doubles != null) {
+                doubles = Arrays.copyOf(doubles, capacity);
+            }
+            if (codes != null) {
+                codes = Arrays.copyOf(codes, capacity);
+            }
+        }
+
+        private ColumnVector build() {
+            long[] nullBitmap = Arrays.copyOf(this.nullBitmap, (size + 63) >>> 6);
+            long[] longs = this.longs == null ? null : Arrays.copyOf(this.longs, size);
+            double[] doubles = this.doubles == null ? null : Arrays.copyOf(this.doubles, size);
+            int[] codes = this.codes == null ? null : Arrays.copyOf(this.codes, size);
+            String[] dictionary = this.dictionary == null ? null : Arrays.copyOf(this.dictionary, stringIndex.size());
+            return new ColumnVectorImpl(columnType, size, nullBitmap, longs, doubles, codes, dictionary);
+        }
+    }
+
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2016, Christoph Engelbert (aka noctarius) and
+ * contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.noctarius.borabora.impl;
+
+import com.noctarius.borabora.ColumnType;
+import com.noctarius.borabora.ColumnVector;
+import com.noctarius.borabora.WrongTypeException;
+
+final class ColumnVectorImpl
+        implements ColumnVector {
+
+    private final ColumnType columnType;
+    private final int size;
+    private final long[] nullBitmap;
+    private final long[] longs;
+    private final double[] doubles;
+    private final int[] codes;
+    private final String[] dictionary;
+
+    ColumnVectorImpl(ColumnType columnType, int size, long[] nullBitmap, long[] longs, double[] doubles, int[] codes,
+                     String[] dictionary) {
+
+        this.columnType = columnType;
+        this.size = size;
+        this.nullBitmap = nullBitmap;
+        this.longs = longs;
+        this.doubles = doubles;
+        this.codes = codes;
+        this.dictionary = dictionary;
+    }
+
+    @Override
+    public ColumnType columnType() {
+        return columnType;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isNull(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("row " + row + " is out of bounds");
+        }
+        return (nullBitmap[row >>> 6] & (1L << row)) != 0;
+    }
+
+    @Override
+    public long[] nullBitmap() {
+        return nullBitmap;
+    }
+
+    @Override
+    public long[] longs() {
+        matchColumnType(ColumnType.Int);
+        return longs;
+    }
+
+    @Override
+    public double[] doubles() {
+        matchColumnType(ColumnType.Float);
+        return doubles;
+    }
+
+    @Override
+    public int[] codes() {
+        matchColumnType(ColumnType.String);
+        return codes;
+    }
+
+    @Override
+    public String[] dictionary() {
+        matchColumnType(ColumnType.String);
+        return dictionary;
+    }
+
+    @Override
+    public String toString() {
+        return "ColumnVector{" + "columnType=" + columnType + ", size=" + size + '}';
+    }
+
+    private void matchColumnType(ColumnType expected) {
+        if (columnType != expected) {
+            String msg = "Requested column type " + expected + " doesn't match actual column type " + columnType;
+            throw new WrongTypeException(msg);
+        }
+    }
+
+}
@@ -18,26 +18,100 @@ package com.noctarius.borabora.impl;
 
 import com.noctarius.borabora.Input;
 import com.noctarius.borabora.spi.codec.TagStrategy;
+import com.noctarius.borabora.spi.io.SkipSizeCache;
+import com.noctarius.borabora.spi.io.StringReferences;
+import com.noctarius.borabora.spi.metrics.QueryMetrics;
 import com.noctarius.borabora.spi.query.ProjectionStrategy;
 import com.noctarius.borabora.spi.query.QueryConsumer;
 import com.noctarius.borabora.spi.query.QueryContext;
 import com.noctarius.borabora.spi.query.QueryContextFactory;
 
 import java.util.List;
+import java.util.NavigableMap;
 
 public class DefaultQueryContextFactory
         implements QueryContextFactory {
 
-    public static final QueryContextFactory INSTANCE = new DefaultQueryContextFactory();
+    public static final QueryContextFactory INSTANCE = new DefaultQueryContextFactory(false);
 
-    private DefaultQueryContextFactory() {
+    public static final QueryContextFactory SORTED_DICTIONARY_KEYS_INSTANCE = new DefaultQueryContextFactory(true);
+
+    private final boolean sortedDictionaryKeys;
+    private final int skipSizeCacheCapacity;
+
+    private DefaultQueryContextFactory(boolean sortedDictionaryKeys) {
+        this(sortedDictionaryKeys, 0);
+    }
+
+    private DefaultQueryContextFactory(boolean sortedDictionaryKeys, int skipSizeCacheCapacity) {
+        this.sortedDictionaryKeys = sortedDictionaryKeys;
+        this.skipSizeCacheCapacity = skipSizeCacheCapacity;
+    }
+
+    /**
+     * Returns a new factory creating query contexts with a {@link SkipSizeCache} of the given
+     * <tt>capacity</tt>, memoizing the sizes of nested data items skipped by a query.
+     *
+     * @param capacity the maximum number of cached sizes per query
+     * @return the new factory instance
+     * @throws IllegalArgumentException if capacity is not positive
+     */
+    public static QueryContextFactory withSkipSizeCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        return new DefaultQueryContextFactory(false, capacity);
+    }
+
+    QueryContextFactory withSortedDictionaryKeys() {
+        if (skipSizeCacheCapacity == 0) {
+            return SORTED_DICTIONARY_KEYS_INSTANCE;
+        }
+        return new DefaultQueryContextFactory(true, skipSizeCacheCapacity);
     }
 
     @Override
     public QueryContext newQueryContext(Input input, QueryConsumer queryConsumer, List<TagStrategy> tagStrategies,
                                         ProjectionStrategy projectionStrategy) {
 
-        return new QueryContextImpl(input, queryConsumer, tagStrategies, projectionStrategy, this);
+        return newQueryContext(input, queryConsumer, tagStrategies, projectionStrategy, null);
+    }
+
+    @Override
+    public QueryContext newQueryContext(Input input, QueryConsumer queryConsumer, List<TagStrategy> tagStrategies,
+                                        ProjectionStrategy projectionStrategy, QueryMetrics queryMetrics) {
+
+        SkipSizeCache skipSizeCache = skipSizeCacheCapacity == 0 ? null : new SkipSizeCache(skipSizeCacheCapacity);
+        return newQueryContext(input, queryConsumer, tagStrategies, projectionStrategy, queryMetrics, skipSizeCache, null);
+    }
+
+    @Override
+    public QueryContext newSubQueryContext(QueryContext parentQueryContext, QueryConsumer queryConsumer) {
+        // Sub-contexts read the same input, so skip sizes memoized by the parent stay valid
+        SkipSizeCache skipSizeCache = parentQueryContext.skipSizeCache();
+        if (skipSizeCache == null && skipSizeCacheCapacity > 0) {
+            skipSizeCache = new SkipSizeCache(skipSizeCacheCapacity);
+        }
+        // The string reference namespaces discovered by the parent apply to the same input as well
+        NavigableMap<Long, StringReferences> stringNamespaces = null;
+        if (parentQueryContext instanceof QueryContextImpl) {
+            stringNamespaces = ((QueryContextImpl) parentQueryContext).stringNamespaces();
+        }
+        return newQueryContext(parentQueryContext.input(), queryConsumer, parentQueryContext.tagStrategies(),
+                parentQueryContext.projectionStrategy(), parentQueryContext.queryMetrics(), skipSizeCache, stringNamespaces);
+    }
+
+    private QueryContext newQueryContext(Input input, QueryConsumer queryConsumer, List<TagStrategy> tagStrategies,
+                                         ProjectionStrategy projectionStrategy, QueryMetrics queryMetrics,
+                                         SkipSizeCache skipSizeCache,
+                                         NavigableMap<Long, StringReferences> stringNamespaces) {
+
+        // Nested query contexts share the metered input of their parent
+        if (queryMetrics != null && !(input instanceof MeteredInput)) {
+            input = new MeteredInput(input, queryMetrics);
+        }
+        return new QueryContextImpl(input, queryConsumer, tagStrategies, projectionStrategy, this, sortedDictionaryKeys,
+                queryMetrics, skipSizeCache, stringNamespaces);
     }
 
 }
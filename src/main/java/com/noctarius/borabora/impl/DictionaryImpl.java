@@ -26,6 +26,8 @@ import com.noctarius.borabora.spi.StreamableIterable;
 import com.noctarius.borabora.spi.io.ByteSizes;
 import com.noctarius.borabora.spi.io.Decoder;
 import com.noctarius.borabora.spi.io.ElementCounts;
+import com.noctarius.borabora.spi.metrics.QueryMetrics;
+import com.noctarius.borabora.spi.query.EncodedKeyPredicate;
 import com.noctarius.borabora.spi.query.QueryContext;
 
 import java.util.Iterator;
@@ -66,7 +68,7 @@ public final class DictionaryImpl
     @Override
     public boolean containsKey(Predicate<Value> predicate) {
         Objects.requireNonNull(predicate, "predicate must not be null");
-        return findValueByPredicate(predicate, false) != -1;
+        return findKeyByPredicate(predicate) != -1;
     }
 
     @Override
@@ -78,7 +80,7 @@ public final class DictionaryImpl
     @Override
     public Value get(Predicate<Value> predicate) {
         Objects.requireNonNull(predicate, "predicate must not be null");
-        long keyOffset = findValueByPredicate(predicate, false);
+        long keyOffset = findKeyByPredicate(predicate);
         return get(keyOffset);
     }
 
@@ -133,19 +135,53 @@ public final class DictionaryImpl
         if (keyOffset == -1) {
             return null;
         }
-        long valueOffset = Decoder.skip(input, keyOffset);
+        long valueOffset = Decoder.skip(queryContext, keyOffset);
         return Decoder.readValue(valueOffset, queryContext);
     }
 
+    private long findKeyByPredicate(Predicate<Value> predicate) {
+        if (queryContext.sortedDictionaryKeys() && predicate instanceof EncodedKeyPredicate) {
+            return findKeyByEncodedKeys((EncodedKeyPredicate) predicate);
+        }
+        return findValueByPredicate(predicate, false);
+    }
+
+    private long findKeyByEncodedKeys(EncodedKeyPredicate predicate) {
+        for (byte[] encodedKey : predicate.encodedKeys()) {
+            long low = 0;
+            long high = size - 1;
+            while (low <= high) {
+                long middle = (low + high) >>> 1;
+                long offset = calculateArrayIndex(middle * 2);
+
+                // String references are not sorted by the referenced string
+                if (queryContext.resolveStringReference(offset) != offset) {
+                    return findValueByPredicate(predicate, false);
+                }
+
+                int result = Decoder.compareEncoded(input, offset, encodedKey);
+                if (result < 0) {
+                    low = middle + 1;
+                } else if (result > 0) {
+                    high = middle - 1;
+                } else {
+                    return offset;
+                }
+            }
+        }
+        return -1;
+    }
+
     private long findValueByPredicate(Predicate<Value> predicate, boolean findValue) {
         RelocatableStreamValue streamValue = new RelocatableStreamValue();
         for (long i = findValue ? 1 : 0; i < size * 2; i = i + 2) {
             long offset = calculateArrayIndex(i);
-            short head = readUInt8(input, offset);
+            long itemOffset = queryContext.resolveStringReference(offset);
+            short head = readUInt8(input, itemOffset);
             MajorType majorType = MajorType.findMajorType(head);
-            ValueType valueType = queryContext.valueType(offset);
+            ValueType valueType = queryContext.valueType(itemOffset);
 
-            streamValue.relocate(queryContext, majorType, valueType, offset);
+            streamValue.relocate(queryContext, majorType, valueType, itemOffset);
             if (predicate.test(streamValue)) {
                 return offset;
             }
@@ -164,7 +200,11 @@ public final class DictionaryImpl
         Input input = queryContext.input();
         long headByteSize = ByteSizes.headByteSize(input, offset);
         long size = ElementCounts.dictionaryElementCount(input, offset);
-        long[][] elementIndexes = Decoder.readElementIndexes(input, offset + headByteSize, size * 2);
+        long[][] elementIndexes = Decoder.readElementIndexes(queryContext, offset + headByteSize, size * 2);
+        QueryMetrics queryMetrics = queryContext.queryMetrics();
+        if (queryMetrics != null) {
+            queryMetrics.incrementElementIndexes();
+        }
         return new DictionaryImpl(size, elementIndexes, queryContext);
     }
 
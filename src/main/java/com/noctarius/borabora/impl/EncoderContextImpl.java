@@ -16,11 +16,24 @@
  */
 package com.noctarius.borabora.impl;
 
+import com.noctarius.borabora.Input;
+import com.noctarius.borabora.MajorType;
 import com.noctarius.borabora.Output;
 import com.noctarius.borabora.WrongTypeException;
 import com.noctarius.borabora.spi.builder.EncoderContext;
 import com.noctarius.borabora.spi.codec.TagStrategy;
+import com.noctarius.borabora.spi.io.ByteSizes;
+import com.noctarius.borabora.spi.io.CompositeBuffer;
+import com.noctarius.borabora.spi.io.Decoder;
+import com.noctarius.borabora.spi.io.Encoder;
+import com.noctarius.borabora.spi.io.SeekableOutput;
+import com.noctarius.borabora.spi.io.StringReferences;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 
@@ -28,15 +41,47 @@ public class EncoderContextImpl
         implements EncoderContext {
 
     private final Map<Class<?>, TagStrategy> tagStrategies;
-    private final Output output;
+    private final boolean definiteLengthContainers;
+    private final boolean deterministicEncoding;
+    private final Map<Object, Long> stringTable;
 
+    private Output output;
     private long offset;
+    private long stringTableSize;
+    private boolean opaque;
+
+    private CompositeBuffer containerBuffer;
+    private Output containerTarget;
+    private long containerTargetOffset;
+    private int containerDepth;
 
     public EncoderContextImpl(Output output, Map<Class<?>, TagStrategy> tagStrategies) {
+        this(output, tagStrategies, false);
+    }
+
+    public EncoderContextImpl(Output output, Map<Class<?>, TagStrategy> tagStrategies, boolean definiteLengthContainers) {
+        this(output, tagStrategies, definiteLengthContainers, false);
+    }
+
+    public EncoderContextImpl(Output output, Map<Class<?>, TagStrategy> tagStrategies, boolean definiteLengthContainers,
+                              boolean stringReferences) {
+
+        this(output, tagStrategies, definiteLengthContainers, stringReferences, false);
+    }
+
+    public EncoderContextImpl(Output output, Map<Class<?>, TagStrategy> tagStrategies, boolean definiteLengthContainers,
+                              boolean stringReferences, boolean deterministicEncoding) {
+
         Objects.requireNonNull(output, "output must not be null");
         Objects.requireNonNull(tagStrategies, "tagStrategies must not be null");
         this.output = output;
         this.tagStrategies = tagStrategies;
+        // Non-seekable outputs fall back to indefinite containers
+        // Deterministic containers are buffered and therefore always back-patched
+        this.definiteLengthContainers = deterministicEncoding //
+                || definiteLengthContainers && output instanceof SeekableOutput;
+        this.deterministicEncoding = deterministicEncoding;
+        this.stringTable = stringReferences ? new HashMap<>() : null;
     }
 
     @Override
@@ -54,6 +99,158 @@ public class EncoderContextImpl
         this.offset = offset;
     }
 
+    @Override
+    public boolean definiteLengthContainers() {
+        return definiteLengthContainers;
+    }
+
+    @Override
+    public boolean deterministicEncoding() {
+        return deterministicEncoding;
+    }
+
+    @Override
+    public void beginContainer() {
+        if (!deterministicEncoding || containerDepth++ > 0) {
+            return;
+        }
+        containerTarget = output;
+        containerTargetOffset = offset;
+        containerBuffer = CompositeBuffer.newCompositeBuffer();
+        output = containerBuffer;
+        offset = 0;
+    }
+
+    @Override
+    public void finishContainer() {
+        if (!deterministicEncoding || --containerDepth > 0) {
+            return;
+        }
+        byte[] data = new byte[(int) offset];
+        containerBuffer.read(data, 0, data.length);
+        output = containerTarget;
+        offset = containerTargetOffset + output.write(data, containerTargetOffset, data.length);
+        containerBuffer = null;
+        containerTarget = null;
+    }
+
+    @Override
+    public void sortDictionaryEntries(long[] entryOffsets, int entries) {
+        Objects.requireNonNull(entryOffsets, "entryOffsets must not be null");
+        if (!deterministicEncoding || entries < 2) {
+            return;
+        }
+
+        long baseOffset = entryOffsets[0];
+        byte[] data = new byte[(int) (offset - baseOffset)];
+        containerBuffer.read(data, baseOffset, data.length);
+        Input input = Input.fromByteArray(data);
+
+        Integer[] order = new Integer[entries];
+        int[] entryStarts = new int[entries];
+        int[] keyEnds = new int[entries];
+        for (int i = 0; i < entries; i++) {
+            int entryStart = (int) (entryOffsets[i] - baseOffset);
+            order[i] = i;
+            entryStarts[i] = entryStart;
+            keyEnds[i] = (int) Decoder.skip(input, entryStart);
+        }
+
+        Arrays.sort(order, (e1, e2) -> {
+            int result = compareKeys(data, entryStarts[e1], keyEnds[e1], entryStarts[e2], keyEnds[e2]);
+            if (result == 0) {
+                throw new IllegalStateException("Dictionary contains duplicate keys");
+            }
+            return result;
+        });
+
+        long position = baseOffset;
+        for (int index : order) {
+            int entryEnd = index + 1 < entries ? entryStarts[index + 1] : data.length;
+            int length = entryEnd - entryStarts[index];
+            position += containerBuffer.write(Arrays.copyOfRange(data, entryStarts[index], entryEnd), position, length);
+        }
+    }
+
+    @Override
+    public boolean stringReferences() {
+        return stringTable != null;
+    }
+
+    @Override
+    public void beginStringNamespace() {
+        if (stringTable != null) {
+            stringTable.clear();
+            stringTableSize = 0;
+            offset = Encoder.putStringNamespace(offset, output);
+        }
+    }
+
+    @Override
+    public long stringReference(Object value, long byteSize) {
+        // Strings of opaque values are registered after the value is written
+        if (stringTable == null || opaque) {
+            return -1;
+        }
+        if (value == null) {
+            registerString(null, byteSize);
+            return -1;
+        }
+        if (value instanceof byte[]) {
+            byte[] bytes = (byte[]) value;
+            Long index = stringTable.get(ByteBuffer.wrap(bytes));
+            if (index != null) {
+                return index;
+            }
+            // Prevent later changes to the array from corrupting the table
+            registerString(ByteBuffer.wrap(bytes.clone()), byteSize);
+            return -1;
+        }
+        Long index = stringTable.get(value);
+        if (index != null) {
+            return index;
+        }
+        registerString(value, byteSize);
+        return -1;
+    }
+
+    @Override
+    public void encodeOpaque(EncoderFunction encoderFunction) {
+        Objects.requireNonNull(encoderFunction, "encoderFunction must not be null");
+        if (stringTable == null || opaque) {
+            encode(encoderFunction);
+            return;
+        }
+
+        // Encode into a scratch buffer to find the embedded strings
+        Output target = output;
+        long targetOffset = offset;
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try {
+            opaque = true;
+            output = Output.toOutputStream(baos);
+            offset = 0;
+            offset = encoderFunction.encode(0, output);
+        } finally {
+            opaque = false;
+            output = target;
+            offset = targetOffset;
+        }
+
+        byte[] data = baos.toByteArray();
+        Input input = Input.fromByteArray(data);
+        StringReferences.collectStrings(input, 0, data.length, (position) -> {
+            long byteSize = ByteSizes.stringDataSize(input, position);
+            byte[] bytes = Decoder.extractStringBytes(input, position);
+            if (Decoder.getMajorType(position, input) == MajorType.TextString) {
+                registerString(new String(bytes, StandardCharsets.UTF_8), byteSize);
+            } else {
+                registerString(ByteBuffer.wrap(bytes), byteSize);
+            }
+        });
+        offset += output.write(data, offset, data.length);
+    }
+
     @Override
     public long applyEncoder(Object value, long offset) {
         Objects.requireNonNull(value, "value must not be null");
@@ -71,4 +268,27 @@ public class EncoderContextImpl
         return tagStrategies.get(type);
     }
 
+    private static int compareKeys(byte[] data, int start1, int end1, int start2, int end2) {
+        int length1 = end1 - start1;
+        int length2 = end2 - start2;
+        int length = Math.min(length1, length2);
+        for (int i = 0; i < length; i++) {
+            int result = Integer.compare(data[start1 + i] & 0xff, data[start2 + i] & 0xff);
+            if (result != 0) {
+                return result;
+            }
+        }
+        return Integer.compare(length1, length2);
+    }
+
+    private void registerString(Object value, long byteSize) {
+        if (byteSize < StringReferences.minimumLength(stringTableSize)) {
+            return;
+        }
+        if (value != null) {
+            stringTable.putIfAbsent(value, stringTableSize);
+        }
+        stringTableSize++;
+    }
+
 }
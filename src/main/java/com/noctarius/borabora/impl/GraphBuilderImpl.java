@@ -19,17 +19,32 @@ package com.noctarius.borabora.impl;
 import com.noctarius.borabora.builder.encoder.GraphBuilder;
 import com.noctarius.borabora.spi.builder.AbstractStreamValueBuilder;
 import com.noctarius.borabora.spi.builder.EncoderContext;
+import com.noctarius.borabora.spi.jfr.JfrEvents;
 
 final class GraphBuilderImpl
         extends AbstractStreamValueBuilder<GraphBuilder>
         implements GraphBuilder {
 
+    private final Object event;
+    private final long startOffset;
+
     GraphBuilderImpl(EncoderContext encoderContext) {
         super(encoderContext);
+        this.event = JfrEvents.beginWriterFlush();
+        this.startOffset = encoderContext.offset();
     }
 
     @Override
     public void finishStream() {
+        if (event != null) {
+            JfrEvents.commitWriterFlush(event, "GraphBuilder", encoderContext.offset() - startOffset);
+        }
+    }
+
+    @Override
+    protected void beginItem() {
+        // Every top-level item gets its own string reference namespace
+        encoderContext.beginStringNamespace();
     }
 
 }
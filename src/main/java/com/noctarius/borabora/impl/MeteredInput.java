@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2016, Christoph Engelbert (aka noctarius) and
+ * contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.noctarius.borabora.impl;
+
+import com.noctarius.borabora.Input;
+import com.noctarius.borabora.NoSuchByteException;
+import com.noctarius.borabora.spi.io.StructuralIndex;
+import com.noctarius.borabora.spi.metrics.QueryMetrics;
+
+import java.nio.ByteBuffer;
+
+final class MeteredInput
+        implements Input {
+
+    private final Input input;
+    private final QueryMetrics queryMetrics;
+
+    MeteredInput(Input input, QueryMetrics queryMetrics) {
+        this.input = input;
+        this.queryMetrics = queryMetrics;
+    }
+
+    @Override
+    public byte read(long offset)
+            throws NoSuchByteException {
+
+        byte value = input.read(offset);
+        queryMetrics.addBytesRead(1);
+        return value;
+    }
+
+    @Override
+    public long read(byte[] bytes, long offset, int length)
+            throws NoSuchByteException {
+
+        long read = input.read(bytes, offset, length);
+        queryMetrics.addBytesRead(read);
+        return read;
+    }
+
+    @Override
+    public boolean offsetValid(long offset) {
+        return input.offsetValid(offset);
+    }
+
+    @Override
+    public ByteBuffer byteBuffer(long offset, int length)
+            throws NoSuchByteException {
+
+        ByteBuffer byteBuffer = input.byteBuffer(offset, length);
+        queryMetrics.addBytesRead(length);
+        return byteBuffer;
+    }
+
+    @Override
+    public StructuralIndex structuralIndex() {
+        return input.structuralIndex();
+    }
+
+}
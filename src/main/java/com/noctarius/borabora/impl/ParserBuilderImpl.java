@@ -21,6 +21,7 @@ import com.noctarius.borabora.builder.ParserBuilder;
 import com.noctarius.borabora.impl.query.BTreeFactories;
 import com.noctarius.borabora.spi.codec.TagStrategies;
 import com.noctarius.borabora.spi.codec.TagStrategy;
+import com.noctarius.borabora.spi.metrics.MetricsCollector;
 import com.noctarius.borabora.spi.query.BinaryProjectionStrategy;
 import com.noctarius.borabora.spi.query.ObjectProjectionStrategy;
 import com.noctarius.borabora.spi.query.ProjectionStrategy;
@@ -47,6 +48,8 @@ public final class ParserBuilderImpl
     private PipelineStageFactory pipelineStageFactory = BTreeFactories.newPipelineStageFactory();
     private QueryPipelineFactory queryPipelineFactory = BTreeFactories.newQueryPipelineFactory();
     private QueryOptimizerStrategyFactory queryOptimizerStrategyFactory = BTreeFactories.newQueryOptimizerStrategyFactory();
+    private MetricsCollector metricsCollector;
+    private boolean sortedDictionaryKeys = false;
 
     @Override
     public ParserBuilder addTagStrategy(TagStrategy tagStrategy) {
@@ -169,10 +172,27 @@ public final class ParserBuilderImpl
         return this;
     }
 
+    @Override
+    public ParserBuilder withSortedDictionaryKeys() {
+        sortedDictionaryKeys = true;
+        return this;
+    }
+
+    @Override
+    public ParserBuilder withMetricsCollector(MetricsCollector metricsCollector) {
+        Objects.requireNonNull(metricsCollector, "metricsCollector must not be null");
+        this.metricsCollector = metricsCollector;
+        return this;
+    }
+
     @Override
     public Parser build() {
+        QueryContextFactory queryContextFactory = this.queryContextFactory;
+        if (sortedDictionaryKeys && queryContextFactory instanceof DefaultQueryContextFactory) {
+            queryContextFactory = ((DefaultQueryContextFactory) queryContextFactory).withSortedDictionaryKeys();
+        }
         return new ParserImpl(tagStrategies, projectionStrategy, queryContextFactory, queryPipelineFactory, pipelineStageFactory,
-                queryOptimizerStrategyFactory, Collections.unmodifiableList(queryOptimizers));
+                queryOptimizerStrategyFactory, Collections.unmodifiableList(queryOptimizers), metricsCollector);
     }
 
 }
@@ -16,8 +16,10 @@
  */
 package com.noctarius.borabora.impl;
 
+import com.noctarius.borabora.ColumnVector;
 import com.noctarius.borabora.Input;
 import com.noctarius.borabora.Parser;
+import com.noctarius.borabora.ProfiledQuery;
 import com.noctarius.borabora.Query;
 import com.noctarius.borabora.QueryParserException;
 import com.noctarius.borabora.Value;
@@ -26,6 +28,9 @@ import com.noctarius.borabora.builder.query.StreamQueryBuilder;
 import com.noctarius.borabora.spi.codec.TagStrategy;
 import com.noctarius.borabora.spi.io.Constants;
 import com.noctarius.borabora.spi.io.Decoder;
+import com.noctarius.borabora.spi.jfr.JfrEvents;
+import com.noctarius.borabora.spi.metrics.MetricsCollector;
+import com.noctarius.borabora.spi.metrics.QueryMetrics;
 import com.noctarius.borabora.spi.query.ProjectionStrategy;
 import com.noctarius.borabora.spi.query.QueryConsumer;
 import com.noctarius.borabora.spi.query.QueryContext;
@@ -37,9 +42,14 @@ import com.noctarius.borabora.spi.query.pipeline.PipelineStageFactory;
 import com.noctarius.borabora.spi.query.pipeline.QueryPipeline;
 import com.noctarius.borabora.spi.query.pipeline.QueryPipelineFactory;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 final class ParserImpl
         implements Parser {
@@ -51,10 +61,12 @@ final class ParserImpl
     private final PipelineStageFactory pipelineStageFactory;
     private final QueryOptimizerStrategyFactory queryOptimizerStrategyFactory;
     private final List<QueryOptimizer> queryOptimizers;
+    private final MetricsCollector metricsCollector;
 
     ParserImpl(List<TagStrategy> tagStrategies, ProjectionStrategy projectionStrategy, QueryContextFactory queryContextFactory,
                QueryPipelineFactory queryPipelineFactory, PipelineStageFactory pipelineStageFactory,
-               QueryOptimizerStrategyFactory queryOptimizerStrategyFactory, List<QueryOptimizer> queryOptimizers) {
+               QueryOptimizerStrategyFactory queryOptimizerStrategyFactory, List<QueryOptimizer> queryOptimizers,
+               MetricsCollector metricsCollector) {
 
         Objects.requireNonNull(tagStrategies, "tagStrategies must not be null");
         Objects.requireNonNull(queryContextFactory, "queryContextFactory must not be null");
@@ -70,6 +82,7 @@ final class ParserImpl
         this.pipelineStageFactory = pipelineStageFactory;
         this.queryOptimizerStrategyFactory = queryOptimizerStrategyFactory;
         this.queryOptimizers = queryOptimizers;
+        this.metricsCollector = metricsCollector;
     }
 
     @Override
@@ -95,8 +108,11 @@ final class ParserImpl
     @Override
     public Value read(Input input, long offset) {
         Objects.requireNonNull(input, "input must not be null");
-        QueryContext queryContext = newQueryContext(input, Constants.EMPTY_QUERY_CONSUMER, projectionStrategy);
-        return Decoder.readValue(offset, queryContext);
+        QueryMetrics queryMetrics = newQueryMetrics(false);
+        QueryContext queryContext = newQueryContext(input, Constants.EMPTY_QUERY_CONSUMER, projectionStrategy, queryMetrics);
+        Value value = Decoder.readValue(offset, queryContext);
+        queryCompleted(queryMetrics);
+        return value;
     }
 
     @Override
@@ -133,13 +149,60 @@ final class ParserImpl
         return read(input, offset).raw();
     }
 
+    @Override
+    public Iterator<Value> iterator(Input input, Query query) {
+        Objects.requireNonNull(input, "input must not be null");
+        Objects.requireNonNull(query, "query must not be null");
+
+        Object event = JfrEvents.beginQueryExecution();
+        QueryMetrics queryMetrics = newQueryMetrics(query instanceof ProfiledQuery);
+        return new StreamElementIterator(query, //
+                (queryConsumer) -> newQueryContext(input, queryConsumer, projectionStrategy, queryMetrics), //
+                (results) -> {
+                    queryCompleted(queryMetrics);
+                    if (event != null) {
+                        long bytesRead = queryMetrics == null ? 0 : queryMetrics.bytesRead();
+                        JfrEvents.commitQueryExecution(event, query.newQueryPipeline().hashCode(), results, bytesRead);
+                    }
+                });
+    }
+
+    @Override
+    public Stream<Value> stream(Input input, Query query) {
+        Iterator<Value> iterator = iterator(input, query);
+        Spliterator<Value> spliterator = Spliterators
+                .spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false);
+    }
+
+    @Override
+    public ColumnVector[] extractColumns(Input input, Query... columns) {
+        Objects.requireNonNull(input, "input must not be null");
+        Objects.requireNonNull(columns, "columns must not be null");
+        boolean profiled = false;
+        for (Query column : columns) {
+            Objects.requireNonNull(column, "column must not be null");
+            profiled |= column instanceof ProfiledQuery;
+        }
+        ColumnExtractor columnExtractor = new ColumnExtractor(columns.clone());
+        QueryMetrics queryMetrics = newQueryMetrics(profiled);
+        QueryContext queryContext = newQueryContext(input, columnExtractor, projectionStrategy, queryMetrics);
+        ColumnVector[] columnVectors = columnExtractor.extract(queryContext);
+        queryCompleted(queryMetrics);
+        return columnVectors;
+    }
+
     @Override
     public Query prepareQuery(String query) {
         Objects.requireNonNull(query, "query must not be null");
         try {
             QueryBuilder queryBuilder = newQueryBuilder();
             QueryParser.parse(query, queryBuilder, tagStrategies);
-            return queryBuilder.build();
+            Query preparedQuery = queryBuilder.build();
+            if (metricsCollector != null) {
+                metricsCollector.queryPrepared();
+            }
+            return preparedQuery;
 
         } catch (Exception | TokenMgrError e) {
             throw new QueryParserException(e);
@@ -160,15 +223,42 @@ final class ParserImpl
         evaluate(query, input, queryConsumer, projectionStrategy);
     }
 
-    private QueryContext newQueryContext(Input input, QueryConsumer queryConsumer, ProjectionStrategy projectionStrategy) {
-        return queryContextFactory.newQueryContext(input, queryConsumer, tagStrategies, projectionStrategy);
+    private QueryContext newQueryContext(Input input, QueryConsumer queryConsumer, ProjectionStrategy projectionStrategy,
+                                         QueryMetrics queryMetrics) {
+
+        return queryContextFactory.newQueryContext(input, queryConsumer, tagStrategies, projectionStrategy, queryMetrics);
     }
 
     private void evaluate(Query query, Input input, QueryConsumer queryConsumer, ProjectionStrategy projectionStrategy) {
+        Object event = JfrEvents.beginQueryExecution();
+        CountingQueryConsumer countingQueryConsumer = null;
+        if (event != null) {
+            countingQueryConsumer = new CountingQueryConsumer(queryConsumer);
+            queryConsumer = countingQueryConsumer;
+        }
+
         QueryPipeline queryPipeline = query.newQueryPipeline();
-        QueryContext queryContext = newQueryContext(input, queryConsumer, projectionStrategy);
+        QueryMetrics queryMetrics = newQueryMetrics(query instanceof ProfiledQuery);
+        QueryContext queryContext = newQueryContext(input, queryConsumer, projectionStrategy, queryMetrics);
 
         queryPipeline.evaluate(queryContext);
+        queryCompleted(queryMetrics);
+
+        if (event != null) {
+            long bytesRead = queryMetrics == null ? 0 : queryMetrics.bytesRead();
+            JfrEvents.commitQueryExecution(event, queryPipeline.hashCode(), countingQueryConsumer.results, bytesRead);
+        }
+    }
+
+    private QueryMetrics newQueryMetrics(boolean profiled) {
+        // Profiled queries record skips and bytes read per stage
+        return metricsCollector == null && !profiled ? null : new QueryMetrics();
+    }
+
+    private void queryCompleted(QueryMetrics queryMetrics) {
+        if (queryMetrics != null && metricsCollector != null) {
+            metricsCollector.queryCompleted(queryMetrics);
+        }
     }
 
     private QueryConsumer bridgeConsumer(Consumer<Value> consumer, boolean multiConsumer) {
@@ -178,6 +268,30 @@ final class ParserImpl
         };
     }
 
+    private static class CountingQueryConsumer
+            implements QueryConsumer {
+
+        private final QueryConsumer queryConsumer;
+
+        private long results;
+
+        private CountingQueryConsumer(QueryConsumer queryConsumer) {
+            this.queryConsumer = queryConsumer;
+        }
+
+        @Override
+        public boolean accept(long offset, QueryContext queryContext) {
+            results++;
+            return queryConsumer.accept(offset, queryContext);
+        }
+
+        @Override
+        public boolean consume(Value value) {
+            results++;
+            return queryConsumer.consume(value);
+        }
+    }
+
     private static class SingleConsumer
             implements Consumer<Value> {
 
@@ -18,16 +18,21 @@ package com.noctarius.borabora.impl;
 
 import com.noctarius.borabora.Query;
 import com.noctarius.borabora.Value;
+import com.noctarius.borabora.builder.query.Aggregation;
 import com.noctarius.borabora.builder.query.DictionaryQueryBuilder;
 import com.noctarius.borabora.builder.query.QueryBuilder;
 import com.noctarius.borabora.builder.query.SequenceQueryBuilder;
+import com.noctarius.borabora.builder.query.SortOrder;
 import com.noctarius.borabora.builder.query.StreamQueryBuilder;
 import com.noctarius.borabora.impl.query.QueryImpl;
 import com.noctarius.borabora.impl.query.stages.AsDictionaryProjectionQueryStage;
 import com.noctarius.borabora.impl.query.stages.AsSequenceProjectionQueryStage;
 import com.noctarius.borabora.impl.query.stages.ConsumeSelectedQueryStage;
 import com.noctarius.borabora.impl.query.stages.ConsumerQueryStage;
+import com.noctarius.borabora.impl.query.stages.GroupByQueryStage;
+import com.noctarius.borabora.impl.query.stages.LimitQueryStage;
 import com.noctarius.borabora.impl.query.stages.MultiStreamElementQueryStage;
+import com.noctarius.borabora.impl.query.stages.OrderByQueryStage;
 import com.noctarius.borabora.impl.query.stages.PrepareSelectionQueryStage;
 import com.noctarius.borabora.impl.query.stages.SingleStreamElementQueryStage;
 import com.noctarius.borabora.spi.query.TypeSpec;
@@ -36,10 +41,13 @@ import com.noctarius.borabora.spi.query.pipeline.PipelineStage;
 import com.noctarius.borabora.spi.query.pipeline.PipelineStageFactory;
 import com.noctarius.borabora.spi.query.pipeline.QueryPipeline;
 import com.noctarius.borabora.spi.query.pipeline.QueryPipelineFactory;
+import com.noctarius.borabora.spi.query.pipeline.QueryStage;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 import java.util.function.Predicate;
 
 import static com.noctarius.borabora.spi.query.pipeline.QueryStage.QUERY_BASE;
@@ -52,6 +60,13 @@ final class QueryBuilderImpl
     private final QueryPipelineFactory queryPipelineFactory;
     private final QueryOptimizerStrategy queryOptimizerStrategy;
 
+    private long skip = 0;
+    private long limit = Long.MAX_VALUE;
+    private Query sortKeyQuery;
+    private SortOrder sortOrder;
+    private Query groupKeyQuery;
+    private Aggregation[] aggregations;
+
     QueryBuilderImpl(QueryOptimizerStrategy queryOptimizerStrategy, PipelineStageFactory pipelineStageFactory,
                      QueryPipelineFactory queryPipelineFactory) {
 
@@ -81,6 +96,53 @@ final class QueryBuilderImpl
         return this;
     }
 
+    @Override
+    public StreamQueryBuilder skip(long count) {
+        Tracer.traceInfo("QueryBuilderImpl#skip", this);
+        if (count < 0) {
+            throw new IllegalArgumentException("count must not be negative");
+        }
+        skip = count;
+        return this;
+    }
+
+    @Override
+    public StreamQueryBuilder limit(long count) {
+        Tracer.traceInfo("QueryBuilderImpl#limit", this);
+        if (count < 0) {
+            throw new IllegalArgumentException("count must not be negative");
+        }
+        limit = count;
+        return this;
+    }
+
+    @Override
+    public StreamQueryBuilder orderBy(Query sortKeyQuery, SortOrder sortOrder) {
+        Tracer.traceInfo("QueryBuilderImpl#orderBy", this);
+        Objects.requireNonNull(sortKeyQuery, "sortKeyQuery must not be null");
+        Objects.requireNonNull(sortOrder, "sortOrder must not be null");
+        this.sortKeyQuery = sortKeyQuery;
+        this.sortOrder = sortOrder;
+        return this;
+    }
+
+    @Override
+    public StreamQueryBuilder groupBy(Query keyQuery, Aggregation... aggregations) {
+        Tracer.traceInfo("QueryBuilderImpl#groupBy", this);
+        Objects.requireNonNull(keyQuery, "keyQuery must not be null");
+        Objects.requireNonNull(aggregations, "aggregations must not be null");
+        Set<String> names = new HashSet<>();
+        for (Aggregation aggregation : aggregations) {
+            Objects.requireNonNull(aggregation, "aggregation must not be null");
+            if (GroupByQueryStage.KEY_ENTRY.equals(aggregation.name()) || !names.add(aggregation.name())) {
+                throw new IllegalArgumentException("Aggregation name '" + aggregation.name() + "' is not unique");
+            }
+        }
+        this.groupKeyQuery = keyQuery;
+        this.aggregations = aggregations.clone();
+        return this;
+    }
+
     @Override
     public DictionaryQueryBuilder<QueryBuilder> asDictionary() {
         Tracer.traceCall("QueryBuilderImpl#asDictionary", this);
@@ -104,6 +166,12 @@ final class QueryBuilderImpl
         // Fix basic queries without any special access pattern
         fixQueryStartup(parentTreeNode);
 
+        // Wrap the stream access to group the results
+        fixGrouping(parentTreeNode);
+
+        // Wrap the stream access to apply ordering, skip and limit on the results
+        fixResultLimits(parentTreeNode);
+
         // Add consumers at the end of any left edge
         fixConsumers(parentTreeNode);
 
@@ -188,6 +256,34 @@ final class QueryBuilderImpl
         }
     }
 
+    private void fixGrouping(QueryBuilderNode parentTreeNode) {
+        if (groupKeyQuery == null) {
+            return;
+        }
+        injectStage(parentTreeNode, new GroupByQueryStage(groupKeyQuery, aggregations));
+    }
+
+    private void fixResultLimits(QueryBuilderNode parentTreeNode) {
+        if (sortKeyQuery == null && skip == 0 && limit == Long.MAX_VALUE) {
+            return;
+        }
+
+        QueryStage queryStage = sortKeyQuery != null //
+                ? new OrderByQueryStage(sortKeyQuery, sortOrder, skip, limit) : new LimitQueryStage(skip, limit);
+
+        injectStage(parentTreeNode, queryStage);
+    }
+
+    private void injectStage(QueryBuilderNode parentTreeNode, QueryStage queryStage) {
+        // Copy old children to inject a new hierarchy level
+        List<QueryBuilderNode> children = new ArrayList<>();
+        parentTreeNode.forEachChild(children::add);
+
+        parentTreeNode.clearChildren();
+        QueryBuilderNode newNode = parentTreeNode.pushChild(queryStage);
+        newNode.pushChildNodes(children);
+    }
+
     private void fixQueryStartup(QueryBuilderNode parentTreeNode) {
         if (parentTreeNode.childrenCount() == 0) {
             parentTreeNode.pushChild(new SingleStreamElementQueryStage(0));
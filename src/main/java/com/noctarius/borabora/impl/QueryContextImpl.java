@@ -21,10 +21,14 @@ import com.noctarius.borabora.MajorType;
 import com.noctarius.borabora.Value;
 import com.noctarius.borabora.ValueType;
 import com.noctarius.borabora.ValueTypes;
+import com.noctarius.borabora.WrongTypeException;
 import com.noctarius.borabora.spi.codec.TagDecoder;
 import com.noctarius.borabora.spi.codec.TagStrategy;
 import com.noctarius.borabora.spi.io.ByteSizes;
 import com.noctarius.borabora.spi.io.Decoder;
+import com.noctarius.borabora.spi.io.SkipSizeCache;
+import com.noctarius.borabora.spi.io.StringReferences;
+import com.noctarius.borabora.spi.metrics.QueryMetrics;
 import com.noctarius.borabora.spi.query.ProjectionStrategy;
 import com.noctarius.borabora.spi.query.QueryConsumer;
 import com.noctarius.borabora.spi.query.QueryContext;
@@ -33,7 +37,13 @@ import com.noctarius.borabora.spi.query.QueryContextFactory;
 import java.util.Deque;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Objects;
+import java.util.TreeMap;
+
+import static com.noctarius.borabora.spi.io.Constants.TAG_STRING_NAMESPACE;
+import static com.noctarius.borabora.spi.io.Constants.TAG_STRING_REFERENCE;
 
 final class QueryContextImpl
         implements QueryContext {
@@ -43,13 +53,21 @@ final class QueryContextImpl
     private final QueryContextFactory queryContextFactory;
     private final ProjectionStrategy projectionStrategy;
     private final Input input;
+    private final boolean sortedDictionaryKeys;
+    private final QueryMetrics queryMetrics;
+    private final SkipSizeCache skipSizeCache;
+
+    // Outermost string reference namespaces by offset, values may be read after the scan moved on
+    private final NavigableMap<Long, StringReferences> stringNamespaces;
 
     // Queries are inherently thread-safe!
     private Deque<Object> stack;
     private long offset;
 
     QueryContextImpl(Input input, QueryConsumer queryConsumer, List<TagStrategy> tagStrategies,
-                     ProjectionStrategy projectionStrategy, QueryContextFactory queryContextFactory) {
+                     ProjectionStrategy projectionStrategy, QueryContextFactory queryContextFactory,
+                     boolean sortedDictionaryKeys, QueryMetrics queryMetrics, SkipSizeCache skipSizeCache,
+                     NavigableMap<Long, StringReferences> stringNamespaces) {
 
         Objects.requireNonNull(input, "input must not be null");
         Objects.requireNonNull(queryConsumer, "queryConsumer must not be null");
@@ -61,6 +79,10 @@ final class QueryContextImpl
         this.tagStrategies = tagStrategies;
         this.projectionStrategy = projectionStrategy;
         this.queryContextFactory = queryContextFactory;
+        this.sortedDictionaryKeys = sortedDictionaryKeys;
+        this.queryMetrics = queryMetrics;
+        this.skipSizeCache = skipSizeCache;
+        this.stringNamespaces = stringNamespaces != null ? stringNamespaces : new TreeMap<>();
     }
 
     @Override
@@ -80,6 +102,7 @@ final class QueryContextImpl
 
     @Override
     public ValueType valueType(long offset) {
+        offset = resolveStringReference(offset);
         short head = Decoder.readUInt8(input, offset);
         if (MajorType.SemanticTag == MajorType.findMajorType(head)) {
             for (TagStrategy tagStrategy : tagStrategies) {
@@ -93,6 +116,35 @@ final class QueryContextImpl
         return ValueTypes.valueType(input, offset);
     }
 
+    @Override
+    public long resolveStringReference(long offset) {
+        long tagId = StringReferences.tagId(input, offset);
+        if (tagId == TAG_STRING_NAMESPACE) {
+            // Nested namespaces are resolved by the outermost one
+            if (findStringNamespace(offset) == null) {
+                stringNamespaces.put(offset, new StringReferences(input, offset));
+            }
+            return resolveStringReference(offset + ByteSizes.headByteSize(input, offset));
+
+        } else if (tagId == TAG_STRING_REFERENCE) {
+            StringReferences stringReferences = findStringNamespace(offset);
+            if (stringReferences == null) {
+                throw new WrongTypeException(offset, "String reference found outside of a string reference namespace");
+            }
+            return stringReferences.resolve(offset);
+        }
+        return offset;
+    }
+
+    NavigableMap<Long, StringReferences> stringNamespaces() {
+        return stringNamespaces;
+    }
+
+    @Override
+    public boolean sortedDictionaryKeys() {
+        return sortedDictionaryKeys;
+    }
+
     @Override
     public List<TagStrategy> tagStrategies() {
         return tagStrategies;
@@ -108,6 +160,16 @@ final class QueryContextImpl
         return queryContextFactory;
     }
 
+    @Override
+    public QueryMetrics queryMetrics() {
+        return queryMetrics;
+    }
+
+    @Override
+    public SkipSizeCache skipSizeCache() {
+        return skipSizeCache;
+    }
+
     @Override
     public boolean consume(long offset) {
         return queryConsumer.accept(offset, this);
@@ -135,10 +197,22 @@ final class QueryContextImpl
         if (processor == null) {
             return null;
         }
+        if (queryMetrics != null) {
+            queryMetrics.incrementTagDecodes();
+        }
         long length = Decoder.length(input, majorType, offset);
         return processor.process(valueType, offset, length, this);
     }
 
+    private StringReferences findStringNamespace(long offset) {
+        // Outermost namespaces never overlap, only the last one starting in front of offset may contain it
+        Map.Entry<Long, StringReferences> entry = stringNamespaces.floorEntry(offset);
+        if (entry == null || !entry.getValue().contains(offset)) {
+            return null;
+        }
+        return entry.getValue();
+    }
+
     @Override
     public <T> void queryStackPush(T element) {
         Objects.requireNonNull(element, "element must not be null");
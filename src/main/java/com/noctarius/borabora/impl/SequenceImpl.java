@@ -25,6 +25,7 @@ import com.noctarius.borabora.spi.RelocatableStreamValue;
 import com.noctarius.borabora.spi.io.ByteSizes;
 import com.noctarius.borabora.spi.io.Decoder;
 import com.noctarius.borabora.spi.io.ElementCounts;
+import com.noctarius.borabora.spi.metrics.QueryMetrics;
 import com.noctarius.borabora.spi.query.QueryContext;
 
 import java.util.Iterator;
@@ -66,7 +67,7 @@ public final class SequenceImpl
         Objects.requireNonNull(predicate, "predicate must not be null");
         RelocatableStreamValue streamValue = new RelocatableStreamValue();
         for (long i = 0; i < size; i++) {
-            long offset = calculateArrayIndex(i);
+            long offset = queryContext.resolveStringReference(calculateArrayIndex(i));
             short head = readUInt8(input, offset);
             MajorType majorType = MajorType.findMajorType(head);
             ValueType valueType = queryContext.valueType(offset);
@@ -164,7 +165,11 @@ public final class SequenceImpl
         Input input = queryContext.input();
         long headByteSize = ByteSizes.headByteSize(input, offset);
         long size = ElementCounts.sequenceElementCount(input, offset);
-        long[][] elementIndexes = Decoder.readElementIndexes(input, offset + headByteSize, size);
+        long[][] elementIndexes = Decoder.readElementIndexes(queryContext, offset + headByteSize, size);
+        QueryMetrics queryMetrics = queryContext.queryMetrics();
+        if (queryMetrics != null) {
+            queryMetrics.incrementElementIndexes();
+        }
         return new SequenceImpl(size, elementIndexes, queryContext);
     }
 
@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2016, Christoph Engelbert (aka noctarius) and
+ * contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.noctarius.borabora.impl;
+
+import com.noctarius.borabora.Query;
+import com.noctarius.borabora.Value;
+import com.noctarius.borabora.impl.query.stages.BaseQueryStage;
+import com.noctarius.borabora.impl.query.stages.GroupByQueryStage;
+import com.noctarius.borabora.impl.query.stages.LimitQueryStage;
+import com.noctarius.borabora.impl.query.stages.MultiStreamElementQueryStage;
+import com.noctarius.borabora.impl.query.stages.OrderByQueryStage;
+import com.noctarius.borabora.impl.query.stages.SingleStreamElementQueryStage;
+import com.noctarius.borabora.spi.io.Decoder;
+import com.noctarius.borabora.spi.query.QueryConsumer;
+import com.noctarius.borabora.spi.query.QueryContext;
+import com.noctarius.borabora.spi.query.pipeline.PipelineStage;
+import com.noctarius.borabora.spi.query.pipeline.QueryStage;
+import com.noctarius.borabora.spi.query.pipeline.VisitResult;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+import java.util.function.LongConsumer;
+
+import static com.noctarius.borabora.spi.io.Constants.OFFSET_CODE_NULL;
+
+/**
+ * Pull-style query execution, the multi stream stage of the query pipeline is advanced
+ * by a single stream element at a time and only when the results of the previous element
+ * are consumed. The scan therefore never runs ahead of the consumer and only the results
+ * of the current element are buffered, while the results are the same as evaluating the
+ * whole pipeline at once.
+ */
+final class StreamElementIterator
+        implements Iterator<Value>, QueryConsumer {
+
+    private final ArrayDeque<Value> results = new ArrayDeque<>();
+
+    private final PipelineStage streamPipelineStage;
+    private final QueryContext queryContext;
+    private final LongConsumer completionListener;
+
+    private long elementOffset = -1;
+    private long resultCount;
+    private boolean completed;
+
+    StreamElementIterator(Query query, Function<QueryConsumer, QueryContext> queryContextFactory,
+                          LongConsumer completionListener) {
+
+        this.streamPipelineStage = streamPipelineStage(query);
+        this.completionListener = completionListener;
+        this.queryContext = queryContextFactory.apply(this);
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (results.isEmpty() && !completed) {
+            evaluateNextElement();
+        }
+        return !results.isEmpty();
+    }
+
+    @Override
+    public Value next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException("No further query results available");
+        }
+        return results.poll();
+    }
+
+    @Override
+    public boolean consume(Value value) {
+        results.add(value);
+        resultCount++;
+        return true;
+    }
+
+    private void evaluateNextElement() {
+        // Same steps as the QUERY_BASE and ANY_STREAM_INDEX stages, one stream element per call
+        if (elementOffset == -1) {
+            elementOffset = 0;
+            if (queryContext.input().offsetValid(elementOffset)) {
+                elementOffset = BaseQueryStage.skipCborHeader(queryContext.input(), elementOffset);
+            }
+        }
+        if (!queryContext.input().offsetValid(elementOffset)) {
+            complete();
+            return;
+        }
+
+        // Step into a possible string reference namespace
+        queryContext.offset(queryContext.resolveStringReference(elementOffset));
+
+        VisitResult visitResult = streamPipelineStage.visitChildren(queryContext);
+        if (visitResult == VisitResult.Exit) {
+            complete();
+            return;
+        }
+
+        if (visitResult == VisitResult.Break) {
+            long itemOffset = queryContext.offset();
+            if (itemOffset != OFFSET_CODE_NULL || !queryContext.consume(itemOffset)) {
+                complete();
+                return;
+            }
+        }
+
+        // Skip the whole item
+        elementOffset = Decoder.skip(queryContext, elementOffset);
+    }
+
+    private void complete() {
+        if (!completed) {
+            completed = true;
+            completionListener.accept(resultCount);
+        }
+    }
+
+    private static PipelineStage streamPipelineStage(Query query) {
+        PipelineStage rootPipelineStage = query.newQueryPipeline().rootPipelineStage();
+        if (rootPipelineStage == null) {
+            throw new IllegalArgumentException("Query pipeline cannot be evaluated incrementally: " + query);
+        }
+
+        PipelineStage streamPipelineStage = rootPipelineStage.left();
+        if (!(rootPipelineStage.stage() instanceof BaseQueryStage) //
+                || !(streamPipelineStage.stage() instanceof MultiStreamElementQueryStage) //
+                || rootPipelineStage.right() != PipelineStage.NIL || streamPipelineStage.right() != PipelineStage.NIL) {
+
+            throw new IllegalArgumentException("Only multi stream queries ($) can be iterated, use Parser::read: " + query);
+        }
+        verifyPipelineStages(query, streamPipelineStage.left());
+        return streamPipelineStage;
+    }
+
+    private static void verifyPipelineStages(Query query, PipelineStage pipelineStage) {
+        if (pipelineStage == PipelineStage.NIL) {
+            return;
+        }
+
+        // Stream positional and aggregating stages need all stream elements at once
+        QueryStage stage = pipelineStage.stage();
+        if (stage instanceof SingleStreamElementQueryStage || stage instanceof MultiStreamElementQueryStage //
+                || stage instanceof LimitQueryStage || stage instanceof OrderByQueryStage //
+                || stage instanceof GroupByQueryStage) {
+
+            throw new IllegalArgumentException("Query cannot be evaluated per stream element, use Parser::read: " + query);
+        }
+        verifyPipelineStages(query, pipelineStage.left());
+        verifyPipelineStages(query, pipelineStage.right());
+    }
+
+}
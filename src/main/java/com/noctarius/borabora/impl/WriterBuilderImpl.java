@@ -33,6 +33,10 @@ public final class WriterBuilderImpl
 
     private final List<TagStrategy> tagStrategies = new ArrayList<>(Arrays.asList(TagStrategies.values()));
 
+    private boolean definiteLengthContainers = false;
+    private boolean stringReferences = false;
+    private boolean deterministicEncoding = false;
+
     @Override
     public WriterBuilder addTagStrategy(TagStrategy tagStrategy) {
         Objects.requireNonNull(tagStrategy, "tagStrategy must not be null");
@@ -69,13 +73,34 @@ public final class WriterBuilderImpl
         return this;
     }
 
+    @Override
+    public WriterBuilder withDefiniteLengthContainers() {
+        definiteLengthContainers = true;
+        return this;
+    }
+
+    @Override
+    public WriterBuilder withStringReferences() {
+        stringReferences = true;
+        return this;
+    }
+
+    @Override
+    public WriterBuilder withDeterministicEncoding() {
+        deterministicEncoding = true;
+        return this;
+    }
+
     @Override
     public Writer build() {
+        if (stringReferences && deterministicEncoding) {
+            throw new IllegalStateException("String references cannot be combined with deterministic encoding");
+        }
         Map<Class<?>, TagStrategy> factoryMap = new HashMap<>();
         for (TagStrategy tagStrategy : tagStrategies) {
             factoryMap.put(tagStrategy.tagBuilderType(), tagStrategy);
         }
-        return new WriterImpl(factoryMap);
+        return new WriterImpl(factoryMap, definiteLengthContainers, stringReferences, deterministicEncoding);
     }
 
 }
@@ -29,15 +29,24 @@ final class WriterImpl
         implements Writer {
 
     private final Map<Class<?>, TagStrategy> tagStrategies;
+    private final boolean definiteLengthContainers;
+    private final boolean stringReferences;
+    private final boolean deterministicEncoding;
+
+    WriterImpl(Map<Class<?>, TagStrategy> tagStrategies, boolean definiteLengthContainers, boolean stringReferences,
+               boolean deterministicEncoding) {
 
-    WriterImpl(Map<Class<?>, TagStrategy> tagStrategies) {
         Objects.requireNonNull(tagStrategies, "tagStrategies must not be null");
         this.tagStrategies = tagStrategies;
+        this.definiteLengthContainers = definiteLengthContainers;
+        this.stringReferences = stringReferences;
+        this.deterministicEncoding = deterministicEncoding;
     }
 
     @Override
     public GraphBuilder newGraphBuilder(Output output) {
-        EncoderContext encoderContext = new EncoderContextImpl(output, tagStrategies);
+        EncoderContext encoderContext = new EncoderContextImpl(output, tagStrategies, definiteLengthContainers, //
+                stringReferences, deterministicEncoding);
         return new GraphBuilderImpl(encoderContext);
     }
 
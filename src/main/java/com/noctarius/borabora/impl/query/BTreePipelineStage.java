@@ -45,7 +45,7 @@ class BTreePipelineStage
 
         if (stage != null) {
             do {
-                visitResult = stage.evaluate(previousPipelineStage, this, queryContext);
+                visitResult = evaluateStage(previousPipelineStage, queryContext);
             } while (visitResult == VisitResult.Loop);
         }
 
@@ -62,6 +62,10 @@ class BTreePipelineStage
         return visitResult;
     }
 
+    VisitResult evaluateStage(PipelineStage previousPipelineStage, QueryContext queryContext) {
+        return stage.evaluate(previousPipelineStage, this, queryContext);
+    }
+
     @Override
     public VisitResult visitChildren(QueryContext queryContext) {
         if (left != NIL) {
@@ -47,11 +47,15 @@ final class PipelineStagePrinter {
     }
 
     private static void printNodeValue(PipelineStage node, StringBuilder sb) {
+        String label = node instanceof ProfilingPipelineStage ? ((ProfilingPipelineStage) node).label() : null;
         if (node.stage() == null) {
-            sb.append("<null>");
+            sb.append(label == null ? "<null>" : label);
         } else {
             sb.append(node.stage().toString());
         }
+        if (node instanceof ProfilingPipelineStage) {
+            sb.append(' ').append(((ProfilingPipelineStage) node).printProfile());
+        }
         sb.append('\n');
     }
 
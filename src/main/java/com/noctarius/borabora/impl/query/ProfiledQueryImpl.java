@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2016, Christoph Engelbert (aka noctarius) and
+ * contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.noctarius.borabora.impl.query;
+
+import com.noctarius.borabora.ProfiledQuery;
+import com.noctarius.borabora.spi.query.pipeline.QueryPipeline;
+
+import java.util.Objects;
+
+final class ProfiledQueryImpl
+        implements ProfiledQuery {
+
+    private final ProfilingPipelineStage rootPipelineStage;
+    private final QueryPipeline queryPipeline;
+
+    ProfiledQueryImpl(ProfilingPipelineStage rootPipelineStage) {
+        Objects.requireNonNull(rootPipelineStage, "rootPipelineStage must not be null");
+        this.rootPipelineStage = rootPipelineStage;
+        this.queryPipeline = new QueryPipelineImpl(rootPipelineStage);
+    }
+
+    @Override
+    public QueryPipeline newQueryPipeline() {
+        return queryPipeline;
+    }
+
+    @Override
+    public void printQueryGraph() {
+        System.out.println(queryPipeline.printQueryGraph());
+    }
+
+    @Override
+    public ProfiledQuery profile() {
+        return this;
+    }
+
+    @Override
+    public String explainAnalyze() {
+        return queryPipeline.printQueryGraph();
+    }
+
+    @Override
+    public void resetProfile() {
+        rootPipelineStage.reset();
+    }
+
+    @Override
+    public String toString() {
+        return "ProfiledQuery{" + "queryPipeline=" + queryPipeline + '}';
+    }
+
+}
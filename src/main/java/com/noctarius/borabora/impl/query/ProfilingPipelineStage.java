@@ -0,0 +1,222 @@
+/*
+ * Copyright (c) 2016, Christoph Engelbert (aka noctarius) and
+ * contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.noctarius.borabora.impl.query;
+
+import com.noctarius.borabora.spi.metrics.QueryMetrics;
+import com.noctarius.borabora.spi.query.QueryContext;
+import com.noctarius.borabora.spi.query.pipeline.PipelineStage;
+import com.noctarius.borabora.spi.query.pipeline.QueryPipeline;
+import com.noctarius.borabora.spi.query.pipeline.QueryStage;
+import com.noctarius.borabora.spi.query.pipeline.VisitResult;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+final class ProfilingPipelineStage
+        extends BTreePipelineStage {
+
+    private static final VisitResult[] VISIT_RESULTS = VisitResult.values();
+
+    // Custom pipeline stages (or pipelines) are profiled as a whole, including their subtree
+    private final PipelineStage delegate;
+
+    // Queries are executed concurrently, therefore the profile has to be thread-safe
+    private final LongAdder invocations = new LongAdder();
+    private final LongAdder nanos = new LongAdder();
+    private final LongAdder skips = new LongAdder();
+    private final LongAdder bytesRead = new LongAdder();
+    private final LongAdder[] visitResults = new LongAdder[VISIT_RESULTS.length];
+
+    private ProfilingPipelineStage(PipelineStage left, PipelineStage right, QueryStage stage, PipelineStage delegate) {
+        super(left, right, stage);
+        this.delegate = delegate;
+        for (int i = 0; i < visitResults.length; i++) {
+            visitResults[i] = new LongAdder();
+        }
+    }
+
+    static ProfilingPipelineStage profile(QueryPipeline queryPipeline) {
+        PipelineStage rootPipelineStage = queryPipeline.rootPipelineStage();
+        if (rootPipelineStage == null) {
+            return new ProfilingPipelineStage(NIL, NIL, null, new QueryPipelineAdapter(queryPipeline));
+        }
+        return (ProfilingPipelineStage) profile(rootPipelineStage);
+    }
+
+    static PipelineStage profile(PipelineStage pipelineStage) {
+        if (pipelineStage == NIL) {
+            return NIL;
+        }
+        if (!(pipelineStage instanceof BTreePipelineStage)) {
+            return new ProfilingPipelineStage(pipelineStage.left(), pipelineStage.right(), pipelineStage.stage(),
+                    pipelineStage);
+        }
+        PipelineStage left = profile(pipelineStage.left());
+        PipelineStage right = profile(pipelineStage.right());
+        return new ProfilingPipelineStage(left, right, pipelineStage.stage(), null);
+    }
+
+    @Override
+    public VisitResult visit(PipelineStage previousPipelineStage, QueryContext queryContext) {
+        if (delegate == null) {
+            return super.visit(previousPipelineStage, queryContext);
+        }
+        return measure(queryContext, () -> delegate.visit(previousPipelineStage, queryContext));
+    }
+
+    @Override
+    VisitResult evaluateStage(PipelineStage previousPipelineStage, QueryContext queryContext) {
+        return measure(queryContext, () -> super.evaluateStage(previousPipelineStage, queryContext));
+    }
+
+    @Override
+    public VisitResult visitChildren(QueryContext queryContext) {
+        if (delegate == null) {
+            return super.visitChildren(queryContext);
+        }
+        return delegate.visitChildren(queryContext);
+    }
+
+    private VisitResult measure(QueryContext queryContext, Supplier<VisitResult> evaluation) {
+        QueryMetrics queryMetrics = queryContext.queryMetrics();
+        long skipsBefore = queryMetrics == null ? 0 : queryMetrics.skips();
+        long bytesReadBefore = queryMetrics == null ? 0 : queryMetrics.bytesRead();
+        long start = System.nanoTime();
+
+        VisitResult visitResult = evaluation.get();
+
+        nanos.add(System.nanoTime() - start);
+        invocations.increment();
+        visitResults[visitResult.ordinal()].increment();
+        if (queryMetrics != null) {
+            skips.add(queryMetrics.skips() - skipsBefore);
+            bytesRead.add(queryMetrics.bytesRead() - bytesReadBefore);
+        }
+        return visitResult;
+    }
+
+    long invocations() {
+        return invocations.sum();
+    }
+
+    long nanos() {
+        return nanos.sum();
+    }
+
+    long selfNanos() {
+        // Children are evaluated inside of this stage's evaluation, siblings are not
+        long childNanos = 0;
+        for (PipelineStage child = left; child instanceof ProfilingPipelineStage; child = child.right()) {
+            childNanos += ((ProfilingPipelineStage) child).nanos();
+        }
+        return Math.max(0, nanos() - childNanos);
+    }
+
+    long skips() {
+        return skips.sum();
+    }
+
+    long bytesRead() {
+        return bytesRead.sum();
+    }
+
+    long visitResults(VisitResult visitResult) {
+        return visitResults[visitResult.ordinal()].sum();
+    }
+
+    void reset() {
+        invocations.reset();
+        nanos.reset();
+        skips.reset();
+        bytesRead.reset();
+        for (LongAdder visitResult : visitResults) {
+            visitResult.reset();
+        }
+        if (left instanceof ProfilingPipelineStage) {
+            ((ProfilingPipelineStage) left).reset();
+        }
+        if (right instanceof ProfilingPipelineStage) {
+            ((ProfilingPipelineStage) right).reset();
+        }
+    }
+
+    String printProfile() {
+        StringBuilder sb = new StringBuilder("[invocations=").append(invocations());
+        sb.append(", time=").append(formatNanos(nanos()));
+        sb.append(", self=").append(formatNanos(selfNanos()));
+        sb.append(", skips=").append(skips());
+        sb.append(", bytesRead=").append(bytesRead());
+        for (VisitResult visitResult : VISIT_RESULTS) {
+            long count = visitResults(visitResult);
+            if (count > 0) {
+                sb.append(", ").append(visitResult).append('=').append(count);
+            }
+        }
+        return sb.append(']').toString();
+    }
+
+    String label() {
+        return delegate == null ? null : delegate.toString();
+    }
+
+    @Override
+    public String toString() {
+        return "ProfilingPipelineStage{stage=" + stage + ", left=" + left + ", right=" + right + '}';
+    }
+
+    private static String formatNanos(long nanos) {
+        return String.format(Locale.ROOT, "%.3fms", nanos / 1_000_000d);
+    }
+
+    private static final class QueryPipelineAdapter
+            implements PipelineStage {
+
+        private final QueryPipeline queryPipeline;
+
+        private QueryPipelineAdapter(QueryPipeline queryPipeline) {
+            this.queryPipeline = queryPipeline;
+        }
+
+        @Override
+        public VisitResult visit(PipelineStage previousPipelineStage, QueryContext queryContext) {
+            queryPipeline.evaluate(queryContext);
+            return VisitResult.Continue;
+        }
+
+        @Override
+        public QueryStage stage() {
+            return null;
+        }
+
+        @Override
+        public PipelineStage left() {
+            return NIL;
+        }
+
+        @Override
+        public PipelineStage right() {
+            return NIL;
+        }
+
+        @Override
+        public String toString() {
+            return "QUERY_PIPELINE";
+        }
+    }
+
+}
@@ -16,6 +16,7 @@
  */
 package com.noctarius.borabora.impl.query;
 
+import com.noctarius.borabora.ProfiledQuery;
 import com.noctarius.borabora.Query;
 import com.noctarius.borabora.spi.query.pipeline.QueryPipeline;
 
@@ -65,4 +66,9 @@ public final class QueryImpl
         System.out.println(queryPipeline.printQueryGraph());
     }
 
+    public static ProfiledQuery newProfiledQuery(QueryPipeline queryPipeline) {
+        Objects.requireNonNull(queryPipeline, "queryPipeline must not be null");
+        return new ProfiledQueryImpl(ProfilingPipelineStage.profile(queryPipeline));
+    }
+
 }
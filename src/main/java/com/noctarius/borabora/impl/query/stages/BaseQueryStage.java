@@ -37,9 +37,11 @@ public class BaseQueryStage
 
     @Override
     public VisitResult evaluate(PipelineStage previousPipelineStage, PipelineStage pipelineStage, QueryContext queryContext) {
-        Input input = queryContext.input();
-        long offset = queryContext.offset();
+        queryContext.offset(skipCborHeader(queryContext.input(), queryContext.offset()));
+        return pipelineStage.visitChildren(queryContext);
+    }
 
+    public static long skipCborHeader(Input input, long offset) {
         // Is the first item a semantic tag?
         short head = Decoder.readUInt8(input, offset);
         MajorType majorType = MajorType.findMajorType(head);
@@ -48,11 +50,9 @@ public class BaseQueryStage
             if (tagType.intValue() == TAG_MAGIC_CBOR_HEADER) {
                 // Seems like so skip the header and handle as normal CBOR encoded data
                 offset += ByteSizes.headByteSize(input, offset);
-                queryContext.offset(offset);
             }
         }
-
-        return pipelineStage.visitChildren(queryContext);
+        return offset;
     }
 
     @Override
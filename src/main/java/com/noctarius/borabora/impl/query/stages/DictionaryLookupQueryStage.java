@@ -47,7 +47,7 @@ public class DictionaryLookupQueryStage
                                       QueryContext queryContext) {
 
         Input input = queryContext.input();
-        long offset = queryContext.offset();
+        long offset = queryContext.resolveStringReference(queryContext.offset());
 
         short head = Decoder.readUInt8(input, offset);
         MajorType majorType = MajorType.findMajorType(head);
@@ -0,0 +1,400 @@
+/*
+ * Copyright (c) 2016, Christoph Engelbert (aka noctarius) and
+ * contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.noctarius.borabora.impl.query.stages;
+
+import com.noctarius.borabora.Input;
+import com.noctarius.borabora.MajorType;
+import com.noctarius.borabora.Output;
+import com.noctarius.borabora.Query;
+import com.noctarius.borabora.Value;
+import com.noctarius.borabora.ValueType;
+import com.noctarius.borabora.ValueTypes;
+import com.noctarius.borabora.WrongTypeException;
+import com.noctarius.borabora.builder.query.AggregateFunction;
+import com.noctarius.borabora.builder.query.Aggregation;
+import com.noctarius.borabora.spi.io.Decoder;
+import com.noctarius.borabora.spi.io.Encoder;
+import com.noctarius.borabora.spi.io.RawKeyIndex;
+import com.noctarius.borabora.spi.query.ProjectionStrategy;
+import com.noctarius.borabora.spi.query.QueryConsumer;
+import com.noctarius.borabora.spi.query.QueryContext;
+import com.noctarius.borabora.spi.query.QueryContextFactory;
+import com.noctarius.borabora.spi.query.pipeline.PipelineStage;
+import com.noctarius.borabora.spi.query.pipeline.QueryStage;
+import com.noctarius.borabora.spi.query.pipeline.VisitResult;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.Objects;
+
+import static com.noctarius.borabora.spi.io.Constants.OFFSET_CODE_NULL;
+import static com.noctarius.borabora.spi.io.Constants.SIMPLE_VALUE_NULL_BYTE;
+
+public class GroupByQueryStage
+        implements QueryStage {
+
+    public static final String KEY_ENTRY = "key";
+
+    private static final Input NULL_KEY_INPUT = Input.fromByteArray(new byte[]{SIMPLE_VALUE_NULL_BYTE});
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final Query keyQuery;
+    private final Aggregation[] aggregations;
+
+    public GroupByQueryStage(Query keyQuery, Aggregation... aggregations) {
+        Objects.requireNonNull(keyQuery, "keyQuery must not be null");
+        Objects.requireNonNull(aggregations, "aggregations must not be null");
+        for (Aggregation aggregation : aggregations) {
+            Objects.requireNonNull(aggregation, "aggregation must not be null");
+        }
+        this.keyQuery = keyQuery;
+        this.aggregations = aggregations.clone();
+    }
+
+    @Override
+    public VisitResult evaluate(PipelineStage previousPipelineStage, PipelineStage pipelineStage, QueryContext queryContext) {
+        // Groups are collected by a consumer bound to a sub-context, the stage itself stays stateless
+        GroupByQueryConsumer queryConsumer = new GroupByQueryConsumer(queryContext);
+
+        QueryContextFactory queryContextFactory = queryContext.queryContextFactory();
+        QueryContext groupingQueryContext = queryContextFactory.newSubQueryContext(queryContext, queryConsumer);
+
+        groupingQueryContext.offset(queryContext.offset());
+        VisitResult visitResult = pipelineStage.visitChildren(groupingQueryContext);
+        queryContext.offset(groupingQueryContext.offset());
+
+        if (visitResult == VisitResult.Exit) {
+            return visitResult;
+        }
+
+        // Emit one dictionary per group
+        queryConsumer.groupTable.emit(pipelineStage, queryContext);
+        return VisitResult.Continue;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof GroupByQueryStage)) {
+            return false;
+        }
+
+        GroupByQueryStage that = (GroupByQueryStage) o;
+
+        if (!keyQuery.equals(that.keyQuery)) {
+            return false;
+        }
+        return Arrays.equals(aggregations, that.aggregations);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = keyQuery.hashCode();
+        result = 31 * result + Arrays.hashCode(aggregations);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "GROUP_BY[ aggregations=" + Arrays.toString(aggregations) + " ]";
+    }
+
+    private static long evaluateSubQuery(Query query, long offset, QueryContext subQueryContext,
+                                         OffsetCaptureConsumer offsetCaptureConsumer) {
+
+        if (offset == OFFSET_CODE_NULL) {
+            return OFFSET_CODE_NULL;
+        }
+
+        // Evaluate the sub query relative to the current result
+        offsetCaptureConsumer.offset = OFFSET_CODE_NULL;
+        offsetCaptureConsumer.captured = false;
+        subQueryContext.offset(offset);
+        query.newQueryPipeline().evaluate(subQueryContext);
+        return offsetCaptureConsumer.offset;
+    }
+
+    private static class OffsetCaptureConsumer
+            implements QueryConsumer {
+
+        private long offset = OFFSET_CODE_NULL;
+        private boolean captured;
+
+        @Override
+        public boolean accept(long offset, QueryContext queryContext) {
+            // Only the offset is of interest, no value is materialized
+            if (!captured) {
+                this.offset = offset;
+                this.captured = true;
+            }
+            return false;
+        }
+
+        @Override
+        public boolean consume(Value value) {
+            // Projected sub query results cannot be referenced by offset
+            return false;
+        }
+    }
+
+    private class GroupByQueryConsumer
+            implements QueryConsumer {
+
+        private final OffsetCaptureConsumer offsetCaptureConsumer = new OffsetCaptureConsumer();
+        private final QueryContext subQueryContext;
+        private final GroupTable groupTable;
+
+        private GroupByQueryConsumer(QueryContext queryContext) {
+            QueryContextFactory queryContextFactory = queryContext.queryContextFactory();
+            this.subQueryContext = queryContextFactory.newSubQueryContext(queryContext, offsetCaptureConsumer);
+            this.groupTable = new GroupTable();
+        }
+
+        @Override
+        public boolean accept(long offset, QueryContext queryContext) {
+            group(offset, subQueryContext);
+            return true;
+        }
+
+        @Override
+        public boolean consume(Value value) {
+            if (value.input() == null) {
+                group(OFFSET_CODE_NULL, subQueryContext);
+            } else {
+                QueryContextFactory queryContextFactory = subQueryContext.queryContextFactory();
+                QueryContext valueQueryContext = queryContextFactory.newQueryContext(value.input(), offsetCaptureConsumer, //
+                        subQueryContext.tagStrategies(), subQueryContext.projectionStrategy(), subQueryContext.queryMetrics());
+                group(value.offset(), valueQueryContext);
+            }
+            return true;
+        }
+
+        private void group(long offset, QueryContext subQueryContext) {
+            long keyOffset = evaluateSubQuery(keyQuery, offset, subQueryContext, offsetCaptureConsumer);
+
+            int group;
+            if (keyOffset == OFFSET_CODE_NULL) {
+                group = groupTable.findOrInsert(NULL_KEY_INPUT, 0, 1);
+            } else {
+                // Group by the referenced string, a reference must not open a group of its own
+                keyOffset = subQueryContext.resolveStringReference(keyOffset);
+                Input input = subQueryContext.input();
+                MajorType majorType = Decoder.getMajorType(keyOffset, input);
+                int keyLength = (int) Decoder.length(input, majorType, keyOffset);
+                group = groupTable.findOrInsert(input, keyOffset, keyLength);
+            }
+
+            for (int i = 0; i < aggregations.length; i++) {
+                Query valueQuery = aggregations[i].valueQuery();
+                if (valueQuery == null) {
+                    groupTable.count(group, i);
+                    continue;
+                }
+
+                long valueOffset = evaluateSubQuery(valueQuery, offset, subQueryContext, offsetCaptureConsumer);
+                if (valueOffset != OFFSET_CODE_NULL) {
+                    groupTable.aggregate(group, i, valueOffset, subQueryContext);
+                }
+            }
+        }
+    }
+
+    /**
+     * Groups are indexed by their raw encoded key bytes. Accumulators are stored in
+     * primitive arrays with one cell per group and aggregation, integral values are
+     * aggregated as longs until a floating point value is seen or the sum overflows.
+     */
+    private class GroupTable {
+
+        private final RawKeyIndex keyIndex = new RawKeyIndex();
+
+        private long[] counts = new long[INITIAL_CAPACITY * aggregations.length];
+        private long[] longs = new long[INITIAL_CAPACITY * aggregations.length];
+        private double[] doubles = new double[INITIAL_CAPACITY * aggregations.length];
+        private boolean[] floating = new boolean[INITIAL_CAPACITY * aggregations.length];
+
+        private int findOrInsert(Input input, long offset, int length) {
+            int group = keyIndex.findOrInsert(input, offset, length);
+            if ((group + 1) * aggregations.length > counts.length) {
+                grow();
+            }
+            return group;
+        }
+
+        private void count(int group, int aggregation) {
+            counts[group * aggregations.length + aggregation]++;
+        }
+
+        private void aggregate(int group, int aggregation, long offset, QueryContext queryContext) {
+            Input input = queryContext.input();
+            ValueType valueType = queryContext.valueType(offset);
+            if (valueType == ValueTypes.Null || valueType == ValueTypes.Undefined) {
+                return;
+            }
+
+            int cell = group * aggregations.length + aggregation;
+            AggregateFunction aggregateFunction = aggregations[aggregation].aggregateFunction();
+            if (aggregateFunction == AggregateFunction.Count) {
+                counts[cell]++;
+                return;
+            }
+
+            Number number;
+            if (valueType == ValueTypes.UInt || valueType == ValueTypes.NInt) {
+                number = Decoder.readInt(input, offset);
+            } else if (valueType == ValueTypes.Float) {
+                number = Decoder.readFloat(input, offset);
+            } else if (valueType.matches(ValueTypes.Number)) {
+                number = Decoder.readValue(offset, queryContext).byValueType();
+            } else {
+                throw new WrongTypeException(offset, "Aggregate value of type " + valueType + " is not a number");
+            }
+
+            boolean integral = number instanceof Long || number instanceof Integer //
+                    || number instanceof Short || number instanceof Byte;
+
+            if (integral && !floating[cell]) {
+                aggregate(cell, aggregateFunction, number.longValue());
+            } else {
+                aggregate(cell, aggregateFunction, number.doubleValue());
+            }
+            counts[cell]++;
+        }
+
+        private void aggregate(int cell, AggregateFunction aggregateFunction, long value) {
+            long current = longs[cell];
+            boolean first = counts[cell] == 0;
+            switch (aggregateFunction) {
+                case Min:
+                    longs[cell] = first ? value : Math.min(current, value);
+                    break;
+                case Max:
+                    longs[cell] = first ? value : Math.max(current, value);
+                    break;
+                default:
+                    long sum = current + value;
+                    // Switch to floating point on overflow
+                    if (((current ^ sum) & (value ^ sum)) < 0) {
+                        aggregate(cell, aggregateFunction, (double) value);
+                    } else {
+                        longs[cell] = sum;
+                    }
+            }
+        }
+
+        private void aggregate(int cell, AggregateFunction aggregateFunction, double value) {
+            if (!floating[cell]) {
+                doubles[cell] = longs[cell];
+                floating[cell] = true;
+            }
+            double current = doubles[cell];
+            boolean first = counts[cell] == 0;
+            switch (aggregateFunction) {
+                case Min:
+                    doubles[cell] = first ? value : Math.min(current, value);
+                    break;
+                case Max:
+                    doubles[cell] = first ? value : Math.max(current, value);
+                    break;
+                default:
+                    doubles[cell] = current + value;
+            }
+        }
+
+        private void emit(PipelineStage pipelineStage, QueryContext queryContext) {
+            int size = keyIndex.size();
+            if (size == 0) {
+                return;
+            }
+
+            // Encode keys and aggregated values of all groups into a single buffer
+            int entries = aggregations.length + 1;
+            long[] entryOffsets = new long[size * entries];
+
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            Output output = Output.toOutputStream(baos);
+
+            long offset = 0;
+            for (int group = 0; group < size; group++) {
+                entryOffsets[group * entries] = offset;
+                byte[] key = keyIndex.key(group);
+                offset += output.write(key, offset, key.length);
+
+                for (int i = 0; i < aggregations.length; i++) {
+                    entryOffsets[group * entries + i + 1] = offset;
+                    offset = encodeAggregate(group * aggregations.length + i, aggregations[i], offset, output);
+                }
+            }
+
+            Input input = Input.fromByteArray(baos.toByteArray());
+            QueryContextFactory queryContextFactory = queryContext.queryContextFactory();
+            QueryContext emitQueryContext = queryContextFactory.newQueryContext(input, value -> {
+                queryContext.consume(value);
+                return true;
+            }, queryContext.tagStrategies(), queryContext.projectionStrategy(), queryContext.queryMetrics());
+
+            ProjectionStrategy projectionStrategy = queryContext.projectionStrategy();
+            for (int group = 0; group < size; group++) {
+                projectionStrategy.beginSelect(emitQueryContext);
+                projectionStrategy.beginDictionary(emitQueryContext);
+
+                projectionStrategy.putDictionaryKey(KEY_ENTRY, emitQueryContext);
+                emitQueryContext.offset(entryOffsets[group * entries]);
+                projectionStrategy.putDictionaryValue(pipelineStage, emitQueryContext);
+
+                for (int i = 0; i < aggregations.length; i++) {
+                    projectionStrategy.putDictionaryKey(aggregations[i].name(), emitQueryContext);
+                    emitQueryContext.offset(entryOffsets[group * entries + i + 1]);
+                    projectionStrategy.putDictionaryValue(pipelineStage, emitQueryContext);
+                }
+
+                projectionStrategy.endDictionary(emitQueryContext);
+                projectionStrategy.finalizeSelect(emitQueryContext);
+            }
+        }
+
+        private long encodeAggregate(int cell, Aggregation aggregation, long offset, Output output) {
+            long count = counts[cell];
+            if (aggregation.aggregateFunction() == AggregateFunction.Count) {
+                return Encoder.putNumber(count, offset, output);
+            }
+            if (count == 0) {
+                return Encoder.putNull(offset, output);
+            }
+            if (aggregation.aggregateFunction() == AggregateFunction.Average) {
+                double sum = floating[cell] ? doubles[cell] : longs[cell];
+                return Encoder.putDouble(sum / count, offset, output);
+            }
+            if (floating[cell]) {
+                return Encoder.putDouble(doubles[cell], offset, output);
+            }
+            return Encoder.putNumber(longs[cell], offset, output);
+        }
+
+        private void grow() {
+            int capacity = counts.length * 2;
+            counts = Arrays.copyOf(counts, capacity);
+            longs = Arrays.copyOf(longs, capacity);
+            doubles = Arrays.copyOf(doubles, capacity);
+            floating = Arrays.copyOf(floating, capacity);
+        }
+    }
+
+}
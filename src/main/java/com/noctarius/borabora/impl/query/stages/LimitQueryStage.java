@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2016, Christoph Engelbert (aka noctarius) and
+ * contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.noctarius.borabora.impl.query.stages;
+
+import com.noctarius.borabora.Value;
+import com.noctarius.borabora.spi.query.QueryConsumer;
+import com.noctarius.borabora.spi.query.QueryContext;
+import com.noctarius.borabora.spi.query.QueryContextFactory;
+import com.noctarius.borabora.spi.query.pipeline.PipelineStage;
+import com.noctarius.borabora.spi.query.pipeline.QueryStage;
+import com.noctarius.borabora.spi.query.pipeline.VisitResult;
+
+public class LimitQueryStage
+        implements QueryStage {
+
+    private final long skip;
+    private final long limit;
+
+    public LimitQueryStage(long skip, long limit) {
+        if (skip < 0) {
+            throw new IllegalArgumentException("skip must be equal or larger than 0");
+        }
+        if (limit < 0) {
+            throw new IllegalArgumentException("limit must be equal or larger than 0");
+        }
+        this.skip = skip;
+        this.limit = limit;
+    }
+
+    @Override
+    public VisitResult evaluate(PipelineStage previousPipelineStage, PipelineStage pipelineStage, QueryContext queryContext) {
+        // Nothing requested, so don't even start reading
+        if (limit == 0) {
+            return VisitResult.Exit;
+        }
+
+        // Results are counted by a consumer bound to a sub-context, the stage itself stays stateless
+        LimitQueryConsumer queryConsumer = new LimitQueryConsumer(queryContext, skip, limit);
+
+        QueryContextFactory queryContextFactory = queryContext.queryContextFactory();
+        QueryContext limitedQueryContext = queryContextFactory.newSubQueryContext(queryContext, queryConsumer);
+
+        limitedQueryContext.offset(queryContext.offset());
+        VisitResult visitResult = pipelineStage.visitChildren(limitedQueryContext);
+        queryContext.offset(limitedQueryContext.offset());
+
+        // Enough results collected, stop any further execution
+        if (queryConsumer.remaining == 0) {
+            return VisitResult.Exit;
+        }
+        return visitResult;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof LimitQueryStage)) {
+            return false;
+        }
+
+        LimitQueryStage that = (LimitQueryStage) o;
+
+        if (skip != that.skip) {
+            return false;
+        }
+        return limit == that.limit;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = (int) (skip ^ (skip >>> 32));
+        result = 31 * result + (int) (limit ^ (limit >>> 32));
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "LIMIT[ skip=" + skip + ", limit=" + (limit == Long.MAX_VALUE ? "none" : limit) + " ]";
+    }
+
+    private static class LimitQueryConsumer
+            implements QueryConsumer {
+
+        private final QueryContext queryContext;
+
+        private long skip;
+        private long remaining;
+
+        private LimitQueryConsumer(QueryContext queryContext, long skip, long limit) {
+            this.queryContext = queryContext;
+            this.skip = skip;
+            this.remaining = limit;
+        }
+
+        @Override
+        public boolean accept(long offset, QueryContext queryContext) {
+            // Skipped results are never materialized
+            if (skip > 0) {
+                skip--;
+                return true;
+            }
+            if (remaining == 0) {
+                return false;
+            }
+            remaining--;
+            return this.queryContext.consume(offset) && remaining > 0;
+        }
+
+        @Override
+        public boolean consume(Value value) {
+            if (skip > 0) {
+                skip--;
+                return true;
+            }
+            if (remaining == 0) {
+                return false;
+            }
+            remaining--;
+            queryContext.consume(value);
+            return remaining > 0;
+        }
+    }
+
+}
@@ -39,6 +39,9 @@ public class MultiStreamElementQueryStage
         long offset = queryContext.offset();
 
         do {
+            // Step into a possible string reference namespace
+            queryContext.offset(queryContext.resolveStringReference(offset));
+
             // Visit children
             VisitResult visitResult = pipelineStage.visitChildren(queryContext);
             if (visitResult == VisitResult.Exit) {
@@ -57,7 +60,7 @@ public class MultiStreamElementQueryStage
             }
 
             // Skip the whole item
-            offset = Decoder.skip(input, offset);
+            offset = Decoder.skip(queryContext, offset);
             queryContext.offset(offset);
 
         } while (input.offsetValid(offset));
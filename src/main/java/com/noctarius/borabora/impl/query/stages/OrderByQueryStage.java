@@ -0,0 +1,574 @@
+/*
+ * Copyright (c) 2016, Christoph Engelbert (aka noctarius) and
+ * contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.noctarius.borabora.impl.query.stages;
+
+import com.noctarius.borabora.HalfPrecisionFloat;
+import com.noctarius.borabora.Input;
+import com.noctarius.borabora.MajorType;
+import com.noctarius.borabora.Query;
+import com.noctarius.borabora.Value;
+import com.noctarius.borabora.ValueTypes;
+import com.noctarius.borabora.WrongTypeException;
+import com.noctarius.borabora.builder.query.SortOrder;
+import com.noctarius.borabora.spi.io.ByteSizes;
+import com.noctarius.borabora.spi.io.Bytes;
+import com.noctarius.borabora.spi.query.QueryConsumer;
+import com.noctarius.borabora.spi.query.QueryContext;
+import com.noctarius.borabora.spi.query.QueryContextFactory;
+import com.noctarius.borabora.spi.query.pipeline.PipelineStage;
+import com.noctarius.borabora.spi.query.pipeline.QueryPipeline;
+import com.noctarius.borabora.spi.query.pipeline.QueryStage;
+import com.noctarius.borabora.spi.query.pipeline.VisitResult;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Objects;
+
+import static com.noctarius.borabora.spi.io.Constants.ADDITIONAL_INFORMATION_MASK;
+import static com.noctarius.borabora.spi.io.Constants.OFFSET_CODE_NULL;
+
+public class OrderByQueryStage
+        implements QueryStage {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private static final byte KEY_NULL = 0;
+    private static final byte KEY_LONG = 1;
+    private static final byte KEY_OBJECT = 2;
+
+    private final Query sortKeyQuery;
+    private final SortOrder sortOrder;
+    private final long skip;
+    private final long limit;
+
+    public OrderByQueryStage(Query sortKeyQuery, SortOrder sortOrder, long skip, long limit) {
+        Objects.requireNonNull(sortKeyQuery, "sortKeyQuery must not be null");
+        Objects.requireNonNull(sortOrder, "sortOrder must not be null");
+        if (skip < 0) {
+            throw new IllegalArgumentException("skip must be equal or larger than 0");
+        }
+        if (limit < 0) {
+            throw new IllegalArgumentException("limit must be equal or larger than 0");
+        }
+        this.sortKeyQuery = sortKeyQuery;
+        this.sortOrder = sortOrder;
+        this.skip = skip;
+        this.limit = limit;
+    }
+
+    @Override
+    public VisitResult evaluate(PipelineStage previousPipelineStage, PipelineStage pipelineStage, QueryContext queryContext) {
+        // Nothing requested, so don't even start reading
+        if (limit == 0) {
+            return VisitResult.Exit;
+        }
+
+        // Only the best (skip + limit) results are retained while scanning
+        long capacity = skip + limit;
+        if (capacity < 0 || limit == Long.MAX_VALUE) {
+            capacity = Long.MAX_VALUE;
+        }
+
+        QueryContextFactory queryContextFactory = queryContext.queryContextFactory();
+        SortKeyConsumer sortKeyConsumer = new SortKeyConsumer();
+        QueryContext sortKeyQueryContext = queryContextFactory.newSubQueryContext(queryContext, sortKeyConsumer);
+
+        // The sort key pipeline is shared by all results of this evaluation
+        QueryPipeline sortKeyPipeline = sortKeyQuery.newQueryPipeline();
+        OrderByQueryConsumer queryConsumer = new OrderByQueryConsumer(sortKeyPipeline, sortKeyQueryContext, //
+                sortKeyConsumer, capacity);
+        QueryContext orderedQueryContext = queryContextFactory.newSubQueryContext(queryContext, queryConsumer);
+
+        orderedQueryContext.offset(queryContext.offset());
+        VisitResult visitResult = pipelineStage.visitChildren(orderedQueryContext);
+        queryContext.offset(orderedQueryContext.offset());
+
+        if (visitResult == VisitResult.Exit) {
+            return visitResult;
+        }
+
+        // Materialize the final results in order
+        if (!queryConsumer.heap.drain(queryContext, skip, limit)) {
+            return VisitResult.Break;
+        }
+        return VisitResult.Continue;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof OrderByQueryStage)) {
+            return false;
+        }
+
+        OrderByQueryStage that = (OrderByQueryStage) o;
+
+        if (skip != that.skip) {
+            return false;
+        }
+        if (limit != that.limit) {
+            return false;
+        }
+        if (sortOrder != that.sortOrder) {
+            return false;
+        }
+        return sortKeyQuery.equals(that.sortKeyQuery);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = sortKeyQuery.hashCode();
+        result = 31 * result + sortOrder.hashCode();
+        result = 31 * result + (int) (skip ^ (skip >>> 32));
+        result = 31 * result + (int) (limit ^ (limit >>> 32));
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "ORDER_BY[ order=" + sortOrder + ", skip=" + skip + ", limit=" + (limit == Long.MAX_VALUE ? "none" : limit) + " ]";
+    }
+
+    private static void sortKey(long offset, QueryPipeline sortKeyPipeline, QueryContext sortKeyQueryContext,
+                                SortKeyConsumer sortKeyConsumer) {
+
+        sortKeyConsumer.reset();
+        if (offset == OFFSET_CODE_NULL) {
+            return;
+        }
+
+        // Evaluate the sort key relative to the current result
+        sortKeyQueryContext.offset(offset);
+        sortKeyPipeline.evaluate(sortKeyQueryContext);
+    }
+
+    private static int compareSortKeys(Object sortKey1, Object sortKey2, long offset) {
+        // Keys without value are always ordered last
+        if (sortKey1 == null || sortKey2 == null) {
+            return sortKey1 == sortKey2 ? 0 : sortKey1 == null ? 1 : -1;
+        }
+
+        if (sortKey1 instanceof Number && sortKey2 instanceof Number) {
+            return compareNumbers((Number) sortKey1, (Number) sortKey2);
+        }
+
+        if (sortKey1 instanceof String && sortKey2 instanceof String) {
+            return ((String) sortKey1).compareTo((String) sortKey2);
+        }
+
+        if (sortKey1 instanceof Boolean && sortKey2 instanceof Boolean) {
+            return Boolean.compare((Boolean) sortKey1, (Boolean) sortKey2);
+        }
+
+        if (sortKey1 instanceof Comparable //
+                && (sortKey1.getClass().isInstance(sortKey2) || sortKey2.getClass().isInstance(sortKey1))) {
+            return compareComparables(sortKey1, sortKey2);
+        }
+
+        String msg = String.format("Sort keys of type %s and %s are not comparable", //
+                sortKey1.getClass().getSimpleName(), sortKey2.getClass().getSimpleName());
+        throw new WrongTypeException(offset, msg);
+    }
+
+    // Only called for keys of related classes, where the first one is Comparable, the cast
+    // cannot be expressed in the type system since the key types are only known at runtime
+    @SuppressWarnings("unchecked")
+    private static <T extends Comparable<T>> int compareComparables(Object sortKey1, Object sortKey2) {
+        return ((T) sortKey1).compareTo((T) sortKey2);
+    }
+
+    private static int compareNumbers(Number number1, Number number2) {
+        if (isIntegral(number1) && isIntegral(number2)) {
+            return Long.compare(number1.longValue(), number2.longValue());
+        }
+        if (isBig(number1) || isBig(number2)) {
+            return toBigDecimal(number1).compareTo(toBigDecimal(number2));
+        }
+        return Double.compare(number1.doubleValue(), number2.doubleValue());
+    }
+
+    private static boolean isIntegral(Number number) {
+        return number instanceof Long || number instanceof Integer || number instanceof Short || number instanceof Byte;
+    }
+
+    private static boolean isBig(Number number) {
+        return number instanceof BigInteger || number instanceof BigDecimal;
+    }
+
+    private static BigDecimal toBigDecimal(Number number) {
+        if (number instanceof BigDecimal) {
+            return (BigDecimal) number;
+        }
+        if (number instanceof BigInteger) {
+            return new BigDecimal((BigInteger) number);
+        }
+        if (isIntegral(number)) {
+            return BigDecimal.valueOf(number.longValue());
+        }
+        if (number instanceof HalfPrecisionFloat || number instanceof Float || number instanceof Double) {
+            return BigDecimal.valueOf(number.doubleValue());
+        }
+        return new BigDecimal(number.toString());
+    }
+
+    private static Object boxedSortKey(byte keyType, long longKey, Object objectKey) {
+        switch (keyType) {
+            case KEY_LONG:
+                return longKey;
+            case KEY_OBJECT:
+                return objectKey;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Captures the first result of the sort key query. Integer keys fitting into a long are
+     * read in place and kept unboxed, all other keys are materialized through their value.
+     */
+    private static class SortKeyConsumer
+            implements QueryConsumer {
+
+        private boolean found;
+        private byte keyType;
+        private long longKey;
+        private Object objectKey;
+
+        @Override
+        public boolean accept(long offset, QueryContext queryContext) {
+            if (!found && offset != OFFSET_CODE_NULL) {
+                offset = queryContext.resolveStringReference(offset);
+                if (readLongKey(queryContext.input(), offset)) {
+                    return false;
+                }
+            }
+            return QueryConsumer.super.accept(offset, queryContext);
+        }
+
+        @Override
+        public boolean consume(Value value) {
+            if (found) {
+                return false;
+            }
+
+            found = true;
+            if (value.valueType() == ValueTypes.Null || value.valueType() == ValueTypes.Undefined) {
+                return false;
+            }
+
+            Object sortKey = value.byValueType();
+            if (sortKey == null) {
+                return false;
+            }
+            if (!(sortKey instanceof Number) && !(sortKey instanceof Comparable)) {
+                throw new WrongTypeException(value.offset(), "Sort key of type " + value.valueType() + " is not comparable");
+            }
+            keyType = KEY_OBJECT;
+            objectKey = sortKey;
+            return false;
+        }
+
+        private boolean readLongKey(Input input, long offset) {
+            short head = Bytes.readUInt8(input, offset);
+            MajorType majorType = MajorType.findMajorType(head);
+            if (majorType != MajorType.UnsignedInteger && majorType != MajorType.NegativeInteger) {
+                return false;
+            }
+
+            // Same decoding as Decoder::readInt, but without boxing the result
+            long mask = -((head & 0xff) >>> 5);
+            long value;
+            switch (ByteSizes.headByteSize(head)) {
+                case 2:
+                    value = Bytes.readUInt8(input, offset + 1);
+                    break;
+                case 3:
+                    value = Bytes.readUInt16(input, offset + 1);
+                    break;
+                case 5:
+                    value = Bytes.readUInt32(input, offset + 1);
+                    break;
+                case 9:
+                    value = Bytes.readUInt64Long(input, offset + 1);
+                    if (value < 0) {
+                        // Needs a BigInteger, handled by the value path
+                        return false;
+                    }
+                    break;
+                default:
+                    value = head & ADDITIONAL_INFORMATION_MASK;
+            }
+
+            found = true;
+            keyType = KEY_LONG;
+            longKey = mask ^ value;
+            return true;
+        }
+
+        private void reset() {
+            found = false;
+            keyType = KEY_NULL;
+            longKey = 0;
+            objectKey = null;
+        }
+    }
+
+    private class OrderByQueryConsumer
+            implements QueryConsumer {
+
+        private final QueryPipeline sortKeyPipeline;
+        private final QueryContext sortKeyQueryContext;
+        private final SortKeyConsumer sortKeyConsumer;
+        private final SortHeap heap;
+
+        private QueryContext valueQueryContext;
+
+        private OrderByQueryConsumer(QueryPipeline sortKeyPipeline, QueryContext sortKeyQueryContext,
+                                     SortKeyConsumer sortKeyConsumer, long capacity) {
+
+            this.sortKeyPipeline = sortKeyPipeline;
+            this.sortKeyQueryContext = sortKeyQueryContext;
+            this.sortKeyConsumer = sortKeyConsumer;
+            this.heap = new SortHeap(capacity);
+        }
+
+        @Override
+        public boolean accept(long offset, QueryContext queryContext) {
+            // Only the sort key is read, the actual result is materialized after ordering
+            sortKey(offset, sortKeyPipeline, sortKeyQueryContext, sortKeyConsumer);
+            heap.offer(sortKeyConsumer, offset, null);
+            return true;
+        }
+
+        @Override
+        public boolean consume(Value value) {
+            Input input = value.input();
+            if (input == null) {
+                sortKeyConsumer.reset();
+            } else {
+                // Projected values are commonly backed by the same input, reuse the context
+                if (valueQueryContext == null || valueQueryContext.input() != input) {
+                    QueryContextFactory queryContextFactory = sortKeyQueryContext.queryContextFactory();
+                    valueQueryContext = queryContextFactory.newQueryContext(input, sortKeyConsumer, //
+                            sortKeyQueryContext.tagStrategies(), sortKeyQueryContext.projectionStrategy(), //
+                            sortKeyQueryContext.queryMetrics());
+                }
+                sortKey(value.offset(), sortKeyPipeline, valueQueryContext, sortKeyConsumer);
+            }
+            heap.offer(sortKeyConsumer, OFFSET_CODE_NULL, value);
+            return true;
+        }
+    }
+
+    /**
+     * Binary heap of (sort key, offset) pairs, the root always holds the result that
+     * is ordered last, so it is the one evicted when a better result is offered to an
+     * already full heap. Integer sort keys are stored unboxed in a separate array.
+     */
+    private class SortHeap {
+
+        private final long capacity;
+
+        private byte[] keyTypes;
+        private long[] longKeys;
+        private Object[] objectKeys;
+        private long[] offsets;
+        private long[] sequences;
+        private Value[] values;
+        private long sequence;
+        private int size;
+
+        private SortHeap(long capacity) {
+            int initialCapacity = (int) Math.min(capacity, INITIAL_CAPACITY);
+            this.capacity = capacity;
+            this.keyTypes = new byte[initialCapacity];
+            this.longKeys = new long[initialCapacity];
+            this.offsets = new long[initialCapacity];
+            this.sequences = new long[initialCapacity];
+        }
+
+        private void offer(SortKeyConsumer sortKey, long offset, Value value) {
+            long sequence = this.sequence++;
+            byte keyType = sortKey.keyType;
+            long longKey = sortKey.longKey;
+            Object objectKey = sortKey.objectKey;
+
+            if (size < capacity) {
+                if (size == offsets.length) {
+                    grow();
+                }
+                set(size, keyType, longKey, objectKey, offset, sequence, value);
+                siftUp(size++);
+
+            } else if (compare(keyType, longKey, objectKey, sequence, //
+                    keyTypes[0], longKeys[0], objectKey(0), sequences[0], offset) < 0) {
+
+                set(0, keyType, longKey, objectKey, offset, sequence, value);
+                siftDown(0, size);
+            }
+        }
+
+        private boolean drain(QueryContext queryContext, long skip, long limit) {
+            // Heap sort in place, afterwards the best result is at index 0
+            for (int last = size - 1; last > 0; last--) {
+                swap(0, last);
+                siftDown(0, last);
+            }
+
+            long end = Math.min(size, skip + limit < 0 ? Long.MAX_VALUE : skip + limit);
+            for (long i = skip; i < end; i++) {
+                int index = (int) i;
+                boolean next;
+                if (values != null && values[index] != null) {
+                    queryContext.consume(values[index]);
+                    next = true;
+                } else {
+                    next = queryContext.consume(offsets[index]);
+                }
+                if (!next) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private int compare(byte keyType1, long longKey1, Object objectKey1, long sequence1, //
+                            byte keyType2, long longKey2, Object objectKey2, long sequence2, long offset) {
+
+            int result;
+            if (keyType1 == KEY_LONG && keyType2 == KEY_LONG) {
+                result = Long.compare(longKey1, longKey2);
+            } else {
+                // Only mixed integer and non-integer keys need boxing for comparison
+                result = compareSortKeys(boxedSortKey(keyType1, longKey1, objectKey1), //
+                        boxedSortKey(keyType2, longKey2, objectKey2), offset);
+            }
+            if (result != 0 && keyType1 != KEY_NULL && keyType2 != KEY_NULL && sortOrder == SortOrder.Descending) {
+                result = -result;
+            }
+            // Equal keys retain the order of the stream
+            return result != 0 ? result : Long.compare(sequence1, sequence2);
+        }
+
+        private int compare(int index1, int index2) {
+            return compare(keyTypes[index1], longKeys[index1], objectKey(index1), sequences[index1], //
+                    keyTypes[index2], longKeys[index2], objectKey(index2), sequences[index2], offsets[index2]);
+        }
+
+        private Object objectKey(int index) {
+            return objectKeys == null ? null : objectKeys[index];
+        }
+
+        private void siftUp(int index) {
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (compare(index, parent) <= 0) {
+                    return;
+                }
+                swap(index, parent);
+                index = parent;
+            }
+        }
+
+        private void siftDown(int index, int size) {
+            while (true) {
+                int child = (index << 1) + 1;
+                if (child >= size) {
+                    return;
+                }
+                if (child + 1 < size && compare(child + 1, child) > 0) {
+                    child++;
+                }
+                if (compare(child, index) <= 0) {
+                    return;
+                }
+                swap(index, child);
+                index = child;
+            }
+        }
+
+        private void set(int index, byte keyType, long longKey, Object objectKey, long offset, long sequence, Value value) {
+            keyTypes[index] = keyType;
+            longKeys[index] = longKey;
+            offsets[index] = offset;
+            sequences[index] = sequence;
+            if (objectKey != null && objectKeys == null) {
+                objectKeys = new Object[offsets.length];
+            }
+            if (objectKeys != null) {
+                objectKeys[index] = objectKey;
+            }
+            if (value != null && values == null) {
+                values = new Value[offsets.length];
+            }
+            if (values != null) {
+                values[index] = value;
+            }
+        }
+
+        private void swap(int index1, int index2) {
+            byte keyType = keyTypes[index1];
+            keyTypes[index1] = keyTypes[index2];
+            keyTypes[index2] = keyType;
+
+            long longKey = longKeys[index1];
+            longKeys[index1] = longKeys[index2];
+            longKeys[index2] = longKey;
+
+            long offset = offsets[index1];
+            offsets[index1] = offsets[index2];
+            offsets[index2] = offset;
+
+            long sequence = sequences[index1];
+            sequences[index1] = sequences[index2];
+            sequences[index2] = sequence;
+
+            if (objectKeys != null) {
+                Object objectKey = objectKeys[index1];
+                objectKeys[index1] = objectKeys[index2];
+                objectKeys[index2] = objectKey;
+            }
+
+            if (values != null) {
+                Value value = values[index1];
+                values[index1] = values[index2];
+                values[index2] = value;
+            }
+        }
+
+        private void grow() {
+            int newCapacity = (int) Math.min(capacity, (long) offsets.length << 1);
+            if (newCapacity <= offsets.length) {
+                throw new IllegalStateException("Too many results to order");
+            }
+            keyTypes = Arrays.copyOf(keyTypes, newCapacity);
+            longKeys = Arrays.copyOf(longKeys, newCapacity);
+            offsets = Arrays.copyOf(offsets, newCapacity);
+            sequences = Arrays.copyOf(sequences, newCapacity);
+            if (objectKeys != null) {
+                objectKeys = Arrays.copyOf(objectKeys, newCapacity);
+            }
+            if (values != null) {
+                values = Arrays.copyOf(values, newCapacity);
+            }
+        }
+    }
+
+}
@@ -44,7 +44,7 @@ public class SequenceIndexQueryStage
     @Override
     public VisitResult evaluate(PipelineStage previousPipelineStage, PipelineStage pipelineStage, QueryContext queryContext) {
         Input input = queryContext.input();
-        long offset = queryContext.offset();
+        long offset = queryContext.resolveStringReference(queryContext.offset());
 
         short head = Decoder.readUInt8(input, offset);
         MajorType majorType = MajorType.findMajorType(head);
@@ -65,16 +65,16 @@ public class SequenceIndexQueryStage
         offset += headByteSize;
 
         // Skip items until sequenceIndex
-        offset = skip(input, offset);
+        offset = skip(queryContext, offset);
         queryContext.offset(offset);
 
         return pipelineStage.visitChildren(queryContext);
     }
 
-    private long skip(Input input, long offset) {
+    private long skip(QueryContext queryContext, long offset) {
         // Skip unnecessary objects
         for (int i = 0; i < sequenceIndex; i++) {
-            offset = Decoder.skip(input, offset);
+            offset = Decoder.skip(queryContext, offset);
         }
         return offset;
     }
@@ -47,7 +47,7 @@ public class SequenceMatcherQueryStage
     @Override
     public VisitResult evaluate(PipelineStage previousPipelineStage, PipelineStage pipelineStage, QueryContext queryContext) {
         Input input = queryContext.input();
-        long offset = queryContext.offset();
+        long offset = queryContext.resolveStringReference(queryContext.offset());
 
         short head = Decoder.readUInt8(input, offset);
         MajorType majorType = MajorType.findMajorType(head);
@@ -65,10 +65,11 @@ public class SequenceMatcherQueryStage
 
         RelocatableStreamValue streamValue = new RelocatableStreamValue();
         for (int i = 0; i < elementCount; i++) {
-            short itemHead = Decoder.readUInt8(input, offset);
+            long itemOffset = queryContext.resolveStringReference(offset);
+            short itemHead = Decoder.readUInt8(input, itemOffset);
             MajorType itemMajorType = MajorType.findMajorType(itemHead);
-            ValueType itemValueType = queryContext.valueType(offset);
-            streamValue.relocate(queryContext, itemMajorType, itemValueType, offset);
+            ValueType itemValueType = queryContext.valueType(itemOffset);
+            streamValue.relocate(queryContext, itemMajorType, itemValueType, itemOffset);
 
             if (predicate.test(streamValue)) {
                 queryContext.offset(offset);
@@ -78,7 +79,8 @@ public class SequenceMatcherQueryStage
                     return visitResult;
                 }
             }
-            offset += Decoder.length(input, itemMajorType, offset);
+            // Advance over the raw item, a string reference is shorter than the resolved string
+            offset = Decoder.skip(queryContext, offset);
         }
 
         return VisitResult.Continue;
@@ -44,7 +44,7 @@ public class SingleStreamElementQueryStage
         // Skip unnecessary objects
         if (streamElementIndex > 0) {
             for (int i = 0; i < streamElementIndex; i++) {
-                offset = Decoder.skip(input, offset);
+                offset = Decoder.skip(queryContext, offset);
             }
         }
 
@@ -53,8 +53,8 @@ public class SingleStreamElementQueryStage
             throw new NoSuchByteException(offset, "Offset " + offset + " outside of available data");
         }
 
-        // Set up new offset
-        queryContext.offset(offset);
+        // Set up new offset, stepping into a possible string reference namespace
+        queryContext.offset(queryContext.resolveStringReference(offset));
 
         // Visit children
         return pipelineStage.visitChildren(queryContext);
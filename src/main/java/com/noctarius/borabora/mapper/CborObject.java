@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2016, Christoph Engelbert (aka noctarius) and
+ * contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.noctarius.borabora.mapper;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a class to be mapped to and from CBOR dictionaries. For every annotated class the
+ * {@link com.noctarius.borabora.mapper.processor.CodecProcessor} generates a {@link Codec}
+ * implementation in the same package, named after the class (with nested class names joined
+ * by underscores) and suffixed by <tt>Codec</tt>.
+ * <p>All declared non-static, non-transient fields are mapped as dictionary entries, keyed by the field
+ * name or the name given by {@link CborProperty}. Fields are accessed directly, unless they are
+ * private, in which case a getter (<tt>getName</tt> or <tt>isName</tt>) and a setter
+ * (<tt>setName</tt>) are required. Annotated classes need a non-private no-argument constructor.</p>
+ * <p>Supported field types are the primitive types (except <tt>char</tt>) and their wrappers,
+ * <tt>String</tt>, <tt>byte[]</tt>, enums (mapped by name) and other classes annotated with
+ * <tt>CborObject</tt>.</p>
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface CborObject {
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2016, Christoph Engelbert (aka noctarius) and
+ * contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.noctarius.borabora.mapper;
+
+import com.noctarius.borabora.Input;
+import com.noctarius.borabora.Output;
+
+/**
+ * A <tt>Codec</tt> maps instances of a certain type directly to and from CBOR data items, without
+ * creating intermediate {@link com.noctarius.borabora.Value} instances. Implementations for classes
+ * annotated with {@link CborObject} are generated at compile time and can be retrieved using
+ * {@link Codecs#codecFor(Class)}. Codecs are stateless and thread-safe.
+ *
+ * @param <T> the type of the mapped instances
+ */
+public interface Codec<T> {
+
+    /**
+     * Returns the type of the instances mapped by this codec.
+     *
+     * @return the mapped type
+     */
+    Class<T> type();
+
+    /**
+     * Encodes the given <tt>value</tt> at the given <tt>offset</tt> into the <tt>output</tt>. A
+     * <tt>null</tt> value is encoded as the CBOR null value.
+     *
+     * @param value  the value to encode, or null
+     * @param offset the offset to write the value to
+     * @param output the output to write the value to
+     * @return the new offset after writing the value
+     */
+    long encode(T value, long offset, Output output);
+
+    /**
+     * Decodes a new instance from the CBOR data item at the given <tt>offset</tt> of the <tt>input</tt>.
+     * Dictionary entries with unknown keys are ignored, properties without entries keep the values
+     * assigned by the no-argument constructor. The CBOR null value is decoded as <tt>null</tt>.
+     *
+     * @param input  the input to read the value from
+     * @param offset the offset of the data item to decode
+     * @return the decoded instance, or null
+     * @throws com.noctarius.borabora.WrongTypeException if the data item is not a dictionary or an
+     *                                                   entry's value does not match the property type
+     */
+    T decode(Input input, long offset);
+
+}
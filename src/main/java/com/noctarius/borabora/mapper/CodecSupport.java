@@ -0,0 +1,228 @@
+/*
+ * Copyright (c) 2016, Christoph Engelbert (aka noctarius) and
+ * contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.noctarius.borabora.mapper;
+
+import com.noctarius.borabora.Input;
+import com.noctarius.borabora.MajorType;
+import com.noctarius.borabora.Output;
+import com.noctarius.borabora.WrongTypeException;
+import com.noctarius.borabora.spi.io.ByteSizes;
+import com.noctarius.borabora.spi.io.Bytes;
+import com.noctarius.borabora.spi.io.Decoder;
+import com.noctarius.borabora.spi.io.ElementCounts;
+import com.noctarius.borabora.spi.io.Encoder;
+
+import java.nio.charset.StandardCharsets;
+
+import static com.noctarius.borabora.spi.io.Constants.ADDITIONAL_INFORMATION_MASK;
+import static com.noctarius.borabora.spi.io.Constants.ADD_INFO_INDEFINITE;
+import static com.noctarius.borabora.spi.io.Constants.FP_VALUE_DOUBLE_PRECISION;
+import static com.noctarius.borabora.spi.io.Constants.FP_VALUE_HALF_PRECISION;
+import static com.noctarius.borabora.spi.io.Constants.FP_VALUE_SINGLE_PRECISION;
+import static com.noctarius.borabora.spi.io.Constants.OPCODE_BREAK_MASK;
+import static com.noctarius.borabora.spi.io.Constants.TAG_ASCII_STRING;
+
+/**
+ * The <tt>CodecSupport</tt> class contains the encoding and decoding functions used by generated
+ * {@link Codec} implementations. Values are read directly from the {@link Input}, without creating
+ * intermediate {@link com.noctarius.borabora.Value} instances. String references are not supported.
+ */
+public final class CodecSupport {
+
+    private CodecSupport() {
+    }
+
+    public static boolean isNull(Input input, long offset) {
+        return Decoder.isNull(Decoder.readUInt8(input, offset));
+    }
+
+    public static long dictionaryEntries(Input input, long offset) {
+        MajorType majorType = Decoder.getMajorType(offset, input);
+        if (majorType != MajorType.Dictionary) {
+            throw new WrongTypeException(offset, "Encountered " + majorType + " when a dictionary was expected");
+        }
+        if (Decoder.additionalInfo(input, offset) == ADD_INFO_INDEFINITE) {
+            return -1;
+        }
+        return ElementCounts.dictionaryElementCount(input, offset);
+    }
+
+    public static long firstEntry(Input input, long offset) {
+        return offset + ByteSizes.headByteSize(input, offset);
+    }
+
+    public static boolean hasEntry(Input input, long position, long index, long entries) {
+        if (entries == -1) {
+            return Decoder.readUInt8(input, position) != OPCODE_BREAK_MASK;
+        }
+        return index < entries;
+    }
+
+    public static int matchKey(Input input, long offset, byte[][] keys) {
+        long length = Decoder.length(input, Decoder.getMajorType(offset, input), offset);
+        for (int index = 0; index < keys.length; index++) {
+            byte[] key = keys[index];
+            if (key != null && key.length == length && matches(input, offset, key)) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    public static long putBoolean(Boolean value, long offset, Output output) {
+        if (value == null) {
+            return Encoder.putNull(offset, output);
+        }
+        return Encoder.putBoolean(value, offset, output);
+    }
+
+    public static long putNumber(Number value, long offset, Output output) {
+        if (value == null) {
+            return Encoder.putNull(offset, output);
+        }
+        return Encoder.putNumber(value.longValue(), offset, output);
+    }
+
+    public static long putFloat(Float value, long offset, Output output) {
+        if (value == null) {
+            return Encoder.putNull(offset, output);
+        }
+        return Encoder.putFloat(value, offset, output);
+    }
+
+    public static long putDouble(Double value, long offset, Output output) {
+        if (value == null) {
+            return Encoder.putNull(offset, output);
+        }
+        return Encoder.putDouble(value, offset, output);
+    }
+
+    public static long putString(String value, long offset, Output output) {
+        if (value == null) {
+            return Encoder.putNull(offset, output);
+        }
+        return Encoder.putTextString(value, offset, output);
+    }
+
+    public static long putByteString(byte[] value, long offset, Output output) {
+        if (value == null) {
+            return Encoder.putNull(offset, output);
+        }
+        return Encoder.putByteString(value, offset, output);
+    }
+
+    public static long putEnum(Enum<?> value, long offset, Output output) {
+        if (value == null) {
+            return Encoder.putNull(offset, output);
+        }
+        return Encoder.putTextString(value.name(), offset, output);
+    }
+
+    public static boolean readBoolean(Input input, long offset) {
+        return Decoder.getBooleanValue(input, offset);
+    }
+
+    public static long readLong(Input input, long offset) {
+        MajorType majorType = Decoder.getMajorType(offset, input);
+        if (majorType != MajorType.UnsignedInteger && majorType != MajorType.NegativeInteger) {
+            throw new WrongTypeException(offset, "Encountered " + majorType + " when an integer was expected");
+        }
+
+        short head = Decoder.readUInt8(input, offset);
+        long mask = -((head & 0xff) >>> 5);
+        switch (ByteSizes.intByteSize(input, offset)) {
+            case 2:
+                return mask ^ Bytes.readUInt8(input, offset + 1);
+            case 3:
+                return mask ^ Bytes.readUInt16(input, offset + 1);
+            case 5:
+                return mask ^ Bytes.readUInt32(input, offset + 1);
+            case 9:
+                long value = Bytes.readUInt64Long(input, offset + 1);
+                if (value < 0) {
+                    throw new WrongTypeException(offset, "Integer value does not fit into a long");
+                }
+                return mask ^ value;
+            default:
+                return mask ^ (head & ADDITIONAL_INFORMATION_MASK);
+        }
+    }
+
+    public static double readDouble(Input input, long offset) {
+        MajorType majorType = Decoder.getMajorType(offset, input);
+        if (majorType != MajorType.FloatingPointOrSimple) {
+            return readLong(input, offset);
+        }
+
+        int addInfo = Decoder.additionalInfo(input, offset);
+        switch (addInfo) {
+            case FP_VALUE_HALF_PRECISION:
+                return Decoder.halfPrecisionToFloat(Bytes.readUInt16(input, offset + 1));
+            case FP_VALUE_SINGLE_PRECISION:
+                return Decoder.readSinglePrecisionFloat(input, offset + 1);
+            case FP_VALUE_DOUBLE_PRECISION:
+                return Decoder.readDoublePrecisionFloat(input, offset + 1);
+            default:
+                throw new WrongTypeException(offset, "Encountered a simple value when a float was expected");
+        }
+    }
+
+    public static String readString(Input input, long offset) {
+        if (isNull(input, offset)) {
+            return null;
+        }
+        // ASCII strings are tagged byte strings
+        if (Decoder.getMajorType(offset, input) == MajorType.SemanticTag
+                && Decoder.readSemanticTagId(input, offset) == TAG_ASCII_STRING) {
+            offset += ByteSizes.headByteSize(input, offset);
+        }
+        MajorType majorType = Decoder.getMajorType(offset, input);
+        if (majorType != MajorType.TextString && majorType != MajorType.ByteString) {
+            throw new WrongTypeException(offset, "Encountered " + majorType + " when a string was expected");
+        }
+        return new String(Decoder.extractStringBytes(input, offset), StandardCharsets.UTF_8);
+    }
+
+    public static byte[] readByteString(Input input, long offset) {
+        if (isNull(input, offset)) {
+            return null;
+        }
+        MajorType majorType = Decoder.getMajorType(offset, input);
+        if (majorType != MajorType.ByteString) {
+            throw new WrongTypeException(offset, "Encountered " + majorType + " when a byte string was expected");
+        }
+        return Decoder.extractStringBytes(input, offset);
+    }
+
+    public static <E extends Enum<E>> E readEnum(Class<E> type, Input input, long offset) {
+        String name = readString(input, offset);
+        if (name == null) {
+            return null;
+        }
+        return Enum.valueOf(type, name);
+    }
+
+    private static boolean matches(Input input, long offset, byte[] key) {
+        for (int i = 0; i < key.length; i++) {
+            if (input.read(offset + i) != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2016, Christoph Engelbert (aka noctarius) and
+ * contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.noctarius.borabora.mapper;
+
+import java.lang.reflect.Field;
+import java.util.Objects;
+
+/**
+ * The <tt>Codecs</tt> class provides access to the {@link Codec} implementations generated for
+ * classes annotated with {@link CborObject}. Generated codecs are looked up once per class and
+ * cached afterwards.
+ */
+public final class Codecs {
+
+    private static final String CODEC_CLASS_SUFFIX = "Codec";
+    private static final String CODEC_INSTANCE_FIELD = "INSTANCE";
+
+    private static final ClassValue<Codec<?>> CODECS = new ClassValue<Codec<?>>() {
+        @Override
+        protected Codec<?> computeValue(Class<?> type) {
+            return loadCodec(type);
+        }
+    };
+
+    private Codecs() {
+    }
+
+    /**
+     * Returns the generated {@link Codec} for the given <tt>type</tt>.
+     *
+     * @param type the type annotated with CborObject
+     * @param <T>  the type of the mapped instances
+     * @return the generated codec for the given type
+     * @throws NullPointerException     if type is null
+     * @throws IllegalArgumentException if no codec was generated for the given type
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Codec<T> codecFor(Class<T> type) {
+        Objects.requireNonNull(type, "type must not be null");
+        return (Codec<T>) CODECS.get(type);
+    }
+
+    /**
+     * Returns the fully qualified class name of the codec generated for the class with the given
+     * binary name, as returned by {@link Class#getName()}.
+     *
+     * @param binaryName the binary name of the class annotated with CborObject
+     * @return the fully qualified class name of the generated codec
+     */
+    public static String codecClassName(String binaryName) {
+        Objects.requireNonNull(binaryName, "binaryName must not be null");
+        return binaryName.replace('$', '_') + CODEC_CLASS_SUFFIX;
+    }
+
+    private static Codec<?> loadCodec(Class<?> type) {
+        String codecClassName = codecClassName(type.getName());
+        try {
+            Class<?> codecClass = Class.forName(codecClassName, true, type.getClassLoader());
+            Field field = codecClass.getField(CODEC_INSTANCE_FIELD);
+            return (Codec<?>) field.get(null);
+
+        } catch (ClassNotFoundException | NoSuchFieldException | IllegalAccessException e) {
+            throw new IllegalArgumentException("No generated codec found for " + type.getName(), e);
+        }
+    }
+
+}
@@ -0,0 +1,513 @@
+/*
+ * Copyright (c) 2016, Christoph Engelbert (aka noctarius) and
+ * contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.noctarius.borabora.mapper.processor;
+
+import com.noctarius.borabora.Output;
+import com.noctarius.borabora.mapper.CborObject;
+import com.noctarius.borabora.mapper.CborProperty;
+import com.noctarius.borabora.mapper.Codecs;
+import com.noctarius.borabora.spi.io.Encoder;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The <tt>CodecProcessor</tt> generates {@link com.noctarius.borabora.mapper.Codec} implementations
+ * for all classes annotated with {@link CborObject}. Generated codecs write a definite-length dictionary
+ * with the properties sorted by their encoded keys, directly using the {@link Encoder}. Reading walks the
+ * dictionary entries once, matching the raw key bytes against the pre-encoded property keys. The
+ * processor is registered as a service and picked up automatically by <tt>javac</tt>.
+ */
+@SupportedAnnotationTypes("com.noctarius.borabora.mapper.CborObject")
+public final class CodecProcessor
+        extends AbstractProcessor {
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(CborObject.class)) {
+            if (element.getKind() != ElementKind.CLASS) {
+                error(element, "@CborObject is only supported on classes");
+                continue;
+            }
+
+            TypeElement type = (TypeElement) element;
+            List<Property> properties = analyzeType(type);
+            if (properties == null) {
+                continue;
+            }
+
+            try {
+                writeCodec(type, properties);
+            } catch (IOException e) {
+                error(type, "Failed to write codec: " + e.getMessage());
+            }
+        }
+        return true;
+    }
+
+    private List<Property> analyzeType(TypeElement type) {
+        boolean valid = true;
+        Set<Modifier> modifiers = type.getModifiers();
+        if (modifiers.contains(Modifier.ABSTRACT) || modifiers.contains(Modifier.PRIVATE)) {
+            valid = error(type, "@CborObject classes must not be abstract or private");
+        }
+        if (type.getNestingKind() != NestingKind.TOP_LEVEL
+                && (type.getNestingKind() != NestingKind.MEMBER || !modifiers.contains(Modifier.STATIC))) {
+            valid = error(type, "Nested @CborObject classes must be static");
+        }
+        if (!type.getTypeParameters().isEmpty()) {
+            valid = error(type, "@CborObject classes must not declare type parameters");
+        }
+        if (!hasDefaultConstructor(type)) {
+            valid = error(type, "@CborObject classes require a non-private no-argument constructor");
+        }
+
+        List<Property> properties = new ArrayList<>();
+        Set<String> keys = new HashSet<>();
+        for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+            Set<Modifier> fieldModifiers = field.getModifiers();
+            if (fieldModifiers.contains(Modifier.STATIC) || fieldModifiers.contains(Modifier.TRANSIENT)) {
+                continue;
+            }
+
+            Property property = analyzeField(type, field);
+            if (property == null) {
+                valid = false;
+            } else if (!keys.add(property.key)) {
+                valid = error(field, "Duplicate dictionary key '" + property.key + "'");
+            } else {
+                properties.add(property);
+            }
+        }
+
+        // Deterministic order of the encoded keys
+        properties.sort((p1, p2) -> compareBytes(p1.textKey, p2.textKey));
+        return valid ? properties : null;
+    }
+
+    private Property analyzeField(TypeElement type, VariableElement field) {
+        String fieldName = field.getSimpleName().toString();
+        PropertyKind kind = propertyKind(field.asType());
+        if (kind == null) {
+            error(field, "Unsupported property type " + field.asType());
+            return null;
+        }
+
+        String getter;
+        String setter;
+        if (field.getModifiers().contains(Modifier.PRIVATE)) {
+            String capitalized = Character.toUpperCase(fieldName.charAt(0)) + fieldName.substring(1);
+            getter = findAccessor(type, field, "get" + capitalized, 0);
+            if (getter == null && (kind == PropertyKind.Boolean || kind == PropertyKind.BoxedBoolean)) {
+                getter = findAccessor(type, field, "is" + capitalized, 0);
+            }
+            setter = findAccessor(type, field, "set" + capitalized, 1);
+            if (getter == null || setter == null) {
+                error(field, "Private property '" + fieldName + "' requires a non-private getter and setter");
+                return null;
+            }
+            getter = "value." + getter + "()";
+            setter = "value." + setter + "(%s);";
+
+        } else if (field.getModifiers().contains(Modifier.FINAL)) {
+            error(field, "Final property '" + fieldName + "' cannot be decoded");
+            return null;
+
+        } else {
+            getter = "value." + fieldName;
+            setter = "value." + fieldName + " = %s;";
+        }
+
+        CborProperty cborProperty = field.getAnnotation(CborProperty.class);
+        String key = cborProperty != null ? cborProperty.value() : fieldName;
+        return new Property(key, field.asType(), kind, getter, setter);
+    }
+
+    private PropertyKind propertyKind(TypeMirror type) {
+        switch (type.getKind()) {
+            case BOOLEAN:
+                return PropertyKind.Boolean;
+            case BYTE:
+                return PropertyKind.Byte;
+            case SHORT:
+                return PropertyKind.Short;
+            case INT:
+                return PropertyKind.Int;
+            case LONG:
+                return PropertyKind.Long;
+            case FLOAT:
+                return PropertyKind.Float;
+            case DOUBLE:
+                return PropertyKind.Double;
+            case ARRAY:
+                TypeMirror componentType = ((ArrayType) type).getComponentType();
+                return componentType.getKind() == TypeKind.BYTE ? PropertyKind.ByteString : null;
+            case DECLARED:
+                return declaredPropertyKind((DeclaredType) type);
+            default:
+                return null;
+        }
+    }
+
+    private PropertyKind declaredPropertyKind(DeclaredType type) {
+        TypeElement element = (TypeElement) type.asElement();
+        if (element.getKind() == ElementKind.ENUM) {
+            return PropertyKind.Enum;
+        }
+        if (element.getAnnotation(CborObject.class) != null) {
+            return PropertyKind.Object;
+        }
+        switch (element.getQualifiedName().toString()) {
+            case "java.lang.String":
+                return PropertyKind.String;
+            case "java.lang.Boolean":
+                return PropertyKind.BoxedBoolean;
+            case "java.lang.Byte":
+                return PropertyKind.BoxedByte;
+            case "java.lang.Short":
+                return PropertyKind.BoxedShort;
+            case "java.lang.Integer":
+                return PropertyKind.BoxedInt;
+            case "java.lang.Long":
+                return PropertyKind.BoxedLong;
+            case "java.lang.Float":
+                return PropertyKind.BoxedFloat;
+            case "java.lang.Double":
+                return PropertyKind.BoxedDouble;
+            default:
+                return null;
+        }
+    }
+
+    private String findAccessor(TypeElement type, VariableElement field, String name, int parameters) {
+        for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+            if (!method.getSimpleName().contentEquals(name) || method.getParameters().size() != parameters
+                    || method.getModifiers().contains(Modifier.PRIVATE) || method.getModifiers().contains(Modifier.STATIC)) {
+                continue;
+            }
+
+            TypeMirror accessorType = parameters == 0 ? method.getReturnType() : method.getParameters().get(0).asType();
+            if (processingEnv.getTypeUtils().isSameType(accessorType, field.asType())) {
+                return name;
+            }
+        }
+        return null;
+    }
+
+    private boolean hasDefaultConstructor(TypeElement type) {
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            if (constructor.getParameters().isEmpty() && !constructor.getModifiers().contains(Modifier.PRIVATE)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void writeCodec(TypeElement type, List<Property> properties)
+            throws IOException {
+
+        String codecClassName = codecClassName(type);
+        int packageSeparator = codecClassName.lastIndexOf('.');
+        String packageName = packageSeparator == -1 ? null : codecClassName.substring(0, packageSeparator);
+        String simpleName = codecClassName.substring(packageSeparator + 1);
+        String typeName = type.getQualifiedName().toString();
+
+        JavaFileObject sourceFile = processingEnv.getFiler().createSourceFile(codecClassName, type);
+        try (Writer writer = sourceFile.openWriter(); PrintWriter out = new PrintWriter(writer)) {
+            if (packageName != null) {
+                out.println("package " + packageName + ";");
+                out.println();
+            }
+            out.println("import com.noctarius.borabora.Input;");
+            out.println("import com.noctarius.borabora.MajorType;");
+            out.println("import com.noctarius.borabora.Output;");
+            out.println("import com.noctarius.borabora.mapper.Codec;");
+            out.println("import com.noctarius.borabora.mapper.CodecSupport;");
+            out.println("import com.noctarius.borabora.spi.io.Decoder;");
+            out.println("import com.noctarius.borabora.spi.io.Encoder;");
+            out.println();
+            out.println("/**");
+            out.println(" * Generated by " + CodecProcessor.class.getName() + " for {@link " + typeName + "}, do not edit.");
+            out.println(" */");
+            out.println("public final class " + simpleName);
+            out.println("        implements Codec<" + typeName + "> {");
+            out.println();
+            out.println("    public static final " + simpleName + " INSTANCE = new " + simpleName + "();");
+            out.println();
+            out.println("    // Text string and ASCII string encoding of each key");
+            out.println("    private static final byte[][] KEYS = {");
+            for (Property property : properties) {
+                out.println("            " + byteArrayLiteral(property.textKey) + ", " //
+                        + byteArrayLiteral(property.asciiKey) + ",");
+            }
+            out.println("    };");
+            out.println();
+            out.println("    private " + simpleName + "() {");
+            out.println("    }");
+            out.println();
+            out.println("    @Override");
+            out.println("    public Class<" + typeName + "> type() {");
+            out.println("        return " + typeName + ".class;");
+            out.println("    }");
+            out.println();
+            out.println("    @Override");
+            out.println("    public long encode(" + typeName + " value, long offset, Output output) {");
+            out.println("        if (value == null) {");
+            out.println("            return Encoder.putNull(offset, output);");
+            out.println("        }");
+            out.println("        offset = Encoder.encodeLengthAndValue(MajorType.Dictionary, " + properties.size()
+                    + ", offset, output);");
+            for (int i = 0; i < properties.size(); i++) {
+                Property property = properties.get(i);
+                out.println("        offset += output.write(KEYS[" + (i * 2) + "], offset, KEYS[" + (i * 2) + "].length);");
+                out.println("        offset = " + encodeExpression(property) + ";");
+            }
+            out.println("        return offset;");
+            out.println("    }");
+            out.println();
+            out.println("    @Override");
+            out.println("    public " + typeName + " decode(Input input, long offset) {");
+            out.println("        if (CodecSupport.isNull(input, offset)) {");
+            out.println("            return null;");
+            out.println("        }");
+            out.println("        long entries = CodecSupport.dictionaryEntries(input, offset);");
+            out.println("        long position = CodecSupport.firstEntry(input, offset);");
+            out.println("        " + typeName + " value = new " + typeName + "();");
+            out.println("        for (long index = 0; CodecSupport.hasEntry(input, position, index, entries); index++) {");
+            out.println("            long valueOffset = Decoder.skip(input, position);");
+            out.println("            switch (CodecSupport.matchKey(input, position, KEYS) >> 1) {");
+            for (int i = 0; i < properties.size(); i++) {
+                Property property = properties.get(i);
+                out.println("                case " + i + ":");
+                out.println("                    " + String.format(property.setter, decodeExpression(property)));
+                out.println("                    break;");
+            }
+            out.println("                default:");
+            out.println("                    // Unknown keys are ignored");
+            out.println("            }");
+            out.println("            position = Decoder.skip(input, valueOffset);");
+            out.println("        }");
+            out.println("        return value;");
+            out.println("    }");
+            out.println();
+            out.println("}");
+        }
+    }
+
+    private String encodeExpression(Property property) {
+        String value = property.getter;
+        switch (property.kind) {
+            case Boolean:
+                return "Encoder.putBoolean(" + value + ", offset, output)";
+            case Byte:
+            case Short:
+            case Int:
+            case Long:
+                return "Encoder.putNumber(" + value + ", offset, output)";
+            case Float:
+                return "Encoder.putFloat(" + value + ", offset, output)";
+            case Double:
+                return "Encoder.putDouble(" + value + ", offset, output)";
+            case BoxedBoolean:
+                return "CodecSupport.putBoolean(" + value + ", offset, output)";
+            case BoxedByte:
+            case BoxedShort:
+            case BoxedInt:
+            case BoxedLong:
+                return "CodecSupport.putNumber(" + value + ", offset, output)";
+            case BoxedFloat:
+                return "CodecSupport.putFloat(" + value + ", offset, output)";
+            case BoxedDouble:
+                return "CodecSupport.putDouble(" + value + ", offset, output)";
+            case String:
+                return "CodecSupport.putString(" + value + ", offset, output)";
+            case ByteString:
+                return "CodecSupport.putByteString(" + value + ", offset, output)";
+            case Enum:
+                return "CodecSupport.putEnum(" + value + ", offset, output)";
+            default:
+                return nestedCodec(property) + ".encode(" + value + ", offset, output)";
+        }
+    }
+
+    private String decodeExpression(Property property) {
+        switch (property.kind) {
+            case Boolean:
+                return "CodecSupport.readBoolean(input, valueOffset)";
+            case Byte:
+                return "(byte) CodecSupport.readLong(input, valueOffset)";
+            case Short:
+                return "(short) CodecSupport.readLong(input, valueOffset)";
+            case Int:
+                return "(int) CodecSupport.readLong(input, valueOffset)";
+            case Long:
+                return "CodecSupport.readLong(input, valueOffset)";
+            case Float:
+                return "(float) CodecSupport.readDouble(input, valueOffset)";
+            case Double:
+                return "CodecSupport.readDouble(input, valueOffset)";
+            case BoxedBoolean:
+            case BoxedByte:
+            case BoxedShort:
+            case BoxedInt:
+            case BoxedLong:
+            case BoxedFloat:
+            case BoxedDouble:
+                Property unboxed = new Property(property.key, property.type, property.kind.unboxed, null, null);
+                return "CodecSupport.isNull(input, valueOffset) ? null : " + decodeExpression(unboxed);
+            case String:
+                return "CodecSupport.readString(input, valueOffset)";
+            case ByteString:
+                return "CodecSupport.readByteString(input, valueOffset)";
+            case Enum:
+                return "CodecSupport.readEnum(" + property.type + ".class, input, valueOffset)";
+            default:
+                return nestedCodec(property) + ".decode(input, valueOffset)";
+        }
+    }
+
+    private String nestedCodec(Property property) {
+        TypeElement element = (TypeElement) ((DeclaredType) property.type).asElement();
+        return codecClassName(element) + ".INSTANCE";
+    }
+
+    private String codecClassName(TypeElement type) {
+        return Codecs.codecClassName(processingEnv.getElementUtils().getBinaryName(type).toString());
+    }
+
+    private boolean error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+        return false;
+    }
+
+    private static String byteArrayLiteral(byte[] bytes) {
+        if (bytes == null) {
+            return "null";
+        }
+        StringBuilder sb = new StringBuilder("{");
+        for (int i = 0; i < bytes.length; i++) {
+            sb.append(i == 0 ? "" : ", ").append(bytes[i]);
+        }
+        return sb.append('}').toString();
+    }
+
+    private static int compareBytes(byte[] first, byte[] second) {
+        int length = Math.min(first.length, second.length);
+        for (int i = 0; i < length; i++) {
+            int result = Integer.compare(first[i] & 0xff, second[i] & 0xff);
+            if (result != 0) {
+                return result;
+            }
+        }
+        return Integer.compare(first.length, second.length);
+    }
+
+    private static byte[] encodeKey(String key, boolean ascii) {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        Output output = Output.toOutputStream(baos);
+        if (ascii) {
+            Encoder.putAsciiString(key, 0, output);
+        } else {
+            Encoder.putTextString(key, 0, output);
+        }
+        return baos.toByteArray();
+    }
+
+    private enum PropertyKind {
+        Boolean,
+        Byte,
+        Short,
+        Int,
+        Long,
+        Float,
+        Double,
+        BoxedBoolean(Boolean),
+        BoxedByte(Byte),
+        BoxedShort(Short),
+        BoxedInt(Int),
+        BoxedLong(Long),
+        BoxedFloat(Float),
+        BoxedDouble(Double),
+        String,
+        ByteString,
+        Enum,
+        Object;
+
+        private final PropertyKind unboxed;
+
+        PropertyKind() {
+            this(null);
+        }
+
+        PropertyKind(PropertyKind unboxed) {
+            this.unboxed = unboxed;
+        }
+    }
+
+    private static final class Property {
+
+        private final String key;
+        private final TypeMirror type;
+        private final PropertyKind kind;
+        private final String getter;
+        private final String setter;
+        private final byte[] textKey;
+        private final byte[] asciiKey;
+
+        private Property(String key, TypeMirror type, PropertyKind kind, String getter, String setter) {
+            this.key = key;
+            this.type = type;
+            this.kind = kind;
+            this.getter = getter;
+            this.setter = setter;
+            this.textKey = encodeKey(key, false);
+            boolean ascii = StandardCharsets.US_ASCII.newEncoder().canEncode(key);
+            this.asciiKey = ascii ? encodeKey(key, true) : null;
+        }
+    }
+
+}
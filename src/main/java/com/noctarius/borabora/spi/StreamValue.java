@@ -18,6 +18,7 @@ package com.noctarius.borabora.spi;
 
 import com.noctarius.borabora.MajorType;
 import com.noctarius.borabora.ValueType;
+import com.noctarius.borabora.spi.metrics.QueryMetrics;
 import com.noctarius.borabora.spi.query.QueryContext;
 
 import java.util.Objects;
@@ -58,6 +59,11 @@ public final class StreamValue
         this.offset = offset;
         this.majorType = majorType;
         this.valueType = valueType;
+
+        QueryMetrics queryMetrics = queryContext.queryMetrics();
+        if (queryMetrics != null) {
+            queryMetrics.incrementStreamValues();
+        }
     }
 
     @Override
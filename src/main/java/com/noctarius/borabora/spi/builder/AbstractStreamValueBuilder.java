@@ -25,14 +25,18 @@ import com.noctarius.borabora.builder.encoder.IndefiniteStringBuilder;
 import com.noctarius.borabora.builder.encoder.SequenceBuilder;
 import com.noctarius.borabora.builder.encoder.ValueBuilder;
 import com.noctarius.borabora.spi.io.Encoder;
+import com.noctarius.borabora.spi.io.SeekableOutput;
 
+import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.net.URI;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.CharsetEncoder;
 import java.time.Instant;
 import java.time.ZonedDateTime;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.Objects;
 
@@ -68,70 +72,77 @@ public abstract class AbstractStreamValueBuilder<B>
         if (consumer == null) {
             return putTag((Object) null);
         }
-        validate();
-        consumer.execute(encoderContext, builder);
+        beginValue();
+        encoderContext.encodeOpaque((offset, output) -> {
+            consumer.execute(encoderContext, builder);
+            return encoderContext.offset();
+        });
         return builder;
     }
 
     @Override
     public B putNumber(byte value) {
-        validate();
-        encoderContext.encode((offset, output) -> Encoder.putNumber(value, offset, output));
+        beginValue();
+        encoderContext.offset(Encoder.putNumber(value, encoderContext.offset(), encoderContext.output()));
         return builder;
     }
 
     @Override
     public B putNumber(Byte value) {
-        validate();
+        beginValue();
         encodeInt(value);
         return builder;
     }
 
     @Override
     public B putNumber(short value) {
-        validate();
-        encoderContext.encode((offset, output) -> Encoder.putNumber(value, offset, output));
+        beginValue();
+        encoderContext.offset(Encoder.putNumber(value, encoderContext.offset(), encoderContext.output()));
         return builder;
     }
 
     @Override
     public B putNumber(Short value) {
-        validate();
+        beginValue();
         encodeInt(value);
         return builder;
     }
 
     @Override
     public B putNumber(int value) {
-        validate();
-        encoderContext.encode((offset, output) -> Encoder.putNumber(value, offset, output));
+        beginValue();
+        encoderContext.offset(Encoder.putNumber(value, encoderContext.offset(), encoderContext.output()));
         return builder;
     }
 
     @Override
     public B putNumber(Integer value) {
-        validate();
+        beginValue();
         encodeInt(value);
         return builder;
     }
 
     @Override
     public B putFraction(BigDecimal value) {
-        validate();
-        encoderContext.encodeNullOrType(value, (offset, output) -> Encoder.putFraction(value, offset, output));
+        beginValue();
+        if (value == null) {
+            encoderContext.encodeNull();
+        } else {
+            encoderContext.encodeOpaque((offset, output) -> Encoder.putFraction(value, offset, output));
+        }
         return builder;
     }
 
     @Override
     public B putNumber(long value) {
-        validate();
-        encoderContext.encode((offset, output) -> Encoder.putNumber(value, offset, output));
+        beginValue();
+        encoderContext.offset(Encoder.putNumber(value, encoderContext.offset(), encoderContext.output()));
         return builder;
     }
 
     @Override
     public B putNumber(Long value) {
-        validate();
+        beginValue();
         encodeInt(value);
         return builder;
     }
@@ -139,11 +150,15 @@ public abstract class AbstractStreamValueBuilder<B>
     @Override
     public B putNumber(Number value) {
         if (value == null) {
-            validate();
+            beginValue();
             encoderContext.encodeNull();
         } else if (value instanceof BigInteger) {
-            validate();
-            encoderContext.encode((offset, output) -> Encoder.putNumber((BigInteger) value, offset, output));
+            beginValue();
+            if (encoderContext.deterministicEncoding()) {
+                encoderContext.encodeOpaque((offset, output) -> Encoder.putShortestNumber((BigInteger) value, offset, output));
+            } else {
+                encoderContext.encodeOpaque((offset, output) -> Encoder.putNumber((BigInteger) value, offset, output));
+            }
 
         } else if (value instanceof BigDecimal) {
             throw new IllegalArgumentException("BigDecimal is not supported");
@@ -177,15 +192,19 @@ public abstract class AbstractStreamValueBuilder<B>
 
     @Override
     public B putNumber(float value) {
-        validate();
-        encoderContext.encode((offset, output) -> Encoder.putFloat(value, offset, output));
+        beginValue();
+        if (encoderContext.deterministicEncoding()) {
+            encoderContext.offset(Encoder.putShortestFloat(value, encoderContext.offset(), encoderContext.output()));
+        } else {
+            encoderContext.offset(Encoder.putFloat(value, encoderContext.offset(), encoderContext.output()));
+        }
         return builder;
     }
 
     @Override
     public B putNumber(Float value) {
         if (value == null) {
-            validate();
+            beginValue();
             encoderContext.encodeNull();
         } else {
             return putNumber(value.floatValue());
@@ -195,15 +214,19 @@ public abstract class AbstractStreamValueBuilder<B>
 
     @Override
     public B putNumber(double value) {
-        validate();
-        encoderContext.encode((offset, output) -> Encoder.putDouble(value, offset, output));
+        beginValue();
+        if (encoderContext.deterministicEncoding()) {
+            encoderContext.offset(Encoder.putShortestFloat(value, encoderContext.offset(), encoderContext.output()));
+        } else {
+            encoderContext.offset(Encoder.putDouble(value, encoderContext.offset(), encoderContext.output()));
+        }
         return builder;
     }
 
     @Override
     public B putNumber(Double value) {
         if (value == null) {
-            validate();
+            beginValue();
             encoderContext.encodeNull();
         } else {
             return putNumber(value.doubleValue());
@@ -213,15 +236,15 @@ public abstract class AbstractStreamValueBuilder<B>
 
     @Override
     public B putHalfPrecision(float value) {
-        validate();
-        encoderContext.encode((offset, output) -> Encoder.putHalfPrecision(value, offset, output));
+        beginValue();
+        encoderContext.offset(Encoder.putHalfPrecision(value, encoderContext.offset(), encoderContext.output()));
         return builder;
     }
 
     @Override
     public B putHalfPrecision(Float value) {
         if (value == null) {
-            validate();
+            beginValue();
             encoderContext.encodeNull();
         } else {
             return putHalfPrecision(value.floatValue());
@@ -231,80 +254,104 @@ public abstract class AbstractStreamValueBuilder<B>
 
     @Override
     public B putBigInteger(BigInteger value) {
-        validate();
+        beginValue();
         if (value == null) {
             encoderContext.encodeNull();
+        } else if (encoderContext.deterministicEncoding()) {
+            // Bignums are only allowed for values not fitting into a 64 bit integer
+            encoderContext.encodeOpaque((offset, output) -> Encoder.putShortestNumber(value, offset, output));
         } else {
-            encoderContext.encode((offset, output) -> Encoder.putBigInteger(value, offset, output));
+            encoderContext.encodeOpaque((offset, output) -> Encoder.putBigInteger(value, offset, output));
         }
         return builder;
     }
 
     @Override
     public B putByteString(byte[] value) {
-        validate();
+        beginValue();
+        if (value == null) {
+            encoderContext.encodeNull();
+        } else {
+            long index = encoderContext.stringReference(value, value.length);
+            if (index > -1) {
+                encoderContext.offset(Encoder.putStringReference(index, encoderContext.offset(), encoderContext.output()));
+            } else {
+                encoderContext.offset(Encoder.putByteString(value, encoderContext.offset(), encoderContext.output()));
+            }
+        }
+        return builder;
+    }
+
+    @Override
+    public B putByteString(ByteBuffer value) {
+        beginValue();
         if (value == null) {
             encoderContext.encodeNull();
         } else {
-            encoderContext.encode((offset, output) -> Encoder.putByteString(value, offset, output));
+            encoderContext.stringReference(null, value.remaining());
+            encoderContext.offset(Encoder.putByteString(value, encoderContext.offset(), encoderContext.output()));
         }
         return builder;
     }
 
     @Override
     public B putString(String value) {
-        validate();
+        beginValue();
         if (value == null) {
             encoderContext.encodeNull();
+        } else if (encoderContext.stringReferences()) {
+            // Strings are always text strings to be referenceable by equal strings
+            putTextString0(value);
         } else {
-            encoderContext.encode((offset, output) -> Encoder.putString(value, offset, output));
+            encoderContext.offset(Encoder.putString(value, encoderContext.offset(), encoderContext.output()));
         }
         return builder;
     }
 
     @Override
     public B putAsciiString(String value) {
-        validate();
+        beginValue();
         if (value == null) {
             encoderContext.encodeNull();
         } else {
-            encoderContext.encode((offset, output) -> Encoder.putAsciiString(value, offset, output));
+            encoderContext.stringReference(null, value.length());
+            encoderContext.offset(Encoder.putAsciiString(value, encoderContext.offset(), encoderContext.output()));
         }
         return builder;
     }
 
     @Override
     public B putTextString(String value) {
-        validate();
+        beginValue();
         if (value == null) {
             encoderContext.encodeNull();
         } else {
-            encoderContext.encode((offset, output) -> Encoder.putTextString(value, offset, output));
+            putTextString0(value);
         }
         return builder;
     }
 
     @Override
     public B putURI(URI uri) {
-        validate();
+        beginValue();
         if (uri == null) {
             encoderContext.encodeNull();
 
         } else {
-            encoderContext.encode((offset, output) -> Encoder.putUri(uri, offset, output));
+            encoderContext.encodeOpaque((offset, output) -> Encoder.putUri(uri, offset, output));
         }
         return builder;
     }
 
     @Override
     public B putDateTime(Instant instant) {
-        validate();
+        beginValue();
         if (instant == null) {
             encoderContext.encodeNull();
 
         } else {
             ZonedDateTime atUTC = instant.atZone(UTC);
-            encoderContext.encode((offset, output) -> Encoder.putDateTime(atUTC, offset, output));
+            encoderContext.encodeOpaque((offset, output) -> Encoder.putDateTime(atUTC, offset, output));
         }
         return builder;
     }
@@ -312,7 +359,7 @@ public abstract class AbstractStreamValueBuilder<B>
     @Override
     public B putDateTime(Date date) {
         if (date == null) {
-            validate();
+            beginValue();
             encoderContext.encodeNull();
             return builder;
         }
@@ -321,15 +368,15 @@ public abstract class AbstractStreamValueBuilder<B>
 
     @Override
     public B putTimestamp(long timestamp) {
-        validate();
-        encoderContext.encode((offset, output) -> Encoder.putTimestamp(timestamp, offset, output));
+        beginValue();
+        encoderContext.offset(Encoder.putTimestamp(timestamp, encoderContext.offset(), encoderContext.output()));
         return builder;
     }
 
     @Override
     public B putTimestamp(Instant instant) {
         if (instant == null) {
-            validate();
+            beginValue();
             encoderContext.encodeNull();
             return builder;
         }
@@ -338,36 +385,45 @@ public abstract class AbstractStreamValueBuilder<B>
 
     @Override
     public IndefiniteByteStringBuilder<B> putIndefiniteByteString() {
-        validate();
-        encoderContext.encode((offset, output) -> Encoder.encodeLengthAndValue(MajorType.ByteString, -1, offset, output));
+        beginValue();
+        if (!encoderContext.deterministicEncoding()) {
+            encoderContext.offset(Encoder.encodeLengthAndValue(MajorType.ByteString, -1, encoderContext.offset(),
+                    encoderContext.output()));
+        }
         return new IndefiniteByteStringBuilderImpl<>(encoderContext, builder);
     }
 
     @Override
     public IndefiniteStringBuilder<B> putIndefiniteAsciiString() {
-        validate();
-        encoderContext.encode((offset, output) -> Encoder.putSemanticTag(TAG_ASCII_STRING, offset, output));
-        encoderContext.encode((offset, output) -> Encoder.encodeLengthAndValue(MajorType.Sequence, -1, offset, output));
+        beginValue();
+        if (!encoderContext.deterministicEncoding()) {
+            encoderContext.offset(Encoder.putSemanticTag(TAG_ASCII_STRING, encoderContext.offset(), encoderContext.output()));
+            encoderContext.offset(Encoder.encodeLengthAndValue(MajorType.Sequence, -1, encoderContext.offset(),
+                    encoderContext.output()));
+        }
         return new IndefiniteStringBuilderImpl<>(encoderContext, true, builder);
     }
 
     @Override
     public IndefiniteStringBuilder<B> putIndefiniteTextString() {
-        validate();
-        encoderContext.encode((offset, output) -> Encoder.encodeLengthAndValue(MajorType.TextString, -1, offset, output));
+        beginValue();
+        if (!encoderContext.deterministicEncoding()) {
+            encoderContext.offset(Encoder.encodeLengthAndValue(MajorType.TextString, -1, encoderContext.offset(),
+                    encoderContext.output()));
+        }
         return new IndefiniteStringBuilderImpl<>(encoderContext, false, builder);
     }
 
     @Override
     public B putBoolean(boolean value) {
-        validate();
-        encoderContext.encode((offset, output) -> Encoder.putBoolean(value, offset, output));
+        beginValue();
+        encoderContext.offset(Encoder.putBoolean(value, encoderContext.offset(), encoderContext.output()));
         return builder;
     }
 
     @Override
     public B putBoolean(Boolean value) {
-        validate();
+        beginValue();
         if (value == null) {
             encoderContext.encodeNull();
         } else {
@@ -380,8 +436,8 @@ public abstract class AbstractStreamValueBuilder<B>
     public B putValue(Object value) {
         // TODO Capture Dictionary and Sequence!
 
-        validate();
         if (value == null) {
+            beginValue();
             encoderContext.encodeNull();
 
         } else if (value instanceof Number //
@@ -404,75 +460,266 @@ public abstract class AbstractStreamValueBuilder<B>
 
     @Override
     public B putTag(Object value) {
-        validate();
+        beginValue();
         if (value == null) {
             encoderContext.encodeNull();
 
         } else {
             // Try to write as semantic tag
-            encoderContext.encode((offset, output) -> encoderContext.applyEncoder(value, offset));
+            encoderContext.encodeOpaque((offset, output) -> encoderContext.applyEncoder(value, offset));
         }
         return builder;
     }
 
     @Override
     public SequenceBuilder<B> putSequence() {
-        validate();
-        encoderContext.encode((offset, output) -> Encoder.encodeLengthAndValue(MajorType.Sequence, -1, offset, output));
-        return new SequenceBuilderImpl<>(encoderContext, -1, builder);
+        beginValue();
+        encoderContext.beginContainer();
+        long headerOffset = reserveContainerHeader(MajorType.Sequence);
+        return new SequenceBuilderImpl<>(encoderContext, -1, headerOffset, builder);
     }
 
     @Override
     public SequenceBuilder<B> putSequence(long elements) {
-        validate();
-        encoderContext.encode((offset, output) -> Encoder.encodeLengthAndValue(MajorType.Sequence, elements, offset, output));
-        return new SequenceBuilderImpl<>(encoderContext, elements, builder);
+        beginValue();
+        encoderContext.beginContainer();
+        encoderContext.offset(Encoder.encodeLengthAndValue(MajorType.Sequence, elements, encoderContext.offset(),
+                encoderContext.output()));
+        return new SequenceBuilderImpl<>(encoderContext, elements, -1, builder);
+    }
+
+    @Override
+    public B putSequence(long[] values) {
+        beginValue();
+        if (values == null) {
+            encoderContext.encodeNull();
+        } else {
+            encoderContext.offset(Encoder.putSequence(values, encoderContext.offset(), encoderContext.output()));
+        }
+        return builder;
+    }
+
+    @Override
+    public B putSequence(int[] values) {
+        beginValue();
+        if (values == null) {
+            encoderContext.encodeNull();
+        } else {
+            encoderContext.offset(Encoder.putSequence(values, encoderContext.offset(), encoderContext.output()));
+        }
+        return builder;
+    }
+
+    @Override
+    public B putSequence(double[] values) {
+        beginValue();
+        if (values == null) {
+            encoderContext.encodeNull();
+        } else if (encoderContext.deterministicEncoding()) {
+            putShortestFloats(values);
+        } else {
+            encoderContext.offset(Encoder.putSequence(values, encoderContext.offset(), encoderContext.output()));
+        }
+        return builder;
+    }
+
+    @Override
+    public B putSequence(float[] values) {
+        beginValue();
+        if (values == null) {
+            encoderContext.encodeNull();
+        } else if (encoderContext.deterministicEncoding()) {
+            putShortestFloats(values);
+        } else {
+            encoderContext.offset(Encoder.putSequence(values, encoderContext.offset(), encoderContext.output()));
+        }
+        return builder;
+    }
+
+    @Override
+    public B putTypedArray(short[] values) {
+        beginValue();
+        if (values == null) {
+            encoderContext.encodeNull();
+        } else {
+            encoderContext.stringReference(null, (long) values.length * 2);
+            encoderContext.offset(Encoder.putTypedArray(values, encoderContext.offset(), encoderContext.output()));
+        }
+        return builder;
+    }
+
+    @Override
+    public B putTypedArray(int[] values) {
+        beginValue();
+        if (values == null) {
+            encoderContext.encodeNull();
+        } else {
+            encoderContext.stringReference(null, (long) values.length * 4);
+            encoderContext.offset(Encoder.putTypedArray(values, encoderContext.offset(), encoderContext.output()));
+        }
+        return builder;
+    }
+
+    @Override
+    public B putTypedArray(long[] values) {
+        beginValue();
+        if (values == null) {
+            encoderContext.encodeNull();
+        } else {
+            encoderContext.stringReference(null, (long) values.length * 8);
+            encoderContext.offset(Encoder.putTypedArray(values, encoderContext.offset(), encoderContext.output()));
+        }
+        return builder;
+    }
+
+    @Override
+    public B putTypedArray(float[] values) {
+        beginValue();
+        if (values == null) {
+            encoderContext.encodeNull();
+        } else {
+            encoderContext.stringReference(null, (long) values.length * 4);
+            encoderContext.offset(Encoder.putTypedArray(values, encoderContext.offset(), encoderContext.output()));
+        }
+        return builder;
+    }
+
+    @Override
+    public B putTypedArray(double[] values) {
+        beginValue();
+        if (values == null) {
+            encoderContext.encodeNull();
+        } else {
+            encoderContext.stringReference(null, (long) values.length * 8);
+            encoderContext.offset(Encoder.putTypedArray(values, encoderContext.offset(), encoderContext.output()));
+        }
+        return builder;
     }
 
     @Override
     public DictionaryBuilder<B> putDictionary() {
-        validate();
-        encoderContext.encode((offset, output) -> Encoder.encodeLengthAndValue(MajorType.Dictionary, -1, offset, output));
-        return new DictionaryBuilderImpl<>(encoderContext, -1, builder);
+        beginValue();
+        encoderContext.beginContainer();
+        long headerOffset = reserveContainerHeader(MajorType.Dictionary);
+        return new DictionaryBuilderImpl<>(encoderContext, -1, headerOffset, builder);
     }
 
     @Override
     public DictionaryBuilder<B> putDictionary(long elements) {
-        validate();
-        encoderContext.encode((offset, output) -> Encoder.encodeLengthAndValue(MajorType.Dictionary, elements, offset, output));
-        return new DictionaryBuilderImpl<>(encoderContext, elements, builder);
+        beginValue();
+        encoderContext.beginContainer();
+        encoderContext.offset(Encoder.encodeLengthAndValue(MajorType.Dictionary, elements, encoderContext.offset(),
+                encoderContext.output()));
+        return new DictionaryBuilderImpl<>(encoderContext, elements, -1, builder);
     }
 
     protected void validate() {
     }
 
+    /**
+     * Called right before the next item of this builder is written, after it was validated
+     * successfully. Builders of top-level items use this hook to write data, which precedes
+     * every item, like a string reference namespace.
+     */
+    protected void beginItem() {
+    }
+
+    private void beginValue() {
+        validate();
+        beginItem();
+    }
+
+    private void putTextString0(String value) {
+        long utf8Length = Encoder.utf8Length(value);
+        long index = encoderContext.stringReference(value, utf8Length);
+        if (index > -1) {
+            encoderContext.offset(Encoder.putStringReference(index, encoderContext.offset(), encoderContext.output()));
+        } else {
+            encoderContext.offset(Encoder.putTextString(value, utf8Length, encoderContext.offset(), encoderContext.output()));
+        }
+    }
+
+    private void putShortestFloats(double[] values) {
+        long offset = Encoder.encodeLengthAndValue(MajorType.Sequence, values.length, encoderContext.offset(),
+                encoderContext.output());
+        for (double value : values) {
+            offset = Encoder.putShortestFloat(value, offset, encoderContext.output());
+        }
+        encoderContext.offset(offset);
+    }
+
+    private void putShortestFloats(float[] values) {
+        long offset = Encoder.encodeLengthAndValue(MajorType.Sequence, values.length, encoderContext.offset(),
+                encoderContext.output());
+        for (float value : values) {
+            offset = Encoder.putShortestFloat(value, offset, encoderContext.output());
+        }
+        encoderContext.offset(offset);
+    }
+
+    private long reserveContainerHeader(MajorType majorType) {
+        long offset = encoderContext.offset();
+        if (encoderContext.definiteLengthContainers()) {
+            encoderContext.offset(Encoder.reserveLengthAndValue(majorType, offset, encoderContext.output()));
+            return offset;
+        }
+        encoderContext.offset(Encoder.encodeLengthAndValue(majorType, -1, offset, encoderContext.output()));
+        return -1;
+    }
+
+    private static void endContainer(EncoderContext encoderContext, MajorType majorType, long elements, long headerOffset) {
+        long offset = encoderContext.offset();
+        if (headerOffset == -1) {
+            encoderContext.offset(encoderContext.output().write(offset, (byte) OPCODE_BREAK_MASK));
+        } else {
+            SeekableOutput output = (SeekableOutput) encoderContext.output();
+            encoderContext.offset(Encoder.backpatchLengthAndValue(majorType, elements, headerOffset, offset, output));
+        }
+    }
+
     private void encodeInt(Number value) {
-        encoderContext.encodeNullOrType(value, (offset, output) -> Encoder.putNumber(value.longValue(), offset, output));
+        if (value == null) {
+            encoderContext.encodeNull();
+        } else {
+            encoderContext.offset(Encoder.putNumber(value.longValue(), encoderContext.offset(), encoderContext.output()));
+        }
     }
 
     private class IndefiniteByteStringBuilderImpl<B>
             implements IndefiniteByteStringBuilder<B> {
 
         private final EncoderContext encoderContext;
+        private final ByteArrayOutputStream chunks;
         private final B builder;
 
         IndefiniteByteStringBuilderImpl(EncoderContext encoderContext, B builder) {
             Objects.requireNonNull(encoderContext, "encoderContext must not be null");
             Objects.requireNonNull(builder, "builder must not be null");
             this.encoderContext = encoderContext;
+            // Deterministic encoding concatenates all chunks into a definite bytestring
+            this.chunks = encoderContext.deterministicEncoding() ? new ByteArrayOutputStream() : null;
             this.builder = builder;
         }
 
         @Override
         public IndefiniteByteStringBuilder<B> putByteString(byte[] value) {
             Objects.requireNonNull(value, "null is not a legal value of an indefinite bytestring");
-            encoderContext.encode((offset, output) -> Encoder.putByteString(value, offset, output));
+            if (chunks != null) {
+                chunks.write(value, 0, value.length);
+            } else {
+                encoderContext.offset(Encoder.putByteString(value, encoderContext.offset(), encoderContext.output()));
+            }
             return this;
         }
 
         @Override
         public B endIndefiniteByteString() {
-            encoderContext.encode((offset, output) -> output.write(offset++, (byte) OPCODE_BREAK_MASK));
+            if (chunks != null) {
+                byte[] value = chunks.toByteArray();
+                encoderContext.offset(Encoder.putByteString(value, encoderContext.offset(), encoderContext.output()));
+            } else {
+                encoderContext.offset(encoderContext.output().write(encoderContext.offset(), (byte) OPCODE_BREAK_MASK));
+            }
             return builder;
         }
     }
@@ -482,6 +729,7 @@ public abstract class AbstractStreamValueBuilder<B>
 
         private final EncoderContext encoderContext;
         private final boolean asciiOnly;
+        private final StringBuilder chunks;
         private final B builder;
 
         IndefiniteStringBuilderImpl(EncoderContext encoderContext, boolean asciiOnly, B builder) {
@@ -489,27 +737,42 @@ public abstract class AbstractStreamValueBuilder<B>
             Objects.requireNonNull(builder, "builder must not be null");
             this.encoderContext = encoderContext;
             this.asciiOnly = asciiOnly;
+            // Deterministic encoding concatenates all chunks into a definite string
+            this.chunks = encoderContext.deterministicEncoding() ? new StringBuilder() : null;
             this.builder = builder;
         }
 
         @Override
         public IndefiniteStringBuilder<B> putString(String value) {
             Objects.requireNonNull(value, "null is not a legal value of an indefinite string");
-            if (asciiOnly) {
-                if (!ASCII_ENCODER.canEncode(value)) {
-                    throw new IllegalArgumentException("UTF8 string cannot be added to a CBOR ByteString");
-                }
-                encoderContext.encode((offset, output) -> Encoder.putAsciiString(value, offset, output));
+            if (asciiOnly && !ASCII_ENCODER.canEncode(value)) {
+                throw new IllegalArgumentException("UTF8 string cannot be added to a CBOR ByteString");
+            }
+            if (chunks != null) {
+                chunks.append(value);
+
+            } else if (asciiOnly) {
+                // Tagged chunks are no indefinite string chunks for readers
+                encoderContext.stringReference(null, value.length());
+                encoderContext.offset(Encoder.putAsciiString(value, encoderContext.offset(), encoderContext.output()));
 
             } else {
-                encoderContext.encode((offset, output) -> Encoder.putTextString(value, offset, output));
+                encoderContext.offset(Encoder.putTextString(value, encoderContext.offset(), encoderContext.output()));
             }
             return this;
         }
 
         @Override
         public B endIndefiniteString() {
-            encoderContext.encode((offset, output) -> output.write(offset++, (byte) OPCODE_BREAK_MASK));
+            if (chunks == null) {
+                encoderContext.offset(encoderContext.output().write(encoderContext.offset(), (byte) OPCODE_BREAK_MASK));
+            } else if (asciiOnly) {
+                encoderContext.offset(Encoder.putAsciiString(chunks.toString(), encoderContext.offset(),
+                        encoderContext.output()));
+            } else {
+                encoderContext.offset(Encoder.putTextString(chunks.toString(), encoderContext.offset(),
+                        encoderContext.output()));
+            }
             return builder;
         }
     }
@@ -520,20 +783,25 @@ public abstract class AbstractStreamValueBuilder<B>
 
         private final B builder;
         private final long maxElements;
+        private final long headerOffset;
 
         private long elements;
 
-        SequenceBuilderImpl(EncoderContext encoderContext, long maxElements, B builder) {
+        SequenceBuilderImpl(EncoderContext encoderContext, long maxElements, long headerOffset, B builder) {
             super(encoderContext);
             Objects.requireNonNull(builder, "builder must not be null");
             this.maxElements = maxElements;
+            this.headerOffset = headerOffset;
             this.builder = builder;
         }
 
         @Override
         public SequenceBuilder<B> putTag(TagBuilderConsumer<SequenceBuilder<B>> consumer) {
             validate();
-            consumer.execute(encoderContext, this);
+            encoderContext.encodeOpaque((offset, output) -> {
+                consumer.execute(encoderContext, this);
+                return encoderContext.offset();
+            });
             return this;
         }
 
@@ -545,8 +813,9 @@ public abstract class AbstractStreamValueBuilder<B>
             }
 
             if (maxElements == -1) {
-                encoderContext.encode((offset, output) -> output.write(offset++, (byte) OPCODE_BREAK_MASK));
+                endContainer(encoderContext, MajorType.Sequence, elements, headerOffset);
             }
+            encoderContext.finishContainer();
             return builder;
         }
 
@@ -564,21 +833,33 @@ public abstract class AbstractStreamValueBuilder<B>
 
         private final B builder;
         private final long maxElements;
+        private final long headerOffset;
         private final EncoderContext encoderContext;
 
         private long elements;
+        private long[] entryOffsets;
 
-        DictionaryBuilderImpl(EncoderContext encoderContext, long maxElements, B builder) {
+        DictionaryBuilderImpl(EncoderContext encoderContext, long maxElements, long headerOffset, B builder) {
             Objects.requireNonNull(encoderContext, "encoderContext must not be null");
             Objects.requireNonNull(builder, "builder must not be null");
             this.builder = builder;
             this.maxElements = maxElements;
+            this.headerOffset = headerOffset;
             this.encoderContext = encoderContext;
+            // Entries are only sorted for deterministic encoding
+            this.entryOffsets = encoderContext.deterministicEncoding() ? new long[16] : null;
         }
 
         @Override
         public DictionaryEntryBuilder<B> putEntry() {
             validate();
+            if (entryOffsets != null) {
+                int index = (int) elements - 1;
+                if (index == entryOffsets.length) {
+                    entryOffsets = Arrays.copyOf(entryOffsets, entryOffsets.length * 2);
+                }
+                entryOffsets[index] = encoderContext.offset();
+            }
             return new DictionaryEntryBuilderImpl<>(encoderContext, this);
         }
 
@@ -588,9 +869,13 @@ public abstract class AbstractStreamValueBuilder<B>
                 String msg = String.format("Expected %s element but only %s elements written", maxElements, elements);
                 throw new IllegalStateException(msg);
             }
+            if (entryOffsets != null) {
+                encoderContext.sortDictionaryEntries(entryOffsets, (int) elements);
+            }
             if (maxElements == -1) {
-                encoderContext.encode((offset, output) -> output.write(offset++, (byte) OPCODE_BREAK_MASK));
+                endContainer(encoderContext, MajorType.Dictionary, elements, headerOffset);
             }
+            encoderContext.finishContainer();
             return builder;
         }
 
@@ -621,7 +906,10 @@ public abstract class AbstractStreamValueBuilder<B>
         public DictionaryEntryBuilder<B> putTag(TagBuilderConsumer<DictionaryEntryBuilder<B>> consumer) {
             validate();
             Objects.requireNonNull(consumer, "consumer must not be null");
-            consumer.execute(encoderContext, this);
+            encoderContext.encodeOpaque((offset, output) -> {
+                consumer.execute(encoderContext, this);
+                return encoderContext.offset();
+            });
             return this;
         }
 
@@ -57,6 +57,110 @@ public interface EncoderContext {
      */
     void offset(long offset);
 
+    /**
+     * Returns <tt>true</tt> if sequences and dictionaries without a known number of elements
+     * are written with a reserved header which is back-patched with the definite length when
+     * the container is finished, otherwise they are written as indefinite containers terminated
+     * by a break code. Back-patching is only available for
+     * {@link com.noctarius.borabora.spi.io.SeekableOutput}s.
+     *
+     * @return true if definite lengths are back-patched, otherwise false
+     */
+    default boolean definiteLengthContainers() {
+        return false;
+    }
+
+    /**
+     * Returns <tt>true</tt> if repeated strings are written as string references (semantic tag 25)
+     * into a string reference namespace (semantic tag 256), which is started for every top-level
+     * item of the generated CBOR stream.
+     *
+     * @return true if string references are written, otherwise false
+     */
+    default boolean stringReferences() {
+        return false;
+    }
+
+    /**
+     * Starts a new string reference namespace at the current position in the CBOR stream and
+     * clears all previously known strings. If string references are not enabled, nothing is
+     * written.
+     */
+    default void beginStringNamespace() {
+    }
+
+    /**
+     * Returns the index of a previously written string, equal to the given <tt>value</tt>, if
+     * known in the current string reference namespace. Otherwise the string, which is about to
+     * be written next, is registered with the next free index (given it is long enough to be
+     * referenced) and <tt>-1</tt> is returned. A <tt>null</tt> value registers a string which
+     * itself is never referenced. Values are either <tt>String</tt>s for text strings or
+     * <tt>byte[]</tt>s for byte strings.
+     *
+     * @param value    the string value to be written, or null
+     * @param byteSize the encoded data size of the string in bytes
+     * @return the index of the equal string, or -1 if the string has to be written
+     */
+    default long stringReference(Object value, long byteSize) {
+        return -1;
+    }
+
+    /**
+     * Encodes a value, bound in the given {@link EncoderFunction}, which might contain strings
+     * not registered using {@link #stringReference(Object, long)}, for example strings embedded
+     * in semantic tags. If string references are enabled, the encoded value is scanned for such
+     * strings, to keep the string reference indexes in line with readers.
+     *
+     * @param encoderFunction the encoder function to write the actual value
+     * @throws NullPointerException if encoderFunction is null
+     */
+    default void encodeOpaque(EncoderFunction encoderFunction) {
+        encode(encoderFunction);
+    }
+
+    /**
+     * Returns <tt>true</tt> if the generated CBOR stream is written using the deterministic encoding
+     * rules of RFC 8949, section 4.2. Integers and floating point values are written using the
+     * shortest form which preserves the value, containers and strings are written with definite
+     * lengths and dictionary entries are sorted by the bytewise lexicographic order of their
+     * encoded keys.
+     *
+     * @return true if the deterministic encoding rules are applied, otherwise false
+     */
+    default boolean deterministicEncoding() {
+        return false;
+    }
+
+    /**
+     * Notifies the context that a sequence or dictionary is started at the current position in
+     * the CBOR stream, before the container's header is written. With deterministic encoding
+     * enabled, the outermost container is buffered until it is finished, to be able to sort
+     * dictionary entries and to back-patch definite lengths independently of the bound
+     * {@link Output}.
+     */
+    default void beginContainer() {
+    }
+
+    /**
+     * Notifies the context that the sequence or dictionary, started by the last unfinished call
+     * to {@link #beginContainer()}, is finished. When the outermost container is finished, its
+     * buffered data is written to the bound {@link Output}.
+     */
+    default void finishContainer() {
+    }
+
+    /**
+     * Sorts the entries of the currently written dictionary by the bytewise lexicographic order of
+     * their encoded keys. The entries start at the given offsets, whereas the last entry ends at
+     * the current offset. Entries are only sorted with deterministic encoding enabled.
+     *
+     * @param entryOffsets the offsets of the dictionary entries in the order they were written
+     * @param entries      the number of dictionary entries
+     * @throws IllegalStateException if two entries have equal keys
+     */
+    default void sortDictionaryEntries(long[] entryOffsets, int entries) {
+    }
+
     /**
      * Tries to apply one of the registered {@link com.noctarius.borabora.spi.codec.TagEncoder}
      * instances. Only the first matching encoder is used. If an ambiguous configuration exists,
@@ -104,7 +208,7 @@ public interface EncoderContext {
      * Encodes a null-type at the current position in the CBOR stream.
      */
     default void encodeNull() {
-        encode(Encoder::putNull);
+        offset(Encoder.putNull(offset(), output()));
     }
 
     /**
@@ -16,12 +16,14 @@
  */
 package com.noctarius.borabora.spi.codec;
 
+import com.noctarius.borabora.TypedArray;
 import com.noctarius.borabora.builder.encoder.semantictag.AsciiStringBuilder;
 import com.noctarius.borabora.builder.encoder.semantictag.CBORBuilder;
 import com.noctarius.borabora.builder.encoder.semantictag.DateTimeBuilder;
 import com.noctarius.borabora.builder.encoder.semantictag.FractionBuilder;
 import com.noctarius.borabora.builder.encoder.semantictag.NBigNumberBuilder;
 import com.noctarius.borabora.builder.encoder.semantictag.TimestampBuilder;
+import com.noctarius.borabora.builder.encoder.semantictag.TypedArrayBuilder;
 import com.noctarius.borabora.builder.encoder.semantictag.UBigNumberBuilder;
 import com.noctarius.borabora.builder.encoder.semantictag.URIBuilder;
 import com.noctarius.borabora.spi.ValueValidators;
@@ -222,6 +224,77 @@ class TagBuilders {
         }
     }
 
+    static final class TypedArrayBuilderImpl
+            implements TypedArrayBuilder {
+
+        private final EncoderContext encoderContext;
+
+        TypedArrayBuilderImpl(EncoderContext encoderContext) {
+            Objects.requireNonNull(encoderContext, "encoderContext must not be null");
+            this.encoderContext = encoderContext;
+        }
+
+        @Override
+        public TagBuilder putTypedArray(short[] values) {
+            if (values == null) {
+                encoderContext.encodeNull();
+            } else {
+                encoderContext.offset(Encoder.putTypedArray(values, encoderContext.offset(), encoderContext.output()));
+            }
+            return EmptyTagBuilder.INSTANCE;
+        }
+
+        @Override
+        public TagBuilder putTypedArray(int[] values) {
+            if (values == null) {
+                encoderContext.encodeNull();
+            } else {
+                encoderContext.offset(Encoder.putTypedArray(values, encoderContext.offset(), encoderContext.output()));
+            }
+            return EmptyTagBuilder.INSTANCE;
+        }
+
+        @Override
+        public TagBuilder putTypedArray(long[] values) {
+            if (values == null) {
+                encoderContext.encodeNull();
+            } else {
+                encoderContext.offset(Encoder.putTypedArray(values, encoderContext.offset(), encoderContext.output()));
+            }
+            return EmptyTagBuilder.INSTANCE;
+        }
+
+        @Override
+        public TagBuilder putTypedArray(float[] values) {
+            if (values == null) {
+                encoderContext.encodeNull();
+            } else {
+                encoderContext.offset(Encoder.putTypedArray(values, encoderContext.offset(), encoderContext.output()));
+            }
+            return EmptyTagBuilder.INSTANCE;
+        }
+
+        @Override
+        public TagBuilder putTypedArray(double[] values) {
+            if (values == null) {
+                encoderContext.encodeNull();
+            } else {
+                encoderContext.offset(Encoder.putTypedArray(values, encoderContext.offset(), encoderContext.output()));
+            }
+            return EmptyTagBuilder.INSTANCE;
+        }
+
+        @Override
+        public TagBuilder putTypedArray(TypedArray value) {
+            if (value == null) {
+                encoderContext.encodeNull();
+            } else {
+                encoderContext.offset(Encoder.putTypedArray(value, encoderContext.offset(), encoderContext.output()));
+            }
+            return EmptyTagBuilder.INSTANCE;
+        }
+    }
+
     static final class CBORBuilderImpl
             extends AbstractStreamValueBuilder<CBORBuilder>
             implements CBORBuilder {
@@ -101,7 +101,9 @@ enum TagReaders
         // Normally this is a bytestring for real
         ValueType valueType = queryContext.valueType(offset);
         return new StreamValue(majorType, valueType, offset, queryContext);
-    });
+    }),
+
+    TypedArray((vt, offset, length, queryContext) -> Decoder.readTypedArray(queryContext.input(), offset));
 
     private final TagReader<Object> tagReader;
 
@@ -18,6 +18,7 @@ package com.noctarius.borabora.spi.codec;
 
 import com.noctarius.borabora.Input;
 import com.noctarius.borabora.MajorType;
+import com.noctarius.borabora.TypedArrayType;
 import com.noctarius.borabora.ValueType;
 import com.noctarius.borabora.ValueTypes;
 import com.noctarius.borabora.builder.encoder.semantictag.AsciiStringBuilder;
@@ -26,6 +27,7 @@ import com.noctarius.borabora.builder.encoder.semantictag.DateTimeBuilder;
 import com.noctarius.borabora.builder.encoder.semantictag.FractionBuilder;
 import com.noctarius.borabora.builder.encoder.semantictag.NBigNumberBuilder;
 import com.noctarius.borabora.builder.encoder.semantictag.TimestampBuilder;
+import com.noctarius.borabora.builder.encoder.semantictag.TypedArrayBuilder;
 import com.noctarius.borabora.builder.encoder.semantictag.UBigNumberBuilder;
 import com.noctarius.borabora.builder.encoder.semantictag.URIBuilder;
 import com.noctarius.borabora.spi.builder.EncoderContext;
@@ -44,6 +46,7 @@ import static com.noctarius.borabora.spi.codec.TagBuilders.DateTimeBuilderImpl;
 import static com.noctarius.borabora.spi.codec.TagBuilders.FractionBuilderImpl;
 import static com.noctarius.borabora.spi.codec.TagBuilders.NBigNumberBuilderImpl;
 import static com.noctarius.borabora.spi.codec.TagBuilders.TimestampBuilderImpl;
+import static com.noctarius.borabora.spi.codec.TagBuilders.TypedArrayBuilderImpl;
 import static com.noctarius.borabora.spi.codec.TagBuilders.UBigNumberBuilderImpl;
 import static com.noctarius.borabora.spi.codec.TagBuilders.URIBuilderImpl;
 import static com.noctarius.borabora.spi.io.Constants.TAG_ASCII_STRING;
@@ -52,6 +55,7 @@ import static com.noctarius.borabora.spi.io.Constants.TAG_ENCCBOR;
 import static com.noctarius.borabora.spi.io.Constants.TAG_FRACTION;
 import static com.noctarius.borabora.spi.io.Constants.TAG_NEGATIVE_BIGNUM;
 import static com.noctarius.borabora.spi.io.Constants.TAG_TIMESTAMP;
+import static com.noctarius.borabora.spi.io.Constants.TAG_TYPED_ARRAY_FIRST;
 import static com.noctarius.borabora.spi.io.Constants.TAG_UNSIGNED_BIGNUM;
 import static com.noctarius.borabora.spi.io.Constants.TAG_URI;
 
@@ -139,7 +143,35 @@ public enum TagStrategies
      * @see CBORBuilder
      */
     EncCBOR(TAG_ENCCBOR, ValueTypes.EncCBOR, CBORBuilder.class, TagWriters.EncCBOR, //
-            TagReaders.EncCBOR, TypeSpecs.EncCBOR, TypeMatchers.EncCBOR, CBORBuilderImpl::new);
+            TagReaders.EncCBOR, TypeSpecs.EncCBOR, TypeMatchers.EncCBOR, CBORBuilderImpl::new),
+
+    /**
+     * The Typed Array semantic tag implementation, semantic tag ids: <tt>64</tt> to <tt>87</tt>
+     * <p>Specification: <a href="https://tools.ietf.org/html/rfc8746">Typed Arrays</a></p>
+     * <p>Unlike the other strategies, this strategy handles a range of tag ids, one per
+     * {@link TypedArrayType}.</p>
+     *
+     * @see ValueTypes#TypedArray
+     * @see TypedArrayBuilder
+     */
+    TypedArray(TAG_TYPED_ARRAY_FIRST, ValueTypes.TypedArray, TypedArrayBuilder.class, TagWriters.TypedArray, //
+            TagReaders.TypedArray, TypeSpecs.TypedArray, TypeMatchers.TypedArray, TypedArrayBuilderImpl::new) {
+
+        @Override
+        public boolean handles(Input input, long offset) {
+            short head = Decoder.readUInt8(input, offset);
+            MajorType majorType = MajorType.findMajorType(head);
+            if (majorType != MajorType.SemanticTag) {
+                return false;
+            }
+            return TypedArrayType.byTagId(Decoder.readSemanticTagId(input, offset)) != null;
+        }
+
+        @Override
+        public TypeSpec handles(long tagId) {
+            return TypedArrayType.byTagId(tagId) != null ? TypeSpecs.TypedArray : null;
+        }
+    };
 
     private static final TagStrategy[] TAG_STRATEGIES = TagStrategies.values();
 
@@ -245,6 +277,10 @@ public enum TagStrategies
             case Constants.TAG_MIME:
                 //return Mime;
                 throw new IllegalStateException("Mime is not supported");
+            default:
+                if (TypedArrayType.byTagId(tagId) != null) {
+                    return ValueTypes.TypedArray;
+                }
         }
         return ValueTypes.Unknown;
     }
@@ -78,6 +78,11 @@ enum TagWriters
         Output output = encoderContext.output();
         offset = Encoder.putSemanticTag(Constants.TAG_ENCCBOR, offset, output);
         return Encoder.putValue((Value) value, offset, output, encoderContext);
+    }),
+
+    TypedArray((value, offset, encoderContext) -> {
+        Output output = encoderContext.output();
+        return Encoder.putTypedArray((com.noctarius.borabora.TypedArray) value, offset, output);
     });
 
     private final TagWriter<Object> tagWriter;
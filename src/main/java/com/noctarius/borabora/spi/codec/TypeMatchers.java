@@ -49,7 +49,9 @@ enum TypeMatchers
 
     URI((v) -> URI.class.isAssignableFrom(v.getClass())),
 
-    EncCBOR((v) -> Value.class.isAssignableFrom(v.getClass()));
+    EncCBOR((v) -> Value.class.isAssignableFrom(v.getClass())),
+
+    TypedArray((v) -> v instanceof com.noctarius.borabora.TypedArray);
 
     private final Predicate<Object> predicate;
 
@@ -19,8 +19,26 @@ package com.noctarius.borabora.spi.io;
 import com.noctarius.borabora.Input;
 import com.noctarius.borabora.MajorType;
 
+import java.nio.ByteBuffer;
+
 public final class ByteSizes {
 
+    private static final int SCAN_WINDOW_SIZE = 64;
+    private static final int BULK_SKIP_THRESHOLD = 16;
+
+    // Folds negative integers (0x20-0x37) onto unsigned integers (0x00-0x17)
+    private static final long SWAR_SMALL_INT_MASK = 0xDFDFDFDFDFDFDFDFL;
+    // Bytes below 0x18 stay below 0x80 when biased by 0x68
+    private static final long SWAR_SMALL_INT_BIAS = 0x6868686868686868L;
+    private static final long SWAR_LOW_BITS = 0x7F7F7F7F7F7F7F7FL;
+    private static final long SWAR_HIGH_BITS = 0x8080808080808080L;
+
+    private static final byte[] HEAD_BYTE_SIZES = buildHeadByteSizes();
+    private static final byte[] FIXED_BYTE_SIZES = buildFixedByteSizes();
+
+    private static final ThreadLocal<ByteBuffer> SCAN_WINDOW = //
+            ThreadLocal.withInitial(() -> ByteBuffer.wrap(new byte[SCAN_WINDOW_SIZE]));
+
     private ByteSizes() {
     }
 
@@ -56,6 +74,11 @@ public final class ByteSizes {
     }
 
     public static long sequenceByteSize(Input input, long offset) {
+        long indexedByteSize = indexedByteSize(input, offset);
+        if (indexedByteSize != -1) {
+            return indexedByteSize;
+        }
+
         int addInfo = Decoder.additionalInfo(input, offset);
         if (addInfo == Constants.ADD_INFO_INDEFINITE) {
             return indefiniteContainerByteSize(input, offset);
@@ -66,6 +89,11 @@ public final class ByteSizes {
     }
 
     public static long dictionaryByteSize(Input input, long offset) {
+        long indexedByteSize = indexedByteSize(input, offset);
+        if (indexedByteSize != -1) {
+            return indexedByteSize;
+        }
+
         int addInfo = Decoder.additionalInfo(input, offset);
         if (addInfo == Constants.ADD_INFO_INDEFINITE) {
             return indefiniteContainerByteSize(input, offset);
@@ -76,6 +104,11 @@ public final class ByteSizes {
     }
 
     public static long semanticTagByteSize(Input input, long offset) {
+        long indexedByteSize = indexedByteSize(input, offset);
+        if (indexedByteSize != -1) {
+            return indexedByteSize;
+        }
+
         long byteSize = ByteSizes.intByteSize(input, offset);
         short itemHead = Bytes.readUInt8(input, offset + byteSize);
         MajorType majorType = MajorType.findMajorType(itemHead);
@@ -120,7 +153,8 @@ public final class ByteSizes {
             case Constants.ADD_INFO_RESERVED_3: // Unassigned
                 throw throwUnassigned();
             case Constants.ADD_INFO_INDEFINITE:
-                return untilBreakCode(input, offset);
+                long indexedByteSize = indexedByteSize(input, offset);
+                return indexedByteSize != -1 ? indexedByteSize : untilBreakCode(input, offset);
             default:
                 return addInfo + 1;
         }
@@ -147,23 +181,20 @@ public final class ByteSizes {
     }
 
     public static int headByteSize(Input input, long offset) {
-        int addInfo = Decoder.additionalInfo(input, offset);
-        switch (addInfo) {
-            case Constants.ADD_INFO_ONE_BYTE:
-                return 2;
-            case Constants.ADD_INFO_TWO_BYTES:
-                return 3;
-            case Constants.ADD_INFO_FOUR_BYTES:
-                return 5;
-            case Constants.ADD_INFO_EIGHT_BYTES:
-                return 9;
-            case Constants.ADD_INFO_RESERVED_1: // Unassigned
-            case Constants.ADD_INFO_RESERVED_2: // Unassigned
-            case Constants.ADD_INFO_RESERVED_3: // Unassigned
-                throw throwUnassigned();
-            default:
-                return 1;
+        short head = Bytes.readUInt8(input, offset);
+        return headByteSize(head);
+    }
+
+    public static int headByteSize(short head) {
+        int headByteSize = HEAD_BYTE_SIZES[head & 0xff];
+        if (headByteSize == -1) {
+            throw throwUnassigned();
         }
+        return headByteSize;
+    }
+
+    public static int fixedByteSize(short head) {
+        return FIXED_BYTE_SIZES[head & 0xff];
     }
 
     private static RuntimeException throwUnassigned() {
@@ -174,6 +205,15 @@ public final class ByteSizes {
         return new IllegalStateException("String sizes of 64bit are not yet supported");
     }
 
+    private static long indexedByteSize(Input input, long offset) {
+        StructuralIndex structuralIndex = input.structuralIndex();
+        if (structuralIndex == null) {
+            return -1;
+        }
+        long end = structuralIndex.end(offset);
+        return end == -1 ? -1 : end - offset;
+    }
+
     private static long untilBreakCode(Input input, long offset) {
         long start = offset;
         short uint;
@@ -188,15 +228,126 @@ public final class ByteSizes {
         int addInfo = Decoder.additionalInfo(input, offset);
 
         long position = offset + headByteSize;
-        for (long i = 0; i < elementCount; i++) {
+        long remaining = elementCount;
+        boolean bulkSkip = remaining >= BULK_SKIP_THRESHOLD;
+        ByteBuffer window = null;
+        while (remaining > 0) {
             short head = Bytes.readUInt8(input, position);
-            MajorType majorType = MajorType.findMajorType(head);
-            position += byteSizeByMajorType(majorType, input, position);
+            int byteSize = FIXED_BYTE_SIZES[head];
+
+            // Variable sized element, use the regular skip
+            if (byteSize == -1) {
+                position += byteSizeByMajorType(MajorType.findMajorType(head), input, position);
+                remaining--;
+                continue;
+            }
+
+            // Fixed size element, scan the following elements inside a window
+            if (bulkSkip && remaining >= BULK_SKIP_THRESHOLD && input.offsetValid(position + SCAN_WINDOW_SIZE - 1)) {
+                if (window == null) {
+                    window = SCAN_WINDOW.get();
+                }
+                byte[] bytes = window.array();
+                input.read(bytes, position, SCAN_WINDOW_SIZE);
+
+                int index = 0;
+                while (remaining > 0 && index < SCAN_WINDOW_SIZE) {
+                    // Eight small integers at once?
+                    if (remaining >= 8 && index + 8 <= SCAN_WINDOW_SIZE && smallIntegers(window.getLong(index))) {
+                        index += 8;
+                        remaining -= 8;
+                        continue;
+                    }
+                    byteSize = FIXED_BYTE_SIZES[bytes[index] & 0xFF];
+                    if (byteSize == -1 || index + byteSize > SCAN_WINDOW_SIZE) {
+                        break;
+                    }
+                    index += byteSize;
+                    remaining--;
+                }
+                position += index;
+
+                // Short runs of fixed size elements don't pay off the window read
+                bulkSkip = index >= SCAN_WINDOW_SIZE / 2;
+                continue;
+            }
+
+            position += byteSize;
+            remaining--;
         }
         // Indefinite length? -> +1
         return position - offset + (addInfo == 31 ? 1 : 0);
     }
 
+    private static boolean smallIntegers(long word) {
+        long folded = word & SWAR_SMALL_INT_MASK;
+        return ((((folded & SWAR_LOW_BITS) + SWAR_SMALL_INT_BIAS) | folded) & SWAR_HIGH_BITS) == 0;
+    }
+
+    private static byte[] buildHeadByteSizes() {
+        byte[] headByteSizes = new byte[256];
+        for (int head = 0; head < 256; head++) {
+            int addInfo = head & Constants.ADDITIONAL_INFORMATION_MASK;
+            headByteSizes[head] = (byte) lengthFieldByteSize(addInfo);
+        }
+        return headByteSizes;
+    }
+
+    private static byte[] buildFixedByteSizes() {
+        // Total byte size of an item derived from its head byte only, -1 if the item's size depends on
+        // following bytes (definite strings with a length field, non-empty containers, semantic tags,
+        // indefinite items, the break code and unassigned additional infos)
+        byte[] fixedByteSizes = new byte[256];
+        for (int head = 0; head < 256; head++) {
+            int majorType = head >>> 5;
+            int addInfo = head & Constants.ADDITIONAL_INFORMATION_MASK;
+            int fixedByteSize = -1;
+            switch (majorType) {
+                case Constants.MT_UNSINGED_INT:
+                case Constants.MT_NEGATIVE_INT:
+                case Constants.MT_FLOAT_SIMPLE:
+                    if (addInfo != Constants.ADD_INFO_INDEFINITE) {
+                        fixedByteSize = lengthFieldByteSize(addInfo);
+                    }
+                    break;
+                case Constants.MT_BYTESTRING:
+                case Constants.MT_TEXTSTRING:
+                    if (addInfo < Constants.ADD_INFO_ONE_BYTE) {
+                        fixedByteSize = addInfo + 1;
+                    }
+                    break;
+                case Constants.MT_SEQUENCE:
+                case Constants.MT_DICTIONARY:
+                    if (addInfo == 0) {
+                        fixedByteSize = 1;
+                    }
+                    break;
+                default: // Always MT_SEMANTIC_TAG
+            }
+            fixedByteSizes[head] = (byte) fixedByteSize;
+        }
+        return fixedByteSizes;
+    }
+
+    private static int lengthFieldByteSize(int addInfo) {
+        switch (addInfo) {
+            case Constants.ADD_INFO_ONE_BYTE:
+                return 2;
+            case Constants.ADD_INFO_TWO_BYTES:
+                return 3;
+            case Constants.ADD_INFO_FOUR_BYTES:
+                return 5;
+            case Constants.ADD_INFO_EIGHT_BYTES:
+                return 9;
+            case Constants.ADD_INFO_RESERVED_1: // Unassigned
+            case Constants.ADD_INFO_RESERVED_2: // Unassigned
+            case Constants.ADD_INFO_RESERVED_3: // Unassigned
+                return -1;
+            default:
+                return 1;
+        }
+    }
+
     private static long indefiniteContainerByteSize(Input input, long offset) {
         long headByteSize = ByteSizes.headByteSize(input, offset);
         long position = offset + headByteSize;
@@ -207,6 +358,11 @@ public final class ByteSizes {
             if ((head & Constants.OPCODE_BREAK_MASK) == Constants.OPCODE_BREAK_MASK) {
                 break;
             }
+            int byteSize = FIXED_BYTE_SIZES[head];
+            if (byteSize != -1) {
+                position += byteSize;
+                continue;
+            }
             MajorType majorType = MajorType.findMajorType(head);
             position += Decoder.length(input, majorType, position);
         }
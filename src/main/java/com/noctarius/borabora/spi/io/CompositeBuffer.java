@@ -18,7 +18,7 @@ package com.noctarius.borabora.spi.io;
 
 import com.noctarius.borabora.Input;
 import com.noctarius.borabora.NoSuchByteException;
-import com.noctarius.borabora.Output;
+import com.noctarius.borabora.spi.jfr.JfrEvents;
 
 import java.io.IOException;
 import java.io.OutputStream;
@@ -26,7 +26,7 @@ import java.nio.ByteBuffer;
 import java.util.Objects;
 
 public class CompositeBuffer
-        implements Output, Input {
+        implements SeekableOutput, Input {
 
     private final int chunksize;
     private final Buffer head;
@@ -69,7 +69,7 @@ public class CompositeBuffer
             targetOffset += chunkLength;
 
             if (remaining > 0) {
-                buffer = appendBuffer();
+                buffer = buffer.next != null ? buffer.next : appendBuffer();
             }
         } while (remaining > 0);
         updateHighestOffset(offset + length - 1);
@@ -127,6 +127,35 @@ public class CompositeBuffer
         return length;
     }
 
+    @Override
+    public void move(long sourceOffset, long targetOffset, long length) {
+        if (sourceOffset < 0 || targetOffset < 0 || length < 0 || sourceOffset + length > size()) {
+            throw new NoSuchByteException(sourceOffset, "Offset " + sourceOffset + " outside of writable data");
+        }
+
+        boolean tail = sourceOffset + length == size();
+        byte[] chunk = new byte[(int) Math.min(chunksize, Math.max(length, 1))];
+        if (targetOffset < sourceOffset) {
+            // Moving down, copy front to back to never overwrite unread data
+            for (long position = 0; position < length; position += chunk.length) {
+                int chunkLength = (int) Math.min(chunk.length, length - position);
+                read(chunk, sourceOffset + position, chunkLength);
+                write(chunk, targetOffset + position, chunkLength);
+            }
+        } else if (targetOffset > sourceOffset) {
+            // Moving up, copy back to front to never overwrite unread data
+            for (long remaining = length; remaining > 0; ) {
+                int chunkLength = (int) Math.min(chunk.length, remaining);
+                remaining -= chunkLength;
+                read(chunk, sourceOffset + remaining, chunkLength);
+                write(chunk, targetOffset + remaining, chunkLength);
+            }
+        }
+        if (tail) {
+            highestOffset = targetOffset + length - 1;
+        }
+    }
+
     public long size() {
         return highestOffset + 1;
     }
@@ -158,6 +187,7 @@ public class CompositeBuffer
             throws IOException {
 
         Objects.requireNonNull(outputStream, "outputStream must not be null");
+        Object event = JfrEvents.beginWriterFlush();
         Buffer buffer = head;
         long remaining = highestOffset + 1;
         for (int i = 0; i < nbOfChunks; i++) {
@@ -167,6 +197,10 @@ public class CompositeBuffer
             remaining -= chunkLength;
             buffer = buffer.next;
         }
+
+        if (event != null) {
+            JfrEvents.commitWriterFlush(event, "CompositeBuffer", highestOffset + 1);
+        }
         return highestOffset + 1;
     }
 
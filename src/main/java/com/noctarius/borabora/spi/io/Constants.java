@@ -56,9 +56,13 @@ public interface Constants {
     int TAG_FRACTION = 4;
     int TAG_BIGFLOAT = 5;
     int TAG_ENCCBOR = 24;
+    int TAG_STRING_REFERENCE = 25;
     int TAG_URI = 32;
     int TAG_REGEX = 35;
     int TAG_MIME = 36;
+    int TAG_TYPED_ARRAY_FIRST = 64;
+    int TAG_TYPED_ARRAY_LAST = 87;
+    int TAG_STRING_NAMESPACE = 256;
     int TAG_ASCII_STRING = 22099;
     int TAG_MAGIC_CBOR_HEADER = 55799;
 
@@ -21,19 +21,26 @@ import com.noctarius.borabora.HalfPrecisionFloat;
 import com.noctarius.borabora.Input;
 import com.noctarius.borabora.MajorType;
 import com.noctarius.borabora.Sequence;
+import com.noctarius.borabora.TypedArray;
+import com.noctarius.borabora.TypedArrayType;
 import com.noctarius.borabora.Value;
 import com.noctarius.borabora.ValueType;
 import com.noctarius.borabora.ValueTypes;
+import com.noctarius.borabora.WrongTypeException;
 import com.noctarius.borabora.impl.DictionaryImpl;
 import com.noctarius.borabora.impl.SequenceImpl;
 import com.noctarius.borabora.spi.RelocatableStreamValue;
 import com.noctarius.borabora.spi.StreamValue;
+import com.noctarius.borabora.spi.jfr.JfrEvents;
+import com.noctarius.borabora.spi.metrics.QueryMetrics;
+import com.noctarius.borabora.spi.query.EncodedKeyPredicate;
 import com.noctarius.borabora.spi.query.QueryContext;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZonedDateTime;
@@ -62,7 +69,7 @@ public final class Decoder
     public static Number readInt(Input input, long offset) {
         short head = Bytes.readUInt8(input, offset);
         long mask = -((head & 0xff) >>> 5);
-        int byteSize = ByteSizes.intByteSize(input, offset);
+        int byteSize = ByteSizes.headByteSize(head);
         Number number;
         switch (byteSize) {
             case 2:
@@ -90,7 +97,7 @@ public final class Decoder
 
     public static Number readUint(Input input, long offset) {
         short head = Bytes.readUInt8(input, offset);
-        int byteSize = ByteSizes.intByteSize(input, offset);
+        int byteSize = ByteSizes.headByteSize(head);
         Number number;
         switch (byteSize) {
             case 2:
@@ -133,6 +140,7 @@ public final class Decoder
     }
 
     public static String readString(Input input, long offset, QueryContext queryContext) {
+        offset = queryContext.resolveStringReference(offset);
         int addInfo = additionalInfo(input, offset);
         if (addInfo == 31) {
             // Concatenated string!
@@ -181,15 +189,52 @@ public final class Decoder
     }
 
     public static long skip(Input input, long offset) {
-        MajorType majorType = getMajorType(offset, input);
+        short head = Bytes.readUInt8(input, offset);
+        int fixedByteSize = ByteSizes.fixedByteSize(head);
+        if (fixedByteSize != -1) {
+            return offset + fixedByteSize;
+        }
+        MajorType majorType = MajorType.findMajorType(head);
         return skip(input, majorType, offset);
     }
 
+    public static long cachedLength(QueryContext queryContext, MajorType majorType, long offset) {
+        SkipSizeCache skipSizeCache = queryContext.skipSizeCache();
+        if (skipSizeCache == null || !isNested(majorType)) {
+            return length(queryContext.input(), majorType, offset);
+        }
+
+        long end = skipSizeCache.end(offset);
+        if (end == -1) {
+            end = offset + length(queryContext.input(), majorType, offset);
+            skipSizeCache.put(offset, end);
+        }
+        return end - offset;
+    }
+
+    public static long skip(QueryContext queryContext, long offset) {
+        QueryMetrics queryMetrics = queryContext.queryMetrics();
+        if (queryMetrics != null) {
+            queryMetrics.incrementSkips();
+        }
+        short head = Bytes.readUInt8(queryContext.input(), offset);
+        int fixedByteSize = ByteSizes.fixedByteSize(head);
+        if (fixedByteSize != -1) {
+            return offset + fixedByteSize;
+        }
+        MajorType majorType = MajorType.findMajorType(head);
+        return offset + cachedLength(queryContext, majorType, offset);
+    }
+
     public static long skip(Input input, MajorType majorType, long offset) {
         long size = length(input, majorType, offset);
         return offset + size;
     }
 
+    private static boolean isNested(MajorType majorType) {
+        return majorType == MajorType.Sequence || majorType == MajorType.Dictionary || majorType == MajorType.SemanticTag;
+    }
+
     public static boolean isNull(short head) {
         MajorType majorType = MajorType.findMajorType(head);
         if (MajorType.FloatingPointOrSimple != majorType) {
@@ -270,14 +315,20 @@ public final class Decoder
 
     public static long findByDictionaryKey(Predicate<Value> predicate, long offset, QueryContext queryContext) {
         // Search for key element
-        long position = findByPredicate(predicate, offset, queryContext);
+        long position;
+        if (queryContext.sortedDictionaryKeys() && predicate instanceof EncodedKeyPredicate) {
+            position = findBySortedKeys((EncodedKeyPredicate) predicate, offset, queryContext);
+        } else {
+            position = findByPredicate(predicate, offset, queryContext);
+        }
         if (position == OFFSET_CODE_NULL) {
             return OFFSET_CODE_NULL;
         }
-        return skip(queryContext.input(), position);
+        return skip(queryContext, position);
     }
 
     public static Value readValue(long offset, QueryContext queryContext) {
+        offset = queryContext.resolveStringReference(offset);
         MajorType majorType = getMajorType(offset, queryContext.input());
         ValueType valueType = queryContext.valueType(offset);
         if (ValueTypes.Null == valueType) {
@@ -342,6 +393,34 @@ public final class Decoder
         return bytes;
     }
 
+    public static TypedArray readTypedArray(Input input, long offset) {
+        int tagId = readSemanticTagId(input, offset);
+        TypedArrayType typedArrayType = TypedArrayType.byTagId(tagId);
+        if (typedArrayType == null) {
+            throw new WrongTypeException(offset, "Unsupported typed array tag: " + tagId);
+        }
+
+        offset += ByteSizes.headByteSize(input, offset);
+        if (getMajorType(offset, input) != MajorType.ByteString) {
+            throw new WrongTypeException(offset, "Typed array data must be a ByteString");
+        }
+
+        ByteBuffer data;
+        if (additionalInfo(input, offset) == ADD_INFO_INDEFINITE) {
+            data = ByteBuffer.wrap(extractStringBytes(input, offset));
+        } else {
+            int headByteSize = ByteSizes.headByteSize(input, offset);
+            // Cannot be larger than Integer.MAX_VALUE as this is checked in ByteSizes
+            int dataSize = (int) ByteSizes.stringDataSize(input, offset);
+            data = input.byteBuffer(offset + headByteSize, dataSize);
+        }
+        return new TypedArray(typedArrayType, data);
+    }
+
+    public static float halfPrecisionToFloat(int bits) {
+        return HalfPrecision.toFloat(bits);
+    }
+
     public static Instant parseDate(String date) {
         boolean fraction = false;
         boolean offset = true;
@@ -359,7 +438,28 @@ public final class Decoder
         return LocalDateTime.parse(date, DATE_TIME_FRACTION_OFFSET_FORMAT).atZone(UTC).toInstant();
     }
 
+    public static int compareEncoded(Input input, long offset, byte[] encoded) {
+        long length = length(input, getMajorType(offset, input), offset);
+        long commonLength = Math.min(length, encoded.length);
+        for (int i = 0; i < commonLength; i++) {
+            int result = Integer.compare(input.read(offset + i) & 0xff, encoded[i] & 0xff);
+            if (result != 0) {
+                return result;
+            }
+        }
+        return Long.compare(length, encoded.length);
+    }
+
     public static long[][] readElementIndexes(Input input, long offset, long elementSize) {
+        return readElementIndexes(input, offset, elementSize, null);
+    }
+
+    public static long[][] readElementIndexes(QueryContext queryContext, long offset, long elementSize) {
+        return readElementIndexes(queryContext.input(), offset, elementSize, queryContext);
+    }
+
+    private static long[][] readElementIndexes(Input input, long offset, long elementSize, QueryContext queryContext) {
+        Object event = JfrEvents.beginElementIndexBuild(elementSize);
         int baseSize = (int) (elementSize / Integer.MAX_VALUE) + 1;
         long[][] elementIndexes = new long[baseSize][];
 
@@ -374,9 +474,17 @@ public final class Decoder
 
                 // Skip elements content to next element
                 MajorType majorType = getMajorType(position, input);
-                position += length(input, majorType, position);
+                if (queryContext == null) {
+                    position += length(input, majorType, position);
+                } else {
+                    position += cachedLength(queryContext, majorType, position);
+                }
             }
         }
+
+        if (event != null) {
+            JfrEvents.commitElementIndexBuild(event, offset, elementSize);
+        }
         return elementIndexes;
     }
 
@@ -399,10 +507,43 @@ public final class Decoder
             }
 
             // Key length
-            long length = length(input, majorType, position);
+            long length = cachedLength(queryContext, majorType, position);
 
             // Skip over value
-            position = skip(input, position + length);
+            position = skip(queryContext, position + length);
+        }
+        return OFFSET_CODE_NULL;
+    }
+
+    private static long findBySortedKeys(EncodedKeyPredicate predicate, long offset, QueryContext queryContext) {
+        Input input = queryContext.input();
+        long position = offset + ByteSizes.headByteSize(input, offset);
+
+        boolean indefinite = additionalInfo(input, offset) == ADD_INFO_INDEFINITE;
+        long elements = indefinite ? -1 : ElementCounts.dictionaryElementCount(input, offset);
+
+        byte[][] encodedKeys = predicate.encodedKeys();
+        for (long i = 0; indefinite ? Bytes.readUInt8(input, position) != OPCODE_BREAK_MASK : i < elements; i++) {
+            // String references are not sorted by the referenced string
+            if (queryContext.resolveStringReference(position) != position) {
+                return findByPredicate(predicate, offset, queryContext);
+            }
+
+            int result = 0;
+            for (byte[] encodedKey : encodedKeys) {
+                result = compareEncoded(input, position, encodedKey);
+                if (result == 0) {
+                    return position;
+                }
+            }
+
+            // Key is larger than all encoded keys, no further key can match
+            if (result > 0) {
+                return OFFSET_CODE_NULL;
+            }
+
+            // Skip over key and value
+            position = skip(queryContext, skip(queryContext, position));
         }
         return OFFSET_CODE_NULL;
     }
@@ -418,10 +559,10 @@ public final class Decoder
             }
 
             // Key length
-            long length = length(input, majorType, offset);
+            long length = cachedLength(queryContext, majorType, offset);
 
             // Skip over value
-            offset = skip(input, offset + length);
+            offset = skip(queryContext, offset + length);
         } while (input.offsetValid(offset) && Bytes.readUInt8(input, offset) != OPCODE_BREAK_MASK);
         return OFFSET_CODE_NULL;
     }
@@ -429,8 +570,12 @@ public final class Decoder
     private static boolean predicateMatch(Predicate<Value> predicate, long offset, MajorType majorType, Input input, //
                                           QueryContext queryContext, RelocatableStreamValue streamValue) {
 
-        ValueType valueType = queryContext.valueType(offset);
-        streamValue.relocate(queryContext, majorType, valueType, offset);
+        long itemOffset = queryContext.resolveStringReference(offset);
+        if (itemOffset != offset) {
+            majorType = getMajorType(itemOffset, input);
+        }
+        ValueType valueType = queryContext.valueType(itemOffset);
+        streamValue.relocate(queryContext, majorType, valueType, itemOffset);
         return predicate.test(streamValue);
     }
 
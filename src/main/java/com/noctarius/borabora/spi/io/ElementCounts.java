@@ -63,7 +63,9 @@ public final class ElementCounts {
                 }
                 return value.longValue();
             case Constants.ADD_INFO_INDEFINITE:
-                return untilBreakCode(input, offset, keyValue);
+                StructuralIndex structuralIndex = input.structuralIndex();
+                long elementCount = structuralIndex == null ? -1 : structuralIndex.elementCount(offset);
+                return elementCount != -1 ? elementCount : untilBreakCode(input, offset, keyValue);
             default:
                 return addInfo;
         }
@@ -81,8 +83,13 @@ public final class ElementCounts {
             if ((head & Constants.OPCODE_BREAK_MASK) == Constants.OPCODE_BREAK_MASK) {
                 break;
             }
-            MajorType majorType = MajorType.findMajorType(head);
-            position += Decoder.length(input, majorType, position);
+            int fixedByteSize = ByteSizes.fixedByteSize(head);
+            if (fixedByteSize != -1) {
+                position += fixedByteSize;
+            } else {
+                MajorType majorType = MajorType.findMajorType(head);
+                position += Decoder.length(input, majorType, position);
+            }
             elementCount++;
         }
         if (keyValue) {
@@ -21,6 +21,8 @@ import com.noctarius.borabora.Input;
 import com.noctarius.borabora.MajorType;
 import com.noctarius.borabora.Output;
 import com.noctarius.borabora.Sequence;
+import com.noctarius.borabora.TypedArray;
+import com.noctarius.borabora.TypedArrayType;
 import com.noctarius.borabora.Value;
 import com.noctarius.borabora.spi.AbstractStreamValue;
 import com.noctarius.borabora.spi.builder.EncoderContext;
@@ -30,18 +32,30 @@ import com.noctarius.borabora.spi.codec.TagStrategy;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.net.URI;
+import java.nio.ByteBuffer;
 import java.time.ZonedDateTime;
+import java.util.Arrays;
 import java.util.Map;
 
 public final class Encoder
         implements Constants {
 
+    private static final int SCRATCH_BUFFER_SIZE = 1024;
+    private static final int RESERVED_LENGTH_HEADER_SIZE = 1;
+    private static final int MAX_NUMERIC_ELEMENT_SIZE = 9;
+
+    private static final ThreadLocal<byte[]> SCRATCH_BUFFER = //
+            ThreadLocal.withInitial(() -> new byte[SCRATCH_BUFFER_SIZE]);
+
     private Encoder() {
     }
 
     public static long putValue(Value value, long offset, Output output, EncoderContext encoderContext) {
         MajorType majorType = value.majorType();
-        if (value instanceof AbstractStreamValue) {
+        // Raw bytes with string references would lose their namespace, those items are copied resolved
+        if (value instanceof AbstractStreamValue //
+                && !StringReferences.containsReferences(value.input(), value.offset())) {
+
             offset = copyStreamValue((AbstractStreamValue) value, offset, output, majorType);
         } else {
             offset = copyValue(value, offset, output, encoderContext, majorType);
@@ -50,10 +64,19 @@ public final class Encoder
     }
 
     public static long putString(String value, long offset, Output output) {
-        if (StringEncoders.ASCII_ENCODER.canEncode(value)) {
-            return putAsciiString(value, offset, output);
+        int length = value.length();
+        int asciiPrefix = 0;
+        while (asciiPrefix < length && value.charAt(asciiPrefix) < 0x80) {
+            asciiPrefix++;
         }
-        return putTextString(value, offset, output);
+        if (asciiPrefix == length) {
+            offset = putSemanticTag(TAG_ASCII_STRING, offset, output);
+            offset = encodeLengthAndValue(MajorType.ByteString, length, offset, output);
+            return writeAscii(value, offset, output);
+        }
+        // Continue measuring behind the ASCII prefix, so the string is only scanned once before transcoding
+        offset = encodeLengthAndValue(MajorType.TextString, utf8Length(value, asciiPrefix), offset, output);
+        return writeUtf8(value, offset, output);
     }
 
     public static long putBoolean(boolean value, long offset, Output output) {
@@ -65,20 +88,191 @@ public final class Encoder
     }
 
     public static long putTextString(String value, long offset, Output output) {
-        byte[] data = StringEncoders.UTF8_ENCODER.encode(value);
-        return putRaw(data, MajorType.TextString, offset, output);
+        return putTextString(value, utf8Length(value, 0), offset, output);
+    }
+
+    public static long putTextString(String value, long utf8Length, long offset, Output output) {
+        offset = encodeLengthAndValue(MajorType.TextString, utf8Length, offset, output);
+        return writeUtf8(value, offset, output);
     }
 
     public static long putAsciiString(String value, long offset, Output output) {
-        byte[] data = StringEncoders.ASCII_ENCODER.encode(value);
         offset = putSemanticTag(TAG_ASCII_STRING, offset, output);
-        return putRaw(data, MajorType.ByteString, offset, output);
+        offset = encodeLengthAndValue(MajorType.ByteString, value.length(), offset, output);
+        return writeAscii(value, offset, output);
     }
 
     public static long putByteString(byte[] value, long offset, Output output) {
         return putRaw(value, MajorType.ByteString, offset, output);
     }
 
+    public static long putByteString(ByteBuffer value, long offset, Output output) {
+        int length = value.remaining();
+        offset = encodeLengthAndValue(MajorType.ByteString, length, offset, output);
+        if (value.hasArray() && value.arrayOffset() + value.position() == 0) {
+            return offset + output.write(value.array(), offset, length);
+        }
+
+        // Copy through the scratch buffer without moving the caller's position
+        ByteBuffer source = value.duplicate();
+        byte[] buffer = SCRATCH_BUFFER.get();
+        while (source.hasRemaining()) {
+            int chunkLength = Math.min(buffer.length, source.remaining());
+            source.get(buffer, 0, chunkLength);
+            offset += output.write(buffer, offset, chunkLength);
+        }
+        return offset;
+    }
+
+    public static long putSequence(long[] values, long offset, Output output) {
+        offset = encodeLengthAndValue(MajorType.Sequence, values.length, offset, output);
+        byte[] buffer = SCRATCH_BUFFER.get();
+        int limit = buffer.length - MAX_NUMERIC_ELEMENT_SIZE;
+        int position = 0;
+        for (long value : values) {
+            if (position > limit) {
+                offset += output.write(buffer, offset, position);
+                position = 0;
+            }
+            position = encodeNumber(value, buffer, position);
+        }
+        return flushScratchBuffer(buffer, position, offset, output);
+    }
+
+    public static long putSequence(int[] values, long offset, Output output) {
+        offset = encodeLengthAndValue(MajorType.Sequence, values.length, offset, output);
+        byte[] buffer = SCRATCH_BUFFER.get();
+        int limit = buffer.length - MAX_NUMERIC_ELEMENT_SIZE;
+        int position = 0;
+        for (int value : values) {
+            if (position > limit) {
+                offset += output.write(buffer, offset, position);
+                position = 0;
+            }
+            position = encodeNumber(value, buffer, position);
+        }
+        return flushScratchBuffer(buffer, position, offset, output);
+    }
+
+    public static long putSequence(double[] values, long offset, Output output) {
+        offset = encodeLengthAndValue(MajorType.Sequence, values.length, offset, output);
+        byte[] buffer = SCRATCH_BUFFER.get();
+        int limit = buffer.length - MAX_NUMERIC_ELEMENT_SIZE;
+        int head = (MajorType.FloatingPointOrSimple.typeId() << 5) | FP_VALUE_DOUBLE_PRECISION;
+        int position = 0;
+        for (double value : values) {
+            if (position > limit) {
+                offset += output.write(buffer, offset, position);
+                position = 0;
+            }
+            buffer[position++] = (byte) head;
+            position = encodeBits(Double.doubleToLongBits(value), 8, buffer, position);
+        }
+        return flushScratchBuffer(buffer, position, offset, output);
+    }
+
+    public static long putSequence(float[] values, long offset, Output output) {
+        offset = encodeLengthAndValue(MajorType.Sequence, values.length, offset, output);
+        byte[] buffer = SCRATCH_BUFFER.get();
+        int limit = buffer.length - MAX_NUMERIC_ELEMENT_SIZE;
+        int head = (MajorType.FloatingPointOrSimple.typeId() << 5) | FP_VALUE_SINGLE_PRECISION;
+        int position = 0;
+        for (float value : values) {
+            if (position > limit) {
+                offset += output.write(buffer, offset, position);
+                position = 0;
+            }
+            buffer[position++] = (byte) head;
+            position = encodeBits(Float.floatToIntBits(value), 4, buffer, position);
+        }
+        return flushScratchBuffer(buffer, position, offset, output);
+    }
+
+    public static long putTypedArray(TypedArray value, long offset, Output output) {
+        offset = putSemanticTag(value.typedArrayType().tagId(), offset, output);
+        return putByteString(value.byteBuffer(), offset, output);
+    }
+
+    public static long putTypedArray(short[] values, long offset, Output output) {
+        offset = putSemanticTag(TypedArrayType.SInt16LE.tagId(), offset, output);
+        offset = encodeLengthAndValue(MajorType.ByteString, (long) values.length * 2, offset, output);
+        byte[] buffer = SCRATCH_BUFFER.get();
+        int limit = buffer.length - 2;
+        int position = 0;
+        for (short value : values) {
+            if (position > limit) {
+                offset += output.write(buffer, offset, position);
+                position = 0;
+            }
+            position = encodeBitsLittleEndian(value, 2, buffer, position);
+        }
+        return flushScratchBuffer(buffer, position, offset, output);
+    }
+
+    public static long putTypedArray(int[] values, long offset, Output output) {
+        offset = putSemanticTag(TypedArrayType.SInt32LE.tagId(), offset, output);
+        offset = encodeLengthAndValue(MajorType.ByteString, (long) values.length * 4, offset, output);
+        byte[] buffer = SCRATCH_BUFFER.get();
+        int limit = buffer.length - 4;
+        int position = 0;
+        for (int value : values) {
+            if (position > limit) {
+                offset += output.write(buffer, offset, position);
+                position = 0;
+            }
+            position = encodeBitsLittleEndian(value, 4, buffer, position);
+        }
+        return flushScratchBuffer(buffer, position, offset, output);
+    }
+
+    public static long putTypedArray(long[] values, long offset, Output output) {
+        offset = putSemanticTag(TypedArrayType.SInt64LE.tagId(), offset, output);
+        offset = encodeLengthAndValue(MajorType.ByteString, (long) values.length * 8, offset, output);
+        byte[] buffer = SCRATCH_BUFFER.get();
+        int limit = buffer.length - 8;
+        int position = 0;
+        for (long value : values) {
+            if (position > limit) {
+                offset += output.write(buffer, offset, position);
+                position = 0;
+            }
+            position = encodeBitsLittleEndian(value, 8, buffer, position);
+        }
+        return flushScratchBuffer(buffer, position, offset, output);
+    }
+
+    public static long putTypedArray(float[] values, long offset, Output output) {
+        offset = putSemanticTag(TypedArrayType.Float32LE.tagId(), offset, output);
+        offset = encodeLengthAndValue(MajorType.ByteString, (long) values.length * 4, offset, output);
+        byte[] buffer = SCRATCH_BUFFER.get();
+        int limit = buffer.length - 4;
+        int position = 0;
+        for (float value : values) {
+            if (position > limit) {
+                offset += output.write(buffer, offset, position);
+                position = 0;
+            }
+            position = encodeBitsLittleEndian(Float.floatToIntBits(value), 4, buffer, position);
+        }
+        return flushScratchBuffer(buffer, position, offset, output);
+    }
+
+    public static long putTypedArray(double[] values, long offset, Output output) {
+        offset = putSemanticTag(TypedArrayType.Float64LE.tagId(), offset, output);
+        offset = encodeLengthAndValue(MajorType.ByteString, (long) values.length * 8, offset, output);
+        byte[] buffer = SCRATCH_BUFFER.get();
+        int limit = buffer.length - 8;
+        int position = 0;
+        for (double value : values) {
+            if (position > limit) {
+                offset += output.write(buffer, offset, position);
+                position = 0;
+            }
+            position = encodeBitsLittleEndian(Double.doubleToLongBits(value), 8, buffer, position);
+        }
+        return flushScratchBuffer(buffer, position, offset, output);
+    }
+
     public static long putNumber(long value, long offset, Output output) {
         MajorType majorType;
         long absValue;
@@ -94,17 +288,12 @@ public final class Encoder
     }
 
     public static long putNumber(BigInteger value, long offset, Output output) {
-        MajorType majorType;
-        BigInteger absValue;
-        if (value.compareTo(BigInteger.ZERO) <= COMPARATOR_LESS_THAN) {
-            majorType = MajorType.NegativeInteger;
-            absValue = BI_VAL_MINUS_ONE.subtract(value).abs();
+        return putNumber(value, offset, output, false);
+    }
 
-        } else {
-            majorType = MajorType.UnsignedInteger;
-            absValue = value;
-        }
-        return encodeLengthAndValue(majorType, absValue, offset, output);
+    public static long putShortestNumber(BigInteger value, long offset, Output output) {
+        // Deterministic encoding requires bignum magnitudes without leading zero bytes
+        return putNumber(value, offset, output, true);
     }
 
     public static long putBigInteger(BigInteger value, long offset, Output output) {
@@ -142,20 +331,41 @@ public final class Encoder
         return encodeFloat(FP_VALUE_DOUBLE_PRECISION, longValue, offset, output);
     }
 
+    public static long putShortestFloat(double value, long offset, Output output) {
+        float floatValue = (float) value;
+        if (Double.doubleToLongBits(floatValue) != Double.doubleToLongBits(value)) {
+            return putDouble(value, offset, output);
+        }
+        int halfValue = HalfPrecision.fromFloat(floatValue);
+        if (Float.floatToIntBits(HalfPrecision.toFloat(halfValue)) != Float.floatToIntBits(floatValue)) {
+            return putFloat(floatValue, offset, output);
+        }
+        return encodeFloat(FP_VALUE_HALF_PRECISION, halfValue, offset, output);
+    }
+
     public static long putSemanticTag(int tagId, long offset, Output output) {
         return encodeLengthAndValue(MajorType.SemanticTag, tagId, offset, output);
     }
 
+    public static long putStringReference(long index, long offset, Output output) {
+        offset = putSemanticTag(TAG_STRING_REFERENCE, offset, output);
+        return encodeLengthAndValue(MajorType.UnsignedInteger, index, offset, output);
+    }
+
+    public static long putStringNamespace(long offset, Output output) {
+        return putSemanticTag(TAG_STRING_NAMESPACE, offset, output);
+    }
+
     public static long putUri(URI uri, long offset, Output output) {
         offset = putSemanticTag(TAG_URI, offset, output);
         String string = uri.toString();
-        return putRaw(string.getBytes(UTF8), MajorType.TextString, offset, output);
+        return putTextString(string, offset, output);
     }
 
     public static long putDateTime(ZonedDateTime dateTime, long offset, Output output) {
         offset = putSemanticTag(TAG_DATE_TIME, offset, output);
         String string = dateTime.format(DATE_TIME_FRACTION_OFFSET_FORMAT);
-        return putRaw(string.getBytes(UTF8), MajorType.TextString, offset, output);
+        return putTextString(string, offset, output);
     }
 
     public static long putTimestamp(long timestamp, long offset, Output output) {
@@ -203,7 +413,47 @@ public final class Encoder
         return offset;
     }
 
+    public static long reserveLengthAndValue(MajorType majorType, long offset, Output output) {
+        // Reserve the smallest possible header, it is widened when the actual length is back-patched,
+        // that way the written data never exceeds the size of the final encoding
+        int head = majorType.typeId() << 5;
+        return Bytes.putInt8((byte) head, offset, output);
+    }
+
+    public static long backpatchLengthAndValue(MajorType majorType, long length, long headerOffset, long offset,
+                                               SeekableOutput output) {
+
+        long dataOffset = headerOffset + RESERVED_LENGTH_HEADER_SIZE;
+        long dataLength = offset - dataOffset;
+        long newDataOffset = headerOffset + lengthHeaderByteSize(length);
+        if (newDataOffset != dataOffset) {
+            // Make room first, the widened header would overwrite the beginning of the data
+            output.move(dataOffset, newDataOffset, dataLength);
+        }
+        encodeLengthAndValue(majorType, length, headerOffset, output);
+        return newDataOffset + dataLength;
+    }
+
+    private static int lengthHeaderByteSize(long length) {
+        if (length <= NUMBER_VAL_MAX_ONE_BYTE) {
+            return 1;
+        } else if (length <= NUMBER_VAL_MAX_TWO_BYTE) {
+            return 2;
+        } else if (length <= NUMBER_VAL_MAX_THREE_BYTE) {
+            return 3;
+        } else if (length <= NUMBER_VAL_MAX_FIVE_BYTE) {
+            return 5;
+        }
+        return 9;
+    }
+
     public static long encodeLengthAndValue(MajorType majorType, BigInteger length, long offset, Output output) {
+        return encodeLengthAndValue(majorType, length, offset, output, false);
+    }
+
+    private static long encodeLengthAndValue(MajorType majorType, BigInteger length, long offset, Output output,
+                                             boolean shortestBignum) {
+
         int head = majorType.typeId() << 5;
         if (length.compareTo(BI_VAL_24) <= COMPARATOR_LESS_THAN) {
             return Bytes.putInt8((byte) (head | length.intValue()), offset, output);
@@ -241,7 +491,8 @@ public final class Encoder
             } else {
                 offset = putSemanticTag(TAG_UNSIGNED_BIGNUM, offset, output);
             }
-            offset = putRaw(length.toByteArray(), MajorType.ByteString, offset, output);
+            byte[] bytes = shortestBignum ? unsignedBytes(length) : length.toByteArray();
+            offset = putRaw(bytes, MajorType.ByteString, offset, output);
         }
         return offset;
     }
@@ -252,6 +503,29 @@ public final class Encoder
         return offset;
     }
 
+    private static long putNumber(BigInteger value, long offset, Output output, boolean shortestBignum) {
+        MajorType majorType;
+        BigInteger absValue;
+        if (value.compareTo(BigInteger.ZERO) <= COMPARATOR_LESS_THAN) {
+            majorType = MajorType.NegativeInteger;
+            absValue = BI_VAL_MINUS_ONE.subtract(value).abs();
+
+        } else {
+            majorType = MajorType.UnsignedInteger;
+            absValue = value;
+        }
+        return encodeLengthAndValue(majorType, absValue, offset, output, shortestBignum);
+    }
+
+    private static byte[] unsignedBytes(BigInteger value) {
+        // Bignums are unsigned, the additional sign byte would be a leading zero
+        byte[] bytes = value.toByteArray();
+        if (bytes.length > 1 && bytes[0] == 0) {
+            return Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        return bytes;
+    }
+
     private static long encodeFloat(int fpType, long bits, long offset, Output output) {
         int head = MajorType.FloatingPointOrSimple.typeId() << 5;
         offset = Bytes.putInt8((byte) (head | fpType), offset, output);
@@ -265,6 +539,140 @@ public final class Encoder
         }
     }
 
+    private static int encodeNumber(long value, byte[] buffer, int position) {
+        int head;
+        long absValue;
+        if (value < 0) {
+            head = MajorType.NegativeInteger.typeId() << 5;
+            absValue = -1 - value;
+
+        } else {
+            head = MajorType.UnsignedInteger.typeId() << 5;
+            absValue = value;
+        }
+
+        if (absValue <= NUMBER_VAL_MAX_ONE_BYTE) {
+            buffer[position++] = (byte) (head | absValue);
+            return position;
+
+        } else if (absValue <= NUMBER_VAL_MAX_TWO_BYTE) {
+            buffer[position++] = (byte) (head | ADD_INFO_ONE_BYTE);
+            return encodeBits(absValue, 1, buffer, position);
+
+        } else if (absValue <= NUMBER_VAL_MAX_THREE_BYTE) {
+            buffer[position++] = (byte) (head | ADD_INFO_TWO_BYTES);
+            return encodeBits(absValue, 2, buffer, position);
+
+        } else if (absValue <= NUMBER_VAL_MAX_FIVE_BYTE) {
+            buffer[position++] = (byte) (head | ADD_INFO_FOUR_BYTES);
+            return encodeBits(absValue, 4, buffer, position);
+        }
+        buffer[position++] = (byte) (head | ADD_INFO_EIGHT_BYTES);
+        return encodeBits(absValue, 8, buffer, position);
+    }
+
+    private static int encodeBits(long bits, int numberOfBytes, byte[] buffer, int position) {
+        for (int shift = (numberOfBytes - 1) * 8; shift >= 0; shift -= 8) {
+            buffer[position++] = (byte) ((bits >> shift) & 0xff);
+        }
+        return position;
+    }
+
+    private static int encodeBitsLittleEndian(long bits, int numberOfBytes, byte[] buffer, int position) {
+        for (int shift = 0; shift < numberOfBytes * 8; shift += 8) {
+            buffer[position++] = (byte) ((bits >> shift) & 0xff);
+        }
+        return position;
+    }
+
+    private static long flushScratchBuffer(byte[] buffer, int position, long offset, Output output) {
+        if (position > 0) {
+            offset += output.write(buffer, offset, position);
+        }
+        return offset;
+    }
+
+    public static long utf8Length(String value) {
+        return utf8Length(value, 0);
+    }
+
+    private static long utf8Length(String value, int start) {
+        int length = value.length();
+        long utf8Length = length;
+        for (int i = start; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                continue;
+            }
+            if (c < 0x800) {
+                utf8Length += 1;
+            } else if (Character.isSurrogate(c)) {
+                // Valid surrogate pairs take 4 bytes for 2 chars, unpaired surrogates are replaced by '?'
+                if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    utf8Length += 2;
+                    i++;
+                }
+            } else {
+                utf8Length += 2;
+            }
+        }
+        return utf8Length;
+    }
+
+    private static long writeAscii(String value, long offset, Output output) {
+        byte[] buffer = SCRATCH_BUFFER.get();
+        int length = value.length();
+        int position = 0;
+        for (int i = 0; i < length; i++) {
+            if (position == buffer.length) {
+                offset += output.write(buffer, offset, position);
+                position = 0;
+            }
+            char c = value.charAt(i);
+            buffer[position++] = c < 0x80 ? (byte) c : (byte) '?';
+        }
+        return flushScratchBuffer(buffer, position, offset, output);
+    }
+
+    private static long writeUtf8(String value, long offset, Output output) {
+        byte[] buffer = SCRATCH_BUFFER.get();
+        // Leave room for the longest possible code point sequence before flushing
+        int limit = buffer.length - 4;
+        int length = value.length();
+        int position = 0;
+        for (int i = 0; i < length; i++) {
+            if (position > limit) {
+                offset += output.write(buffer, offset, position);
+                position = 0;
+            }
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                buffer[position++] = (byte) c;
+
+            } else if (c < 0x800) {
+                buffer[position++] = (byte) (0xC0 | (c >> 6));
+                buffer[position++] = (byte) (0x80 | (c & 0x3F));
+
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                    buffer[position++] = (byte) (0xF0 | (codePoint >> 18));
+                    buffer[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                    buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                    buffer[position++] = (byte) (0x80 | (codePoint & 0x3F));
+                } else {
+                    buffer[position++] = (byte) '?';
+                }
+
+            } else {
+                buffer[position++] = (byte) (0xE0 | (c >> 12));
+                buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        return flushScratchBuffer(buffer, position, offset, output);
+    }
+
     private static long copyValue(Value value, long offset, Output output, EncoderContext encoderContext, MajorType majorType) {
         if (majorType == MajorType.Dictionary) {
             return copyDictionary(value, offset, output, encoderContext, majorType);
@@ -332,19 +740,7 @@ public final class Encoder
         Input itemInput = value.input();
         long itemOffset = value.offset();
         long itemLength = Decoder.length(itemInput, majorType, itemOffset);
-
-        int chunkSize = 1024;
-        byte[] chunk = new byte[chunkSize];
-        long sourceOffset = itemOffset;
-        long remaining = itemLength;
-        while (remaining > 0) {
-            long length = Math.min(chunkSize, remaining);
-            sourceOffset += itemInput.read(chunk, sourceOffset, (int) length);
-            output.write(chunk, offset, (int) length);
-            remaining -= length;
-            offset += length;
-        }
-        return offset;
+        return offset + output.write(itemInput, itemOffset, offset, itemLength);
     }
 
 }
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2016, Christoph Engelbert (aka noctarius) and
+ * contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.noctarius.borabora.spi.io;
+
+import com.noctarius.borabora.Input;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing hash index over raw encoded keys, assigning each distinct key a
+ * dense, insertion ordered index. Keys are hashed and compared directly from the
+ * {@link Input} without decoding, only the bytes of newly inserted keys are copied.
+ * Instances are not thread-safe and meant to be used by a single query execution.
+ */
+public final class RawKeyIndex {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private int[] slots = new int[INITIAL_CAPACITY * 2];
+    private byte[][] keys = new byte[INITIAL_CAPACITY][];
+    private int[] hashes = new int[INITIAL_CAPACITY];
+
+    private int size;
+
+    /**
+     * Returns the index of the key stored at the given offset, if the key is not yet
+     * known it is inserted with the next free index, which equals the previous {@link #size()}.
+     *
+     * @param input  the input to read the key from
+     * @param offset the offset of the encoded key
+     * @param length the length of the encoded key in bytes
+     * @return the index of the key
+     */
+    public int findOrInsert(Input input, long offset, int length) {
+        int hash = Hashing.hashBytes(input, offset, length);
+        int mask = slots.length - 1;
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            int index = slots[slot] - 1;
+            if (index == -1) {
+                return insert(slot, hash, input, offset, length);
+            }
+            if (hashes[index] == hash && matches(keys[index], input, offset, length)) {
+                return index;
+            }
+        }
+    }
+
+    /**
+     * Returns the encoded bytes of the key with the given index.
+     *
+     * @param index the index of the key
+     * @return the encoded key bytes
+     */
+    public byte[] key(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index " + index + " is out of bounds");
+        }
+        return keys[index];
+    }
+
+    /**
+     * Returns the number of distinct keys.
+     *
+     * @return the number of distinct keys
+     */
+    public int size() {
+        return size;
+    }
+
+    private int insert(int slot, int hash, Input input, long offset, int length) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            hashes = Arrays.copyOf(hashes, size * 2);
+        }
+
+        int index = size++;
+        byte[] key = new byte[length];
+        input.read(key, offset, length);
+        keys[index] = key;
+        hashes[index] = hash;
+
+        // Keep the load factor below 0.5
+        if (size * 2 > slots.length) {
+            rehash(slots.length * 2);
+        } else {
+            slots[slot] = index + 1;
+        }
+        return index;
+    }
+
+    private void rehash(int capacity) {
+        int[] slots = new int[capacity];
+        int mask = capacity - 1;
+        for (int index = 0; index < size; index++) {
+            int slot = hashes[index] & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = index + 1;
+        }
+        this.slots = slots;
+    }
+
+    private static boolean matches(byte[] key, Input input, long offset, int length) {
+        if (key.length != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (key[i] != input.read(offset + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2016, Christoph Engelbert (aka noctarius) and
+ * contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.noctarius.borabora.spi.io;
+
+import com.noctarius.borabora.NoSuchByteException;
+import com.noctarius.borabora.Output;
+
+/**
+ * A <tt>SeekableOutput</tt> is an {@link Output} which supports moving already written data
+ * inside its writable area. Seekable outputs are required by writers that back-patch
+ * information after the fact, like definite-length headers of sequences and dictionaries
+ * which are only known when the container is finished.
+ * <p>The built-in outputs for byte-arrays, native memory and {@link CompositeBuffer}s are
+ * seekable, whereas outputs backed by an {@link java.io.OutputStream} are not.</p>
+ */
+public interface SeekableOutput
+        extends Output {
+
+    /**
+     * Moves <tt>length</tt> bytes starting at <tt>sourceOffset</tt> to <tt>targetOffset</tt>.
+     * Source and target regions may overlap. If the moved region was the tail of the written
+     * data, the end of the written data is afterwards considered to be at <tt>targetOffset</tt>
+     * plus <tt>length</tt>. If any of the offsets is outside of the writable area, a
+     * {@link NoSuchByteException} is thrown.
+     *
+     * @param sourceOffset the offset to move the data from
+     * @param targetOffset the offset to move the data to
+     * @param length       the number of bytes to move
+     * @throws NoSuchByteException if any offset is outside of the writable area
+     */
+    void move(long sourceOffset, long targetOffset, long length);
+
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2016, Christoph Engelbert (aka noctarius) and
+ * contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.noctarius.borabora.spi.io;
+
+import java.util.Arrays;
+
+/**
+ * Bounded open addressing map from the start offsets of data items to their end offsets, to
+ * memoize the sizes of nested data items which are skipped repeatedly by a query. The table has
+ * a fixed capacity, lookups and inserts probe a limited number of slots and, if no free slot is
+ * found, an insert replaces the entry at the key's home slot. Memory usage is therefore bounded
+ * independently of the queried data. Instances are not thread-safe and meant to be used by a
+ * single query execution, see {@link com.noctarius.borabora.spi.query.QueryContext#skipSizeCache()}.
+ */
+public final class SkipSizeCache {
+
+    private static final int MIN_CAPACITY = 16;
+    private static final int MAX_PROBES = 8;
+
+    private final int capacity;
+
+    // Keys are stored as offset + 1 to use 0 as the empty marker
+    private long[] keys;
+    private long[] ends;
+
+    /**
+     * Creates a new cache with at least the given <tt>capacity</tt>, which is rounded up to the
+     * next power of two. The table is allocated lazily on the first insert.
+     *
+     * @param capacity the maximum number of cached entries
+     * @throws IllegalArgumentException if capacity is not positive
+     */
+    public SkipSizeCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        int size = Math.max(MIN_CAPACITY, capacity);
+        this.capacity = Integer.bitCount(size) == 1 ? size : Integer.highestOneBit(size) << 1;
+    }
+
+    /**
+     * Returns the cached end offset of the data item starting at the given <tt>offset</tt>, or
+     * <tt>-1</tt> if not cached.
+     *
+     * @param offset the start offset of the data item
+     * @return the end offset of the data item, or -1 if not cached
+     */
+    public long end(long offset) {
+        if (keys == null) {
+            return -1;
+        }
+        long key = offset + 1;
+        int mask = capacity - 1;
+        int slot = Hashing.hashOffset(offset) & mask;
+        for (int probe = 0; probe < MAX_PROBES; probe++, slot = (slot + 1) & mask) {
+            long candidate = keys[slot];
+            if (candidate == key) {
+                return ends[slot];
+            }
+            if (candidate == 0) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Stores the end offset of the data item starting at the given <tt>offset</tt>.
+     *
+     * @param offset the start offset of the data item
+     * @param end    the end offset of the data item
+     */
+    public void put(long offset, long end) {
+        if (keys == null) {
+            keys = new long[capacity];
+            ends = new long[capacity];
+        }
+        long key = offset + 1;
+        int mask = capacity - 1;
+        int home = Hashing.hashOffset(offset) & mask;
+        int slot = home;
+        for (int probe = 0; probe < MAX_PROBES; probe++, slot = (slot + 1) & mask) {
+            long candidate = keys[slot];
+            if (candidate == 0 || candidate == key) {
+                keys[slot] = key;
+                ends[slot] = end;
+                return;
+            }
+        }
+        // Probe sequence exhausted, replace the entry at the home slot
+        keys[home] = key;
+        ends[home] = end;
+    }
+
+    /**
+     * Removes all cached entries.
+     */
+    public void clear() {
+        if (keys != null) {
+            Arrays.fill(keys, 0);
+        }
+    }
+
+    /**
+     * Returns the maximum number of cached entries.
+     *
+     * @return the capacity of the cache
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+}
@@ -0,0 +1,287 @@
+/*
+ * Copyright (c) 2016, Christoph Engelbert (aka noctarius) and
+ * contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.noctarius.borabora.spi.io;
+
+import com.noctarius.borabora.Input;
+import com.noctarius.borabora.MajorType;
+import com.noctarius.borabora.WrongTypeException;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+import static com.noctarius.borabora.spi.io.Constants.ADD_INFO_INDEFINITE;
+import static com.noctarius.borabora.spi.io.Constants.OPCODE_BREAK_MASK;
+import static com.noctarius.borabora.spi.io.Constants.TAG_STRING_NAMESPACE;
+import static com.noctarius.borabora.spi.io.Constants.TAG_STRING_REFERENCE;
+
+/**
+ * Index over a string reference namespace (semantic tag 256) which resolves the string
+ * references (semantic tag 25) inside of it. Following the stringref specification every
+ * definite length byte or text string inside the namespace, which is long enough to be
+ * worth referencing, is assigned the next free index in the order of appearance. Strings
+ * of nested namespaces are indexed by their own, lazily created, instance. The namespace
+ * is scanned once on the first resolved reference. Instances are not thread-safe and meant
+ * to be used by a single query execution.
+ */
+public final class StringReferences {
+
+    private static final long[] EMPTY_OFFSETS = new long[0];
+
+    private final Input input;
+    private final long offset;
+
+    private long end = -1;
+    private long[] strings;
+    private int size;
+    private long[] namespaces = EMPTY_OFFSETS;
+    private StringReferences[] nested;
+    private int namespaceCount;
+
+    /**
+     * Creates a new index for the string reference namespace at the given offset.
+     *
+     * @param input  the input to read the namespace from
+     * @param offset the offset of the namespace's semantic tag
+     */
+    public StringReferences(Input input, long offset) {
+        this.input = input;
+        this.offset = offset;
+    }
+
+    /**
+     * Returns the offset of the namespace's semantic tag.
+     *
+     * @return the offset of the namespace
+     */
+    public long offset() {
+        return offset;
+    }
+
+    /**
+     * Returns <tt>true</tt> if the given offset is located inside of this namespace.
+     *
+     * @param offset the offset to test
+     * @return true if the offset is inside of this namespace, otherwise false
+     */
+    public boolean contains(long offset) {
+        if (offset < this.offset) {
+            return false;
+        }
+        if (end == -1) {
+            end = Decoder.skip(input, this.offset);
+        }
+        return offset < end;
+    }
+
+    /**
+     * Returns the offset of the string referenced by the string reference at the given offset.
+     *
+     * @param offset the offset of the string reference
+     * @return the offset of the referenced string
+     * @throws WrongTypeException if the reference's index is not assigned
+     */
+    public long resolve(long offset) {
+        if (strings == null) {
+            index();
+        }
+
+        StringReferences namespace = findNamespace(offset);
+        if (namespace != null) {
+            return namespace.resolve(offset);
+        }
+
+        Number index = Decoder.readUint(input, offset + ByteSizes.headByteSize(input, offset));
+        if (index instanceof BigInteger || index.longValue() >= size) {
+            throw new WrongTypeException(offset, "String reference " + index + " is not assigned in its namespace");
+        }
+        return strings[index.intValue()];
+    }
+
+    /**
+     * Returns the minimal length in bytes a string requires to be assigned the given index in
+     * a string reference namespace. The minimal length makes sure a reference is always shorter
+     * than the referenced string.
+     *
+     * @param index the next free index
+     * @return the minimal length of the string
+     */
+    public static int minimumLength(long index) {
+        if (index < 24) {
+            return 3;
+        } else if (index < 256) {
+            return 4;
+        } else if (index < 65536) {
+            return 5;
+        } else if (index < 4294967296L) {
+            return 7;
+        }
+        return 11;
+    }
+
+    /**
+     * Returns the tag id of the semantic tag at the given offset or <tt>-1</tt> if the item at
+     * the given offset is not a semantic tag.
+     *
+     * @param input  the input to read from
+     * @param offset the offset of the item
+     * @return the tag id, or -1 if not a semantic tag
+     */
+    public static long tagId(Input input, long offset) {
+        short head = Decoder.readUInt8(input, offset);
+        if (MajorType.findMajorType(head) != MajorType.SemanticTag) {
+            return -1;
+        }
+        Number tagId = Decoder.readUint(input, offset);
+        return tagId instanceof BigInteger ? -1 : tagId.longValue();
+    }
+
+    /**
+     * Passes the offsets of all strings which take part in string referencing to the given
+     * consumer, in the order of appearance, for all items in between the given offsets. Strings
+     * of nested namespaces are not passed. The consumer is responsible for applying the
+     * {@link #minimumLength(long)}.
+     *
+     * @param input    the input to read from
+     * @param offset   the offset of the first item
+     * @param end      the offset behind the last item
+     * @param consumer the consumer to pass the string offsets to
+     */
+    public static void collectStrings(Input input, long offset, long end, LongConsumer consumer) {
+        while (offset < end) {
+            offset = collect(input, offset, consumer, null, null);
+        }
+    }
+
+    /**
+     * Returns <tt>true</tt> if the data item at the given offset contains string references which
+     * are resolved by an enclosing namespace. References inside of namespaces nested in the item
+     * are self-contained and not taken into account. Such items cannot be copied byte by byte
+     * without their enclosing namespace.
+     *
+     * @param input  the input to read from
+     * @param offset the offset of the item
+     * @return true if the item contains references to an enclosing namespace, otherwise false
+     */
+    public static boolean containsReferences(Input input, long offset) {
+        // Cheap pre-check for the encoded tag, which may still be part of a string's data
+        long end = Decoder.skip(input, offset);
+        boolean candidate = false;
+        for (long position = offset; position < end - 1 && !candidate; position++) {
+            candidate = input.read(position) == (byte) 0xd8 && input.read(position + 1) == TAG_STRING_REFERENCE;
+        }
+        if (!candidate) {
+            return false;
+        }
+
+        boolean[] found = new boolean[1];
+        collect(input, offset, (position) -> {
+        }, null, (position) -> found[0] = true);
+        return found[0];
+    }
+
+    private void index() {
+        strings = new long[16];
+        long position = offset + ByteSizes.headByteSize(input, offset);
+        end = collect(input, position, this::addString, this::addNamespace, null);
+        nested = new StringReferences[namespaceCount];
+    }
+
+    private void addString(long offset) {
+        if (ByteSizes.stringDataSize(input, offset) < minimumLength(size)) {
+            return;
+        }
+        if (size == strings.length) {
+            strings = Arrays.copyOf(strings, size * 2);
+        }
+        strings[size++] = offset;
+    }
+
+    private void addNamespace(long offset) {
+        if (namespaceCount == namespaces.length) {
+            namespaces = Arrays.copyOf(namespaces, Math.max(4, namespaceCount * 2));
+        }
+        namespaces[namespaceCount++] = offset;
+    }
+
+    private StringReferences findNamespace(long offset) {
+        // Nested namespaces never overlap, only the last one starting in front of offset may contain it
+        int index = Arrays.binarySearch(namespaces, 0, namespaceCount, offset);
+        index = index < 0 ? -index - 2 : index;
+        if (index < 0) {
+            return null;
+        }
+        StringReferences namespace = nested[index];
+        if (namespace == null) {
+            namespace = new StringReferences(input, namespaces[index]);
+            nested[index] = namespace;
+        }
+        return namespace.contains(offset) ? namespace : null;
+    }
+
+    private static long collect(Input input, long offset, LongConsumer strings, LongConsumer namespaces,
+                                LongConsumer references) {
+
+        short head = Decoder.readUInt8(input, offset);
+        MajorType majorType = MajorType.findMajorType(head);
+        switch (majorType) {
+            case ByteString:
+            case TextString:
+                // Indefinite strings and their chunks are never referenced
+                if (Decoder.additionalInfo(head) != ADD_INFO_INDEFINITE) {
+                    strings.accept(offset);
+                }
+                return Decoder.skip(input, majorType, offset);
+
+            case Sequence:
+            case Dictionary:
+                long position = offset + ByteSizes.headByteSize(input, offset);
+                if (Decoder.additionalInfo(head) == ADD_INFO_INDEFINITE) {
+                    while (Decoder.readUInt8(input, position) != OPCODE_BREAK_MASK) {
+                        position = collect(input, position, strings, namespaces, references);
+                    }
+                    return position + 1;
+                }
+                long elements = ElementCounts.elementCountByMajorType(majorType, input, offset);
+                elements = majorType == MajorType.Dictionary ? elements * 2 : elements;
+                for (long i = 0; i < elements; i++) {
+                    position = collect(input, position, strings, namespaces, references);
+                }
+                return position;
+
+            case SemanticTag:
+                long tagId = tagId(input, offset);
+                if (tagId == TAG_STRING_REFERENCE) {
+                    if (references != null) {
+                        references.accept(offset);
+                    }
+                    return Decoder.skip(input, majorType, offset);
+                }
+                if (tagId == TAG_STRING_NAMESPACE) {
+                    if (namespaces != null) {
+                        namespaces.accept(offset);
+                    }
+                    return Decoder.skip(input, majorType, offset);
+                }
+                return collect(input, offset + ByteSizes.headByteSize(input, offset), strings, namespaces, references);
+
+            default:
+                return Decoder.skip(input, majorType, offset);
+        }
+    }
+
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) 2016, Christoph Engelbert (aka noctarius) and
+ * contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.noctarius.borabora.spi.io;
+
+import com.noctarius.borabora.Input;
+import com.noctarius.borabora.MajorType;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import static com.noctarius.borabora.spi.io.Constants.ADD_INFO_INDEFINITE;
+import static com.noctarius.borabora.spi.io.Constants.OPCODE_BREAK_MASK;
+
+/**
+ * Structural index (tape) of all data items of an {@link Input}, which sizes cannot be calculated
+ * from their head alone, namely sequences, dictionaries, semantic tags and indefinite length strings.
+ * For each such data item the start offset, the end offset and, for sequences and dictionaries, the
+ * number of elements are recorded in a single pass over the whole input. Lookups use an open
+ * addressing hash over the start offsets, turning skips over nested data items into constant time
+ * jumps. Instances are immutable after being built and safe to be shared between threads.
+ */
+public final class StructuralIndex {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private long[] starts = new long[INITIAL_CAPACITY];
+    private long[] ends = new long[INITIAL_CAPACITY];
+    private long[] elementCounts = new long[INITIAL_CAPACITY];
+    private int[] slots;
+
+    private int size;
+
+    private StructuralIndex() {
+    }
+
+    /**
+     * Builds the structural index of all data items in the given <tt>input</tt>, starting at offset
+     * zero and reading top-level data items until the end of the readable area.
+     *
+     * @param input the input to index
+     * @return the structural index of the input
+     */
+    public static StructuralIndex build(Input input) {
+        Objects.requireNonNull(input, "input must not be null");
+        StructuralIndex structuralIndex = new StructuralIndex();
+        long offset = 0;
+        while (input.offsetValid(offset)) {
+            offset = structuralIndex.index(input, offset);
+        }
+        structuralIndex.buildSlots();
+        return structuralIndex;
+    }
+
+    /**
+     * Returns the number of indexed data items.
+     *
+     * @return the number of indexed data items
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the end offset, the offset following the last byte, of the data item starting at
+     * the given <tt>offset</tt>, or <tt>-1</tt> if no data item at this offset was indexed.
+     *
+     * @param offset the start offset of the data item
+     * @return the end offset of the data item, or -1 if not indexed
+     */
+    public long end(long offset) {
+        int index = find(offset);
+        return index == -1 ? -1 : ends[index];
+    }
+
+    /**
+     * Returns the number of elements of the sequence, or the number of entries of the dictionary,
+     * starting at the given <tt>offset</tt>, or <tt>-1</tt> if no sequence or dictionary at this
+     * offset was indexed.
+     *
+     * @param offset the start offset of the sequence or dictionary
+     * @return the number of elements, or -1 if not indexed
+     */
+    public long elementCount(long offset) {
+        int index = find(offset);
+        return index == -1 ? -1 : elementCounts[index];
+    }
+
+    private long index(Input input, long offset) {
+        short head = Bytes.readUInt8(input, offset);
+        MajorType majorType = MajorType.findMajorType(head);
+        int addInfo = head & Constants.ADDITIONAL_INFORMATION_MASK;
+        switch (majorType) {
+            case Sequence:
+            case Dictionary:
+                return indexContainer(input, offset, majorType == MajorType.Dictionary, addInfo == ADD_INFO_INDEFINITE);
+
+            case SemanticTag: {
+                int entry = add(offset);
+                long end = index(input, offset + ByteSizes.headByteSize(input, offset));
+                ends[entry] = end;
+                return end;
+            }
+
+            case ByteString:
+            case TextString:
+                if (addInfo == ADD_INFO_INDEFINITE) {
+                    int entry = add(offset);
+                    long end = offset + Decoder.length(input, majorType, offset);
+                    ends[entry] = end;
+                    return end;
+                }
+                return offset + Decoder.length(input, majorType, offset);
+
+            default:
+                return offset + Decoder.length(input, majorType, offset);
+        }
+    }
+
+    private long indexContainer(Input input, long offset, boolean dictionary, boolean indefinite) {
+        int entry = add(offset);
+        long position = offset + ByteSizes.headByteSize(input, offset);
+
+        long elements = 0;
+        if (indefinite) {
+            while (Bytes.readUInt8(input, position) != OPCODE_BREAK_MASK) {
+                position = index(input, position);
+                elements++;
+            }
+            // Skip break code
+            position++;
+
+        } else {
+            long items = ElementCounts.elementCountByMajorType(Decoder.getMajorType(offset, input), input, offset);
+            elements = dictionary ? items * 2 : items;
+            for (long i = 0; i < elements; i++) {
+                position = index(input, position);
+            }
+        }
+
+        ends[entry] = position;
+        elementCounts[entry] = dictionary ? elements / 2 : elements;
+        return position;
+    }
+
+    private int add(long offset) {
+        if (size == starts.length) {
+            int capacity = size * 2;
+            starts = Arrays.copyOf(starts, capacity);
+            ends = Arrays.copyOf(ends, capacity);
+            elementCounts = Arrays.copyOf(elementCounts, capacity);
+        }
+        int entry = size++;
+        starts[entry] = offset;
+        elementCounts[entry] = -1;
+        return entry;
+    }
+
+    private void buildSlots() {
+        // Keep the load factor at or below 0.5
+        int capacity = Integer.highestOneBit(Math.max(INITIAL_CAPACITY, size) * 2 - 1) << 1;
+        slots = new int[capacity];
+        int mask = capacity - 1;
+        for (int entry = 0; entry < size; entry++) {
+            int slot = Hashing.hashOffset(starts[entry]) & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = entry + 1;
+        }
+    }
+
+    private int find(long offset) {
+        int mask = slots.length - 1;
+        for (int slot = Hashing.hashOffset(offset) & mask; ; slot = (slot + 1) & mask) {
+            int entry = slots[slot] - 1;
+            if (entry == -1) {
+                return -1;
+            }
+            if (starts[entry] == offset) {
+                return entry;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2016, Christoph Engelbert (aka noctarius) and
+ * contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.noctarius.borabora.spi.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.noctarius.borabora.ElementIndexBuild")
+@Label("Element Index Build")
+@Category({"borabora", "Query"})
+@Description("Build of the element index of a large sequence or dictionary")
+@Enabled(false)
+@StackTrace(false)
+final class ElementIndexBuildEvent
+        extends Event {
+
+    @Label("Offset")
+    @Description("The offset of the first element of the container")
+    long offset;
+
+    @Label("Elements")
+    @Description("The number of indexed elements")
+    long elements;
+
+}
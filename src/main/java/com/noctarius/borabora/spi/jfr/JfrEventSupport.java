@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2016, Christoph Engelbert (aka noctarius) and
+ * contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.noctarius.borabora.spi.jfr;
+
+import jdk.jfr.EventType;
+
+final class JfrEventSupport {
+
+    private static final EventType QUERY_EXECUTION = EventType.getEventType(QueryExecutionEvent.class);
+    private static final EventType ELEMENT_INDEX_BUILD = EventType.getEventType(ElementIndexBuildEvent.class);
+    private static final EventType WRITER_FLUSH = EventType.getEventType(WriterFlushEvent.class);
+
+    private JfrEventSupport() {
+    }
+
+    static Object beginQueryExecution() {
+        if (!QUERY_EXECUTION.isEnabled()) {
+            return null;
+        }
+        QueryExecutionEvent event = new QueryExecutionEvent();
+        event.begin();
+        return event;
+    }
+
+    static void commitQueryExecution(Object event, int planHash, long results, long bytesRead) {
+        QueryExecutionEvent queryExecutionEvent = (QueryExecutionEvent) event;
+        queryExecutionEvent.planHash = planHash;
+        queryExecutionEvent.results = results;
+        queryExecutionEvent.bytesRead = bytesRead;
+        queryExecutionEvent.commit();
+    }
+
+    static Object beginElementIndexBuild() {
+        if (!ELEMENT_INDEX_BUILD.isEnabled()) {
+            return null;
+        }
+        ElementIndexBuildEvent event = new ElementIndexBuildEvent();
+        event.begin();
+        return event;
+    }
+
+    static void commitElementIndexBuild(Object event, long offset, long elements) {
+        ElementIndexBuildEvent elementIndexBuildEvent = (ElementIndexBuildEvent) event;
+        elementIndexBuildEvent.offset = offset;
+        elementIndexBuildEvent.elements = elements;
+        elementIndexBuildEvent.commit();
+    }
+
+    static Object beginWriterFlush() {
+        if (!WRITER_FLUSH.isEnabled()) {
+            return null;
+        }
+        WriterFlushEvent event = new WriterFlushEvent();
+        event.begin();
+        return event;
+    }
+
+    static void commitWriterFlush(Object event, String writer, long bytes) {
+        WriterFlushEvent writerFlushEvent = (WriterFlushEvent) event;
+        writerFlushEvent.writer = writer;
+        writerFlushEvent.bytes = bytes;
+        writerFlushEvent.commit();
+    }
+
+}
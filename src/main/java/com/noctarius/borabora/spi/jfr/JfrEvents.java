@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2016, Christoph Engelbert (aka noctarius) and
+ * contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.noctarius.borabora.spi.jfr;
+
+/**
+ * The <tt>JfrEvents</tt> class emits the Java Flight Recorder events of borabora. All events are
+ * disabled by default and have to be enabled in the recording's settings, using their names:
+ * <ul>
+ * <li><tt>com.noctarius.borabora.QueryExecution</tt>: a query executed by a
+ * {@link com.noctarius.borabora.Parser}, including the number of results</li>
+ * <li><tt>com.noctarius.borabora.ElementIndexBuild</tt>: the element index of a sequence or
+ * dictionary with at least {@link #LARGE_CONTAINER_ELEMENTS} elements was built</li>
+ * <li><tt>com.noctarius.borabora.WriterFlush</tt>: a stream written by a
+ * {@link com.noctarius.borabora.builder.encoder.GraphBuilder} was finished, or a
+ * {@link com.noctarius.borabora.spi.io.CompositeBuffer} was written to an output stream</li>
+ * </ul>
+ * <p>On JVMs without Flight Recorder support, all methods are no-ops. Otherwise, events are only
+ * created while they are enabled in a running recording. All <tt>begin</tt> methods return
+ * <tt>null</tt> if the event is disabled, and callers are required to skip the commit in that
+ * case. Event instances are passed as <tt>Object</tt> to keep the Flight Recorder API out of the
+ * callers' signatures.</p>
+ */
+public final class JfrEvents {
+
+    /**
+     * The minimum number of elements of a container to emit an element index build event.
+     */
+    public static final long LARGE_CONTAINER_ELEMENTS = 1024;
+
+    private static final boolean AVAILABLE = isFlightRecorderAvailable();
+
+    private JfrEvents() {
+    }
+
+    /**
+     * Returns <tt>true</tt> if the JVM supports the Flight Recorder event API, otherwise <tt>false</tt>.
+     *
+     * @return true if events can be emitted, otherwise false
+     */
+    public static boolean available() {
+        return AVAILABLE;
+    }
+
+    /**
+     * Begins a query execution event.
+     *
+     * @return the event if enabled, otherwise null
+     */
+    public static Object beginQueryExecution() {
+        return AVAILABLE ? JfrEventSupport.beginQueryExecution() : null;
+    }
+
+    /**
+     * Commits a query execution event previously created by {@link #beginQueryExecution()}.
+     *
+     * @param event     the event to commit
+     * @param planHash  the hash code of the query's execution plan
+     * @param results   the number of results
+     * @param bytesRead the number of bytes read, or 0 if unknown
+     */
+    public static void commitQueryExecution(Object event, int planHash, long results, long bytesRead) {
+        JfrEventSupport.commitQueryExecution(event, planHash, results, bytesRead);
+    }
+
+    /**
+     * Begins an element index build event, if the container has at least
+     * {@link #LARGE_CONTAINER_ELEMENTS} elements.
+     *
+     * @param elements the number of elements of the container
+     * @return the event if enabled and the container is large, otherwise null
+     */
+    public static Object beginElementIndexBuild(long elements) {
+        if (!AVAILABLE || elements < LARGE_CONTAINER_ELEMENTS) {
+            return null;
+        }
+        return JfrEventSupport.beginElementIndexBuild();
+    }
+
+    /**
+     * Commits an element index build event previously created by {@link #beginElementIndexBuild(long)}.
+     *
+     * @param event    the event to commit
+     * @param offset   the offset of the first element
+     * @param elements the number of indexed elements
+     */
+    public static void commitElementIndexBuild(Object event, long offset, long elements) {
+        JfrEventSupport.commitElementIndexBuild(event, offset, elements);
+    }
+
+    /**
+     * Begins a writer flush event.
+     *
+     * @return the event if enabled, otherwise null
+     */
+    public static Object beginWriterFlush() {
+        return AVAILABLE ? JfrEventSupport.beginWriterFlush() : null;
+    }
+
+    /**
+     * Commits a writer flush event previously created by {@link #beginWriterFlush()}.
+     *
+     * @param event  the event to commit
+     * @param writer the name of the writing component
+     * @param bytes  the number of bytes written
+     */
+    public static void commitWriterFlush(Object event, String writer, long bytes) {
+        JfrEventSupport.commitWriterFlush(event, writer, bytes);
+    }
+
+    private static boolean isFlightRecorderAvailable() {
+        try {
+            Class.forName("jdk.jfr.Event", false, JfrEvents.class.getClassLoader());
+            return true;
+
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2016, Christoph Engelbert (aka noctarius) and
+ * contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.noctarius.borabora.spi.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.noctarius.borabora.QueryExecution")
+@Label("Query Execution")
+@Category({"borabora", "Query"})
+@Description("Execution of a query against an input")
+@Enabled(false)
+@StackTrace(false)
+final class QueryExecutionEvent
+        extends Event {
+
+    @Label("Query Plan Hash")
+    @Description("The hash code of the query's execution plan")
+    int planHash;
+
+    @Label("Results")
+    @Description("The number of values passed to the query consumer")
+    long results;
+
+    @Label("Bytes Read")
+    @Description("The number of bytes read from the input, only available with a configured MetricsCollector")
+    @DataAmount
+    long bytesRead;
+
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2016, Christoph Engelbert (aka noctarius) and
+ * contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.noctarius.borabora.spi.metrics;
+
+/**
+ * A <tt>MetricsCollector</tt> receives the metrics of all queries executed by a
+ * {@link com.noctarius.borabora.Parser} instance. It is registered using
+ * {@link com.noctarius.borabora.builder.ParserBuilder#withMetricsCollector(MetricsCollector)}.
+ * Implementations are called concurrently from all threads using the parser and therefore have
+ * to be thread-safe. Since they are called once per query, implementations should be cheap,
+ * {@link ParserMetrics} is the default implementation aggregating all values.
+ */
+public interface MetricsCollector {
+
+    /**
+     * Is called whenever a query string was parsed into a {@link com.noctarius.borabora.Query}.
+     */
+    void queryPrepared();
+
+    /**
+     * Is called after a query has completed with the metrics collected while executing the query.
+     *
+     * @param queryMetrics the metrics of the completed query
+     */
+    void queryCompleted(QueryMetrics queryMetrics);
+
+}
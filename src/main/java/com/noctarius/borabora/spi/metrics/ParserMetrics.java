@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2016, Christoph Engelbert (aka noctarius) and
+ * contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.noctarius.borabora.spi.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The <tt>ParserMetrics</tt> class is the default {@link MetricsCollector} implementation and
+ * aggregates the metrics of all queries executed by a {@link com.noctarius.borabora.Parser}
+ * instance. Counters are implemented using striped {@link LongAdder}s to keep contention low
+ * when the parser is shared between threads.
+ */
+public final class ParserMetrics
+        implements MetricsCollector {
+
+    private final LongAdder queries = new LongAdder();
+    private final LongAdder queryPreparations = new LongAdder();
+    private final LongAdder bytesRead = new LongAdder();
+    private final LongAdder skips = new LongAdder();
+    private final LongAdder elementIndexes = new LongAdder();
+    private final LongAdder streamValues = new LongAdder();
+    private final LongAdder tagDecodes = new LongAdder();
+
+    @Override
+    public void queryPrepared() {
+        queryPreparations.increment();
+    }
+
+    @Override
+    public void queryCompleted(QueryMetrics queryMetrics) {
+        queries.increment();
+        add(bytesRead, queryMetrics.bytesRead());
+        add(skips, queryMetrics.skips());
+        add(elementIndexes, queryMetrics.elementIndexes());
+        add(streamValues, queryMetrics.streamValues());
+        add(tagDecodes, queryMetrics.tagDecodes());
+    }
+
+    /**
+     * Returns the number of executed queries.
+     *
+     * @return the number of executed queries
+     */
+    public long queries() {
+        return queries.sum();
+    }
+
+    /**
+     * Returns the number of query strings parsed into {@link com.noctarius.borabora.Query} instances.
+     *
+     * @return the number of prepared queries
+     */
+    public long queryPreparations() {
+        return queryPreparations.sum();
+    }
+
+    /**
+     * Returns the number of bytes read by all queries.
+     *
+     * @return the number of bytes read
+     */
+    public long bytesRead() {
+        return bytesRead.sum();
+    }
+
+    /**
+     * Returns the number of data items skipped by all queries.
+     *
+     * @return the number of data items skipped
+     */
+    public long skips() {
+        return skips.sum();
+    }
+
+    /**
+     * Returns the number of element indexes built by all queries.
+     *
+     * @return the number of element indexes built
+     */
+    public long elementIndexes() {
+        return elementIndexes.sum();
+    }
+
+    /**
+     * Returns the number of {@link com.noctarius.borabora.spi.StreamValue} instances created by all queries.
+     *
+     * @return the number of stream values created
+     */
+    public long streamValues() {
+        return streamValues.sum();
+    }
+
+    /**
+     * Returns the number of semantic tags decoded by all queries.
+     *
+     * @return the number of semantic tags decoded
+     */
+    public long tagDecodes() {
+        return tagDecodes.sum();
+    }
+
+    /**
+     * Resets all counters to zero. Queries running concurrently might be partially accounted.
+     */
+    public void reset() {
+        queries.reset();
+        queryPreparations.reset();
+        bytesRead.reset();
+        skips.reset();
+        elementIndexes.reset();
+        streamValues.reset();
+        tagDecodes.reset();
+    }
+
+    @Override
+    public String toString() {
+        return "ParserMetrics{" + "queries=" + queries + ", queryPreparations=" + queryPreparations + ", bytesRead="
+                + bytesRead + ", skips=" + skips + ", elementIndexes=" + elementIndexes + ", streamValues=" + streamValues
+                + ", tagDecodes=" + tagDecodes + '}';
+    }
+
+    private static void add(LongAdder adder, long value) {
+        if (value != 0) {
+            adder.add(value);
+        }
+    }
+
+}
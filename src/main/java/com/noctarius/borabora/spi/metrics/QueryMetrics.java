@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2016, Christoph Engelbert (aka noctarius) and
+ * contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.noctarius.borabora.spi.metrics;
+
+/**
+ * The <tt>QueryMetrics</tt> class collects the counters of a single query execution. An instance
+ * is created per query, passed to the {@link com.noctarius.borabora.spi.query.QueryContext} and
+ * handed to the configured {@link MetricsCollector} after the query completed. Since queries are
+ * evaluated by a single thread, the counters are plain fields and instances are not thread-safe.
+ */
+public final class QueryMetrics {
+
+    private long bytesRead;
+    private long skips;
+    private long elementIndexes;
+    private long streamValues;
+    private long tagDecodes;
+
+    /**
+     * Adds the given number of bytes to the number of bytes read from the query's
+     * {@link com.noctarius.borabora.Input}.
+     *
+     * @param bytes the number of bytes read
+     */
+    public void addBytesRead(long bytes) {
+        bytesRead += bytes;
+    }
+
+    /**
+     * Increments the number of data items skipped using
+     * {@link com.noctarius.borabora.spi.io.Decoder#skip(com.noctarius.borabora.Input, long)}.
+     */
+    public void incrementSkips() {
+        skips++;
+    }
+
+    /**
+     * Increments the number of element indexes built for sequences and dictionaries.
+     */
+    public void incrementElementIndexes() {
+        elementIndexes++;
+    }
+
+    /**
+     * Increments the number of {@link com.noctarius.borabora.spi.StreamValue} instances created.
+     */
+    public void incrementStreamValues() {
+        streamValues++;
+    }
+
+    /**
+     * Increments the number of semantic tags decoded by a
+     * {@link com.noctarius.borabora.spi.codec.TagDecoder}.
+     */
+    public void incrementTagDecodes() {
+        tagDecodes++;
+    }
+
+    /**
+     * Returns the number of bytes read from the query's {@link com.noctarius.borabora.Input}.
+     *
+     * @return the number of bytes read
+     */
+    public long bytesRead() {
+        return bytesRead;
+    }
+
+    /**
+     * Returns the number of data items skipped.
+     *
+     * @return the number of data items skipped
+     */
+    public long skips() {
+        return skips;
+    }
+
+    /**
+     * Returns the number of element indexes built for sequences and dictionaries.
+     *
+     * @return the number of element indexes built
+     */
+    public long elementIndexes() {
+        return elementIndexes;
+    }
+
+    /**
+     * Returns the number of {@link com.noctarius.borabora.spi.StreamValue} instances created.
+     *
+     * @return the number of stream values created
+     */
+    public long streamValues() {
+        return streamValues;
+    }
+
+    /**
+     * Returns the number of semantic tags decoded.
+     *
+     * @return the number of semantic tags decoded
+     */
+    public long tagDecodes() {
+        return tagDecodes;
+    }
+
+    @Override
+    public String toString() {
+        return "QueryMetrics{" + "bytesRead=" + bytesRead + ", skips=" + skips + ", elementIndexes=" + elementIndexes
+                + ", streamValues=" + streamValues + ", tagDecodes=" + tagDecodes + '}';
+    }
+
+}
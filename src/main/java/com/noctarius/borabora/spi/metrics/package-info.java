@@ -0,0 +1,24 @@
+/*
+ * Copyright (c) 2016, Christoph Engelbert (aka noctarius) and
+ * contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/**
+ * This package contains the metrics SPI of borabora. A {@link com.noctarius.borabora.spi.metrics.MetricsCollector}
+ * registered with the {@link com.noctarius.borabora.builder.ParserBuilder} receives the
+ * {@link com.noctarius.borabora.spi.metrics.QueryMetrics} of every executed query, while
+ * {@link com.noctarius.borabora.spi.metrics.ParserMetrics} aggregates them per parser.
+ */
+package com.noctarius.borabora.spi.metrics;
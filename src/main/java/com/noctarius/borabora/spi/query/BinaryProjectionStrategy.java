@@ -60,7 +60,7 @@ public class BinaryProjectionStrategy
 
         QueryContextFactory queryContextFactory = queryContext.queryContextFactory();
         QueryContext newQueryContext = queryContextFactory.newQueryContext(input, EMPTY_QUERY_CONSUMER, //
-                queryContext.tagStrategies(), queryContext.projectionStrategy());
+                queryContext.tagStrategies(), queryContext.projectionStrategy(), queryContext.queryMetrics());
 
         ValueType valueType = newQueryContext.valueType(0);
         Value value = new StreamValue(majorType, valueType, 0, newQueryContext);
@@ -155,10 +155,10 @@ public class BinaryProjectionStrategy
             short head = Decoder.readUInt8(input, offset);
 
             MajorType majorType = MajorType.findMajorType(head);
-            byte[] data = Decoder.readRaw(input, majorType, offset);
-            bqc.offset = bqc.output.write(data, bqc.offset, data.length);
+            long length = Decoder.cachedLength(queryContext, majorType, offset);
+            bqc.offset += bqc.output.write(input, offset, bqc.offset, length);
 
-            return offset + data.length;
+            return offset + length;
         }
         return offset;
     }
@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) 2016, Christoph Engelbert (aka noctarius) and
+ * contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.noctarius.borabora.spi.query;
+
+import com.noctarius.borabora.Value;
+
+import java.util.function.Predicate;
+
+/**
+ * An <tt>EncodedKeyPredicate</tt> is a {@link Predicate} which matches values equal to one of a
+ * known set of CBOR encoded data items. For dictionaries with sorted keys, as asserted using
+ * {@link QueryContext#sortedDictionaryKeys()}, those encodings are used to look up keys by comparing
+ * the encoded bytes, instead of testing the predicate against every single key.
+ */
+public interface EncodedKeyPredicate
+        extends Predicate<Value> {
+
+    /**
+     * Returns the deterministic encodings of all data items matched by this predicate, in ascending
+     * bytewise lexicographic order.
+     *
+     * @return the encoded data items matched by this predicate
+     */
+    byte[][] encodedKeys();
+
+}
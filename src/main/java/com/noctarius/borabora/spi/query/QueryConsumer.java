@@ -34,6 +34,7 @@ public interface QueryConsumer {
         if (offset == OFFSET_CODE_NULL) {
             value = Value.NULL_VALUE;
         } else {
+            offset = queryContext.resolveStringReference(offset);
             short head = Decoder.readUInt8(input, offset);
             MajorType majorType = MajorType.findMajorType(head);
             ValueType valueType = queryContext.valueType(offset);
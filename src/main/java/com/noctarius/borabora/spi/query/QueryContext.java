@@ -21,6 +21,8 @@ import com.noctarius.borabora.MajorType;
 import com.noctarius.borabora.Value;
 import com.noctarius.borabora.ValueType;
 import com.noctarius.borabora.spi.codec.TagStrategy;
+import com.noctarius.borabora.spi.io.SkipSizeCache;
+import com.noctarius.borabora.spi.metrics.QueryMetrics;
 
 import java.util.List;
 
@@ -46,10 +48,26 @@ public interface QueryContext {
 
     ValueType valueType(long offset);
 
+    default long resolveStringReference(long offset) {
+        return offset;
+    }
+
+    default boolean sortedDictionaryKeys() {
+        return false;
+    }
+
     List<TagStrategy> tagStrategies();
 
     ProjectionStrategy projectionStrategy();
 
     QueryContextFactory queryContextFactory();
 
+    default QueryMetrics queryMetrics() {
+        return null;
+    }
+
+    default SkipSizeCache skipSizeCache() {
+        return null;
+    }
+
 }
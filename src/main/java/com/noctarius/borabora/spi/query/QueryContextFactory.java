@@ -18,6 +18,7 @@ package com.noctarius.borabora.spi.query;
 
 import com.noctarius.borabora.Input;
 import com.noctarius.borabora.spi.codec.TagStrategy;
+import com.noctarius.borabora.spi.metrics.QueryMetrics;
 
 import java.util.List;
 
@@ -26,4 +27,15 @@ public interface QueryContextFactory {
     QueryContext newQueryContext(Input input, QueryConsumer queryConsumer, List<TagStrategy> tagStrategies,
                                  ProjectionStrategy projectionStrategy);
 
+    default QueryContext newQueryContext(Input input, QueryConsumer queryConsumer, List<TagStrategy> tagStrategies,
+                                         ProjectionStrategy projectionStrategy, QueryMetrics queryMetrics) {
+
+        return newQueryContext(input, queryConsumer, tagStrategies, projectionStrategy);
+    }
+
+    default QueryContext newSubQueryContext(QueryContext parentQueryContext, QueryConsumer queryConsumer) {
+        return newQueryContext(parentQueryContext.input(), queryConsumer, parentQueryContext.tagStrategies(),
+                parentQueryContext.projectionStrategy(), parentQueryContext.queryMetrics());
+    }
+
 }
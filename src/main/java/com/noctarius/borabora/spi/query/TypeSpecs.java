@@ -44,6 +44,7 @@ public enum TypeSpecs
     Timstamp("timestamp", SpecializedSemanticTag, Constants.TAG_TIMESTAMP, ValueTypes.Timestamp), //
     URI("uri", SpecializedSemanticTag, Constants.TAG_URI, ValueTypes.URI), //
     EncCBOR("enccbor", SpecializedSemanticTag, Constants.TAG_ENCCBOR, ValueTypes.EncCBOR), //
+    TypedArray("typedarray", SpecializedSemanticTag, ValueTypes.TypedArray), //
     Unknown("unknown", ValueTypes.Unknown), //
     Null("null", ValueTypes.Null);
 
@@ -42,4 +42,14 @@ public interface QueryPipeline {
      */
     String printQueryGraph();
 
+    /**
+     * Returns the root {@link PipelineStage} of the bound pipeline stages tree, or <tt>null</tt>
+     * if the pipeline is not based on a tree of {@link PipelineStage}s.
+     *
+     * @return the root pipeline stage or null
+     */
+    default PipelineStage rootPipelineStage() {
+        return null;
+    }
+
 }
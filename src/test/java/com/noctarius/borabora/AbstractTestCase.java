@@ -70,16 +70,7 @@ public abstract class AbstractTestCase {
     }
 
     public static SimplifiedTestParser buildParser(Consumer<GraphBuilder> test) {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        Output output = Output.toOutputStream(baos);
-
-        Writer writer = Writer.newWriter();
-
-        GraphBuilder graphBuilder = writer.newGraphBuilder(output);
-        test.accept(graphBuilder);
-        graphBuilder.finishStream();
-
-        byte[] bytes = baos.toByteArray();
+        byte[] bytes = encode(test);
         Input input = Input.fromByteArray(bytes);
 
         return new SimplifiedTestParser(Parser.newParser(), input);
@@ -198,6 +189,19 @@ public abstract class AbstractTestCase {
         return asStreamValue(encode(value));
     }
 
+    public static byte[] encode(Consumer<GraphBuilder> test) {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        Output output = Output.toOutputStream(baos);
+
+        Writer writer = Writer.newWriter();
+
+        GraphBuilder graphBuilder = writer.newGraphBuilder(output);
+        test.accept(graphBuilder);
+        graphBuilder.finishStream();
+
+        return baos.toByteArray();
+    }
+
     public static byte[] encode(String value) {
         ByteArrayOutputStream baos = new ByteArrayOutputStream();
         Encoder.putString(value, 0, Output.toOutputStream(baos));
@@ -233,6 +237,14 @@ public abstract class AbstractTestCase {
         public StreamQueryBuilder newQueryBuilder() {
             return parser.newQueryBuilder();
         }
+
+        public Query prepareQuery(String query) {
+            return parser.prepareQuery(query);
+        }
+
+        public ColumnVector[] extractColumns(Query... columns) {
+            return parser.extractColumns(input, columns);
+        }
     }
 
 }
@@ -16,9 +16,13 @@
  */
 package com.noctarius.borabora;
 
+import com.noctarius.borabora.spi.io.CompositeBuffer;
 import org.junit.Test;
+import sun.misc.Unsafe;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 
 public class ByteArrayOutputTestCase {
 
@@ -95,4 +99,91 @@ public class ByteArrayOutputTestCase {
         assertEquals(v[0], data[0]);
     }
 
+    @Test
+    public void test_write_array_at_offset() {
+        byte[] data = new byte[4];
+        ByteArrayOutput output = new ByteArrayOutput(data);
+        long written = output.write(new byte[]{(byte) 1, (byte) 2}, 2, 2);
+        assertEquals(2, written);
+        assertArrayEquals(new byte[]{0, 0, 1, 2}, data);
+    }
+
+    @Test
+    public void test_write_input_from_byte_array() {
+        byte[] data = new byte[4];
+        ByteArrayOutput output = new ByteArrayOutput(data);
+        long written = output.write(Input.fromByteArray(new byte[]{1, 2, 3, 4}), 1, 2, 2);
+        assertEquals(2, written);
+        assertArrayEquals(new byte[]{0, 0, 2, 3}, data);
+    }
+
+    @Test
+    public void test_write_input_structurally_indexed() {
+        Input source = Input.fromByteArray(new byte[]{1, 2, 3, 4});
+        Input input = Input.withStructuralIndex(source);
+        assertSame(source, StructurallyIndexedInput.unwrap(input));
+
+        byte[] data = new byte[4];
+        long written = new ByteArrayOutput(data).write(input, 1, 2, 2);
+        assertEquals(2, written);
+        assertArrayEquals(new byte[]{0, 0, 2, 3}, data);
+    }
+
+    @Test
+    public void test_write_input_from_native() {
+        Unsafe unsafe = UnsafeUtils.getUnsafe();
+        long address = unsafe.allocateMemory(3);
+        try {
+            unsafe.putByte(address, (byte) 1);
+            unsafe.putByte(address + 1, (byte) 2);
+            unsafe.putByte(address + 2, (byte) 3);
+
+            byte[] data = new byte[3];
+            new ByteArrayOutput(data).write(Input.fromNative(address, 3), 1, 0, 2);
+            assertArrayEquals(new byte[]{2, 3, 0}, data);
+        } finally {
+            unsafe.freeMemory(address);
+        }
+    }
+
+    @Test
+    public void test_write_input_chunked() {
+        CompositeBuffer compositeBuffer = CompositeBuffer.newCompositeBuffer(4);
+        byte[] expected = new byte[20000];
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = (byte) i;
+        }
+        compositeBuffer.write(expected, 0, expected.length);
+
+        byte[] data = new byte[expected.length];
+        new ByteArrayOutput(data).write(Input.fromCompositeBuffer(compositeBuffer), 0, 0, expected.length);
+        assertArrayEquals(expected, data);
+    }
+
+    @Test(expected = NoSuchByteException.class)
+    public void test_write_input_outside_of_array() {
+        ByteArrayOutput output = new ByteArrayOutput(new byte[2]);
+        output.write(Input.fromByteArray(new byte[4]), 0, 0, 4);
+    }
+
+    @Test(expected = NoSuchByteException.class)
+    public void test_write_input_outside_of_input() {
+        ByteArrayOutput output = new ByteArrayOutput(new byte[4]);
+        output.write(Input.fromByteArray(new byte[2]), 1, 0, 2);
+    }
+
+    @Test
+    public void test_move_overlapping() {
+        byte[] data = new byte[]{0, 1, 2, 3, 4, 5};
+        ByteArrayOutput output = new ByteArrayOutput(data);
+        output.move(2, 0, 4);
+        assertArrayEquals(new byte[]{2, 3, 4, 5, 4, 5}, data);
+    }
+
+    @Test(expected = NoSuchByteException.class)
+    public void test_move_outside_of_array() {
+        ByteArrayOutput output = new ByteArrayOutput(new byte[4]);
+        output.move(2, 0, 4);
+    }
+
 }
@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2016, Christoph Engelbert (aka noctarius) and
+ * contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.noctarius.borabora;
+
+import com.noctarius.borabora.builder.encoder.GraphBuilder;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigInteger;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ColumnExtractionTestCase
+        extends AbstractTestCase {
+
+    @Test
+    public void test_extract_int_and_string_columns() {
+        SimplifiedTestParser parser = buildParser(gb -> {
+            putRecord(gb, "eu", 10);
+            putRecord(gb, "us", -7);
+            putRecord(gb, "eu", 300000);
+            putRecord(gb, "ap", Long.MAX_VALUE);
+        });
+
+        Query region = parser.prepareQuery("#{'region'}");
+        Query latency = parser.prepareQuery("#{'latency'}");
+        ColumnVector[] columns = parser.extractColumns(region, latency);
+
+        assertEquals(2, columns.length);
+
+        ColumnVector regions = columns[0];
+        assertEquals(ColumnType.String, regions.columnType());
+        assertEquals(4, regions.size());
+        assertArrayEquals(new String[]{"eu", "us", "ap"}, regions.dictionary());
+        assertArrayEquals(new int[]{0, 1, 0, 2}, regions.codes());
+
+        ColumnVector latencies = columns[1];
+        assertEquals(ColumnType.Int, latencies.columnType());
+        assertArrayEquals(new long[]{10, -7, 300000, Long.MAX_VALUE}, latencies.longs());
+        assertArrayEquals(new long[]{0}, latencies.nullBitmap());
+    }
+
+    @Test
+    public void test_extract_string_references() {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        Writer writer = Writer.newBuilder().withStringReferences().build();
+        GraphBuilder graphBuilder = writer.newGraphBuilder(Output.toOutputStream(baos));
+        putRecord(graphBuilder, "north", 1);
+        // The second "north" is encoded as a reference to the first one
+        graphBuilder.putDictionary(2) //
+                    .putEntry().putString("home").putString("north").endEntry() //
+                    .putEntry().putString("region").putString("north").endEntry() //
+                    .endDictionary();
+        graphBuilder.finishStream();
+
+        Parser parser = Parser.newParser();
+        Input input = Input.fromByteArray(baos.toByteArray());
+        ColumnVector region = parser.extractColumns(input, parser.prepareQuery("#{'region'}"))[0];
+
+        assertEquals(ColumnType.String, region.columnType());
+        assertArrayEquals(new String[]{"north"}, region.dictionary());
+        assertArrayEquals(new int[]{0, 0}, region.codes());
+    }
+
+    @Test
+    public void test_extract_float_promotion() {
+        SimplifiedTestParser parser = buildParser(gb -> gb.putNumber(1).putNumber(2.5d).putNumber(3).putNumber(1.5f));
+
+        ColumnVector[] columns = parser.extractColumns(parser.prepareQuery("#"));
+
+        ColumnVector column = columns[0];
+        assertEquals(ColumnType.Float, column.columnType());
+        assertArrayEquals(new double[]{1.0, 2.5, 3.0, 1.5}, column.doubles(), 0.0);
+    }
+
+    @Test
+    public void test_extract_uint64_exceeding_long_range() {
+        BigInteger value = BigInteger.valueOf(Long.MAX_VALUE).add(BigInteger.TEN);
+        SimplifiedTestParser parser = buildParser(gb -> gb.putNumber(1).putNumber(value));
+
+        ColumnVector column = parser.extractColumns(parser.prepareQuery("#"))[0];
+
+        assertEquals(ColumnType.Float, column.columnType());
+        assertArrayEquals(new double[]{1.0, value.doubleValue()}, column.doubles(), 0.0);
+    }
+
+    @Test
+    public void test_extract_nulls_and_missing_values() {
+        SimplifiedTestParser parser = buildParser(gb -> {
+            for (int i = 0; i < 100; i++) {
+                if (i % 3 == 0) {
+                    gb.putDictionary(1).putEntry().putString("other").putNumber(i).endEntry().endDictionary();
+                } else if (i % 3 == 1) {
+                    gb.putDictionary(1).putEntry().putString("latency").putNumber(i).endEntry().endDictionary();
+                } else {
+                    gb.putDictionary(1).putEntry().putString("latency").putValue(null).endEntry().endDictionary();
+                }
+            }
+        });
+
+        ColumnVector column = parser.extractColumns(parser.prepareQuery("#{'latency'}"))[0];
+
+        assertEquals(ColumnType.Int, column.columnType());
+        assertEquals(100, column.size());
+        assertEquals(2, column.nullBitmap().length);
+
+        long[] values = column.longs();
+        for (int i = 0; i < 100; i++) {
+            if (i % 3 == 1) {
+                assertFalse(column.isNull(i));
+                assertEquals(i, values[i]);
+            } else {
+                assertTrue(column.isNull(i));
+                assertEquals(0, values[i]);
+            }
+        }
+    }
+
+    @Test
+    public void test_extract_only_nulls() {
+        SimplifiedTestParser parser = buildParser(gb -> gb.putValue(null).putValue(null));
+
+        ColumnVector column = parser.extractColumns(parser.prepareQuery("#"))[0];
+
+        assertEquals(ColumnType.Null, column.columnType());
+        assertEquals(2, column.size());
+        assertTrue(column.isNull(0));
+        assertTrue(column.isNull(1));
+    }
+
+    @Test
+    public void test_extract_no_columns() {
+        SimplifiedTestParser parser = buildParser(gb -> gb.putNumber(1));
+        assertEquals(0, parser.extractColumns().length);
+    }
+
+    @Test(expected = WrongTypeException.class)
+    public void fail_extract_mixed_string_and_number() {
+        SimplifiedTestParser parser = buildParser(gb -> gb.putString("a").putNumber(1));
+        parser.extractColumns(parser.prepareQuery("#"));
+    }
+
+    @Test(expected = WrongTypeException.class)
+    public void fail_extract_unsupported_type() {
+        SimplifiedTestParser parser = buildParser(gb -> gb.putBoolean(true));
+        parser.extractColumns(parser.prepareQuery("#"));
+    }
+
+    @Test(expected = WrongTypeException.class)
+    public void fail_extract_wrong_column_type_access() {
+        SimplifiedTestParser parser = buildParser(gb -> gb.putNumber(1));
+        parser.extractColumns(parser.prepareQuery("#"))[0].doubles();
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void fail_extract_isnull_out_of_bounds() {
+        SimplifiedTestParser parser = buildParser(gb -> gb.putNumber(1));
+        parser.extractColumns(parser.prepareQuery("#"))[0].isNull(1);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void fail_extract_null_column() {
+        SimplifiedTestParser parser = buildParser(gb -> gb.putNumber(1));
+        parser.extractColumns((Query) null);
+    }
+
+    private static void putRecord(GraphBuilder graphBuilder, String region, long latency) {
+        graphBuilder.putDictionary(2) //
+                    .putEntry().putString("region").putString(region).endEntry() //
+                    .putEntry().putString("latency").putNumber(latency).endEntry() //
+                    .endDictionary();
+    }
+
+}
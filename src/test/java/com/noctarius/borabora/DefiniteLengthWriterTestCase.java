@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2016, Christoph Engelbert (aka noctarius) and
+ * contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.noctarius.borabora;
+
+import com.noctarius.borabora.builder.encoder.DictionaryBuilder;
+import com.noctarius.borabora.builder.encoder.GraphBuilder;
+import com.noctarius.borabora.builder.encoder.SequenceBuilder;
+import com.noctarius.borabora.spi.io.CompositeBuffer;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+import static com.noctarius.borabora.Predicates.matchString;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class DefiniteLengthWriterTestCase
+        extends AbstractTestCase {
+
+    private static final Writer DEFINITE_LENGTH_WRITER = Writer.newBuilder().withDefiniteLengthContainers().build();
+
+    @Test
+    public void test_empty_sequence() {
+        byte[] data = writeCompositeBuffer(sgb -> sgb.putSequence().endSequence());
+        assertArrayEquals(hexToBytes("0x80"), data);
+    }
+
+    @Test
+    public void test_empty_dictionary() {
+        byte[] data = writeCompositeBuffer(sgb -> sgb.putDictionary().endDictionary());
+        assertArrayEquals(hexToBytes("0xa0"), data);
+    }
+
+    @Test
+    public void test_sequence_one_byte_length() {
+        byte[] expected = writeDefinite(sgb -> putSequence(sgb.putSequence(30), 30));
+        byte[] actual = writeCompositeBuffer(sgb -> putSequence(sgb.putSequence(), 30));
+        assertArrayEquals(expected, actual);
+        assertEquals((byte) 0x98, actual[0]);
+    }
+
+    @Test
+    public void test_sequence_two_byte_length_across_chunks() {
+        byte[] expected = writeDefinite(sgb -> putSequence(sgb.putSequence(1000), 1000));
+        byte[] actual = writeCompositeBuffer(sgb -> putSequence(sgb.putSequence(), 1000));
+        assertArrayEquals(expected, actual);
+    }
+
+    @Test
+    public void test_nested_containers_byte_array() {
+        Consumer<GraphBuilder> definite = sgb -> {
+            DictionaryBuilder<GraphBuilder> dictionary = sgb.putDictionary(2);
+            dictionary.putEntry().putString("a").putNumber(1).endEntry();
+            putSequence(dictionary.putEntry().putString("b").putSequence(25), 25).endEntry().endDictionary();
+        };
+        Consumer<GraphBuilder> backpatched = sgb -> {
+            DictionaryBuilder<GraphBuilder> dictionary = sgb.putDictionary();
+            dictionary.putEntry().putString("a").putNumber(1).endEntry();
+            putSequence(dictionary.putEntry().putString("b").putSequence(), 25).endEntry().endDictionary();
+        };
+
+        byte[] expected = writeDefinite(definite);
+        byte[] actual = new byte[expected.length + 18];
+        GraphBuilder graphBuilder = DEFINITE_LENGTH_WRITER.newGraphBuilder(Output.toByteArray(actual));
+        backpatched.accept(graphBuilder.putNumber(1));
+        assertArrayEquals(expected, Arrays.copyOfRange(actual, 1, 1 + expected.length));
+
+        Value value = Parser.newParser().read(Input.fromByteArray(actual), 1);
+        assertEquals(2, value.dictionary().size());
+        assertEquals(25, value.dictionary().get(matchString("b")).sequence().size());
+    }
+
+    @Test
+    public void test_byte_array_sized_to_final_encoding() {
+        Consumer<GraphBuilder> definite = sgb -> {
+            DictionaryBuilder<GraphBuilder> dictionary = sgb.putDictionary(2);
+            putSequence(dictionary.putEntry().putString("a").putSequence(300), 300).endEntry();
+            putSequence(dictionary.putEntry().putString("b").putSequence(25), 25).endEntry().endDictionary();
+        };
+        Consumer<GraphBuilder> backpatched = sgb -> {
+            DictionaryBuilder<GraphBuilder> dictionary = sgb.putDictionary();
+            putSequence(dictionary.putEntry().putString("a").putSequence(), 300).endEntry();
+            putSequence(dictionary.putEntry().putString("b").putSequence(), 25).endEntry().endDictionary();
+        };
+
+        byte[] expected = writeDefinite(definite);
+        byte[] actual = new byte[expected.length];
+        backpatched.accept(DEFINITE_LENGTH_WRITER.newGraphBuilder(Output.toByteArray(actual)));
+        assertArrayEquals(expected, actual);
+    }
+
+    @Test
+    public void test_native_memory() {
+        byte[] expected = writeDefinite(sgb -> putSequence(sgb.putSequence(30), 30));
+        long address = UnsafeUtils.getUnsafe().allocateMemory(expected.length + 9);
+        try {
+            Output output = Output.toNative(address, expected.length + 9);
+            putSequence(DEFINITE_LENGTH_WRITER.newGraphBuilder(output).putSequence(), 30);
+            byte[] actual = new byte[expected.length];
+            for (int i = 0; i < actual.length; i++) {
+                actual[i] = UnsafeUtils.getUnsafe().getByte(address + i);
+            }
+            assertArrayEquals(expected, actual);
+        } finally {
+            UnsafeUtils.getUnsafe().freeMemory(address);
+        }
+    }
+
+    @Test
+    public void test_output_stream_falls_back_to_indefinite() {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        DEFINITE_LENGTH_WRITER.newGraphBuilder(Output.toOutputStream(baos)).putSequence().putNumber(1).endSequence();
+        assertArrayEquals(hexToBytes("0x9f01ff"), baos.toByteArray());
+    }
+
+    private static <B> B putSequence(SequenceBuilder<B> sequence, int elements) {
+        for (int i = 0; i < elements; i++) {
+            sequence.putString("v" + i);
+        }
+        return sequence.endSequence();
+    }
+
+    private static byte[] writeDefinite(Consumer<GraphBuilder> consumer) {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        GraphBuilder graphBuilder = Writer.newWriter().newGraphBuilder(Output.toOutputStream(baos));
+        consumer.accept(graphBuilder);
+        return baos.toByteArray();
+    }
+
+    private static byte[] writeCompositeBuffer(Consumer<GraphBuilder> consumer) {
+        CompositeBuffer compositeBuffer = CompositeBuffer.newCompositeBuffer(64);
+        GraphBuilder graphBuilder = DEFINITE_LENGTH_WRITER.newGraphBuilder(Output.toCompositeBuffer(compositeBuffer));
+        consumer.accept(graphBuilder);
+        return compositeBuffer.toByteArray();
+    }
+
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2016, Christoph Engelbert (aka noctarius) and
+ * contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.noctarius.borabora;
+
+import com.noctarius.borabora.builder.encoder.DictionaryBuilder;
+import com.noctarius.borabora.builder.encoder.GraphBuilder;
+import com.noctarius.borabora.builder.encoder.SequenceBuilder;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigInteger;
+import java.util.function.Consumer;
+
+import static com.noctarius.borabora.Predicates.matchString;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class DeterministicEncodingTestCase
+        extends AbstractTestCase {
+
+    private static final Writer DETERMINISTIC_WRITER = Writer.newBuilder().withDeterministicEncoding().build();
+
+    @Test
+    public void test_shortest_float() {
+        assertArrayEquals(hexToBytes("0xf90000"), write(sgb -> sgb.putNumber(0.0d)));
+        assertArrayEquals(hexToBytes("0xf98000"), write(sgb -> sgb.putNumber(-0.0d)));
+        assertArrayEquals(hexToBytes("0xf93e00"), write(sgb -> sgb.putNumber(1.5d)));
+        assertArrayEquals(hexToBytes("0xf97bff"), write(sgb -> sgb.putNumber(65504.0f)));
+        assertArrayEquals(hexToBytes("0xf90001"), write(sgb -> sgb.putNumber(5.960464477539063e-8d)));
+        assertArrayEquals(hexToBytes("0xfa47c35000"), write(sgb -> sgb.putNumber(100000.0d)));
+        assertArrayEquals(hexToBytes("0xfa3dcccccd"), write(sgb -> sgb.putNumber(0.1f)));
+        assertArrayEquals(hexToBytes("0xfb3ff199999999999a"), write(sgb -> sgb.putNumber(1.1d)));
+    }
+
+    @Test
+    public void test_shortest_float_special_values() {
+        assertArrayEquals(hexToBytes("0xf97c00"), write(sgb -> sgb.putNumber(Double.POSITIVE_INFINITY)));
+        assertArrayEquals(hexToBytes("0xf9fc00"), write(sgb -> sgb.putNumber(Float.NEGATIVE_INFINITY)));
+        assertArrayEquals(hexToBytes("0xf97e00"), write(sgb -> sgb.putNumber(Double.NaN)));
+    }
+
+    @Test
+    public void test_shortest_float_sequences() {
+        assertArrayEquals(hexToBytes("0x83f93c00fa47c35000fb3ff199999999999a"),
+                write(sgb -> sgb.putSequence(new double[]{1.0d, 100000.0d, 1.1d})));
+        assertArrayEquals(hexToBytes("0x82f93e00fa3dcccccd"), write(sgb -> sgb.putSequence(new float[]{1.5f, 0.1f})));
+    }
+
+    @Test
+    public void test_big_integer() {
+        BigInteger twoPow64 = BigInteger.ONE.shiftLeft(64);
+        assertArrayEquals(hexToBytes("0x01"), write(sgb -> sgb.putBigInteger(BigInteger.ONE)));
+        assertArrayEquals(hexToBytes("0x1bffffffffffffffff"), write(sgb -> sgb.putBigInteger(twoPow64.subtract(BigInteger.ONE))));
+        assertArrayEquals(hexToBytes("0xc249010000000000000000"), write(sgb -> sgb.putBigInteger(twoPow64)));
+        assertArrayEquals(hexToBytes("0x3bffffffffffffffff"), write(sgb -> sgb.putBigInteger(twoPow64.negate())));
+        assertArrayEquals(hexToBytes("0xc349010000000000000000"),
+                write(sgb -> sgb.putBigInteger(twoPow64.negate().subtract(BigInteger.ONE))));
+    }
+
+    @Test
+    public void test_big_integer_without_sign_byte() {
+        BigInteger twoPow72 = BigInteger.ONE.shiftLeft(72);
+        assertArrayEquals(hexToBytes("0xc249ffffffffffffffffff"), write(sgb -> sgb.putBigInteger(twoPow72.subtract(BigInteger.ONE))));
+        assertArrayEquals(hexToBytes("0xc249ffffffffffffffffff"), write(sgb -> sgb.putNumber(twoPow72.subtract(BigInteger.ONE))));
+        assertArrayEquals(hexToBytes("0xc349ffffffffffffffffff"), write(sgb -> sgb.putBigInteger(twoPow72.negate())));
+    }
+
+    @Test
+    public void test_big_integer_non_deterministic_keeps_sign_byte() {
+        BigInteger twoPow72 = BigInteger.ONE.shiftLeft(72);
+        Writer writer = Writer.newBuilder().build();
+        assertArrayEquals(hexToBytes("0xc24a00ffffffffffffffffff"),
+                write(writer, sgb -> sgb.putBigInteger(twoPow72.subtract(BigInteger.ONE))));
+        assertArrayEquals(hexToBytes("0xc24a00ffffffffffffffffff"),
+                write(writer, sgb -> sgb.putNumber(twoPow72.subtract(BigInteger.ONE))));
+    }
+
+    @Test
+    public void test_dictionary_keys_sorted() {
+        // RFC 8949, section 4.2.1 key order: 10, 100, -1, "z", "aa", [100], [-1], false
+        byte[] data = write(sgb -> {
+            DictionaryBuilder<GraphBuilder> dictionary = sgb.putDictionary();
+            dictionary.putEntry().putBoolean(false).putNumber(8).endEntry();
+            dictionary.putEntry().putSequence().putNumber(-1).endSequence().putNumber(7).endEntry();
+            dictionary.putEntry().putSequence().putNumber(100).endSequence().putNumber(6).endEntry();
+            dictionary.putEntry().putTextString("aa").putNumber(5).endEntry();
+            dictionary.putEntry().putTextString("z").putNumber(4).endEntry();
+            dictionary.putEntry().putNumber(-1).putNumber(3).endEntry();
+            dictionary.putEntry().putNumber(100).putNumber(2).endEntry();
+            dictionary.putEntry().putNumber(10).putNumber(1).endEntry();
+            dictionary.endDictionary();
+        });
+        assertArrayEquals(hexToBytes("0xa80a011864022003617a046261610581186406812007f408"), data);
+    }
+
+    @Test
+    public void test_nested_dictionaries_sorted() {
+        byte[] data = write(sgb -> {
+            DictionaryBuilder<SequenceBuilder<GraphBuilder>> dictionary = sgb.putSequence().putDictionary(2);
+            dictionary.putEntry().putTextString("b").putNumber(2).endEntry();
+            dictionary.putEntry().putTextString("a").putDictionary() //
+                      .putEntry().putTextString("d").putNumber(4).endEntry() //
+                      .putEntry().putTextString("c").putNumber(3).endEntry() //
+                      .endDictionary().endEntry();
+            dictionary.endDictionary().endSequence();
+        });
+        assertArrayEquals(hexToBytes("0x81a26161a2616303616404616202"), data);
+
+        Value value = Parser.newParser().read(Input.fromByteArray(data), "#(0)");
+        assertEquals(3, value.dictionary().get(matchString("a")).dictionary().get(matchString("c")).number().intValue());
+    }
+
+    @Test
+    public void test_definite_lengths_on_output_stream() {
+        byte[] data = write(sgb -> sgb.putSequence().putNumber(1).putDictionary().endDictionary().endSequence().putNumber(2));
+        assertArrayEquals(hexToBytes("0x8201a002"), data);
+    }
+
+    @Test
+    public void test_indefinite_strings_concatenated() {
+        byte[] data = write(sgb -> sgb.putSequence() //
+                                      .putIndefiniteTextString().putString("ab").putString("c").endIndefiniteString() //
+                                      .putIndefiniteByteString().putByteString(new byte[]{1}).putByteString(new byte[]{2})
+                                      .endIndefiniteByteString() //
+                                      .endSequence());
+        assertArrayEquals(hexToBytes("0x8263616263420102"), data);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void fail_dictionary_duplicate_keys() {
+        write(sgb -> sgb.putDictionary() //
+                        .putEntry().putTextString("a").putNumber(1).endEntry() //
+                        .putEntry().putTextString("a").putNumber(2).endEntry() //
+                        .endDictionary());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void fail_string_references() {
+        Writer.newBuilder().withDeterministicEncoding().withStringReferences().build();
+    }
+
+    private static byte[] write(Consumer<GraphBuilder> consumer) {
+        return write(DETERMINISTIC_WRITER, consumer);
+    }
+
+    private static byte[] write(Writer writer, Consumer<GraphBuilder> consumer) {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        consumer.accept(writer.newGraphBuilder(Output.toOutputStream(baos)));
+        return baos.toByteArray();
+    }
+
+}
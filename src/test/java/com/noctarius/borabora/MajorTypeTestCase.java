@@ -51,6 +51,15 @@ public class MajorTypeTestCase {
         assertEquals(Constants.MT_FLOAT_SIMPLE, MajorType.FloatingPointOrSimple.typeId());
     }
 
+    @Test
+    public void test_find_majortype_all_heads() {
+        for (short head = 0; head < 256; head++) {
+            MajorType majorType = MajorType.findMajorType(head);
+            assertEquals(head >>> 5, majorType.typeId());
+            assertTrue(majorType.match(head));
+        }
+    }
+
     @Test
     public void test_match_majortype_uint() {
         assertTrue(MajorType.UnsignedInteger.match((short) (Constants.MT_UNSINGED_INT << 5)));
@@ -15,12 +15,14 @@
  */
 package com.noctarius.borabora;
 
+import com.noctarius.borabora.spi.io.CompositeBuffer;
 import org.junit.Test;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 
 public class OutputStreamOutputTestCase {
@@ -45,6 +47,31 @@ public class OutputStreamOutputTestCase {
         output.write(new byte[1], 0, 1);
     }
 
+    @Test
+    public void test_write_input_from_byte_array() {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        Output output = Output.toOutputStream(baos);
+        long written = output.write(Input.fromByteArray(new byte[]{1, 2, 3, 4}), 1, 0, 3);
+        assertEquals(3, written);
+        assertArrayEquals(new byte[]{2, 3, 4}, baos.toByteArray());
+    }
+
+    @Test
+    public void test_write_input_from_composite_buffer() {
+        CompositeBuffer compositeBuffer = CompositeBuffer.newCompositeBuffer();
+        compositeBuffer.write(new byte[]{1, 2, 3, 4}, 0, 4);
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        Output.toOutputStream(baos).write(Input.fromCompositeBuffer(compositeBuffer), 2, 0, 2);
+        assertArrayEquals(new byte[]{3, 4}, baos.toByteArray());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void fail_write_input() {
+        Output output = Output.toOutputStream(new ExceptionalOutputStream());
+        output.write(Input.fromByteArray(new byte[1]), 0, 0, 1);
+    }
+
     private static class ExceptionalOutputStream
             extends OutputStream {
 
@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2016, Christoph Engelbert (aka noctarius) and
+ * contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.noctarius.borabora;
+
+import com.noctarius.borabora.builder.query.SortOrder;
+import com.noctarius.borabora.spi.metrics.ParserMetrics;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class QueryIteratorTestCase
+        extends AbstractTestCase {
+
+    @Test
+    public void test_iterator_pulls_one_element_at_a_time() {
+        byte[] bytes = hexToBytes("0x0102030405");
+        long[] maxOffset = new long[1];
+        Input input = trackingInput(bytes, maxOffset);
+
+        Parser parser = Parser.newParser();
+        Iterator<Value> iterator = parser.iterator(input, parser.prepareQuery("$"));
+
+        assertEquals(0, maxOffset[0]);
+        assertTrue(iterator.hasNext());
+        assertEqualsNumber(1, iterator.next().number());
+        assertEquals(0, maxOffset[0]);
+
+        assertEqualsNumber(2, iterator.next().number());
+        assertEquals(1, maxOffset[0]);
+
+        assertEqualsNumber(3, iterator.next().number());
+        assertEqualsNumber(4, iterator.next().number());
+        assertEqualsNumber(5, iterator.next().number());
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    public void test_iterator_dictionary_lookup() {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        Writer.newWriter().newGraphBuilder(Output.toOutputStream(baos)) //
+              .putDictionary(1).putEntry().putString("a").putNumber(1).endEntry().endDictionary() //
+              .putDictionary(1).putEntry().putString("b").putNumber(2).endEntry().endDictionary() //
+              .putDictionary(1).putEntry().putString("a").putNumber(3).endEntry().endDictionary() //
+              .finishStream();
+
+        Parser parser = Parser.newParser();
+        Input input = Input.fromByteArray(baos.toByteArray());
+
+        Query query = parser.prepareQuery("${'a'}");
+        List<Value> multi = parser.stream(input, query).collect(Collectors.toList());
+
+        List<Value> expected = new ArrayList<>();
+        parser.read(input, query, expected::add);
+
+        assertEquals(3, multi.size());
+        assertEqualsNumber(1, multi.get(0).number());
+        assertEquals(Value.NULL_VALUE, multi.get(1));
+        assertEqualsNumber(3, multi.get(2).number());
+
+        assertEquals(expected.size(), multi.size());
+        assertEqualsNumber(expected.get(0).number(), multi.get(0).number());
+        assertEqualsNumber(expected.get(2).number(), multi.get(2).number());
+    }
+
+    @Test
+    public void test_iterator_reports_metrics() {
+        ParserMetrics parserMetrics = new ParserMetrics();
+        Parser parser = Parser.newBuilder().withMetricsCollector(parserMetrics).build();
+        Iterator<Value> iterator = parser.iterator(Input.fromByteArray(hexToBytes("0x010203")), parser.prepareQuery("$"));
+
+        while (iterator.hasNext()) {
+            iterator.next();
+        }
+        assertEquals(1, parserMetrics.queries());
+        assertEquals(3, parserMetrics.streamValues());
+        assertTrue(parserMetrics.bytesRead() >= 3);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void fail_iterator_single_stream_element() {
+        Parser parser = Parser.newParser();
+        parser.iterator(Input.fromByteArray(hexToBytes("0x01")), parser.prepareQuery("#"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void fail_iterator_stream_index() {
+        Parser parser = Parser.newParser();
+        parser.iterator(Input.fromByteArray(hexToBytes("0x01")), parser.prepareQuery("#2"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void fail_iterator_stream_range() {
+        Parser parser = Parser.newParser();
+        parser.iterator(Input.fromByteArray(hexToBytes("0x01")), parser.prepareQuery("$[1:3]"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void fail_iterator_order_by() {
+        Parser parser = Parser.newParser();
+        Query query = parser.newQueryBuilder().orderBy(parser.prepareQuery("#"), SortOrder.Ascending).multiStream().build();
+        parser.iterator(Input.fromByteArray(hexToBytes("0x01")), query);
+    }
+
+    @Test
+    public void test_stream_limit_stops_reading() {
+        byte[] bytes = hexToBytes("0x0102030405");
+        long[] maxOffset = new long[1];
+        Input input = trackingInput(bytes, maxOffset);
+
+        Parser parser = Parser.newParser();
+        List<Value> values = parser.stream(input, parser.prepareQuery("$")).limit(2).collect(Collectors.toList());
+
+        assertEquals(2, values.size());
+        assertEqualsNumber(1, values.get(0).number());
+        assertEqualsNumber(2, values.get(1).number());
+        assertEquals(1, maxOffset[0]);
+    }
+
+    @Test
+    public void test_iterator_empty_input() {
+        Parser parser = Parser.newParser();
+        Iterator<Value> iterator = parser.iterator(Input.fromByteArray(new byte[0]), parser.prepareQuery("$"));
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void fail_iterator_next_without_results() {
+        Parser parser = Parser.newParser();
+        Iterator<Value> iterator = parser.iterator(Input.fromByteArray(hexToBytes("0x01")), parser.prepareQuery("$"));
+        iterator.next();
+        iterator.next();
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void fail_iterator_null_query() {
+        Parser.newParser().iterator(Input.fromByteArray(hexToBytes("0x01")), null);
+    }
+
+    private static Input trackingInput(byte[] bytes, long[] maxOffset) {
+        return new Input() {
+            @Override
+            public byte read(long offset)
+                    throws NoSuchByteException {
+
+                maxOffset[0] = Math.max(maxOffset[0], offset);
+                return bytes[(int) offset];
+            }
+
+            @Override
+            public long read(byte[] array, long offset, int length)
+                    throws NoSuchByteException {
+
+                maxOffset[0] = Math.max(maxOffset[0], offset + length - 1);
+                System.arraycopy(bytes, (int) offset, array, 0, length);
+                return length;
+            }
+
+            @Override
+            public boolean offsetValid(long offset) {
+                return offset >= 0 && offset < bytes.length;
+            }
+        };
+    }
+
+}
@@ -21,6 +21,9 @@ import org.junit.Ignore;
 import org.junit.Test;
 
 import static com.noctarius.borabora.Predicates.matchString;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 public class QueryLanguageAcceptanceTestCase
         extends AbstractTestCase {
@@ -360,6 +363,14 @@ public class QueryLanguageAcceptanceTestCase
         assertQueryEquals(query, parser.prepareQuery("#->uri"));
     }
 
+    @Test
+    public void test_type_check_typedarray() {
+        Query query = parser.newQueryBuilder().requireType(TypeSpecs.TypedArray).build();
+        assertQueryEquals(query, parser.prepareQuery("#->tag$64"));
+        assertQueryEquals(query, parser.prepareQuery("#->tag$86"));
+        assertQueryEquals(query, parser.prepareQuery("#->typedarray"));
+    }
+
     @Test
     public void test_type_check_bool() {
         Query query = parser.newQueryBuilder().requireType(TypeSpecs.Bool).build();
@@ -705,6 +716,53 @@ public class QueryLanguageAcceptanceTestCase
         evaluate(query, "$");
     }
 
+    @Test
+    public void test_match_any_stream_element_skip_limit() {
+        Query query = parser.newQueryBuilder().skip(2).limit(3).multiStream().build();
+        evaluate(query, "$[2:5]");
+
+        query = parser.newQueryBuilder().limit(3).multiStream().dictionary("b").build();
+        evaluate(query, "$[:3]{'b'}");
+
+        query = parser.newQueryBuilder().skip(2).multiStream().build();
+        evaluate(query, "$[2:]");
+
+        query = parser.newQueryBuilder().multiStream().build();
+        evaluate(query, "$[:]");
+    }
+
+    @Test(expected = QueryParserException.class)
+    public void fail_match_any_stream_element_upper_bound_lower_than_lower_bound() {
+        parser.prepareQuery("$[5:2]");
+    }
+
+    @Test
+    public void fail_match_any_stream_element_upper_bound_lower_than_lower_bound_parse_exception() {
+        try {
+            parser.prepareQuery("$[10:5]");
+            fail("QueryParserException expected");
+        } catch (QueryParserException e) {
+            // The generated ParseException is package private to the query parser
+            assertEquals("ParseException", e.getCause().getClass().getSimpleName());
+            assertTrue(e.getCause().getMessage().startsWith("Upper bound 5 must not be lower than lower bound 10"));
+        }
+    }
+
+    @Test(expected = QueryParserException.class)
+    public void fail_match_any_stream_element_index_only() {
+        parser.prepareQuery("$[5]");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void fail_query_negative_limit() {
+        parser.newQueryBuilder().limit(-1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void fail_query_negative_skip() {
+        parser.newQueryBuilder().skip(-1);
+    }
+
     private void evaluate(Query query, String queryString) {
         Query parsedQuery = parser.prepareQuery(queryString);
         assertQueryEquals(query, parsedQuery);
@@ -16,14 +16,21 @@
  */
 package com.noctarius.borabora;
 
+import com.noctarius.borabora.builder.encoder.GraphBuilder;
+import com.noctarius.borabora.builder.query.Aggregation;
+import com.noctarius.borabora.builder.query.SortOrder;
 import org.junit.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.List;
 
 import static com.noctarius.borabora.Value.NULL_VALUE;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 public class QueryTestCase
         extends AbstractTestCase {
@@ -43,6 +50,379 @@ public class QueryTestCase
         assertEquals("foo", values.get(1).string());
     }
 
+    @Test
+    public void test_multistream_limit_stops_reading() {
+        byte[] bytes = hexToBytes("0x0102030405");
+        long[] maxOffset = new long[1];
+        Input input = new Input() {
+            @Override
+            public byte read(long offset)
+                    throws NoSuchByteException {
+
+                maxOffset[0] = Math.max(maxOffset[0], offset);
+                return bytes[(int) offset];
+            }
+
+            @Override
+            public long read(byte[] array, long offset, int length)
+                    throws NoSuchByteException {
+
+                maxOffset[0] = Math.max(maxOffset[0], offset + length - 1);
+                System.arraycopy(bytes, (int) offset, array, 0, length);
+                return length;
+            }
+
+            @Override
+            public boolean offsetValid(long offset) {
+                return offset >= 0 && offset < bytes.length;
+            }
+        };
+
+        Parser parser = Parser.newParser();
+
+        List<Value> values = new ArrayList<>();
+        Query query = parser.newQueryBuilder().limit(2).multiStream().build();
+        parser.read(input, query, values::add);
+
+        assertEquals(2, values.size());
+        assertEqualsNumber(1, values.get(0).number());
+        assertEqualsNumber(2, values.get(1).number());
+        assertEquals(1, maxOffset[0]);
+    }
+
+    @Test
+    public void test_multistream_skip_limit() {
+        SimplifiedTestParser parser = buildParser(gb -> //
+                gb.putNumber(1).putNumber(2).putNumber(3).putNumber(4).putNumber(5));
+
+        List<Value> values = new ArrayList<>();
+        Query query = parser.newQueryBuilder().skip(1).limit(3).multiStream().build();
+        parser.read(query, values::add);
+
+        assertEquals(3, values.size());
+        assertEqualsNumber(2, values.get(0).number());
+        assertEqualsNumber(3, values.get(1).number());
+        assertEqualsNumber(4, values.get(2).number());
+    }
+
+    @Test
+    public void test_multistream_skip_beyond_end() {
+        SimplifiedTestParser parser = buildParser(gb -> gb.putNumber(1).putNumber(2));
+
+        List<Value> values = new ArrayList<>();
+        parser.read("$[5:]", values::add);
+
+        assertEquals(0, values.size());
+    }
+
+    @Test
+    public void test_multistream_limit_single_value_read() {
+        SimplifiedTestParser parser = buildParser(gb -> gb.putNumber(1).putNumber(2).putNumber(3));
+        Value value = parser.read("$[2:]");
+        assertEqualsNumber(3, value.number());
+    }
+
+    @Test
+    public void test_multistream_orderby_descending_top_k() {
+        long[] latencies = {12, 7, 99, 42, 3, 99, 57, 1};
+        SimplifiedTestParser parser = buildParser(gb -> {
+            for (int i = 0; i < latencies.length; i++) {
+                putRecord(gb, i, latencies[i]);
+            }
+        });
+
+        Query sortKeyQuery = parser.newQueryBuilder().dictionary("latency").build();
+
+        List<Value> values = new ArrayList<>();
+        Query query = parser.newQueryBuilder().orderBy(sortKeyQuery, SortOrder.Descending).limit(3).multiStream().build();
+        parser.read(query, values::add);
+
+        assertEquals(3, values.size());
+        assertEqualsNumber(2, values.get(0).dictionary().get(Predicates.matchString("id")).number());
+        assertEqualsNumber(5, values.get(1).dictionary().get(Predicates.matchString("id")).number());
+        assertEqualsNumber(6, values.get(2).dictionary().get(Predicates.matchString("id")).number());
+    }
+
+    @Test
+    public void test_multistream_orderby_ascending_skip() {
+        SimplifiedTestParser parser = buildParser(gb -> //
+                gb.putNumber(5).putNumber(-3).putNumber(2.5d).putNumber(10).putNumber(0));
+
+        Query sortKeyQuery = parser.newQueryBuilder().build();
+
+        List<Value> values = new ArrayList<>();
+        Query query = parser.newQueryBuilder().orderBy(sortKeyQuery, SortOrder.Ascending).skip(1).limit(3).multiStream().build();
+        parser.read(query, values::add);
+
+        assertEquals(3, values.size());
+        assertEqualsNumber(0, values.get(0).number());
+        assertEquals(2.5, values.get(1).number().doubleValue(), 0.0);
+        assertEqualsNumber(5, values.get(2).number());
+    }
+
+    @Test
+    public void test_multistream_orderby_missing_sort_keys_last() {
+        SimplifiedTestParser parser = buildParser(gb -> {
+            putRecord(gb, 0, 10);
+            gb.putDictionary(1).putEntry().putString("id").putNumber(1).endEntry().endDictionary();
+            putRecord(gb, 2, 5);
+        });
+
+        Query sortKeyQuery = parser.newQueryBuilder().dictionary("latency").build();
+
+        List<Value> ascending = new ArrayList<>();
+        parser.read(parser.newQueryBuilder().orderBy(sortKeyQuery, SortOrder.Ascending).multiStream().build(), ascending::add);
+
+        List<Value> descending = new ArrayList<>();
+        parser.read(parser.newQueryBuilder().orderBy(sortKeyQuery, SortOrder.Descending).multiStream().build(), descending::add);
+
+        assertEquals(3, ascending.size());
+        assertEqualsNumber(2, ascending.get(0).dictionary().get(Predicates.matchString("id")).number());
+        assertEqualsNumber(0, ascending.get(1).dictionary().get(Predicates.matchString("id")).number());
+        assertEqualsNumber(1, ascending.get(2).dictionary().get(Predicates.matchString("id")).number());
+
+        assertEquals(3, descending.size());
+        assertEqualsNumber(0, descending.get(0).dictionary().get(Predicates.matchString("id")).number());
+        assertEqualsNumber(2, descending.get(1).dictionary().get(Predicates.matchString("id")).number());
+        assertEqualsNumber(1, descending.get(2).dictionary().get(Predicates.matchString("id")).number());
+    }
+
+    @Test
+    public void test_multistream_orderby_strings_stable() {
+        SimplifiedTestParser parser = buildParser(gb -> //
+                gb.putString("b").putString("a").putString("c").putString("a"));
+
+        Query sortKeyQuery = parser.newQueryBuilder().build();
+
+        List<Value> values = new ArrayList<>();
+        parser.read(parser.newQueryBuilder().orderBy(sortKeyQuery, SortOrder.Ascending).multiStream().build(), values::add);
+
+        assertEquals(4, values.size());
+        assertEquals("a", values.get(0).string());
+        assertEquals("a", values.get(1).string());
+        assertTrue(values.get(0).offset() < values.get(1).offset());
+        assertEquals("b", values.get(2).string());
+        assertEquals("c", values.get(3).string());
+    }
+
+    @Test
+    public void test_multistream_orderby_mixed_width_integers() {
+        BigInteger large = new BigInteger("18446744073709551615");
+        SimplifiedTestParser parser = buildParser(gb -> //
+                gb.putNumber(large).putNumber(-70000).putNumber(300).putNumber(Long.MAX_VALUE).putNumber(-1));
+
+        Query sortKeyQuery = parser.newQueryBuilder().build();
+
+        List<Value> values = new ArrayList<>();
+        parser.read(parser.newQueryBuilder().orderBy(sortKeyQuery, SortOrder.Descending).multiStream().build(), values::add);
+
+        assertEquals(5, values.size());
+        assertEqualsNumber(large, values.get(0).number());
+        assertEqualsNumber(Long.MAX_VALUE, values.get(1).number());
+        assertEqualsNumber(300, values.get(2).number());
+        assertEqualsNumber(-1, values.get(3).number());
+        assertEqualsNumber(-70000, values.get(4).number());
+    }
+
+    @Test
+    public void test_multistream_orderby_booleans() {
+        SimplifiedTestParser parser = buildParser(gb -> //
+                gb.putBoolean(true).putBoolean(false).putBoolean(true));
+
+        Query sortKeyQuery = parser.newQueryBuilder().build();
+
+        List<Value> values = new ArrayList<>();
+        parser.read(parser.newQueryBuilder().orderBy(sortKeyQuery, SortOrder.Ascending).multiStream().build(), values::add);
+
+        assertEquals(3, values.size());
+        assertFalse(values.get(0).bool());
+        assertTrue(values.get(1).bool());
+        assertTrue(values.get(2).bool());
+    }
+
+    @Test(expected = WrongTypeException.class)
+    public void test_multistream_orderby_incomparable_sort_keys() {
+        SimplifiedTestParser parser = buildParser(gb -> gb.putString("a").putNumber(1));
+        Query sortKeyQuery = parser.newQueryBuilder().build();
+        parser.read(parser.newQueryBuilder().orderBy(sortKeyQuery, SortOrder.Ascending).multiStream().build(), (v) -> {
+        });
+    }
+
+    @Test
+    public void test_multistream_groupby_aggregates() {
+        SimplifiedTestParser parser = buildParser(gb -> {
+            putRegionRecord(gb, "eu", 10);
+            putRegionRecord(gb, "us", 7);
+            putRegionRecord(gb, "eu", 30);
+            putRegionRecord(gb, "ap", 5);
+            putRegionRecord(gb, "us", 2);
+            putRegionRecord(gb, "eu", 20);
+        });
+
+        Query latency = parser.newQueryBuilder().dictionary("latency").build();
+        Query region = parser.newQueryBuilder().dictionary("region").build();
+        Query query = parser.newQueryBuilder() //
+                            .groupBy(region, Aggregation.count("count"), Aggregation.sum("sum", latency), //
+                                    Aggregation.min("min", latency), Aggregation.max("max", latency), //
+                                    Aggregation.average("avg", latency)) //
+                            .multiStream().build();
+
+        List<Value> values = new ArrayList<>();
+        parser.read(query, values::add);
+
+        assertEquals(3, values.size());
+        assertGroup(values.get(0), "eu", 3, 60, 10, 30, 20.0);
+        assertGroup(values.get(1), "us", 2, 9, 2, 7, 4.5);
+        assertGroup(values.get(2), "ap", 1, 5, 5, 5, 5.0);
+    }
+
+    @Test
+    public void test_multistream_groupby_object_projection() {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        GraphBuilder graphBuilder = Writer.newWriter().newGraphBuilder(Output.toOutputStream(baos));
+        putRegionRecord(graphBuilder, "eu", 10);
+        putRegionRecord(graphBuilder, "us", 7);
+        putRegionRecord(graphBuilder, "eu", 30);
+        graphBuilder.finishStream();
+
+        Parser parser = Parser.newBuilder().asObjectProjectionStrategy().build();
+        Input input = Input.fromByteArray(baos.toByteArray());
+
+        Query latency = parser.newQueryBuilder().dictionary("latency").build();
+        Query region = parser.newQueryBuilder().dictionary("region").build();
+        Query query = parser.newQueryBuilder() //
+                            .groupBy(region, Aggregation.count("count"), Aggregation.sum("sum", latency), //
+                                    Aggregation.min("min", latency), Aggregation.max("max", latency), //
+                                    Aggregation.average("avg", latency)) //
+                            .multiStream().build();
+
+        List<Value> values = new ArrayList<>();
+        parser.read(input, query, values::add);
+
+        assertEquals(2, values.size());
+        assertGroup(values.get(0), "eu", 2, 40, 10, 30, 20.0);
+        assertGroup(values.get(1), "us", 1, 7, 7, 7, 7.0);
+    }
+
+    @Test
+    public void test_multistream_groupby_mixed_and_missing_values() {
+        SimplifiedTestParser parser = buildParser(gb -> {
+            putRegionRecord(gb, "eu", 10);
+            gb.putDictionary(2) //
+              .putEntry().putString("region").putString("eu").endEntry() //
+              .putEntry().putString("latency").putNumber(2.5d).endEntry() //
+              .endDictionary();
+            gb.putDictionary(1).putEntry().putString("region").putString("us").endEntry().endDictionary();
+            gb.putDictionary(1).putEntry().putString("latency").putNumber(1).endEntry().endDictionary();
+        });
+
+        Query latency = parser.newQueryBuilder().dictionary("latency").build();
+        Query region = parser.newQueryBuilder().dictionary("region").build();
+        Query query = parser.newQueryBuilder() //
+                            .groupBy(region, Aggregation.count("rows"), Aggregation.count("count", latency), //
+                                    Aggregation.sum("sum", latency)) //
+                            .multiStream().build();
+
+        List<Value> values = new ArrayList<>();
+        parser.read(query, values::add);
+
+        assertEquals(3, values.size());
+
+        Dictionary eu = values.get(0).dictionary();
+        assertEquals("eu", eu.get(Predicates.matchString("key")).string());
+        assertEqualsNumber(2, eu.get(Predicates.matchString("rows")).number());
+        assertEqualsNumber(2, eu.get(Predicates.matchString("count")).number());
+        assertEquals(12.5, eu.get(Predicates.matchString("sum")).number().doubleValue(), 0.0);
+
+        Dictionary us = values.get(1).dictionary();
+        assertEquals("us", us.get(Predicates.matchString("key")).string());
+        assertEqualsNumber(1, us.get(Predicates.matchString("rows")).number());
+        assertEqualsNumber(0, us.get(Predicates.matchString("count")).number());
+        assertEquals(ValueTypes.Null, us.get(Predicates.matchString("sum")).valueType());
+
+        Dictionary missing = values.get(2).dictionary();
+        assertEquals(ValueTypes.Null, missing.get(Predicates.matchString("key")).valueType());
+        assertEqualsNumber(1, missing.get(Predicates.matchString("rows")).number());
+        assertEqualsNumber(1, missing.get(Predicates.matchString("sum")).number());
+    }
+
+    @Test
+    public void test_multistream_groupby_string_references() {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        Writer writer = Writer.newBuilder().withStringReferences().build();
+        GraphBuilder graphBuilder = writer.newGraphBuilder(Output.toOutputStream(baos));
+        putRegionRecord(graphBuilder, "north", 10);
+        // The second "north" is encoded as a reference to the first one
+        graphBuilder.putDictionary(2) //
+                    .putEntry().putString("home").putString("north").endEntry() //
+                    .putEntry().putString("region").putString("north").endEntry() //
+                    .endDictionary();
+        graphBuilder.finishStream();
+
+        Parser parser = Parser.newParser();
+        Input input = Input.fromByteArray(baos.toByteArray());
+
+        Query region = parser.newQueryBuilder().dictionary("region").build();
+        Query query = parser.newQueryBuilder().groupBy(region, Aggregation.count("count")).multiStream().build();
+
+        List<Value> values = new ArrayList<>();
+        parser.read(input, query, values::add);
+
+        assertEquals(1, values.size());
+        Dictionary north = values.get(0).dictionary();
+        assertEquals("north", north.get(Predicates.matchString("key")).string());
+        assertEqualsNumber(2, north.get(Predicates.matchString("count")).number());
+    }
+
+    @Test
+    public void test_multistream_groupby_orderby_limit() {
+        SimplifiedTestParser parser = buildParser(gb -> {
+            for (int i = 0; i < 100; i++) {
+                putRegionRecord(gb, "region-" + (i % 10), i);
+            }
+        });
+
+        Query latency = parser.newQueryBuilder().dictionary("latency").build();
+        Query region = parser.newQueryBuilder().dictionary("region").build();
+        Query sum = parser.newQueryBuilder().dictionary("sum").build();
+        Query query = parser.newQueryBuilder() //
+                            .groupBy(region, Aggregation.sum("sum", latency)) //
+                            .orderBy(sum, SortOrder.Descending).limit(2) //
+                            .multiStream().build();
+
+        List<Value> values = new ArrayList<>();
+        parser.read(query, values::add);
+
+        assertEquals(2, values.size());
+        assertEquals("region-9", values.get(0).dictionary().get(Predicates.matchString("key")).string());
+        assertEqualsNumber(540, values.get(0).dictionary().get(Predicates.matchString("sum")).number());
+        assertEquals("region-8", values.get(1).dictionary().get(Predicates.matchString("key")).string());
+        assertEqualsNumber(530, values.get(1).dictionary().get(Predicates.matchString("sum")).number());
+    }
+
+    @Test(expected = WrongTypeException.class)
+    public void test_multistream_groupby_non_numeric_aggregate() {
+        SimplifiedTestParser parser = buildParser(gb -> putRegionRecord(gb, "eu", 1));
+        Query region = parser.newQueryBuilder().dictionary("region").build();
+        Query query = parser.newQueryBuilder().groupBy(region, Aggregation.sum("sum", region)).multiStream().build();
+        parser.read(query, (v) -> {
+        });
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void fail_groupby_duplicate_aggregation_name() {
+        Parser parser = Parser.newParser();
+        Query query = parser.prepareQuery("#{'a'}");
+        parser.newQueryBuilder().groupBy(query, Aggregation.count("a"), Aggregation.sum("a", query));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void fail_groupby_aggregation_name_key() {
+        Parser parser = Parser.newParser();
+        Query query = parser.prepareQuery("#{'a'}");
+        parser.newQueryBuilder().groupBy(query, Aggregation.count("key"));
+    }
+
     @Test(expected = WrongTypeException.class)
     public void test_not_a_dictionary()
             throws Exception {
@@ -77,6 +457,30 @@ public class QueryTestCase
         parser.read(parser.newQueryBuilder().sequence(0).build());
     }
 
+    private static void putRecord(GraphBuilder graphBuilder, long id, long latency) {
+        graphBuilder.putDictionary(2) //
+                    .putEntry().putString("id").putNumber(id).endEntry() //
+                    .putEntry().putString("latency").putNumber(latency).endEntry() //
+                    .endDictionary();
+    }
+
+    private static void putRegionRecord(GraphBuilder graphBuilder, String region, long latency) {
+        graphBuilder.putDictionary(2) //
+                    .putEntry().putString("region").putString(region).endEntry() //
+                    .putEntry().putString("latency").putNumber(latency).endEntry() //
+                    .endDictionary();
+    }
+
+    private static void assertGroup(Value value, String key, long count, long sum, long min, long max, double avg) {
+        Dictionary dictionary = value.dictionary();
+        assertEquals(key, dictionary.get(Predicates.matchString("key")).string());
+        assertEqualsNumber(count, dictionary.get(Predicates.matchString("count")).number());
+        assertEqualsNumber(sum, dictionary.get(Predicates.matchString("sum")).number());
+        assertEqualsNumber(min, dictionary.get(Predicates.matchString("min")).number());
+        assertEqualsNumber(max, dictionary.get(Predicates.matchString("max")).number());
+        assertEquals(avg, dictionary.get(Predicates.matchString("avg")).number().doubleValue(), 0.0);
+    }
+
     @Test
     public void code_coverage_for_unused_but_generated_methods()
             throws Exception {
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2016, Christoph Engelbert (aka noctarius) and
+ * contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.noctarius.borabora;
+
+import com.noctarius.borabora.builder.encoder.DictionaryBuilder;
+import com.noctarius.borabora.builder.encoder.GraphBuilder;
+import com.noctarius.borabora.builder.encoder.SequenceBuilder;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.function.Consumer;
+
+import static com.noctarius.borabora.Predicates.matchInt;
+import static com.noctarius.borabora.Predicates.matchString;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SortedDictionaryKeysTestCase
+        extends AbstractTestCase {
+
+    private static final Parser SORTED_PARSER = Parser.newBuilder().withSortedDictionaryKeys().build();
+
+    @Test
+    public void test_dictionary_get_string_keys() {
+        Input input = Input.fromByteArray(writeDictionary(false));
+        Dictionary dictionary = SORTED_PARSER.read(input, 0).dictionary();
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, dictionary.get(matchString("key" + i)).number().intValue());
+        }
+        assertEquals(-1, dictionary.get(matchString("éclair")).number().intValue());
+        assertNull(dictionary.get(matchString("key100")));
+        assertFalse(dictionary.containsKey(matchString("aaa")));
+    }
+
+    @Test
+    public void test_dictionary_get_text_string_keys() {
+        Input input = Input.fromByteArray(writeDictionary(true));
+        Dictionary dictionary = SORTED_PARSER.read(input, 0).dictionary();
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, dictionary.get(matchString("key" + i)).number().intValue());
+        }
+        assertTrue(dictionary.containsKey(matchString("éclair")));
+        assertNull(dictionary.get(matchString("zzz")));
+    }
+
+    @Test
+    public void test_dictionary_get_int_keys() {
+        Input input = Input.fromByteArray(write(sgb -> {
+            DictionaryBuilder<GraphBuilder> dictionary = sgb.putDictionary();
+            for (int i = 1000; i > -1000; i -= 7) {
+                dictionary.putEntry().putNumber(i).putNumber(i * 2).endEntry();
+            }
+            dictionary.endDictionary();
+        }));
+        Dictionary dictionary = SORTED_PARSER.read(input, 0).dictionary();
+        for (int i = 1000; i > -1000; i -= 7) {
+            assertEquals(i * 2, dictionary.get(matchInt(i)).number().intValue());
+        }
+        assertNull(dictionary.get(matchInt(999)));
+        assertNull(dictionary.get(matchString("key")));
+    }
+
+    @Test
+    public void test_query_string_keys() {
+        Input input = Input.fromByteArray(writeDictionary(false));
+        for (int i = 0; i < 100; i += 9) {
+            assertEquals(i, SORTED_PARSER.read(input, "#{'key" + i + "'}").number().intValue());
+        }
+        assertEquals(-1, SORTED_PARSER.read(input, "#{'éclair'}").number().intValue());
+        assertEquals(Value.NULL_VALUE, SORTED_PARSER.read(input, "#{'key5a'}"));
+    }
+
+    @Test
+    public void test_query_indefinite_dictionary() {
+        Input input = Input.fromByteArray(hexToBytes("0xbf616101616202616303ff"));
+        assertEquals(2, SORTED_PARSER.read(input, "#{'b'}").number().intValue());
+        assertEquals(Value.NULL_VALUE, SORTED_PARSER.read(input, "#{'bb'}"));
+    }
+
+    @Test
+    public void test_unsorted_dictionary_misses_keys() {
+        Input input = Input.fromByteArray(hexToBytes("0xa202010102"));
+        assertEquals(Value.NULL_VALUE, SORTED_PARSER.read(input, "#{1}"));
+        assertNull(SORTED_PARSER.read(input, 0).dictionary().get(matchInt(1)));
+        assertEquals(2, Parser.newParser().read(input, "#{1}").number().intValue());
+    }
+
+    @Test
+    public void test_string_references_fall_back_to_predicates() {
+        Writer writer = Writer.newBuilder().withStringReferences().build();
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        SequenceBuilder<GraphBuilder> sequence = writer.newGraphBuilder(Output.toOutputStream(baos)).putSequence();
+        for (int i = 0; i < 2; i++) {
+            sequence.putDictionary() //
+                    .putEntry().putString("firstname").putString("Jane" + i).endEntry() //
+                    .putEntry().putString("lastname").putString("Doe").endEntry() //
+                    .endDictionary();
+        }
+        sequence.endSequence();
+
+        Input input = Input.fromByteArray(baos.toByteArray());
+        assertEquals("Jane1", SORTED_PARSER.read(input, "#(1){'firstname'}").string());
+        Dictionary dictionary = SORTED_PARSER.read(input, "#(1)").dictionary();
+        assertEquals("Doe", dictionary.get(matchString("lastname")).string());
+    }
+
+    private static byte[] writeDictionary(boolean textStrings) {
+        return write(sgb -> {
+            DictionaryBuilder<GraphBuilder> dictionary = sgb.putDictionary();
+            dictionary.putEntry().putString("éclair").putNumber(-1).endEntry();
+            for (int i = 99; i >= 0; i--) {
+                if (textStrings) {
+                    dictionary.putEntry().putTextString("key" + i).putNumber(i).endEntry();
+                } else {
+                    dictionary.putEntry().putString("key" + i).putNumber(i).endEntry();
+                }
+            }
+            dictionary.endDictionary();
+        });
+    }
+
+    private static byte[] write(Consumer<GraphBuilder> consumer) {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        Writer writer = Writer.newBuilder().withDeterministicEncoding().build();
+        consumer.accept(writer.newGraphBuilder(Output.toOutputStream(baos)));
+        return baos.toByteArray();
+    }
+
+}
@@ -0,0 +1,294 @@
+/*
+ * Copyright (c) 2016, Christoph Engelbert (aka noctarius) and
+ * contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.noctarius.borabora;
+
+import com.noctarius.borabora.builder.encoder.GraphBuilder;
+import com.noctarius.borabora.builder.encoder.SequenceBuilder;
+import com.noctarius.borabora.builder.encoder.semantictag.AsciiStringBuilder;
+import com.noctarius.borabora.builder.query.SortOrder;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static com.noctarius.borabora.spi.builder.TagSupport.semanticTag;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class StringReferenceTestCase
+        extends AbstractTestCase {
+
+    private static final String[] STRINGS = {"1", "222", "333", "4", "555", "666", "777", "888", "999", "aaa", "bbb", "ccc",
+            "ddd", "eee", "fff", "ggg", "hhh", "iii", "jjj", "kkk", "lll", "mmm", "nnn", "ooo", "ppp", "qqq", "rrr", "333",
+            "ssss", "qqq", "rrr", "ssss"};
+
+    private static final String ENCODED_STRINGS = "0xd90100982061316332323263333333613463353535633636366337373763383838633939"
+            + "39636161616362626263636363636464646365656563666666636767676368686863696969636a6a6a636b6b6b636c6c6c636d6d6d636e"
+            + "6e6e636f6f6f637070706371717163727272d819016473737373d8191763727272d8191818";
+
+    private final Parser parser = Parser.newParser();
+
+    @Test
+    public void test_write_string_references() {
+        byte[] data = write(true, sgb -> {
+            SequenceBuilder<GraphBuilder> sequence = sgb.putSequence(STRINGS.length);
+            for (String string : STRINGS) {
+                sequence.putString(string);
+            }
+            sequence.endSequence();
+        });
+        assertArrayEquals(hexToBytes(ENCODED_STRINGS), data);
+    }
+
+    @Test
+    public void test_read_string_references() {
+        Input input = Input.fromByteArray(hexToBytes(ENCODED_STRINGS));
+        for (int i = 0; i < STRINGS.length; i++) {
+            Value value = parser.read(input, "#(" + i + ")");
+            assertEquals(ValueTypes.TextString, value.valueType());
+            assertEquals(STRINGS[i], value.string());
+        }
+
+        Sequence sequence = parser.read(input, "#").sequence();
+        assertEquals(STRINGS.length, sequence.size());
+        assertEquals("ssss", sequence.get(31).string());
+        assertTrue(sequence.contains(Predicates.matchString("qqq")));
+    }
+
+    @Test
+    public void test_dictionary_keys() {
+        Consumer<GraphBuilder> records = sgb -> {
+            SequenceBuilder<GraphBuilder> sequence = sgb.putSequence();
+            for (int i = 0; i < 10; i++) {
+                sequence.putDictionary(3) //
+                        .putEntry().putString("firstname").putString("Jane" + i).endEntry() //
+                        .putEntry().putString("lastname").putString("Doe").endEntry() //
+                        .putEntry().putString("country").putString("Germany").endEntry() //
+                        .endDictionary();
+            }
+            sequence.endSequence();
+        };
+
+        byte[] plain = write(false, records);
+        byte[] data = write(true, records);
+        assertTrue(data.length < plain.length / 2);
+
+        Input input = Input.fromByteArray(data);
+        assertEquals("Jane7", parser.read(input, "#(7){'firstname'}").string());
+        assertEquals("Germany", parser.read(input, "#(9){'country'}").string());
+
+        Dictionary dictionary = parser.read(input, "#(5)").dictionary();
+        assertEquals("Doe", dictionary.get(Predicates.matchString("lastname")).string());
+        assertTrue(dictionary.containsKey(Predicates.matchString("country")));
+    }
+
+    @Test
+    public void test_namespace_per_stream_element() {
+        byte[] data = write(true, sgb -> {
+            for (int i = 0; i < 3; i++) {
+                sgb.putDictionary(2) //
+                   .putEntry().putString("name").putString("item" + i).endEntry() //
+                   .putEntry().putString("kind").putString("name").endEntry() //
+                   .endDictionary();
+            }
+        });
+
+        Input input = Input.fromByteArray(data);
+        assertEquals("item1", parser.read(input, "#1{'name'}").string());
+        assertEquals("name", parser.read(input, "#2{'kind'}").string());
+
+        List<String> names = parser.stream(input, parser.prepareQuery("${'kind'}")) //
+                                   .map(Value::string).collect(Collectors.toList());
+        assertEquals(3, names.size());
+        for (String name : names) {
+            assertEquals("name", name);
+        }
+    }
+
+    @Test
+    public void test_values_read_after_stream_query() {
+        byte[] data = write(true, sgb -> {
+            for (int i = 0; i < 3; i++) {
+                sgb.putDictionary(2) //
+                   .putEntry().putString("region").putString("north" + i).endEntry() //
+                   .putEntry().putString("kind").putString("region").endEntry() //
+                   .endDictionary();
+            }
+        });
+        Input input = Input.fromByteArray(data);
+
+        List<Value> values = new ArrayList<>();
+        parser.read(input, "$", values::add);
+        assertEquals(3, values.size());
+        for (int i = 0; i < values.size(); i++) {
+            Dictionary dictionary = values.get(i).dictionary();
+            assertEquals("north" + i, dictionary.get(Predicates.matchString("region")).string());
+            assertEquals("region", dictionary.get(Predicates.matchString("kind")).string());
+        }
+
+        List<Value> iterated = new ArrayList<>();
+        parser.iterator(input, parser.prepareQuery("$")).forEachRemaining(iterated::add);
+        assertEquals("region", iterated.get(0).dictionary().get(Predicates.matchString("kind")).string());
+
+        List<Value> ordered = new ArrayList<>();
+        Query sortKeyQuery = parser.newQueryBuilder().dictionary("region").build();
+        parser.read(input, parser.newQueryBuilder().orderBy(sortKeyQuery, SortOrder.Descending).multiStream().build(),
+                ordered::add);
+        assertEquals(3, ordered.size());
+        assertEquals("north2", ordered.get(0).dictionary().get(Predicates.matchString("region")).string());
+        assertEquals("region", ordered.get(2).dictionary().get(Predicates.matchString("kind")).string());
+    }
+
+    @Test
+    public void test_sequence_match_skips_string_references() {
+        // 256(["hello", 25(0), "world", "x"])
+        Input input = Input.fromByteArray(hexToBytes("0xd90100846568656c6c6fd8190065776f726c646178"));
+        Query query = parser.newQueryBuilder().stream(0).sequenceMatch(Predicates.matchString("world")).build();
+
+        List<Value> values = new ArrayList<>();
+        parser.read(input, query, values::add);
+        assertEquals(1, values.size());
+        assertEquals("world", values.get(0).string());
+    }
+
+    @Test
+    public void test_embedded_strings_keep_indexes() {
+        URI uri = URI.create("http://www.noctarius.com");
+        Instant instant = Instant.ofEpochSecond(1234567890);
+        byte[] bytes = {1, 2, 3, 4, 5};
+        byte[] data = write(true, sgb -> sgb.putSequence() //
+                                            .putString("first") //
+                                            .putURI(uri) //
+                                            .putDateTime(instant) //
+                                            .putAsciiString("ascii-string") //
+                                            .putByteString(bytes) //
+                                            .putString("http://www.noctarius.com") //
+                                            .putString("first") //
+                                            .putByteString(bytes) //
+                                            .putAsciiString("ascii-string") //
+                                            .endSequence());
+
+        // The URI's text string, "first" and the byte string are referenced
+        assertEquals(3, countStringReferences(data));
+
+        Sequence sequence = parser.read(Input.fromByteArray(data), "#").sequence();
+        assertEquals("first", sequence.get(0).string());
+        assertEquals(uri, sequence.get(1).tag());
+        assertEquals(instant, sequence.get(2).tag());
+        assertEquals("ascii-string", sequence.get(3).string());
+        assertArrayEquals(bytes, sequence.get(4).bytes());
+        assertEquals("http://www.noctarius.com", sequence.get(5).string());
+        assertEquals("first", sequence.get(6).string());
+        assertArrayEquals(bytes, sequence.get(7).bytes());
+        assertEquals("ascii-string", sequence.get(8).string());
+    }
+
+    @Test
+    public void test_tag_builder_strings_keep_indexes() {
+        byte[] data = write(true, sgb -> sgb.putSequence() //
+                                            .putTag(semanticTag(AsciiStringBuilder.class).putAsciiString("tagged").endSemanticTag()) //
+                                            .putString("value") //
+                                            .putString("value") //
+                                            .endSequence());
+
+        Sequence sequence = parser.read(Input.fromByteArray(data), "#").sequence();
+        assertEquals("tagged", sequence.get(0).string());
+        assertEquals("value", sequence.get(1).string());
+        assertEquals("value", sequence.get(2).string());
+        assertEquals(1, countStringReferences(data));
+    }
+
+    @Test
+    public void test_short_strings_are_not_referenced() {
+        byte[] data = write(true, sgb -> sgb.putSequence(3).putString("ab").putString("ab").putString("ab").endSequence());
+        assertArrayEquals(hexToBytes("0xd9010083626162626162626162"), data);
+    }
+
+    @Test
+    public void test_disabled_by_default() {
+        byte[] data = write(false, sgb -> sgb.putSequence(2).putString("abc").putString("abc").endSequence());
+        assertArrayEquals(hexToBytes("0x82d9565343616263d9565343616263"), data);
+        assertEquals(2, parser.read(Input.fromByteArray(data), "#").sequence().size());
+    }
+
+    @Test
+    public void test_nested_namespaces() {
+        // 256(["aaa", 256(["bbb", 25(0)]), 25(0)])
+        Input input = Input.fromByteArray(hexToBytes("0xd901008363616161d901008263626262d81900d81900"));
+        assertEquals("bbb", parser.read(input, "#(1)(1)").string());
+        assertEquals("aaa", parser.read(input, "#(2)").string());
+    }
+
+    @Test
+    public void test_copy_value_with_string_references() {
+        byte[] data = write(true, sgb -> {
+            SequenceBuilder<GraphBuilder> sequence = sgb.putSequence();
+            for (int i = 0; i < 3; i++) {
+                sequence.putDictionary(2) //
+                        .putEntry().putString("firstname").putString("Jane" + i).endEntry() //
+                        .putEntry().putString("lastname").putString("Doe").endEntry() //
+                        .endDictionary();
+            }
+            sequence.endSequence();
+        });
+        Value value = parser.read(Input.fromByteArray(data), "#(2)");
+
+        byte[] copy = write(false, sgb -> sgb.putValue(value));
+        assertEquals(0, countStringReferences(copy));
+
+        Value copied = parser.read(Input.fromByteArray(copy), 0).tag();
+        Dictionary dictionary = copied.dictionary();
+        assertEquals("Jane2", dictionary.get(Predicates.matchString("firstname")).string());
+        assertEquals("Doe", dictionary.get(Predicates.matchString("lastname")).string());
+    }
+
+    @Test(expected = WrongTypeException.class)
+    public void fail_reference_outside_of_namespace() {
+        parser.read(Input.fromByteArray(hexToBytes("0xd81900")), 0);
+    }
+
+    @Test(expected = WrongTypeException.class)
+    public void fail_unassigned_reference() {
+        parser.read(Input.fromByteArray(hexToBytes("0xd9010082626162d81900")), "#(1)").string();
+    }
+
+    private static int countStringReferences(byte[] data) {
+        int count = 0;
+        for (int i = 0; i < data.length - 1; i++) {
+            if (data[i] == (byte) 0xd8 && data[i + 1] == 0x19) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static byte[] write(boolean stringReferences, Consumer<GraphBuilder> consumer) {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        Writer writer = stringReferences ? Writer.newBuilder().withStringReferences().build() : Writer.newWriter();
+        GraphBuilder graphBuilder = writer.newGraphBuilder(Output.toOutputStream(baos));
+        consumer.accept(graphBuilder);
+        graphBuilder.finishStream();
+        return baos.toByteArray();
+    }
+
+}
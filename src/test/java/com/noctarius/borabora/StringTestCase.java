@@ -21,6 +21,7 @@ import org.junit.Test;
 import java.io.ByteArrayOutputStream;
 import java.nio.charset.Charset;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 
 public class StringTestCase
@@ -119,6 +120,56 @@ public class StringTestCase
         assertEquals("efgh", value2.string());
     }
 
+    @Test
+    public void test_write_text_string_single_pass() {
+        for (TestValue<String> testValue : TEXT_STRING_TEST_VALUES.getTestValues()) {
+            String value = testValue.getValue1();
+            // Pure ASCII values are written as tagged ByteStrings
+            if (value.chars().allMatch(c -> c < 0x80)) {
+                continue;
+            }
+            assertArrayEquals(testValue.getValue2(), writeString(value));
+        }
+    }
+
+    @Test
+    public void test_write_long_strings_across_scratch_buffer() {
+        StringBuilder ascii = new StringBuilder();
+        StringBuilder utf8 = new StringBuilder();
+        for (int i = 0; i < 3000; i++) {
+            ascii.append((char) ('a' + (i % 26)));
+            // Mix 1, 2, 3 and 4 byte sequences to hit every flush position
+            utf8.append(i % 4 == 0 ? "a" : i % 4 == 1 ? "\u00fc" : i % 4 == 2 ? "\u6c34" : "\ud800\udd51");
+        }
+        assertRoundtrip(ascii.toString(), ValueTypes.ASCII);
+        assertRoundtrip(utf8.toString(), ValueTypes.TextString);
+    }
+
+    @Test
+    public void test_write_unpaired_surrogate() {
+        String value = "a\ud800b\udd51";
+        byte[] expected = value.getBytes(UTF_8);
+        byte[] data = writeString(value);
+        assertEquals(1 + expected.length, data.length);
+        assertEquals("a?b?", new String(data, 1, expected.length, UTF_8));
+    }
+
+    private void assertRoundtrip(String expected, ValueType valueType) {
+        Input input = Input.fromByteArray(writeString(expected));
+        Parser parser = Parser.newParser();
+        Value value = parser.read(input, parser.newQueryBuilder().build());
+
+        assertEquals(valueType, value.valueType());
+        assertEquals(expected, value.string());
+    }
+
+    private byte[] writeString(String value) {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        Writer writer = Writer.newWriter();
+        writer.newGraphBuilder(Output.toOutputStream(baos)).putString(value).finishStream();
+        return baos.toByteArray();
+    }
+
     private void testString(ValueType valueType, TestValue<String> testValue) {
         Input input = Input.fromByteArray(testValue.getValue2());
         Parser parser = Parser.newParser();
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2016, Christoph Engelbert (aka noctarius) and
+ * contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.noctarius.borabora;
+
+import com.noctarius.borabora.builder.encoder.GraphBuilder;
+import com.noctarius.borabora.builder.encoder.semantictag.TypedArrayBuilder;
+import org.junit.Test;
+
+import java.nio.DoubleBuffer;
+import java.nio.LongBuffer;
+import java.util.function.Consumer;
+
+import static com.noctarius.borabora.spi.builder.TagSupport.semanticTag;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class TypedArrayTestCase
+        extends AbstractTestCase {
+
+    @Test
+    public void test_write_read_long_array() {
+        long[] values = {0, 1, -1, Long.MAX_VALUE, Long.MIN_VALUE, 1234567890123L};
+        Value value = buildParser(sgb -> sgb.putTypedArray(values)).read("#");
+
+        assertEquals(ValueTypes.TypedArray, value.valueType());
+        TypedArray typedArray = value.tag();
+        assertEquals(TypedArrayType.SInt64LE, typedArray.typedArrayType());
+        assertEquals(values.length, typedArray.size());
+        assertArrayEquals(values, typedArray.longs());
+
+        LongBuffer buffer = typedArray.asLongBuffer();
+        assertTrue(buffer.isReadOnly());
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(values[i], buffer.get(i));
+        }
+    }
+
+    @Test
+    public void test_write_read_double_array() {
+        double[] values = new double[300];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i * 0.5d;
+        }
+        TypedArray typedArray = buildParser(sgb -> sgb.putTypedArray(values)).read("#").tag();
+
+        assertEquals(TypedArrayType.Float64LE, typedArray.typedArrayType());
+        assertArrayEquals(values, typedArray.doubles(), 0d);
+        DoubleBuffer buffer = typedArray.asDoubleBuffer();
+        assertEquals(149.5d, buffer.get(299), 0d);
+    }
+
+    @Test
+    public void test_write_read_small_arrays() {
+        TypedArray shorts = buildParser(sgb -> sgb.putTypedArray(new short[]{-2, 300})).read("#").tag();
+        assertEquals(TypedArrayType.SInt16LE, shorts.typedArrayType());
+        assertArrayEquals(new long[]{-2, 300}, shorts.longs());
+
+        TypedArray ints = buildParser(sgb -> sgb.putTypedArray(new int[]{-70000, 70000})).read("#").tag();
+        assertEquals(TypedArrayType.SInt32LE, ints.typedArrayType());
+        assertEquals(-70000, ints.asIntBuffer().get(0));
+
+        TypedArray floats = buildParser(sgb -> sgb.putTypedArray(new float[]{1.5f, -2.25f})).read("#").tag();
+        assertEquals(TypedArrayType.Float32LE, floats.typedArrayType());
+        assertArrayEquals(new double[]{1.5d, -2.25d}, floats.doubles(), 0d);
+    }
+
+    @Test
+    public void test_write_long_array_encoding() {
+        byte[] data = encode(sgb -> sgb.putTypedArray(new long[]{1, 2}));
+        assertArrayEquals(hexToBytes("0xd84f5001000000000000000200000000000000"), data);
+    }
+
+    @Test
+    public void test_read_big_endian_unsigned() {
+        // tag 65 (uint16 BE), bytes(4): 0x0001, 0xffff
+        TypedArray typedArray = buildParser("0xd841440001ffff").read("#").tag();
+        assertEquals(TypedArrayType.UInt16BE, typedArray.typedArrayType());
+        assertArrayEquals(new long[]{1, 65535}, typedArray.longs());
+    }
+
+    @Test
+    public void test_read_uint8_clamped() {
+        TypedArray typedArray = buildParser("0xd8444200ff").read("#").tag();
+        assertEquals(TypedArrayType.UInt8Clamped, typedArray.typedArrayType());
+        assertArrayEquals(new long[]{0, 255}, typedArray.longs());
+    }
+
+    @Test
+    public void test_read_half_precision() {
+        // tag 80 (float16 BE), bytes(4): 1.0, -2.0
+        TypedArray typedArray = buildParser("0xd85044 3c00c000".replace(" ", "")).read("#").tag();
+        assertArrayEquals(new double[]{1.0d, -2.0d}, typedArray.doubles(), 0d);
+    }
+
+    @Test
+    public void test_read_indefinite_bytestring() {
+        TypedArray typedArray = buildParser("0xd8485f41ff4101ff").read("#").tag();
+        assertEquals(TypedArrayType.SInt8, typedArray.typedArrayType());
+        assertArrayEquals(new long[]{-1, 1}, typedArray.longs());
+    }
+
+    @Test
+    public void test_reserved_tag_is_unknown() {
+        Value value = buildParser("0xd84c4101").read("#");
+        assertEquals(ValueTypes.Unknown, value.valueType());
+    }
+
+    @Test(expected = WrongTypeException.class)
+    public void fail_double_view_on_long_array() {
+        TypedArray typedArray = buildParser(sgb -> sgb.putTypedArray(new long[]{1})).read("#").tag();
+        typedArray.asDoubleBuffer();
+    }
+
+    @Test(expected = WrongTypeException.class)
+    public void fail_longs_on_float_array() {
+        TypedArray typedArray = buildParser(sgb -> sgb.putTypedArray(new float[]{1f})).read("#").tag();
+        typedArray.longs();
+    }
+
+    @Test
+    public void test_tag_builder_and_reencode() {
+        long[] values = {5, 6, 7};
+        Consumer<GraphBuilder> tagBuilder = //
+                sgb -> sgb.putTag(semanticTag(TypedArrayBuilder.class).putTypedArray(values).endSemanticTag());
+        byte[] data = encode(tagBuilder);
+        assertArrayEquals(encode(sgb -> sgb.putTypedArray(values)), data);
+
+        Value value = buildParser(tagBuilder).read("#");
+        assertArrayEquals(data, encode(sgb -> sgb.putTag(value.<TypedArray>tag())));
+    }
+
+    @Test
+    public void test_write_null() {
+        Value value = buildParser(sgb -> sgb.putTypedArray((long[]) null)).read("#");
+        assertNull(value.tag());
+    }
+
+    @Test
+    public void test_query_type_match() {
+        SimplifiedTestParser parser = buildParser(sgb -> sgb.putTypedArray(new int[]{1}));
+        assertEquals(ValueTypes.TypedArray, parser.read("#->typedarray").valueType());
+        assertEquals(ValueTypes.TypedArray, parser.read("#->tag$78").valueType());
+    }
+
+}
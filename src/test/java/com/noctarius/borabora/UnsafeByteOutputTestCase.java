@@ -88,6 +88,35 @@ public class UnsafeByteOutputTestCase {
         assertEquals(v[0], actual);
     }
 
+    @Test
+    public void test_write_input_from_byte_array() {
+        long address = allocate(2);
+        UnsafeByteOutput output = new UnsafeByteOutput(address, 2);
+        long written = output.write(Input.fromByteArray(new byte[]{1, 2, 3}), 1, 0, 2);
+        assertEquals(2, written);
+        assertEquals((byte) 2, UNSAFE.getByte(address));
+        assertEquals((byte) 3, UNSAFE.getByte(address + 1));
+    }
+
+    @Test
+    public void test_write_input_from_native() {
+        long source = allocate(2);
+        UNSAFE.putByte(source, (byte) 1);
+        UNSAFE.putByte(source + 1, (byte) 2);
+
+        long address = allocate(3);
+        UnsafeByteOutput output = new UnsafeByteOutput(address, 3);
+        output.write(Input.fromNative(source, 2), 0, 1, 2);
+        assertEquals((byte) 1, UNSAFE.getByte(address + 1));
+        assertEquals((byte) 2, UNSAFE.getByte(address + 2));
+    }
+
+    @Test(expected = NoSuchByteException.class)
+    public void test_write_input_outside_of_writable_data() {
+        UnsafeByteOutput output = new UnsafeByteOutput(0, 1);
+        output.write(Input.fromByteArray(new byte[2]), 0, 0, 2);
+    }
+
     private long allocate(long size) {
         return UNSAFE.allocateMemory(size);
     }
@@ -38,6 +38,31 @@ import static org.junit.Assert.assertNull;
 public class ValueTypesTestCase
         extends AbstractTestCase {
 
+    @Test
+    public void test_valuetype_all_heads() {
+        ValueTypes[] expected = {ValueTypes.UInt, ValueTypes.NInt, ValueTypes.ByteString, ValueTypes.TextString,
+                                 ValueTypes.Sequence, ValueTypes.Dictionary, ValueTypes.Unknown, ValueTypes.Float};
+
+        for (int head = 0; head < 256; head++) {
+            Input input = Input.fromByteArray(new byte[]{(byte) head});
+            ValueTypes valueType = ValueTypes.valueType(input, 0);
+            switch (head) {
+                case 0xf4:
+                case 0xf5:
+                    assertEquals(ValueTypes.Bool, valueType);
+                    break;
+                case 0xf6:
+                    assertEquals(ValueTypes.Null, valueType);
+                    break;
+                case 0xf7:
+                    assertEquals(ValueTypes.Undefined, valueType);
+                    break;
+                default:
+                    assertEquals(expected[head >>> 5], valueType);
+            }
+        }
+    }
+
     @Test
     public void test_value_number() {
         Value value = asStreamValue(gb -> gb.putNumber(Byte.MAX_VALUE).finishStream());
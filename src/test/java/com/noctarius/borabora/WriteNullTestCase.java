@@ -38,7 +38,7 @@ public class WriteNullTestCase
     public static Collection<Object[]> suppliers() {
         return Arrays.asList(new Object[][]{{"biginteger", consumer(gb -> gb.putBigInteger(null))}, //
                                             {"boolean", consumer(gb -> gb.putBoolean(null))}, //
-                                            {"bytestring", consumer(gb -> gb.putByteString(null))}, //
+                                            {"bytestring", consumer(gb -> gb.putByteString((byte[]) null))}, //
                                             {"datetime_date", consumer(gb -> gb.putDateTime((Date) null))}, //
                                             {"datetime_instant", consumer(gb -> gb.putDateTime((Instant) null))}, //
                                             {"halffloat", consumer(gb -> gb.putHalfPrecision(null))}, //
@@ -23,19 +23,24 @@ import com.noctarius.borabora.builder.encoder.ValueBuilder;
 import com.noctarius.borabora.spi.io.Constants;
 import org.junit.Test;
 
+import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.net.URI;
+import java.nio.ByteBuffer;
 import java.sql.Timestamp;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 import java.util.function.Function;
 
 import static com.noctarius.borabora.Predicates.matchString;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
@@ -709,6 +714,23 @@ public class WriterTestCase
         assertEquals("foo", value1.string());
     }
 
+    @Test
+    public void test_write_putvalue_stream_value()
+            throws Exception {
+
+        byte[] source = hexToBytes("0x82a1616101a16162820203");
+        Value value = Parser.newParser().read(Input.fromByteArray(source), "#(1)");
+
+        // Values are embedded as encoded CBOR data items (semantic tag 24)
+        byte[] data = new byte[10];
+        Writer.newWriter().newGraphBuilder(Output.toByteArray(data)).putSequence(1).putValue(value).endSequence().finishStream();
+        assertArrayEquals(hexToBytes("0x81d818a16162820203"), Arrays.copyOf(data, 9));
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        Writer.newWriter().newGraphBuilder(Output.toOutputStream(baos)).putValue(value).finishStream();
+        assertArrayEquals(hexToBytes("0xd818a16162820203"), baos.toByteArray());
+    }
+
     @Test
     public void test_write_puttag_null()
             throws Exception {
@@ -1023,4 +1045,103 @@ public class WriterTestCase
         assertEquals(expected, value1.tag());
     }
 
+    @Test
+    public void test_write_bulk_long_sequence() {
+        long[] values = new long[1000];
+        for (int i = 0; i < values.length; i++) {
+            long magnitude = 1L << (i % 64);
+            values[i] = i % 2 == 0 ? magnitude : -magnitude;
+        }
+        byte[] expected = writeBytes(sgb -> {
+            SequenceBuilder<GraphBuilder> sequence = sgb.putSequence(values.length);
+            for (long value : values) {
+                sequence.putNumber(value);
+            }
+            sequence.endSequence();
+        });
+        assertArrayEquals(expected, writeBytes(sgb -> sgb.putSequence(values)));
+    }
+
+    @Test
+    public void test_write_bulk_int_sequence() {
+        int[] values = new int[]{0, 23, 24, 255, 256, 65535, 65536, Integer.MAX_VALUE, -1, -24, -25, Integer.MIN_VALUE};
+        byte[] expected = writeBytes(sgb -> {
+            SequenceBuilder<GraphBuilder> sequence = sgb.putSequence(values.length);
+            for (int value : values) {
+                sequence.putNumber(value);
+            }
+            sequence.endSequence();
+        });
+        assertArrayEquals(expected, writeBytes(sgb -> sgb.putSequence(values)));
+    }
+
+    @Test
+    public void test_write_bulk_double_sequence() {
+        double[] values = new double[500];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i * 1.5d;
+        }
+        byte[] expected = writeBytes(sgb -> {
+            SequenceBuilder<GraphBuilder> sequence = sgb.putSequence(values.length);
+            for (double value : values) {
+                sequence.putNumber(value);
+            }
+            sequence.endSequence();
+        });
+        assertArrayEquals(expected, writeBytes(sgb -> sgb.putSequence(values)));
+    }
+
+    @Test
+    public void test_write_bulk_float_sequence() {
+        float[] values = new float[500];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i * -0.25f;
+        }
+        byte[] expected = writeBytes(sgb -> {
+            SequenceBuilder<GraphBuilder> sequence = sgb.putSequence(values.length);
+            for (float value : values) {
+                sequence.putNumber(value);
+            }
+            sequence.endSequence();
+        });
+        assertArrayEquals(expected, writeBytes(sgb -> sgb.putSequence(values)));
+
+        Value value = Parser.newParser().read(Input.fromByteArray(writeBytes(sgb -> sgb.putSequence(values))), 0);
+        assertEquals(-124.75f, value.sequence().get(499).number().floatValue(), 0f);
+    }
+
+    @Test
+    public void test_write_bulk_null_sequence() {
+        assertArrayEquals(hexToBytes("0xf6"), writeBytes(sgb -> sgb.putSequence((long[]) null)));
+    }
+
+    @Test
+    public void test_write_bytebuffer() {
+        byte[] data = new byte[3000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+        byte[] expected = writeBytes(sgb -> sgb.putByteString(data));
+
+        ByteBuffer heap = ByteBuffer.wrap(data);
+        assertArrayEquals(expected, writeBytes(sgb -> sgb.putByteString(heap)));
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(data.length + 10);
+        direct.position(10);
+        direct.put(data);
+        direct.position(10);
+        assertArrayEquals(expected, writeBytes(sgb -> sgb.putByteString(direct)));
+        assertEquals(10, direct.position());
+
+        ByteBuffer slice = ByteBuffer.wrap(new byte[data.length + 5], 5, data.length).slice();
+        slice.put(data).flip();
+        assertArrayEquals(expected, writeBytes(sgb -> sgb.putByteString(slice)));
+    }
+
+    private static byte[] writeBytes(Consumer<GraphBuilder> consumer) {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        consumer.accept(Writer.newWriter().newGraphBuilder(Output.toOutputStream(baos)));
+        return baos.toByteArray();
+    }
+
 }
@@ -21,10 +21,12 @@ import com.noctarius.borabora.Input;
 import com.noctarius.borabora.MajorType;
 import com.noctarius.borabora.Output;
 import com.noctarius.borabora.spi.io.ByteSizes;
+import com.noctarius.borabora.spi.io.Decoder;
 import com.noctarius.borabora.spi.io.Encoder;
 import org.junit.Test;
 
 import java.io.ByteArrayOutputStream;
+import java.util.Random;
 
 import static org.junit.Assert.assertEquals;
 
@@ -300,6 +302,178 @@ public class ByteSizesTestCase
         ByteSizes.floatOrSimpleByteSize(input, 0);
     }
 
+    @Test
+    public void test_headbytesize_all_heads() {
+        for (int head = 0; head < 256; head++) {
+            int addInfo = head & 0x1f;
+            if (addInfo >= 28 && addInfo <= 30) {
+                continue;
+            }
+            Input input = Input.fromByteArray(new byte[]{(byte) head});
+            assertEquals(ByteSizes.headByteSize(input, 0), ByteSizes.headByteSize((short) head));
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void fail_headbytesize_unassigned() {
+        ByteSizes.headByteSize((short) 0x1c);
+    }
+
+    @Test
+    public void test_fixedbytesize_all_heads() {
+        for (int head = 0; head < 256; head++) {
+            int fixedByteSize = ByteSizes.fixedByteSize((short) head);
+            if (fixedByteSize == -1) {
+                continue;
+            }
+            byte[] data = new byte[32];
+            data[0] = (byte) head;
+            Input input = Input.fromByteArray(data);
+            MajorType majorType = MajorType.findMajorType((short) head);
+            assertEquals(ByteSizes.byteSizeByMajorType(majorType, input, 0), fixedByteSize);
+        }
+    }
+
+    @Test
+    public void test_fixedbytesize_variable_sized() {
+        assertEquals(-1, ByteSizes.fixedByteSize((short) 0x78)); // text string, one byte length
+        assertEquals(-1, ByteSizes.fixedByteSize((short) 0x81)); // sequence of one element
+        assertEquals(-1, ByteSizes.fixedByteSize((short) 0x9f)); // indefinite sequence
+        assertEquals(-1, ByteSizes.fixedByteSize((short) 0xc1)); // semantic tag
+        assertEquals(-1, ByteSizes.fixedByteSize((short) 0xfc)); // unassigned
+        assertEquals(-1, ByteSizes.fixedByteSize((short) 0xff)); // break code
+    }
+
+    @Test
+    public void test_bulkskip_sequence_small_integers() {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        writeHead(baos, 0x80, 1000);
+        for (int i = 0; i < 1000; i++) {
+            baos.write(i % 2 == 0 ? i % 24 : 0x20 | (i % 24));
+        }
+        assertByteSize(baos.toByteArray(), 0);
+    }
+
+    @Test
+    public void test_bulkskip_sequence_fixed_size_scalars() {
+        Random random = new Random(1234);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        writeHead(baos, 0x80, 500);
+        for (int i = 0; i < 500; i++) {
+            writeFixedSizeScalar(baos, random);
+        }
+        assertByteSize(baos.toByteArray(), 0);
+    }
+
+    @Test
+    public void test_bulkskip_sequence_mixed_elements() {
+        Random random = new Random(4321);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        writeHead(baos, 0x80, 300);
+        for (int i = 0; i < 300; i++) {
+            if (i % 17 == 0) {
+                // Nested [1, "ab"]
+                baos.write(0x82);
+                baos.write(0x01);
+                baos.write(0x62);
+                baos.write('a');
+                baos.write('b');
+            } else if (i % 23 == 0) {
+                // Text string with a one byte length field
+                writeHead(baos, 0x60, 30);
+                for (int j = 0; j < 30; j++) {
+                    baos.write('x');
+                }
+            } else if (i % 29 == 0) {
+                // 1(1363896240)
+                baos.write(0xc1);
+                baos.write(0x1a);
+                writeBytes(baos, 4);
+            } else {
+                writeFixedSizeScalar(baos, random);
+            }
+        }
+        assertByteSize(baos.toByteArray(), 0);
+    }
+
+    @Test
+    public void test_bulkskip_dictionary_fixed_size_scalars() {
+        Random random = new Random(5678);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        writeHead(baos, 0xa0, 100);
+        for (int i = 0; i < 200; i++) {
+            writeFixedSizeScalar(baos, random);
+        }
+        assertByteSize(baos.toByteArray(), 0);
+    }
+
+    @Test
+    public void test_bulkskip_nested_sequence_followed_by_data() {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        baos.write(0x82);
+        writeHead(baos, 0x80, 40);
+        for (int i = 0; i < 40; i++) {
+            baos.write(i % 24);
+        }
+        // Trailing bytes look like small integers and must not be counted
+        for (int i = 0; i < 64; i++) {
+            baos.write(0x01);
+        }
+        byte[] data = baos.toByteArray();
+        Input input = Input.fromByteArray(data);
+        assertEquals(42, ByteSizes.sequenceByteSize(input, 1));
+    }
+
+    @Test
+    public void test_bulkskip_sequence_at_end_of_input() {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        writeHead(baos, 0x80, 20);
+        for (int i = 0; i < 20; i++) {
+            baos.write(0x18);
+            baos.write(200);
+        }
+        assertByteSize(baos.toByteArray(), 0);
+    }
+
+    @Test
+    public void test_bulkskip_indefinite_sequence_fixed_size_scalars() {
+        Random random = new Random(8765);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        baos.write(0x9f);
+        for (int i = 0; i < 100; i++) {
+            writeFixedSizeScalar(baos, random);
+        }
+        baos.write(0xff);
+        assertByteSize(baos.toByteArray(), 0);
+    }
+
+    @Test
+    public void test_bulkskip_variable_size_elements_not_windowed() {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        writeHead(baos, 0x80, 40);
+        for (int i = 0; i < 40; i++) {
+            writeHead(baos, 0x60, 30);
+            writeBytes(baos, 30);
+        }
+        byte[] data = baos.toByteArray();
+        BulkReadCountingInput input = new BulkReadCountingInput(data);
+        assertEquals(data.length, Decoder.length(input, MajorType.Sequence, 0));
+        assertEquals(0, input.bulkReads);
+    }
+
+    @Test
+    public void test_bulkskip_fixed_size_elements_windowed() {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        writeHead(baos, 0x80, 200);
+        for (int i = 0; i < 200; i++) {
+            baos.write(i % 24);
+        }
+        byte[] data = baos.toByteArray();
+        BulkReadCountingInput input = new BulkReadCountingInput(data);
+        assertEquals(data.length, Decoder.length(input, MajorType.Sequence, 0));
+        assertEquals(3, input.bulkReads);
+    }
+
     private Input input(MajorType majorType) {
         ByteArrayOutputStream baos = new ByteArrayOutputStream();
         Output output = Output.toOutputStream(baos);
@@ -314,4 +488,93 @@ public class ByteSizesTestCase
         }
         return Input.fromByteArray(baos.toByteArray());
     }
+
+    private static void assertByteSize(byte[] data, long offset) {
+        Input input = Input.fromByteArray(data);
+        assertEquals(data.length - offset, Decoder.length(input, Decoder.getMajorType(offset, input), offset));
+    }
+
+    private static void writeFixedSizeScalar(ByteArrayOutputStream baos, Random random) {
+        switch (random.nextInt(9)) {
+            case 0:
+                baos.write(random.nextInt(24));
+                break;
+            case 1:
+                baos.write(0x20 | random.nextInt(24));
+                break;
+            case 2:
+                baos.write(0x18);
+                writeBytes(baos, 1);
+                break;
+            case 3:
+                baos.write(0x39);
+                writeBytes(baos, 2);
+                break;
+            case 4:
+                baos.write(0x1a);
+                writeBytes(baos, 4);
+                break;
+            case 5:
+                baos.write(0x1b);
+                writeBytes(baos, 8);
+                break;
+            case 6:
+                baos.write(0xf9);
+                writeBytes(baos, 2);
+                break;
+            case 7:
+                baos.write(0xfb);
+                writeBytes(baos, 8);
+                break;
+            default:
+                baos.write(0xf4 + random.nextInt(4));
+        }
+    }
+
+    private static void writeHead(ByteArrayOutputStream baos, int majorType, int length) {
+        if (length < 24) {
+            baos.write(majorType | length);
+        } else if (length < 256) {
+            baos.write(majorType | 24);
+            baos.write(length);
+        } else {
+            baos.write(majorType | 25);
+            baos.write(length >>> 8);
+            baos.write(length);
+        }
+    }
+
+    private static void writeBytes(ByteArrayOutputStream baos, int count) {
+        for (int i = 0; i < count; i++) {
+            baos.write(0x5a);
+        }
+    }
+
+    private static class BulkReadCountingInput
+            implements Input {
+
+        private final Input input;
+        private int bulkReads;
+
+        private BulkReadCountingInput(byte[] data) {
+            this.input = Input.fromByteArray(data);
+        }
+
+        @Override
+        public byte read(long offset) {
+            return input.read(offset);
+        }
+
+        @Override
+        public long read(byte[] bytes, long offset, int length) {
+            bulkReads++;
+            return input.read(bytes, offset, length);
+        }
+
+        @Override
+        public boolean offsetValid(long offset) {
+            return input.offsetValid(offset);
+        }
+    }
+
 }
@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2016, Christoph Engelbert (aka noctarius) and
+ * contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.noctarius.borabora.impl.query;
+
+import com.noctarius.borabora.AbstractTestCase;
+import com.noctarius.borabora.Input;
+import com.noctarius.borabora.Parser;
+import com.noctarius.borabora.ProfiledQuery;
+import com.noctarius.borabora.Query;
+import com.noctarius.borabora.Value;
+import com.noctarius.borabora.impl.query.stages.BaseQueryStage;
+import com.noctarius.borabora.spi.query.QueryContext;
+import com.noctarius.borabora.spi.query.pipeline.PipelineStage;
+import com.noctarius.borabora.spi.query.pipeline.QueryPipeline;
+import com.noctarius.borabora.spi.query.pipeline.QueryStage;
+import com.noctarius.borabora.spi.query.pipeline.VisitResult;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ProfiledQueryTestCase
+        extends AbstractTestCase {
+
+    // 1, 2, {"a": 1, "b": [1, 2, 3]}
+    private static final byte[] DATA = hexToBytes("0102a2616101616283010203");
+
+    @Test
+    public void test_profiled_query_results() {
+        Parser parser = Parser.newParser();
+        Query query = parser.prepareQuery("#2{'b'}(1)");
+        ProfiledQuery profiledQuery = query.profile();
+        Input input = Input.fromByteArray(DATA);
+
+        assertEquals(parser.read(input, query).number(), parser.read(input, profiledQuery).number());
+        assertSame(profiledQuery, profiledQuery.profile());
+    }
+
+    @Test
+    public void test_explain_analyze() {
+        Parser parser = Parser.newParser();
+        ProfiledQuery profiledQuery = parser.prepareQuery("#2{'b'}(1)").profile();
+        Input input = Input.fromByteArray(DATA);
+        for (int i = 0; i < 5; i++) {
+            parser.read(input, profiledQuery);
+        }
+
+        String[] lines = profiledQuery.explainAnalyze().split("\n");
+        assertEquals(5, lines.length);
+        assertTrue(lines[0].startsWith("QUERY_BASE [invocations=5, time="));
+        assertTrue(lines[1].contains("STREAM_INDEX[ 2 ] [invocations=5, time="));
+        assertTrue(lines[2].contains("DIC_LOOKUP["));
+        assertTrue(lines[3].contains("SEQ_INDEX[ 1 ] [invocations=5, time="));
+        assertTrue(lines[4].contains("CONSUME [invocations=5, time="));
+        for (String line : lines) {
+            assertTrue(line.endsWith(", Break=5]"));
+        }
+    }
+
+    @Test
+    public void test_profile_stage_statistics() {
+        Parser parser = Parser.newParser();
+        ProfiledQuery profiledQuery = parser.prepareQuery("#2{'b'}(1)").profile();
+        Input input = Input.fromByteArray(DATA);
+        parser.read(input, profiledQuery);
+        parser.read(input, profiledQuery);
+
+        ProfilingPipelineStage root = rootPipelineStage(profiledQuery);
+        ProfilingPipelineStage streamIndex = (ProfilingPipelineStage) root.left();
+        ProfilingPipelineStage dictionaryLookup = (ProfilingPipelineStage) streamIndex.left();
+
+        assertEquals(2, root.invocations());
+        assertEquals(2, root.visitResults(VisitResult.Break));
+        assertEquals(0, root.visitResults(VisitResult.Continue));
+        // Two stream elements skipped per execution
+        assertEquals(4, streamIndex.skips() - dictionaryLookup.skips());
+        assertTrue(streamIndex.bytesRead() > dictionaryLookup.bytesRead());
+        assertTrue(root.nanos() >= streamIndex.nanos());
+        assertTrue(root.selfNanos() <= root.nanos());
+
+        profiledQuery.resetProfile();
+        assertEquals(0, root.invocations());
+        assertEquals(0, dictionaryLookup.invocations());
+        assertEquals(0, dictionaryLookup.skips());
+        assertEquals(0, root.visitResults(VisitResult.Break));
+    }
+
+    @Test
+    public void test_profile_extract_columns() {
+        Parser parser = Parser.newParser();
+        ProfiledQuery profiledQuery = parser.prepareQuery("#{'a'}").profile();
+        parser.extractColumns(Input.fromByteArray(hexToBytes("a161610aa1616114")), profiledQuery);
+
+        ProfilingPipelineStage root = rootPipelineStage(profiledQuery);
+        assertEquals(2, root.invocations());
+        assertTrue(root.bytesRead() > 0);
+    }
+
+    @Test
+    public void test_profile_custom_query_pipeline() {
+        QueryPipeline queryPipeline = new QueryPipeline() {
+            @Override
+            public void evaluate(QueryContext queryContext) {
+                queryContext.consume(0);
+            }
+
+            @Override
+            public String printQueryGraph() {
+                return "";
+            }
+        };
+        ProfiledQuery profiledQuery = new QueryImpl(queryPipeline).profile();
+        Value value = Parser.newParser().read(Input.fromByteArray(DATA), profiledQuery);
+        assertEqualsNumber(1, value.number());
+
+        ProfilingPipelineStage root = rootPipelineStage(profiledQuery);
+        assertEquals(1, root.invocations());
+        assertTrue(profiledQuery.explainAnalyze().startsWith("QUERY_PIPELINE [invocations=1"));
+    }
+
+    @Test
+    public void test_profile_custom_pipeline_stage() {
+        PipelineStage customPipelineStage = new PipelineStage() {
+            @Override
+            public VisitResult visit(PipelineStage previousPipelineStage, QueryContext queryContext) {
+                queryContext.consume(queryContext.offset());
+                return VisitResult.Continue;
+            }
+
+            @Override
+            public QueryStage stage() {
+                return null;
+            }
+
+            @Override
+            public PipelineStage left() {
+                return PipelineStage.NIL;
+            }
+
+            @Override
+            public PipelineStage right() {
+                return PipelineStage.NIL;
+            }
+
+            @Override
+            public String toString() {
+                return "CUSTOM";
+            }
+        };
+        PipelineStage rootPipelineStage = new BTreePipelineStage(customPipelineStage, PipelineStage.NIL,
+                BaseQueryStage.INSTANCE);
+
+        ProfiledQuery profiledQuery = new QueryImpl(new QueryPipelineImpl(rootPipelineStage)).profile();
+        Value value = Parser.newParser().read(Input.fromByteArray(DATA), profiledQuery);
+        assertEqualsNumber(1, value.number());
+
+        ProfilingPipelineStage root = rootPipelineStage(profiledQuery);
+        ProfilingPipelineStage custom = (ProfilingPipelineStage) root.left();
+        assertEquals(1, root.invocations());
+        assertEquals(1, custom.invocations());
+        assertTrue(profiledQuery.explainAnalyze().contains("CUSTOM [invocations=1"));
+    }
+
+    private ProfilingPipelineStage rootPipelineStage(ProfiledQuery profiledQuery) {
+        return (ProfilingPipelineStage) profiledQuery.newQueryPipeline().rootPipelineStage();
+    }
+
+}
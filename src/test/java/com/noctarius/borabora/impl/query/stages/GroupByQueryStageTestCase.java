@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2016, Christoph Engelbert (aka noctarius) and
+ * contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.noctarius.borabora.impl.query.stages;
+
+import com.noctarius.borabora.Parser;
+import com.noctarius.borabora.Query;
+import com.noctarius.borabora.builder.query.Aggregation;
+import com.noctarius.borabora.spi.query.pipeline.QueryStage;
+import org.junit.Test;
+
+import static junit.framework.TestCase.assertTrue;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class GroupByQueryStageTestCase
+        extends AbstractQueryStageTestCase {
+
+    private final Query keyQuery = Parser.newParser().prepareQuery("#{'a'}");
+    private final Query valueQuery = Parser.newParser().prepareQuery("#{'b'}");
+
+    @Test(expected = NullPointerException.class)
+    public void fail_create_groupbyquerystage_null_query() {
+        new GroupByQueryStage(null, Aggregation.count("c"));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void fail_create_groupbyquerystage_null_aggregations() {
+        new GroupByQueryStage(keyQuery, (Aggregation[]) null);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void fail_create_groupbyquerystage_null_aggregation() {
+        new GroupByQueryStage(keyQuery, Aggregation.count("c"), null);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void fail_create_aggregation_null_value_query() {
+        Aggregation.sum("s", null);
+    }
+
+    @Test
+    public void test_tostring() {
+        QueryStage queryStage = new GroupByQueryStage(keyQuery, Aggregation.count("c"), Aggregation.sum("s", valueQuery));
+        assertEquals("GROUP_BY[ aggregations=[Count[ name=c ], Sum[ name=s ]] ]", queryStage.toString());
+    }
+
+    @Test
+    public void test_equals() {
+        QueryStage qs1 = new GroupByQueryStage(keyQuery, Aggregation.count("c"), Aggregation.sum("s", valueQuery));
+        QueryStage qs2 = new GroupByQueryStage(keyQuery, Aggregation.count("c"), Aggregation.sum("s", valueQuery));
+        Query otherKeyQuery = Parser.newParser().prepareQuery("#");
+        QueryStage qs3 = new GroupByQueryStage(otherKeyQuery, Aggregation.count("c"), Aggregation.sum("s", valueQuery));
+        QueryStage qs4 = new GroupByQueryStage(keyQuery, Aggregation.count("c"), Aggregation.min("s", valueQuery));
+        QueryStage qs5 = new GroupByQueryStage(keyQuery, Aggregation.count("c"));
+
+        assertTrue(qs1.equals(qs1));
+        assertFalse(qs1.equals(new Object()));
+        assertTrue(qs1.equals(qs2));
+        assertFalse(qs1.equals(qs3));
+        assertFalse(qs1.equals(qs4));
+        assertFalse(qs1.equals(qs5));
+        assertEquals(qs1.hashCode(), qs2.hashCode());
+    }
+
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2016, Christoph Engelbert (aka noctarius) and
+ * contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.noctarius.borabora.impl.query.stages;
+
+import com.noctarius.borabora.Input;
+import com.noctarius.borabora.spi.query.pipeline.QueryStage;
+import com.noctarius.borabora.spi.query.pipeline.VisitResult;
+import org.junit.Test;
+
+import static junit.framework.TestCase.assertTrue;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class LimitQueryStageTestCase
+        extends AbstractQueryStageTestCase {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void fail_create_limitquerystage_negative_skip() {
+        new LimitQueryStage(-1, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void fail_create_limitquerystage_negative_limit() {
+        new LimitQueryStage(0, -1);
+    }
+
+    @Test
+    public void test_tostring() {
+        assertEquals("LIMIT[ skip=1, limit=2 ]", new LimitQueryStage(1, 2).toString());
+        assertEquals("LIMIT[ skip=1, limit=none ]", new LimitQueryStage(1, Long.MAX_VALUE).toString());
+    }
+
+    @Test
+    public void test_equals() {
+        QueryStage qs1 = new LimitQueryStage(1, 2);
+        QueryStage qs2 = new LimitQueryStage(1, 3);
+        QueryStage qs3 = new LimitQueryStage(1, 2);
+        QueryStage qs4 = new LimitQueryStage(2, 2);
+
+        assertTrue(qs1.equals(qs1));
+        assertFalse(qs1.equals(new Object()));
+        assertFalse(qs1.equals(qs2));
+        assertTrue(qs1.equals(qs3));
+        assertFalse(qs1.equals(qs4));
+        assertEquals(qs1.hashCode(), qs3.hashCode());
+    }
+
+    @Test
+    public void test_evaluate_limit_zero_exits() {
+        Input input = Input.fromByteArray(hexToBytes("0x0102"));
+        QueryStage queryStage = new LimitQueryStage(0, 0);
+        EvaluationResult evaluationResult = evaluate(input, queryStage, ConsumerQueryStage.INSTANCE, null);
+        assertEquals(VisitResult.Exit, evaluationResult.visitResult);
+        assertEquals(0, evaluationResult.values.size());
+    }
+
+    @Test
+    public void test_evaluate_skip() {
+        Input input = Input.fromByteArray(hexToBytes("0x0102"));
+        QueryStage queryStage = new LimitQueryStage(1, Long.MAX_VALUE);
+        EvaluationResult evaluationResult = evaluate(input, queryStage, ConsumerQueryStage.INSTANCE, null);
+        assertEquals(VisitResult.Continue, evaluationResult.visitResult);
+        assertEquals(0, evaluationResult.values.size());
+    }
+
+    @Test
+    public void test_evaluate_limit_reached() {
+        Input input = Input.fromByteArray(hexToBytes("0x0102"));
+        QueryStage queryStage = new LimitQueryStage(0, 1);
+        EvaluationResult evaluationResult = evaluate(input, queryStage, ConsumerQueryStage.INSTANCE, null);
+        assertEquals(VisitResult.Exit, evaluationResult.visitResult);
+        assertEquals(1, evaluationResult.values.size());
+        assertEqualsNumber(1, evaluationResult.values.get(0).number());
+    }
+
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2016, Christoph Engelbert (aka noctarius) and
+ * contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.noctarius.borabora.impl.query.stages;
+
+import com.noctarius.borabora.Input;
+import com.noctarius.borabora.Parser;
+import com.noctarius.borabora.Query;
+import com.noctarius.borabora.builder.query.SortOrder;
+import com.noctarius.borabora.spi.query.pipeline.QueryStage;
+import com.noctarius.borabora.spi.query.pipeline.VisitResult;
+import org.junit.Test;
+
+import static junit.framework.TestCase.assertTrue;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class OrderByQueryStageTestCase
+        extends AbstractQueryStageTestCase {
+
+    private final Query sortKeyQuery = Parser.newParser().prepareQuery("#");
+
+    @Test(expected = NullPointerException.class)
+    public void fail_create_orderbyquerystage_null_query() {
+        new OrderByQueryStage(null, SortOrder.Ascending, 0, 1);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void fail_create_orderbyquerystage_null_sortorder() {
+        new OrderByQueryStage(sortKeyQuery, null, 0, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void fail_create_orderbyquerystage_negative_skip() {
+        new OrderByQueryStage(sortKeyQuery, SortOrder.Ascending, -1, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void fail_create_orderbyquerystage_negative_limit() {
+        new OrderByQueryStage(sortKeyQuery, SortOrder.Ascending, 0, -1);
+    }
+
+    @Test
+    public void test_tostring() {
+        QueryStage qs1 = new OrderByQueryStage(sortKeyQuery, SortOrder.Descending, 1, 2);
+        QueryStage qs2 = new OrderByQueryStage(sortKeyQuery, SortOrder.Ascending, 0, Long.MAX_VALUE);
+        assertEquals("ORDER_BY[ order=Descending, skip=1, limit=2 ]", qs1.toString());
+        assertEquals("ORDER_BY[ order=Ascending, skip=0, limit=none ]", qs2.toString());
+    }
+
+    @Test
+    public void test_equals() {
+        Query otherSortKeyQuery = Parser.newParser().prepareQuery("#{'a'}");
+        QueryStage qs1 = new OrderByQueryStage(sortKeyQuery, SortOrder.Descending, 1, 2);
+        QueryStage qs2 = new OrderByQueryStage(sortKeyQuery, SortOrder.Ascending, 1, 2);
+        QueryStage qs3 = new OrderByQueryStage(sortKeyQuery, SortOrder.Descending, 1, 2);
+        QueryStage qs4 = new OrderByQueryStage(otherSortKeyQuery, SortOrder.Descending, 1, 2);
+        QueryStage qs5 = new OrderByQueryStage(sortKeyQuery, SortOrder.Descending, 0, 2);
+        QueryStage qs6 = new OrderByQueryStage(sortKeyQuery, SortOrder.Descending, 1, 3);
+
+        assertTrue(qs1.equals(qs1));
+        assertFalse(qs1.equals(new Object()));
+        assertFalse(qs1.equals(qs2));
+        assertTrue(qs1.equals(qs3));
+        assertFalse(qs1.equals(qs4));
+        assertFalse(qs1.equals(qs5));
+        assertFalse(qs1.equals(qs6));
+        assertEquals(qs1.hashCode(), qs3.hashCode());
+    }
+
+    @Test
+    public void test_evaluate_limit_zero_exits() {
+        Input input = Input.fromByteArray(hexToBytes("0x0102"));
+        QueryStage queryStage = new OrderByQueryStage(sortKeyQuery, SortOrder.Ascending, 0, 0);
+        EvaluationResult evaluationResult = evaluate(input, queryStage, ConsumerQueryStage.INSTANCE, null);
+        assertEquals(VisitResult.Exit, evaluationResult.visitResult);
+        assertEquals(0, evaluationResult.values.size());
+    }
+
+    @Test
+    public void test_evaluate_single_result() {
+        Input input = Input.fromByteArray(hexToBytes("0x0102"));
+        QueryStage queryStage = new OrderByQueryStage(sortKeyQuery, SortOrder.Ascending, 0, 10);
+        EvaluationResult evaluationResult = evaluate(input, queryStage, ConsumerQueryStage.INSTANCE, null);
+        assertEquals(VisitResult.Continue, evaluationResult.visitResult);
+        assertEquals(1, evaluationResult.values.size());
+        assertEqualsNumber(1, evaluationResult.values.get(0).number());
+    }
+
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2016, Christoph Engelbert (aka noctarius) and
+ * contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.noctarius.borabora.mapper;
+
+@CborObject
+public class AllTypes {
+
+    boolean primitiveBoolean;
+    byte primitiveByte;
+    short primitiveShort;
+    int primitiveInt;
+    long primitiveLong;
+    float primitiveFloat;
+    double primitiveDouble;
+
+    Boolean boxedBoolean;
+    Byte boxedByte;
+    Short boxedShort;
+    Integer boxedInt;
+    Long boxedLong;
+    Float boxedFloat;
+    Double boxedDouble;
+
+    String string;
+    byte[] bytes;
+    Person.Role role;
+    Person person;
+
+}
@@ -0,0 +1,310 @@
+/*
+ * Copyright (c) 2016, Christoph Engelbert (aka noctarius) and
+ * contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.noctarius.borabora.mapper;
+
+import com.noctarius.borabora.AbstractTestCase;
+import com.noctarius.borabora.Input;
+import com.noctarius.borabora.Output;
+import com.noctarius.borabora.Parser;
+import com.noctarius.borabora.Value;
+import com.noctarius.borabora.Writer;
+import com.noctarius.borabora.WrongTypeException;
+import com.noctarius.borabora.builder.encoder.GraphBuilder;
+import com.noctarius.borabora.mapper.processor.CodecProcessor;
+import org.junit.Test;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.net.URI;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class MapperTestCase
+        extends AbstractTestCase {
+
+    @Test
+    public void test_encode_sorted_keys() {
+        Address address = new Address();
+        address.city = "Berlin";
+        address.zip = 10115;
+
+        byte[] data = encode(MapperTestCase_AddressCodec.INSTANCE, address);
+        assertArrayEquals(hexToBytes("0xa2637a69701927836463697479664265726c696e"), data);
+    }
+
+    @Test
+    public void test_roundtrip() {
+        Person person = newPerson();
+        Person result = PersonCodec.INSTANCE.decode(Input.fromByteArray(encode(PersonCodec.INSTANCE, person)), 0);
+        assertPerson(person, result);
+    }
+
+    @Test
+    public void test_roundtrip_all_types() {
+        AllTypes allTypes = new AllTypes();
+        allTypes.primitiveBoolean = true;
+        allTypes.primitiveByte = Byte.MIN_VALUE;
+        allTypes.primitiveShort = Short.MAX_VALUE;
+        allTypes.primitiveInt = Integer.MIN_VALUE;
+        allTypes.primitiveLong = Long.MAX_VALUE;
+        allTypes.primitiveFloat = 1.5f;
+        allTypes.primitiveDouble = 1.1d;
+        allTypes.boxedBoolean = Boolean.FALSE;
+        allTypes.boxedByte = 12;
+        allTypes.boxedShort = -1234;
+        allTypes.boxedInt = 123456;
+        allTypes.boxedLong = -1234567890123L;
+        allTypes.boxedFloat = 0.1f;
+        allTypes.boxedDouble = -Double.MAX_VALUE;
+        allTypes.string = "äöü";
+        allTypes.bytes = new byte[]{1, 2, 3};
+        allTypes.role = Person.Role.Admin;
+        allTypes.person = newPerson();
+
+        AllTypes result = AllTypesCodec.INSTANCE.decode(Input.fromByteArray(encode(AllTypesCodec.INSTANCE, allTypes)), 0);
+        assertEquals(allTypes.primitiveBoolean, result.primitiveBoolean);
+        assertEquals(allTypes.primitiveByte, result.primitiveByte);
+        assertEquals(allTypes.primitiveShort, result.primitiveShort);
+        assertEquals(allTypes.primitiveInt, result.primitiveInt);
+        assertEquals(allTypes.primitiveLong, result.primitiveLong);
+        assertEquals(allTypes.primitiveFloat, result.primitiveFloat, 0.0f);
+        assertEquals(allTypes.primitiveDouble, result.primitiveDouble, 0.0d);
+        assertEquals(allTypes.boxedBoolean, result.boxedBoolean);
+        assertEquals(allTypes.boxedByte, result.boxedByte);
+        assertEquals(allTypes.boxedShort, result.boxedShort);
+        assertEquals(allTypes.boxedInt, result.boxedInt);
+        assertEquals(allTypes.boxedLong, result.boxedLong);
+        assertEquals(allTypes.boxedFloat, result.boxedFloat);
+        assertEquals(allTypes.boxedDouble, result.boxedDouble);
+        assertEquals(allTypes.string, result.string);
+        assertArrayEquals(allTypes.bytes, result.bytes);
+        assertEquals(allTypes.role, result.role);
+        assertPerson(allTypes.person, result.person);
+    }
+
+    @Test
+    public void test_roundtrip_null_properties() {
+        AllTypes result = AllTypesCodec.INSTANCE.decode(Input.fromByteArray(encode(AllTypesCodec.INSTANCE, new AllTypes())), 0);
+        assertNull(result.boxedBoolean);
+        assertNull(result.boxedByte);
+        assertNull(result.boxedShort);
+        assertNull(result.boxedInt);
+        assertNull(result.boxedLong);
+        assertNull(result.boxedFloat);
+        assertNull(result.boxedDouble);
+        assertNull(result.string);
+        assertNull(result.bytes);
+        assertNull(result.role);
+        assertNull(result.person);
+    }
+
+    @Test
+    public void test_null_object() {
+        byte[] data = encode(PersonCodec.INSTANCE, null);
+        assertArrayEquals(hexToBytes("0xf6"), data);
+        assertNull(PersonCodec.INSTANCE.decode(Input.fromByteArray(data), 0));
+    }
+
+    @Test
+    public void test_decode_graph_builder_output() {
+        // Indefinite dictionary, ASCII tagged keys, unknown keys and a different order
+        byte[] data = write(sgb -> sgb.putDictionary() //
+                                      .putEntry().putString("unknown").putSequence().putNumber(1).endSequence().endEntry() //
+                                      .putEntry().putString("years").putNumber(42).endEntry() //
+                                      .putEntry().putTextString("name").putString("Jane").endEntry() //
+                                      .putEntry().putString("role").putString("User").endEntry() //
+                                      .putEntry().putString("active").putBoolean(true).endEntry() //
+                                      .putEntry().putString("address").putDictionary() //
+                                      .putEntry().putString("city").putString("Paris").endEntry() //
+                                      .putEntry().putString("zip").putNumber(75001).endEntry() //
+                                      .endDictionary().endEntry() //
+                                      .endDictionary());
+
+        Person person = PersonCodec.INSTANCE.decode(Input.fromByteArray(data), 0);
+        assertEquals("Jane", person.name);
+        assertEquals(42, person.age);
+        assertEquals(Person.Role.User, person.role);
+        assertTrue(person.isActive());
+        assertEquals("Paris", person.address.city);
+        assertEquals(75001, person.address.zip);
+    }
+
+    @Test
+    public void test_parser_reads_codec_output() {
+        Input input = Input.fromByteArray(encode(PersonCodec.INSTANCE, newPerson()));
+        Parser parser = Parser.newParser();
+
+        Value years = parser.read(input, "#{'years'}");
+        assertEquals(30, years.number().intValue());
+
+        Value city = parser.read(input, "#{'address'}{'city'}");
+        assertEquals("Berlin", city.string());
+
+        assertTrue(parser.read(input, "#{'ignored'}") == Value.NULL_VALUE);
+    }
+
+    @Test
+    public void test_codec_lookup() {
+        assertSame(PersonCodec.INSTANCE, Codecs.codecFor(Person.class));
+        assertSame(MapperTestCase_AddressCodec.INSTANCE, Codecs.codecFor(Address.class));
+        assertEquals(Person.class, Codecs.codecFor(Person.class).type());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void fail_codec_lookup_not_annotated() {
+        Codecs.codecFor(String.class);
+    }
+
+    @Test(expected = WrongTypeException.class)
+    public void fail_decode_not_a_dictionary() {
+        PersonCodec.INSTANCE.decode(Input.fromByteArray(hexToBytes("0x8101")), 0);
+    }
+
+    @Test(expected = WrongTypeException.class)
+    public void fail_decode_wrong_property_type() {
+        byte[] data = write(sgb -> sgb.putDictionary().putEntry().putString("years").putString("old").endEntry().endDictionary());
+        PersonCodec.INSTANCE.decode(Input.fromByteArray(data), 0);
+    }
+
+    @Test
+    public void test_processor_errors()
+            throws Exception {
+
+        String source = "package test;\n" //
+                + "@com.noctarius.borabora.mapper.CborObject\n" //
+                + "public class Invalid {\n" //
+                + "    public char character;\n" //
+                + "    private String hidden;\n" //
+                + "    public final int constant = 1;\n" //
+                + "    public Invalid(int value) {}\n" //
+                + "}\n";
+
+        List<String> messages = compile("test.Invalid", source);
+        assertTrue(messages.toString(), messages.contains("Unsupported property type char"));
+        assertTrue(messages.toString(), messages.contains("Private property 'hidden' requires a non-private getter and setter"));
+        assertTrue(messages.toString(), messages.contains("Final property 'constant' cannot be decoded"));
+        assertTrue(messages.toString(),
+                messages.contains("@CborObject classes require a non-private no-argument constructor"));
+    }
+
+    @Test
+    public void test_processor_valid_source()
+            throws Exception {
+
+        String source = "package test;\n" //
+                + "@com.noctarius.borabora.mapper.CborObject\n" //
+                + "public class Valid {\n" //
+                + "    public String value;\n" //
+                + "}\n";
+
+        assertFalse(compile("test.Valid", source).iterator().hasNext());
+    }
+
+    private List<String> compile(String className, String source)
+            throws Exception {
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        File outputDirectory = Files.createTempDirectory("codec-processor").toFile();
+
+        JavaFileObject sourceFile = new SimpleJavaFileObject(
+                URI.create("string:///" + className.replace('.', '/') + ".java"), JavaFileObject.Kind.SOURCE) {
+
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return source;
+            }
+        };
+
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        List<String> options = Arrays.asList("-classpath", System.getProperty("java.class.path"), "-d",
+                outputDirectory.getAbsolutePath(), "-s", outputDirectory.getAbsolutePath());
+
+        JavaCompiler.CompilationTask task = compiler
+                .getTask(null, null, diagnostics, options, null, Collections.singletonList(sourceFile));
+
+        task.setProcessors(Collections.singletonList(new CodecProcessor()));
+        task.call();
+
+        return diagnostics.getDiagnostics().stream() //
+                          .filter(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.ERROR) //
+                          .map(diagnostic -> diagnostic.getMessage(null)).collect(Collectors.toList());
+    }
+
+    private static Person newPerson() {
+        Address address = new Address();
+        address.city = "Berlin";
+        address.zip = 10115;
+
+        Person person = new Person();
+        person.name = "John";
+        person.age = 30;
+        person.role = Person.Role.Admin;
+        person.address = address;
+        person.setActive(true);
+        person.ignored = "ignored";
+        return person;
+    }
+
+    private static void assertPerson(Person expected, Person actual) {
+        assertEquals(expected.name, actual.name);
+        assertEquals(expected.age, actual.age);
+        assertEquals(expected.role, actual.role);
+        assertEquals(expected.isActive(), actual.isActive());
+        assertEquals(expected.address.city, actual.address.city);
+        assertEquals(expected.address.zip, actual.address.zip);
+        assertNull(actual.ignored);
+    }
+
+    private static <T> byte[] encode(Codec<T> codec, T value) {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        codec.encode(value, 0, Output.toOutputStream(baos));
+        return baos.toByteArray();
+    }
+
+    private static byte[] write(Consumer<GraphBuilder> consumer) {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        consumer.accept(Writer.newBuilder().build().newGraphBuilder(Output.toOutputStream(baos)));
+        return baos.toByteArray();
+    }
+
+    @CborObject
+    public static class Address {
+
+        public String city;
+
+        public int zip;
+
+    }
+
+}
@@ -183,6 +183,45 @@ public class CompositeBufferTestCase {
         }
     }
 
+    @Test
+    public void test_write_bytearray_overwrite_multiple_chunks() {
+        CompositeBuffer compositeBuffer = CompositeBuffer.newCompositeBuffer(16);
+        compositeBuffer.write(new byte[48], 0, 48);
+        byte[] expected = randomByteArray(32);
+        compositeBuffer.write(expected, 8, 32);
+
+        byte[] actual = new byte[32];
+        compositeBuffer.read(actual, 8, 32);
+        assertArrayEquals(expected, actual);
+        assertEquals(48, compositeBuffer.size());
+    }
+
+    @Test
+    public void test_move_down_truncates_tail() {
+        CompositeBuffer compositeBuffer = CompositeBuffer.newCompositeBuffer(16);
+        byte[] data = randomByteArray(50);
+        compositeBuffer.write(data, 0, 50);
+        compositeBuffer.move(10, 2, 40);
+
+        byte[] expected = new byte[42];
+        System.arraycopy(data, 0, expected, 0, 2);
+        System.arraycopy(data, 10, expected, 2, 40);
+        assertArrayEquals(expected, compositeBuffer.toByteArray());
+    }
+
+    @Test
+    public void test_move_up() {
+        CompositeBuffer compositeBuffer = CompositeBuffer.newCompositeBuffer(16);
+        byte[] data = randomByteArray(40);
+        compositeBuffer.write(data, 0, 40);
+        compositeBuffer.move(0, 8, 40);
+
+        byte[] expected = new byte[48];
+        System.arraycopy(data, 0, expected, 0, 8);
+        System.arraycopy(data, 0, expected, 8, 40);
+        assertArrayEquals(expected, compositeBuffer.toByteArray());
+    }
+
     private byte[] randomByteArray(int size) {
         byte[] bytes = new byte[size];
         Random random = new Random();
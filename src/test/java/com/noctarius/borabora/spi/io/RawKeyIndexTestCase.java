@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2016, Christoph Engelbert (aka noctarius) and
+ * contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.noctarius.borabora.spi.io;
+
+import com.noctarius.borabora.AbstractTestCase;
+import com.noctarius.borabora.Input;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class RawKeyIndexTestCase
+        extends AbstractTestCase {
+
+    @Test
+    public void test_find_or_insert() {
+        // "a", "b", "a" as text strings
+        Input input = Input.fromByteArray(hexToBytes("0x616161626161"));
+        RawKeyIndex rawKeyIndex = new RawKeyIndex();
+
+        assertEquals(0, rawKeyIndex.findOrInsert(input, 0, 2));
+        assertEquals(1, rawKeyIndex.findOrInsert(input, 2, 2));
+        assertEquals(0, rawKeyIndex.findOrInsert(input, 4, 2));
+        assertEquals(2, rawKeyIndex.size());
+        assertArrayEquals(hexToBytes("0x6161"), rawKeyIndex.key(0));
+        assertArrayEquals(hexToBytes("0x6162"), rawKeyIndex.key(1));
+    }
+
+    @Test
+    public void test_find_or_insert_different_lengths() {
+        Input input = Input.fromByteArray(hexToBytes("0x0a0a0a"));
+        RawKeyIndex rawKeyIndex = new RawKeyIndex();
+
+        assertEquals(0, rawKeyIndex.findOrInsert(input, 0, 1));
+        assertEquals(1, rawKeyIndex.findOrInsert(input, 0, 2));
+        assertEquals(0, rawKeyIndex.findOrInsert(input, 2, 1));
+    }
+
+    @Test
+    public void test_find_or_insert_grow() {
+        byte[] data = new byte[2000];
+        for (int i = 0; i < 1000; i++) {
+            data[i * 2] = (byte) (i >>> 8);
+            data[i * 2 + 1] = (byte) i;
+        }
+        Input input = Input.fromByteArray(data);
+        RawKeyIndex rawKeyIndex = new RawKeyIndex();
+
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, rawKeyIndex.findOrInsert(input, i * 2, 2));
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, rawKeyIndex.findOrInsert(input, i * 2, 2));
+        }
+        assertEquals(1000, rawKeyIndex.size());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void fail_key_out_of_bounds() {
+        new RawKeyIndex().key(0);
+    }
+
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2016, Christoph Engelbert (aka noctarius) and
+ * contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.noctarius.borabora.spi.io;
+
+import com.noctarius.borabora.AbstractTestCase;
+import com.noctarius.borabora.Input;
+import com.noctarius.borabora.Output;
+import com.noctarius.borabora.Parser;
+import com.noctarius.borabora.Query;
+import com.noctarius.borabora.Value;
+import com.noctarius.borabora.Writer;
+import com.noctarius.borabora.builder.encoder.DictionaryBuilder;
+import com.noctarius.borabora.builder.encoder.DictionaryEntryBuilder;
+import com.noctarius.borabora.builder.encoder.GraphBuilder;
+import com.noctarius.borabora.builder.encoder.SequenceBuilder;
+import com.noctarius.borabora.impl.DefaultQueryContextFactory;
+import com.noctarius.borabora.spi.metrics.ParserMetrics;
+import com.noctarius.borabora.spi.query.BinaryProjectionStrategy;
+import com.noctarius.borabora.spi.query.QueryContext;
+import com.noctarius.borabora.spi.query.QueryContextFactory;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class SkipSizeCacheTestCase
+        extends AbstractTestCase {
+
+    @Test
+    public void test_put_end() {
+        SkipSizeCache skipSizeCache = new SkipSizeCache(16);
+        assertEquals(-1, skipSizeCache.end(0));
+        skipSizeCache.put(0, 10);
+        skipSizeCache.put(10, 25);
+        assertEquals(10, skipSizeCache.end(0));
+        assertEquals(25, skipSizeCache.end(10));
+        assertEquals(-1, skipSizeCache.end(5));
+
+        skipSizeCache.put(10, 30);
+        assertEquals(30, skipSizeCache.end(10));
+    }
+
+    @Test
+    public void test_capacity() {
+        assertEquals(16, new SkipSizeCache(1).capacity());
+        assertEquals(64, new SkipSizeCache(64).capacity());
+        assertEquals(128, new SkipSizeCache(65).capacity());
+    }
+
+    @Test
+    public void test_bounded() {
+        SkipSizeCache skipSizeCache = new SkipSizeCache(16);
+        for (long offset = 0; offset < 1000; offset++) {
+            skipSizeCache.put(offset, offset + 1);
+        }
+        int cached = 0;
+        for (long offset = 0; offset < 1000; offset++) {
+            long end = skipSizeCache.end(offset);
+            if (end != -1) {
+                assertEquals(offset + 1, end);
+                cached++;
+            }
+        }
+        assertTrue(cached <= 16);
+        assertTrue(cached > 0);
+    }
+
+    @Test
+    public void test_clear() {
+        SkipSizeCache skipSizeCache = new SkipSizeCache(16);
+        skipSizeCache.clear();
+        skipSizeCache.put(0, 10);
+        skipSizeCache.clear();
+        assertEquals(-1, skipSizeCache.end(0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void fail_capacity_not_positive() {
+        new SkipSizeCache(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void fail_factory_capacity_not_positive() {
+        DefaultQueryContextFactory.withSkipSizeCache(-1);
+    }
+
+    @Test
+    public void test_query_skip_size_cache() {
+        Input input = Input.fromByteArray(writeDictionary());
+        Query query;
+
+        ParserMetrics parserMetrics = new ParserMetrics();
+        Parser parser = Parser.newBuilder().withMetricsCollector(parserMetrics).build();
+        query = parser.prepareQuery("(a: #{'k1'}, b: #{'k2'}, c: #{'k3'})");
+        Value expected = parser.read(input, query);
+        long bytesRead = parserMetrics.bytesRead();
+
+        ParserMetrics cachedParserMetrics = new ParserMetrics();
+        Parser cachedParser = Parser.newBuilder().withMetricsCollector(cachedParserMetrics)
+                                    .withQueryContextFactory(DefaultQueryContextFactory.withSkipSizeCache(64)).build();
+        query = cachedParser.prepareQuery("(a: #{'k1'}, b: #{'k2'}, c: #{'k3'})");
+        Value actual = cachedParser.read(input, query);
+
+        assertEquals(expected.dictionary().size(), actual.dictionary().size());
+        for (String key : new String[]{"a", "b", "c"}) {
+            assertEquals(expected.dictionary().get((v) -> key.equals(v.string())).number(),
+                    actual.dictionary().get((v) -> key.equals(v.string())).number());
+        }
+        assertEquals(parserMetrics.skips(), cachedParserMetrics.skips());
+        assertTrue(cachedParserMetrics.bytesRead() * 2 < bytesRead);
+    }
+
+    @Test
+    public void test_sorted_dictionary_keys_skip_size_cache() {
+        Input input = Input.fromByteArray(writeDictionary());
+        Parser parser = Parser.newBuilder().withSortedDictionaryKeys()
+                              .withQueryContextFactory(DefaultQueryContextFactory.withSkipSizeCache(64)).build();
+        assertEquals(3, parser.read(input, "#{'k3'}").number().intValue());
+    }
+
+    @Test
+    public void test_sub_query_context_shares_skip_size_cache() {
+        Input input = Input.fromByteArray(writeDictionary());
+        QueryContextFactory queryContextFactory = DefaultQueryContextFactory.withSkipSizeCache(64);
+        QueryContext queryContext = queryContextFactory.newQueryContext(input, (v) -> true, Collections.emptyList(), //
+                BinaryProjectionStrategy.INSTANCE);
+
+        QueryContext subQueryContext = queryContextFactory.newSubQueryContext(queryContext, (v) -> true);
+        assertNotNull(queryContext.skipSizeCache());
+        assertSame(queryContext.skipSizeCache(), subQueryContext.skipSizeCache());
+    }
+
+    private byte[] writeDictionary() {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        GraphBuilder graphBuilder = Writer.newWriter().newGraphBuilder(Output.toOutputStream(baos));
+        DictionaryBuilder<GraphBuilder> dictionaryBuilder = graphBuilder.putDictionary();
+        SequenceBuilder<DictionaryEntryBuilder<GraphBuilder>> sequenceBuilder = //
+                dictionaryBuilder.putEntry().putString("k0").putSequence();
+        for (int i = 0; i < 500; i++) {
+            sequenceBuilder.putSequence().putNumber(i).putString("value" + i).endSequence();
+        }
+        sequenceBuilder.endSequence().endEntry();
+        for (int i = 1; i <= 3; i++) {
+            dictionaryBuilder.putEntry().putString("k" + i).putNumber(i).endEntry();
+        }
+        dictionaryBuilder.endDictionary().finishStream();
+        return baos.toByteArray();
+    }
+
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2016, Christoph Engelbert (aka noctarius) and
+ * contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.noctarius.borabora.spi.io;
+
+import com.noctarius.borabora.AbstractTestCase;
+import com.noctarius.borabora.Input;
+import com.noctarius.borabora.MajorType;
+import com.noctarius.borabora.Output;
+import com.noctarius.borabora.Parser;
+import com.noctarius.borabora.Query;
+import com.noctarius.borabora.Writer;
+import com.noctarius.borabora.builder.encoder.GraphBuilder;
+import com.noctarius.borabora.builder.encoder.SequenceBuilder;
+import com.noctarius.borabora.spi.metrics.ParserMetrics;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class StructuralIndexTestCase
+        extends AbstractTestCase {
+
+    // [1, [2, 3], {"a": [4]}], [_ 1, [_ 2]], 1(1363896240), {_ "a": 1}
+    private static final byte[] DATA = hexToBytes("83018202 03a16161 81049f01 9f02ffff c11a514b 67b0bf61 6101ff"
+            .replace(" ", ""));
+
+    @Test
+    public void test_build_index() {
+        StructuralIndex structuralIndex = StructuralIndex.build(Input.fromByteArray(DATA));
+        assertEquals(8, structuralIndex.size());
+
+        assertEntry(structuralIndex, 0, 10, 3);
+        assertEntry(structuralIndex, 2, 5, 2);
+        assertEntry(structuralIndex, 5, 10, 1);
+        assertEntry(structuralIndex, 8, 10, 1);
+        assertEntry(structuralIndex, 10, 16, 2);
+        assertEntry(structuralIndex, 12, 15, 1);
+        assertEntry(structuralIndex, 16, 22, -1);
+        assertEntry(structuralIndex, 22, 27, 1);
+    }
+
+    @Test
+    public void test_not_indexed_offsets() {
+        StructuralIndex structuralIndex = StructuralIndex.build(Input.fromByteArray(DATA));
+        assertEquals(-1, structuralIndex.end(1));
+        assertEquals(-1, structuralIndex.end(3));
+        assertEquals(-1, structuralIndex.elementCount(17));
+        assertEquals(-1, structuralIndex.end(1000));
+    }
+
+    @Test
+    public void test_empty_input() {
+        StructuralIndex structuralIndex = StructuralIndex.build(Input.fromByteArray(new byte[0]));
+        assertEquals(0, structuralIndex.size());
+        assertEquals(-1, structuralIndex.end(0));
+    }
+
+    @Test
+    public void test_input_structural_index() {
+        assertNull(Input.fromByteArray(DATA).structuralIndex());
+        assertNotNull(Input.withStructuralIndex(Input.fromByteArray(DATA)).structuralIndex());
+    }
+
+    @Test
+    public void test_sizes_match_unindexed_input() {
+        Input input = Input.fromByteArray(DATA);
+        Input indexedInput = Input.withStructuralIndex(input);
+        for (long offset : new long[]{0, 2, 5, 8, 10, 12, 16, 22}) {
+            MajorType majorType = Decoder.getMajorType(offset, input);
+            assertEquals(Decoder.length(input, majorType, offset), Decoder.length(indexedInput, majorType, offset));
+            assertEquals(ElementCounts.elementCountByMajorType(majorType, input, offset),
+                    ElementCounts.elementCountByMajorType(majorType, indexedInput, offset));
+        }
+    }
+
+    @Test
+    public void test_query_indexed_input() {
+        Parser parser = Parser.newParser();
+        Input indexedInput = Input.withStructuralIndex(Input.fromByteArray(DATA));
+        assertEquals(4, parser.read(indexedInput, "#0(2){'a'}(0)").number().intValue());
+        assertEquals(2, parser.read(indexedInput, "#1(1)(0)").number().intValue());
+        assertEquals(1, parser.read(indexedInput, "#3{'a'}").number().intValue());
+        assertEquals(2, parser.read(indexedInput, 10).sequence().size());
+    }
+
+    @Test
+    public void test_indexed_input_reads_less() {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        GraphBuilder graphBuilder = Writer.newWriter().newGraphBuilder(Output.toOutputStream(baos));
+        for (int i = 0; i < 10; i++) {
+            SequenceBuilder<GraphBuilder> sequenceBuilder = graphBuilder.putSequence();
+            for (int j = 0; j < 100; j++) {
+                sequenceBuilder.putSequence(3).putNumber(i).putString("value" + j).putBoolean(true).endSequence();
+            }
+            sequenceBuilder.endSequence();
+        }
+        graphBuilder.finishStream();
+
+        ParserMetrics parserMetrics = new ParserMetrics();
+        Parser parser = Parser.newBuilder().withMetricsCollector(parserMetrics).build();
+        Query query = parser.prepareQuery("#9(99)(1)");
+
+        Input input = Input.fromByteArray(baos.toByteArray());
+        assertEquals("value99", parser.read(input, query).string());
+        long bytesRead = parserMetrics.bytesRead();
+
+        parserMetrics.reset();
+        Input indexedInput = Input.withStructuralIndex(input);
+        assertEquals("value99", parser.read(indexedInput, query).string());
+        assertTrue(parserMetrics.bytesRead() * 10 < bytesRead);
+    }
+
+    private void assertEntry(StructuralIndex structuralIndex, long offset, long end, long elementCount) {
+        assertEquals(end, structuralIndex.end(offset));
+        assertEquals(elementCount, structuralIndex.elementCount(offset));
+    }
+
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2016, Christoph Engelbert (aka noctarius) and
+ * contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.noctarius.borabora.spi.jfr;
+
+import com.noctarius.borabora.AbstractTestCase;
+import com.noctarius.borabora.Input;
+import com.noctarius.borabora.Output;
+import com.noctarius.borabora.Parser;
+import com.noctarius.borabora.Writer;
+import com.noctarius.borabora.builder.encoder.GraphBuilder;
+import com.noctarius.borabora.builder.encoder.SequenceBuilder;
+import com.noctarius.borabora.spi.io.CompositeBuffer;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assume.assumeTrue;
+
+public class JfrEventsTestCase
+        extends AbstractTestCase {
+
+    @Test
+    public void test_events_disabled_by_default() {
+        assertNull(JfrEvents.beginQueryExecution());
+        assertNull(JfrEvents.beginElementIndexBuild(JfrEvents.LARGE_CONTAINER_ELEMENTS));
+        assertNull(JfrEvents.beginWriterFlush());
+    }
+
+    @Test
+    public void test_small_container_no_event() {
+        assertNull(JfrEvents.beginElementIndexBuild(JfrEvents.LARGE_CONTAINER_ELEMENTS - 1));
+    }
+
+    @Test
+    public void test_query_execution_event()
+            throws Exception {
+
+        List<RecordedEvent> events = record("com.noctarius.borabora.QueryExecution", () -> {
+            Parser parser = Parser.newParser();
+            Input input = Input.fromByteArray(hexToBytes("010203"));
+            parser.read(input, parser.prepareQuery("$"), (value) -> {
+            });
+        });
+        assertEquals(1, events.size());
+        assertEquals(3, events.get(0).getLong("results"));
+    }
+
+    @Test
+    public void test_element_index_build_event()
+            throws Exception {
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        GraphBuilder graphBuilder = Writer.newWriter().newGraphBuilder(Output.toOutputStream(baos));
+        SequenceBuilder<GraphBuilder> sequenceBuilder = graphBuilder.putSequence(2000);
+        for (int i = 0; i < 2000; i++) {
+            sequenceBuilder.putNumber(i);
+        }
+        sequenceBuilder.endSequence().finishStream();
+
+        List<RecordedEvent> events = record("com.noctarius.borabora.ElementIndexBuild", () -> {
+            Parser parser = Parser.newParser();
+            Input input = Input.fromByteArray(baos.toByteArray());
+            assertEquals(1999, parser.read(input, 0).sequence().get(1999).number().intValue());
+        });
+        assertEquals(1, events.size());
+        assertEquals(2000, events.get(0).getLong("elements"));
+        assertEquals(3, events.get(0).getLong("offset"));
+    }
+
+    @Test
+    public void test_writer_flush_events()
+            throws Exception {
+
+        CompositeBuffer compositeBuffer = CompositeBuffer.newCompositeBuffer();
+        List<RecordedEvent> events = record("com.noctarius.borabora.WriterFlush", () -> {
+            Writer.newWriter().newGraphBuilder(compositeBuffer).putString("foo").putNumber(1).finishStream();
+            compositeBuffer.writeToOutputStream(new ByteArrayOutputStream());
+        });
+        assertEquals(2, events.size());
+        assertEquals("GraphBuilder", events.get(0).getString("writer"));
+        assertEquals(compositeBuffer.size(), events.get(0).getLong("bytes"));
+        assertEquals("CompositeBuffer", events.get(1).getString("writer"));
+        assertEquals(compositeBuffer.size(), events.get(1).getLong("bytes"));
+    }
+
+    private List<RecordedEvent> record(String eventName, Recorded recorded)
+            throws Exception {
+
+        assumeTrue(JfrEvents.available());
+        Path file = Files.createTempFile("borabora", ".jfr");
+        try {
+            try (Recording recording = new Recording()) {
+                recording.enable(eventName);
+                recording.start();
+                recorded.run();
+                recording.stop();
+                recording.dump(file);
+            }
+            return RecordingFile.readAllEvents(file).stream() //
+                                .filter(event -> event.getEventType().getName().equals(eventName)) //
+                                .collect(Collectors.toList());
+
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private interface Recorded {
+        void run()
+                throws Exception;
+    }
+
+}
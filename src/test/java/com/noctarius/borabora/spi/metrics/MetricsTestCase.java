@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2016, Christoph Engelbert (aka noctarius) and
+ * contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.noctarius.borabora.spi.metrics;
+
+import com.noctarius.borabora.AbstractTestCase;
+import com.noctarius.borabora.ColumnVector;
+import com.noctarius.borabora.Input;
+import com.noctarius.borabora.Parser;
+import com.noctarius.borabora.Query;
+import com.noctarius.borabora.Value;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class MetricsTestCase
+        extends AbstractTestCase {
+
+    // 1, 2, {"a": 1, "b": 1(1363896240)}
+    private static final byte[] DATA = hexToBytes("0102a26161016162c11a514b67b0");
+
+    @Test
+    public void test_parser_metrics_query() {
+        ParserMetrics parserMetrics = new ParserMetrics();
+        Parser parser = Parser.newBuilder().withMetricsCollector(parserMetrics).build();
+
+        Value value = parser.read(Input.fromByteArray(DATA), "#2{'b'}");
+        assertEquals(1363896240L, value.<Number>tag().longValue());
+        assertEquals(1, parserMetrics.queries());
+        assertEquals(1, parserMetrics.queryPreparations());
+        assertEquals(1, parserMetrics.streamValues());
+        // Two stream elements, the first dictionary entry and the matched key
+        assertEquals(4, parserMetrics.skips());
+        assertTrue(parserMetrics.bytesRead() >= DATA.length);
+    }
+
+    @Test
+    public void test_parser_metrics_prepared_query() {
+        ParserMetrics parserMetrics = new ParserMetrics();
+        Parser parser = Parser.newBuilder().withMetricsCollector(parserMetrics).build();
+
+        Query query = parser.prepareQuery("#2{'a'}");
+        Input input = Input.fromByteArray(DATA);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(1, parser.read(input, query).number().intValue());
+        }
+        assertEquals(10, parserMetrics.queries());
+        assertEquals(1, parserMetrics.queryPreparations());
+        assertEquals(10, parserMetrics.streamValues());
+        assertEquals(30, parserMetrics.skips());
+
+        parserMetrics.reset();
+        assertEquals(0, parserMetrics.queries());
+        assertEquals(0, parserMetrics.skips());
+        assertEquals(0, parserMetrics.bytesRead());
+    }
+
+    @Test
+    public void test_parser_metrics_extract_columns() {
+        ParserMetrics parserMetrics = new ParserMetrics();
+        Parser parser = Parser.newBuilder().withMetricsCollector(parserMetrics).build();
+
+        byte[] data = hexToBytes("a161610aa1616114");
+        Query column = parser.prepareQuery("#{'a'}");
+        ColumnVector[] columnVectors = parser.extractColumns(Input.fromByteArray(data), column);
+        assertEquals(2, columnVectors[0].size());
+        assertEquals(1, parserMetrics.queries());
+        assertEquals(1, parserMetrics.queryPreparations());
+        assertTrue(parserMetrics.bytesRead() >= data.length);
+    }
+
+    @Test
+    public void test_query_metrics_lazy_values() {
+        List<QueryMetrics> completed = new ArrayList<>();
+        Parser parser = Parser.newBuilder().withMetricsCollector(new MetricsCollector() {
+            @Override
+            public void queryPrepared() {
+            }
+
+            @Override
+            public void queryCompleted(QueryMetrics queryMetrics) {
+                completed.add(queryMetrics);
+            }
+        }).build();
+
+        Value value = parser.read(Input.fromByteArray(DATA), 2);
+        assertEquals(1, completed.size());
+        QueryMetrics queryMetrics = completed.get(0);
+        assertEquals(0, queryMetrics.elementIndexes());
+        assertEquals(0, queryMetrics.tagDecodes());
+
+        // Lazily read values keep counting into the metrics of their query
+        Value date = value.dictionary().get((v) -> "b".equals(v.string()));
+        assertEquals(1, queryMetrics.elementIndexes());
+        date.tag();
+        assertEquals(1, queryMetrics.tagDecodes());
+    }
+
+    @Test
+    public void test_no_metrics_collector() {
+        Parser parser = Parser.newBuilder().build();
+        Value value = parser.read(Input.fromByteArray(DATA), "#2{'a'}");
+        assertEquals(1, value.number().intValue());
+    }
+
+}